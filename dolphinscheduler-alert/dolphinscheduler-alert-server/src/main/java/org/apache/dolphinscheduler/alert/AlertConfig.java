@@ -24,6 +24,11 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties("alert")
 public final class AlertConfig {
     private int port;
+    private int pluginSendThreads = 4;
+    private int pluginSendQueueCapacity = 200;
+    private int sendTimeout = 30;
+    private int pendingAlertPageSize = 100;
+    private int coalesceWindow = 60;
 
     public int getPort() {
         return port;
@@ -32,4 +37,44 @@ public final class AlertConfig {
     public void setPort(final int port) {
         this.port = port;
     }
+
+    public int getPluginSendThreads() {
+        return pluginSendThreads;
+    }
+
+    public void setPluginSendThreads(final int pluginSendThreads) {
+        this.pluginSendThreads = pluginSendThreads;
+    }
+
+    public int getPluginSendQueueCapacity() {
+        return pluginSendQueueCapacity;
+    }
+
+    public void setPluginSendQueueCapacity(final int pluginSendQueueCapacity) {
+        this.pluginSendQueueCapacity = pluginSendQueueCapacity;
+    }
+
+    public int getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(final int sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public int getPendingAlertPageSize() {
+        return pendingAlertPageSize;
+    }
+
+    public void setPendingAlertPageSize(final int pendingAlertPageSize) {
+        this.pendingAlertPageSize = pendingAlertPageSize;
+    }
+
+    public int getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(final int coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
 }
@@ -31,30 +31,57 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseResult;
 
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 @Service
 public final class AlertSenderService extends Thread {
     private static final Logger logger = LoggerFactory.getLogger(AlertSenderService.class);
 
     private final AlertDao alertDao;
     private final AlertPluginManager alertPluginManager;
+    private final AlertConfig alertConfig;
+
+    /**
+     * bounded send executor by plugin define id, a slow plugin only holds up the alerts sent by itself
+     */
+    private final ConcurrentHashMap<Integer, ExecutorService> pluginSendExecutors = new ConcurrentHashMap<>();
 
-    public AlertSenderService(AlertDao alertDao, AlertPluginManager alertPluginManager) {
+    public AlertSenderService(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertConfig alertConfig) {
         this.alertDao = alertDao;
         this.alertPluginManager = alertPluginManager;
+        this.alertConfig = alertConfig;
     }
 
     @Override
@@ -67,41 +94,65 @@ public final class AlertSenderService extends Thread {
     public void run() {
         logger.info("alert sender started");
         while (Stopper.isRunning()) {
+            boolean drained = true;
             try {
-                List<Alert> alerts = alertDao.listPendingAlerts();
+                int pageSize = alertConfig.getPendingAlertPageSize();
+                List<Alert> alerts = alertDao.listPendingAlerts(pageSize);
                 this.send(alerts);
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS * 5L);
+                drained = alerts.size() < pageSize;
             } catch (Exception e) {
                 logger.error("alert sender thread error", e);
             }
+            if (drained) {
+                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS * 5L);
+            }
         }
     }
 
+    @PreDestroy
+    public void close() {
+        pluginSendExecutors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    /**
+     * send the alerts to all plugin instances of their alert groups in parallel,
+     * and then save the send statuses in batch
+     *
+     * @param alerts alerts
+     */
     public void send(List<Alert> alerts) {
-        for (Alert alert : alerts) {
+        Map<Integer, List<AlertPluginInstance>> alertInstances = new HashMap<>();
+        List<PendingAlert> pendingAlerts = new ArrayList<>();
+        for (List<Alert> coalescedAlerts : coalesce(alerts)) {
+            Alert alert = coalescedAlerts.get(0);
             //get alert group from alert
-            int alertId = Optional.ofNullable(alert.getId()).orElse(0);
             int alertGroupId = Optional.ofNullable(alert.getAlertGroupId()).orElse(0);
-            List<AlertPluginInstance> alertInstanceList = alertDao.listInstanceByAlertGroupId(alertGroupId);
+            List<AlertPluginInstance> alertInstanceList = alertInstances.computeIfAbsent(alertGroupId, alertDao::listInstanceByAlertGroupId);
             if (CollectionUtils.isEmpty(alertInstanceList)) {
                 logger.error("send alert msg fail,no bind plugin instance.");
-                alertDao.updateAlert(AlertStatus.EXECUTION_FAILURE, "no bind plugin instance", alertId);
+                alertDao.updateAlerts(AlertStatus.EXECUTION_FAILURE, "no bind plugin instance", alertIds(coalescedAlerts));
                 continue;
             }
             AlertData alertData = new AlertData();
-            alertData.setId(alertId)
+            alertData.setId(alertId(alert))
                     .setContent(alert.getContent())
                     .setLog(alert.getLog())
                     .setTitle(alert.getTitle())
-                    .setTitle(alert.getTitle())
                     .setWarnType(alert.getWarningType().getCode());
+            pendingAlerts.add(new PendingAlert(coalescedAlerts, alertInstanceList, submit(alertInstanceList, alertData)));
+        }
 
+        List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
+        Map<AlertStatus, List<Integer>> alertIdsByStatus = new EnumMap<>(AlertStatus.class);
+        for (PendingAlert pendingAlert : pendingAlerts) {
+            int alertId = alertId(pendingAlert.alerts.get(0));
+            List<AlertResult> alertResults = await(pendingAlert.alertInstanceList, pendingAlert.futures);
             int sendSuccessCount = 0;
-            for (AlertPluginInstance instance : alertInstanceList) {
-                AlertResult alertResult = this.alertResultHandler(instance, alertData);
+            for (int i = 0; i < alertResults.size(); i++) {
+                AlertResult alertResult = alertResults.get(i);
                 if (alertResult != null) {
                     AlertStatus sendStatus = Boolean.parseBoolean(String.valueOf(alertResult.getStatus())) ? AlertStatus.EXECUTION_SUCCESS : AlertStatus.EXECUTION_FAILURE;
-                    alertDao.addAlertSendStatus(sendStatus,alertResult.getMessage(),alertId,instance.getId());
+                    alertSendStatuses.add(alertSendStatus(sendStatus, alertResult.getMessage(), alertId, pendingAlert.alertInstanceList.get(i).getId()));
                     if (sendStatus.equals(AlertStatus.EXECUTION_SUCCESS)) {
                         sendSuccessCount++;
                     }
@@ -110,11 +161,44 @@ public final class AlertSenderService extends Thread {
             AlertStatus alertStatus = AlertStatus.EXECUTION_SUCCESS;
             if (sendSuccessCount == 0) {
                 alertStatus = AlertStatus.EXECUTION_FAILURE;
-            } else if (sendSuccessCount < alertInstanceList.size()) {
+            } else if (sendSuccessCount < pendingAlert.alertInstanceList.size()) {
                 alertStatus = AlertStatus.EXECUTION_PARTIAL_SUCCESS;
             }
-            alertDao.updateAlert(alertStatus, "", alertId);
+            alertIdsByStatus.computeIfAbsent(alertStatus, status -> new ArrayList<>()).addAll(alertIds(pendingAlert.alerts));
         }
+        alertDao.addAlertSendStatuses(alertSendStatuses);
+        alertIdsByStatus.forEach((alertStatus, alertIds) -> alertDao.updateAlerts(alertStatus, "", alertIds));
+    }
+
+    /**
+     * group the alerts of the same alert group with the same warning type, title and content
+     * created within the coalesce window, the alerts of a group are sent once
+     *
+     * @param alerts alerts ordered by id
+     * @return alert groups, the first alert of a group is sent
+     */
+    private List<List<Alert>> coalesce(List<Alert> alerts) {
+        long coalesceWindowMillis = TimeUnit.SECONDS.toMillis(alertConfig.getCoalesceWindow());
+        List<List<Alert>> coalescedAlerts = new ArrayList<>(alerts.size());
+        Map<String, List<Alert>> coalescingAlerts = new HashMap<>();
+        for (Alert alert : alerts) {
+            if (coalesceWindowMillis <= 0 || alert.getCreateTime() == null) {
+                coalescedAlerts.add(Collections.singletonList(alert));
+                continue;
+            }
+            String key = alert.getAlertGroupId() + "_" + alert.getWarningType() + "_" + alert.getTitle() + "_" + alert.getContent();
+            List<Alert> sameAlerts = coalescingAlerts.get(key);
+            if (sameAlerts != null
+                    && alert.getCreateTime().getTime() - sameAlerts.get(0).getCreateTime().getTime() <= coalesceWindowMillis) {
+                sameAlerts.add(alert);
+                continue;
+            }
+            sameAlerts = new ArrayList<>();
+            sameAlerts.add(alert);
+            coalescingAlerts.put(key, sameAlerts);
+            coalescedAlerts.add(sameAlerts);
+        }
+        return coalescedAlerts;
     }
 
     /**
@@ -145,8 +229,7 @@ public final class AlertSenderService extends Thread {
             return new AlertSendResponseCommand(false, sendResponseResults);
         }
 
-        for (AlertPluginInstance instance : alertInstanceList) {
-            AlertResult alertResult = this.alertResultHandler(instance, alertData);
+        for (AlertResult alertResult : await(alertInstanceList, submit(alertInstanceList, alertData))) {
             if (alertResult != null) {
                 AlertSendResponseResult alertSendResponseResult = new AlertSendResponseResult(
                         Boolean.parseBoolean(String.valueOf(alertResult.getStatus())), alertResult.getMessage());
@@ -158,6 +241,109 @@ public final class AlertSenderService extends Thread {
         return new AlertSendResponseCommand(sendResponseStatus, sendResponseResults);
     }
 
+    /**
+     * submit the alert to the send executors of the plugin instances
+     *
+     * @param alertInstanceList alert plugin instances
+     * @param alertData alertData
+     * @return send futures, in the order of the plugin instances
+     */
+    private List<SendFuture> submit(List<AlertPluginInstance> alertInstanceList, AlertData alertData) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(alertConfig.getSendTimeout());
+        List<SendFuture> futures = new ArrayList<>(alertInstanceList.size());
+        for (AlertPluginInstance instance : alertInstanceList) {
+            Future<AlertResult> future;
+            try {
+                future = pluginSendExecutor(instance.getPluginDefineId()).submit(() -> alertResultHandler(instance, alertData));
+            } catch (RejectedExecutionException e) {
+                String message = String.format("Alert Plugin %s send error : too many alerts waiting to be sent", instance.getInstanceName());
+                logger.error(message);
+                future = CompletableFuture.completedFuture(new AlertResult(String.valueOf(false), message));
+            }
+            futures.add(new SendFuture(future, deadline));
+        }
+        return futures;
+    }
+
+    /**
+     * wait for the send results until the send timeout
+     *
+     * @param alertInstanceList alert plugin instances
+     * @param futures send futures, in the order of the plugin instances
+     * @return send results, in the order of the plugin instances
+     */
+    private List<AlertResult> await(List<AlertPluginInstance> alertInstanceList, List<SendFuture> futures) {
+        List<AlertResult> alertResults = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            SendFuture sendFuture = futures.get(i);
+            String pluginInstanceName = alertInstanceList.get(i).getInstanceName();
+            AlertResult alertResult;
+            try {
+                alertResult = sendFuture.future.get(Math.max(0, sendFuture.deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                sendFuture.future.cancel(true);
+                String message = String.format("Alert Plugin %s send error : timeout after %s seconds", pluginInstanceName, alertConfig.getSendTimeout());
+                logger.error(message);
+                alertResult = new AlertResult(String.valueOf(false), message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                alertResult = new AlertResult(String.valueOf(false), String.format("Alert Plugin %s send error : interrupted", pluginInstanceName));
+            } catch (ExecutionException e) {
+                logger.error("Alert Plugin {} send error", pluginInstanceName, e.getCause());
+                alertResult = new AlertResult(String.valueOf(false), String.valueOf(e.getCause().getMessage()));
+            }
+            alertResults.add(alertResult);
+        }
+        return alertResults;
+    }
+
+    private ExecutorService pluginSendExecutor(int pluginDefineId) {
+        return pluginSendExecutors.computeIfAbsent(pluginDefineId, id -> new ThreadPoolExecutor(
+                alertConfig.getPluginSendThreads(), alertConfig.getPluginSendThreads(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(alertConfig.getPluginSendQueueCapacity()),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AlertSender-Plugin-" + id + "-%d").build()));
+    }
+
+    private static int alertId(Alert alert) {
+        return Optional.ofNullable(alert.getId()).orElse(0);
+    }
+
+    private static List<Integer> alertIds(List<Alert> alerts) {
+        return alerts.stream().map(AlertSenderService::alertId).collect(Collectors.toList());
+    }
+
+    private static AlertSendStatus alertSendStatus(AlertStatus sendStatus, String log, int alertId, int alertPluginInstanceId) {
+        AlertSendStatus alertSendStatus = new AlertSendStatus();
+        alertSendStatus.setAlertId(alertId);
+        alertSendStatus.setAlertPluginInstanceId(alertPluginInstanceId);
+        alertSendStatus.setSendStatus(sendStatus);
+        alertSendStatus.setLog(log);
+        alertSendStatus.setCreateTime(new Date());
+        return alertSendStatus;
+    }
+
+    private static final class SendFuture {
+        private final Future<AlertResult> future;
+        private final long deadline;
+
+        private SendFuture(Future<AlertResult> future, long deadline) {
+            this.future = future;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class PendingAlert {
+        private final List<Alert> alerts;
+        private final List<AlertPluginInstance> alertInstanceList;
+        private final List<SendFuture> futures;
+
+        private PendingAlert(List<Alert> alerts, List<AlertPluginInstance> alertInstanceList, List<SendFuture> futures) {
+            this.alerts = alerts;
+            this.alertInstanceList = alertInstanceList;
+            this.futures = futures;
+        }
+    }
+
     /**
      * alert result handler
      *
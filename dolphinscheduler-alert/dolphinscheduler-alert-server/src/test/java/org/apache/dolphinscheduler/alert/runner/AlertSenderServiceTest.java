@@ -18,12 +18,16 @@
 package org.apache.dolphinscheduler.alert.runner;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.apache.dolphinscheduler.alert.AlertConfig;
 import org.apache.dolphinscheduler.alert.AlertPluginManager;
 import org.apache.dolphinscheduler.alert.AlertSenderService;
 import org.apache.dolphinscheduler.alert.api.AlertChannel;
 import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.PluginDao;
@@ -33,13 +37,16 @@ import org.apache.dolphinscheduler.dao.entity.PluginDefine;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -56,12 +63,20 @@ public class AlertSenderServiceTest {
     @Mock
     private AlertPluginManager alertPluginManager;
 
-    @InjectMocks
+    private AlertConfig alertConfig;
+
     private AlertSenderService alertSenderService;
 
     @Before
     public void before() {
         MockitoAnnotations.initMocks(this);
+        alertConfig = new AlertConfig();
+        alertSenderService = new AlertSenderService(alertDao, alertPluginManager, alertConfig);
+    }
+
+    @After
+    public void after() {
+        alertSenderService.close();
     }
 
     @Test
@@ -172,4 +187,60 @@ public class AlertSenderServiceTest {
         when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(new ArrayList<>());
         alertSenderService.send(alertList);
     }
+
+    @Test
+    public void testSendCoalescedAlerts() {
+        List<Alert> alertList = new ArrayList<>();
+        Date now = new Date();
+        for (int i = 1; i <= 3; i++) {
+            Alert alert = new Alert();
+            alert.setId(i);
+            alert.setAlertGroupId(1);
+            alert.setTitle("alert mail test title");
+            alert.setContent(i < 3 ? "alert mail test content" : "another alert mail test content");
+            alert.setWarningType(WarningType.FAILURE);
+            alert.setCreateTime(now);
+            alertList.add(alert);
+        }
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(1, "alert-instance-mail-params", "alert-instance-mail");
+        alertPluginInstance.setId(1);
+        when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(Collections.singletonList(alertPluginInstance));
+        AlertChannel alertChannelMock = mock(AlertChannel.class);
+        when(alertChannelMock.process(Mockito.any())).thenReturn(new AlertResult(String.valueOf(true), "success"));
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(alertChannelMock));
+
+        alertSenderService.send(alertList);
+
+        verify(alertChannelMock, times(2)).process(Mockito.any());
+        verify(alertDao, times(1)).listInstanceByAlertGroupId(1);
+        verify(alertDao).addAlertSendStatuses(Mockito.argThat(alertSendStatuses -> alertSendStatuses.size() == 2));
+        verify(alertDao).updateAlerts(AlertStatus.EXECUTION_SUCCESS, "", Arrays.asList(1, 2, 3));
+    }
+
+    @Test
+    public void testSendTimeout() {
+        alertConfig.setSendTimeout(1);
+        AlertPluginInstance slowInstance = new AlertPluginInstance(1, "alert-instance-http-params", "alert-instance-http");
+        slowInstance.setId(1);
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(2, "alert-instance-mail-params", "alert-instance-mail");
+        alertPluginInstance.setId(2);
+        when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(Arrays.asList(slowInstance, alertPluginInstance));
+        AlertChannel slowChannelMock = mock(AlertChannel.class);
+        when(slowChannelMock.process(Mockito.any())).thenAnswer(invocation -> {
+            Thread.sleep(10000);
+            return new AlertResult(String.valueOf(true), "success");
+        });
+        AlertChannel alertChannelMock = mock(AlertChannel.class);
+        when(alertChannelMock.process(Mockito.any())).thenReturn(new AlertResult(String.valueOf(true), "success"));
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(slowChannelMock));
+        when(alertPluginManager.getAlertChannel(2)).thenReturn(Optional.of(alertChannelMock));
+
+        long start = System.currentTimeMillis();
+        AlertSendResponseCommand alertSendResponseCommand = alertSenderService.syncHandler(1, "title", "content", WarningType.ALL.getCode());
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertFalse(alertSendResponseCommand.getResStatus());
+        Assert.assertEquals(2, alertSendResponseCommand.getResResults().size());
+        Assert.assertFalse(alertSendResponseCommand.getResResults().get(0).getStatus());
+        Assert.assertTrue(alertSendResponseCommand.getResResults().get(1).getStatus());
+    }
 }
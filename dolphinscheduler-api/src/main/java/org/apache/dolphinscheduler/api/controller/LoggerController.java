@@ -26,19 +26,30 @@ import org.apache.dolphinscheduler.api.service.LoggerService;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -55,6 +66,17 @@ import springfox.documentation.annotations.ApiIgnore;
 @RequestMapping("/log")
 public class LoggerController extends BaseController {
 
+    private static final Logger logger = LoggerFactory.getLogger(LoggerController.class);
+
+    /**
+     * timeout of following a task log, the browser reconnects with the last event id after it
+     */
+    private static final long TAIL_LOG_TIMEOUT = 30 * 60 * 1000L;
+
+    private static final Pattern LINE_SEPARATOR = Pattern.compile("\\r\\n|\\r|\\n");
+
+    private static final MediaType LOG_GZIP = MediaType.parseMediaType("application/gzip");
+
     @Autowired
     private LoggerService loggerService;
 
@@ -89,23 +111,23 @@ public class LoggerController extends BaseController {
      *
      * @param loginUser login user
      * @param taskInstanceId task instance id
-     * @return log file content
+     * @param compressed download the log as a gzip file
+     * @return log file content, written as it is fetched from the log server
      */
     @ApiOperation(value = "downloadTaskLog", notes = "DOWNLOAD_TASK_INSTANCE_LOG_NOTES")
     @ApiImplicitParams({
-        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100")
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "compressed", value = "LOG_COMPRESSED", dataType = "Boolean", example = "false")
     })
     @GetMapping(value = "/download-log")
     @ResponseBody
     @ApiException(DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR)
     @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
-    public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
-                                          @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(taskInstanceId);
-        return ResponseEntity
-            .ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-            .body(logBytes);
+    public ResponseEntity<StreamingResponseBody> downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                                                 @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                                                                 @RequestParam(value = "compressed", required = false, defaultValue = "false") boolean compressed) {
+        StreamingResponseBody logBytes = out -> loggerService.getLogBytes(taskInstanceId, compressed, out);
+        return logFileResponse(compressed, logBytes);
     }
 
     /**
@@ -143,24 +165,96 @@ public class LoggerController extends BaseController {
      * @param loginUser      login user
      * @param projectCode    project code
      * @param taskInstanceId task instance id
-     * @return log file content
+     * @param compressed     download the log as a gzip file
+     * @return log file content, written as it is fetched from the log server
      */
     @ApiOperation(value = "downloadTaskLogInSpecifiedProject", notes = "DOWNLOAD_TASK_INSTANCE_LOG_IN_SPECIFIED_PROJECT_NOTES")
     @ApiImplicitParams({
         @ApiImplicitParam(name = "projectCode", value = "PROJECT_CODE", required = true, type = "Long"),
-        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100")
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "compressed", value = "LOG_COMPRESSED", dataType = "Boolean", example = "false")
     })
     @GetMapping(value = "/{projectCode}/download-log")
     @ResponseBody
     @ApiException(DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR)
     @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
-    public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
-                                          @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
-                                          @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(loginUser, projectCode, taskInstanceId);
-        return ResponseEntity
+    public ResponseEntity<StreamingResponseBody> downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                                                 @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                                                                 @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                                                                 @RequestParam(value = "compressed", required = false, defaultValue = "false") boolean compressed) {
+        StreamingResponseBody logBytes = out -> loggerService.getLogBytes(loginUser, projectCode, taskInstanceId, compressed, out);
+        return logFileResponse(compressed, logBytes);
+    }
+
+    private ResponseEntity<StreamingResponseBody> logFileResponse(boolean compressed, StreamingResponseBody logBytes) {
+        String fileName = System.currentTimeMillis() + (compressed ? ".log.gz" : ".log");
+        ResponseEntity.BodyBuilder response = ResponseEntity
                 .ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-                .body(logBytes);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (compressed) {
+            response.contentType(LOG_GZIP);
+        }
+        return response.body(logBytes);
+    }
+
+    /**
+     * follow task log in specified project, the lines appended to the log are sent as server-sent events
+     * whose id is the log offset after the event, so that a reconnecting browser continues from Last-Event-ID
+     *
+     * @param loginUser      login user
+     * @param projectCode    project code
+     * @param taskInstanceId task instance id
+     * @param offset         offset to follow the log from
+     * @param lastEventId    last event id received before reconnecting
+     * @return server-sent event emitter
+     */
+    @ApiOperation(value = "tailLogInSpecifiedProject", notes = "TAIL_TASK_INSTANCE_LOG_IN_SPECIFIED_PROJECT_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "projectCode", value = "PROJECT_CODE", required = true, type = "Long"),
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "offset", value = "LOG_OFFSET", dataType = "Long", example = "0")
+    })
+    @GetMapping(value = "/{projectCode}/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiException(QUERY_TASK_INSTANCE_LOG_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
+    public SseEmitter tailLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                              @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                              @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                              @RequestParam(value = "offset", required = false, defaultValue = "0") long offset,
+                              @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(TAIL_LOG_TIMEOUT);
+        AutoCloseable subscription = loggerService.tailLog(loginUser, projectCode, taskInstanceId,
+            lastEventId == null ? offset : lastEventId, new LogTailListener() {
+                @Override
+                public void onData(long dataOffset, byte[] data) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().id(Long.toString(dataOffset + data.length));
+                    // every line is a data field, the browser joins them with line feeds
+                    for (String line : LINE_SEPARATOR.split(new String(data, StandardCharsets.UTF_8), -1)) {
+                        event.data(line);
+                    }
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    }
+                }
+
+                @Override
+                public void onClose() {
+                    // the browser reconnects with the last event id
+                    emitter.complete();
+                }
+            });
+        Runnable cancel = () -> {
+            try {
+                subscription.close();
+            } catch (Exception e) {
+                logger.warn("stop following task instance {} log error", taskInstanceId, e);
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        return emitter;
     }
 }
@@ -133,6 +133,61 @@ public class ProcessInstanceController extends BaseController {
         return result;
     }
 
+    /**
+     * query process instance list by keyset, newest first
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processDefineCode process definition code
+     * @param searchVal search value
+     * @param executorName executor name
+     * @param stateType state type
+     * @param host host
+     * @param startTime start time
+     * @param endTime end time
+     * @param prefixSearch match search value and host as prefixes
+     * @param cursor cursor returned with the previous page
+     * @param pageSize page size
+     * @return process instance list and the cursor of the next page
+     */
+    @ApiOperation(value = "queryProcessInstanceListByKeyset", notes = "QUERY_PROCESS_INSTANCE_LIST_BY_KEYSET_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "processDefineCode", value = "PROCESS_DEFINITION_CODE", dataType = "Long", example = "100"),
+        @ApiImplicitParam(name = "searchVal", value = "SEARCH_VAL", type = "String"),
+        @ApiImplicitParam(name = "executorName", value = "EXECUTOR_NAME", type = "String"),
+        @ApiImplicitParam(name = "stateType", value = "EXECUTION_STATUS", type = "ExecutionStatus"),
+        @ApiImplicitParam(name = "host", value = "HOST", type = "String"),
+        @ApiImplicitParam(name = "startDate", value = "START_DATE", type = "String"),
+        @ApiImplicitParam(name = "endDate", value = "END_DATE", type = "String"),
+        @ApiImplicitParam(name = "prefixSearch", value = "PREFIX_SEARCH", dataType = "Boolean", example = "true"),
+        @ApiImplicitParam(name = "cursor", value = "CURSOR", type = "String"),
+        @ApiImplicitParam(name = "pageSize", value = "PAGE_SIZE", required = true, dataType = "Int", example = "10")
+    })
+    @GetMapping(value = "/seek")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(QUERY_PROCESS_INSTANCE_LIST_PAGING_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
+    public Result queryProcessInstanceListByKeyset(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                                   @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                                                   @RequestParam(value = "processDefineCode", required = false, defaultValue = "0") long processDefineCode,
+                                                   @RequestParam(value = "searchVal", required = false) String searchVal,
+                                                   @RequestParam(value = "executorName", required = false) String executorName,
+                                                   @RequestParam(value = "stateType", required = false) ExecutionStatus stateType,
+                                                   @RequestParam(value = "host", required = false) String host,
+                                                   @RequestParam(value = "startDate", required = false) String startTime,
+                                                   @RequestParam(value = "endDate", required = false) String endTime,
+                                                   @RequestParam(value = "prefixSearch", required = false, defaultValue = "true") boolean prefixSearch,
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   @RequestParam("pageSize") Integer pageSize) {
+        Result result = checkPageParams(1, pageSize);
+        if (!result.checkResult()) {
+            return result;
+        }
+        searchVal = ParameterUtils.handleEscapes(searchVal);
+        return processInstanceService.queryProcessInstanceListByKeyset(loginUser, projectCode, processDefineCode, startTime, endTime,
+                searchVal, executorName, stateType, host, prefixSearch, cursor, pageSize);
+    }
+
     /**
      * query task list by process instance id
      *
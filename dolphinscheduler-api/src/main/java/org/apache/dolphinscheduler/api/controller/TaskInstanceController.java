@@ -117,6 +117,67 @@ public class TaskInstanceController extends BaseController {
         return result;
     }
 
+    /**
+     * query task list by keyset, newest submitted first
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processInstanceId process instance id
+     * @param processInstanceName process instance name
+     * @param searchVal search value
+     * @param taskName task name
+     * @param executorName executor name
+     * @param stateType state type
+     * @param host host
+     * @param startTime start time
+     * @param endTime end time
+     * @param prefixSearch match search value, host and process instance name as prefixes
+     * @param cursor cursor returned with the previous page
+     * @param pageSize page size
+     * @return task list and the cursor of the next page
+     */
+    @ApiOperation(value = "queryTaskListByKeyset", notes = "QUERY_TASK_INSTANCE_LIST_BY_KEYSET_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "processInstanceId", value = "PROCESS_INSTANCE_ID", required = false, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "processInstanceName", value = "PROCESS_INSTANCE_NAME", required = false, type = "String"),
+        @ApiImplicitParam(name = "searchVal", value = "SEARCH_VAL", type = "String"),
+        @ApiImplicitParam(name = "taskName", value = "TASK_NAME", type = "String"),
+        @ApiImplicitParam(name = "executorName", value = "EXECUTOR_NAME", type = "String"),
+        @ApiImplicitParam(name = "stateType", value = "EXECUTION_STATUS", type = "ExecutionStatus"),
+        @ApiImplicitParam(name = "host", value = "HOST", type = "String"),
+        @ApiImplicitParam(name = "startDate", value = "START_DATE", type = "String"),
+        @ApiImplicitParam(name = "endDate", value = "END_DATE", type = "String"),
+        @ApiImplicitParam(name = "prefixSearch", value = "PREFIX_SEARCH", dataType = "Boolean", example = "true"),
+        @ApiImplicitParam(name = "cursor", value = "CURSOR", type = "String"),
+        @ApiImplicitParam(name = "pageSize", value = "PAGE_SIZE", required = true, dataType = "Int", example = "20")
+    })
+    @GetMapping(value = "/seek")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(QUERY_TASK_LIST_PAGING_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
+    public Result queryTaskListByKeyset(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                        @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                                        @RequestParam(value = "processInstanceId", required = false, defaultValue = "0") Integer processInstanceId,
+                                        @RequestParam(value = "processInstanceName", required = false) String processInstanceName,
+                                        @RequestParam(value = "searchVal", required = false) String searchVal,
+                                        @RequestParam(value = "taskName", required = false) String taskName,
+                                        @RequestParam(value = "executorName", required = false) String executorName,
+                                        @RequestParam(value = "stateType", required = false) ExecutionStatus stateType,
+                                        @RequestParam(value = "host", required = false) String host,
+                                        @RequestParam(value = "startDate", required = false) String startTime,
+                                        @RequestParam(value = "endDate", required = false) String endTime,
+                                        @RequestParam(value = "prefixSearch", required = false, defaultValue = "true") boolean prefixSearch,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam("pageSize") Integer pageSize) {
+        Result result = checkPageParams(1, pageSize);
+        if (!result.checkResult()) {
+            return result;
+        }
+        searchVal = ParameterUtils.handleEscapes(searchVal);
+        return taskInstanceService.queryTaskListByKeyset(loginUser, projectCode, processInstanceId, processInstanceName,
+                taskName, executorName, startTime, endTime, searchVal, stateType, host, prefixSearch, cursor, pageSize);
+    }
+
     /**
      * change one task instance's state from FAILURE to FORCED_SUCCESS
      *
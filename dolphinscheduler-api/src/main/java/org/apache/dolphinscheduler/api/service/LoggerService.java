@@ -19,7 +19,10 @@ package org.apache.dolphinscheduler.api.service;
 
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -46,6 +49,16 @@ public interface LoggerService {
      */
     byte[] getLogBytes(int taskInstId);
 
+    /**
+     * write log bytes to the output as they are fetched from the log server
+     *
+     * @param taskInstId task instance id
+     * @param compressed write the log as a gzip stream
+     * @param out        output of the log bytes
+     * @throws IOException if the output can not be written
+     */
+    void getLogBytes(int taskInstId, boolean compressed, OutputStream out) throws IOException;
+
     /**
      * query log
      *
@@ -67,4 +80,28 @@ public interface LoggerService {
      * @return log byte array
      */
     byte[] getLogBytes(User loginUser, long projectCode, int taskInstId);
+
+    /**
+     * write log bytes to the output as they are fetched from the log server
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param compressed  write the log as a gzip stream
+     * @param out         output of the log bytes
+     * @throws IOException if the output can not be written
+     */
+    void getLogBytes(User loginUser, long projectCode, int taskInstId, boolean compressed, OutputStream out) throws IOException;
+
+    /**
+     * follow log, the lines appended to the log are pushed to the listener
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param offset      offset to follow the log from
+     * @param listener    listener of the appended log bytes
+     * @return subscription, closing it stops following the log
+     */
+    AutoCloseable tailLog(User loginUser, long projectCode, int taskInstId, long offset, LogTailListener listener);
 }
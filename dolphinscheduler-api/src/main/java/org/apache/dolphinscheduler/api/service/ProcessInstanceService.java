@@ -82,6 +82,36 @@ public interface ProcessInstanceService {
                                     Integer pageNo,
                                     Integer pageSize);
 
+    /**
+     * keyset query process instance list, newest first, filtering according to project, process definition, time range, keyword, process status
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processDefineCode process definition code
+     * @param startDate start time
+     * @param endDate end time
+     * @param searchVal search value
+     * @param executorName executor name
+     * @param stateType state type
+     * @param host host
+     * @param prefixSearch match search value and host as prefixes instead of substrings
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param pageSize page size
+     * @return process instance list
+     */
+    Result queryProcessInstanceListByKeyset(User loginUser,
+                                            long projectCode,
+                                            long processDefineCode,
+                                            String startDate,
+                                            String endDate,
+                                            String searchVal,
+                                            String executorName,
+                                            ExecutionStatus stateType,
+                                            String host,
+                                            boolean prefixSearch,
+                                            String cursor,
+                                            Integer pageSize);
+
     /**
      * query task list by process instance id
      *
@@ -58,6 +58,41 @@ public interface TaskInstanceService {
                                Integer pageNo,
                                Integer pageSize);
 
+    /**
+     * keyset query task list by project, process instance, task name, task start time, task end time, task status, keyword,
+     * newest submitted first
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processInstanceId process instance id
+     * @param processInstanceName process instance name
+     * @param taskName task name
+     * @param executorName executor name
+     * @param startDate start time
+     * @param endDate end time
+     * @param searchVal search value
+     * @param stateType state type
+     * @param host host
+     * @param prefixSearch match search value, host and process instance name as prefixes instead of substrings
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param pageSize page size
+     * @return task list page
+     */
+    Result queryTaskListByKeyset(User loginUser,
+                                 long projectCode,
+                                 Integer processInstanceId,
+                                 String processInstanceName,
+                                 String taskName,
+                                 String executorName,
+                                 String startDate,
+                                 String endDate,
+                                 String searchVal,
+                                 ExecutionStatus stateType,
+                                 String host,
+                                 boolean prefixSearch,
+                                 String cursor,
+                                 Integer pageSize);
+
     /**
      * change one task instance's state from failure to forced success
      *
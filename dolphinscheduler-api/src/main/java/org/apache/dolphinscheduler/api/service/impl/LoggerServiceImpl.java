@@ -29,15 +29,21 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.apache.commons.lang.StringUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -129,6 +135,23 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         return getLogBytes(taskInstance);
     }
 
+    /**
+     * write log bytes to the output as they are fetched from the log server
+     *
+     * @param taskInstId task instance id
+     * @param compressed write the log as a gzip stream
+     * @param out        output of the log bytes
+     * @throws IOException if the output can not be written
+     */
+    @Override
+    public void getLogBytes(int taskInstId, boolean compressed, OutputStream out) throws IOException {
+        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
+        if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())) {
+            throw new ServiceException("task instance is null or host is null");
+        }
+        getLogBytes(taskInstance, compressed, out);
+    }
+
     /**
      * query log
      *
@@ -175,6 +198,55 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     @Override
     public byte[] getLogBytes(User loginUser, long projectCode, int taskInstId) {
+        return getLogBytes(queryTaskInstanceInProject(loginUser, projectCode, taskInstId));
+    }
+
+    /**
+     * write log bytes to the output as they are fetched from the log server
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param compressed  write the log as a gzip stream
+     * @param out         output of the log bytes
+     * @throws IOException if the output can not be written
+     */
+    @Override
+    public void getLogBytes(User loginUser, long projectCode, int taskInstId, boolean compressed, OutputStream out) throws IOException {
+        getLogBytes(queryTaskInstanceInProject(loginUser, projectCode, taskInstId), compressed, out);
+    }
+
+    /**
+     * follow log
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param offset      offset to follow the log from
+     * @param listener    listener of the appended log bytes
+     * @return subscription, closing it stops following the log
+     */
+    @Override
+    public AutoCloseable tailLog(User loginUser, long projectCode, int taskInstId, long offset, LogTailListener listener) {
+        TaskInstance task = queryTaskInstanceInProject(loginUser, projectCode, taskInstId);
+        Host host = Host.of(task.getHost());
+        try {
+            long subscriptionId = logClient.tailLog(host.getIp(), host.getPort(), task.getLogPath(), offset, listener);
+            return () -> logClient.cancelTailLog(host.getIp(), host.getPort(), subscriptionId);
+        } catch (RemotingException e) {
+            throw new ServiceException("tail task instance log error", e);
+        }
+    }
+
+    /**
+     * query the task instance of the log, checking the user access for the project
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @return task instance
+     */
+    private TaskInstance queryTaskInstanceInProject(User loginUser, long projectCode, int taskInstId) {
         Project project = projectMapper.queryByCode(projectCode);
         //check user access for project
         Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, project, projectCode);
@@ -191,7 +263,7 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         if (taskDefinition != null && projectCode != taskDefinition.getProjectCode()) {
             throw new ServiceException("task instance does not exist in project");
         }
-        return getLogBytes(task);
+        return task;
     }
 
     /**
@@ -231,11 +303,45 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     private byte[] getLogBytes(TaskInstance taskInstance) {
         Host host = Host.of(taskInstance.getHost());
-        byte[] head = String.format(LOG_HEAD_FORMAT,
+        return Bytes.concat(getLogHead(taskInstance, host),
+                logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath()));
+    }
+
+    /**
+     * write log bytes to the output in the chunks of the log client, a log that can not be read
+     * completely fails after the chunks already written. a compressed log is a gzip stream of members,
+     * the head being the first one, so the compressed segments of the log are passed on as they are
+     *
+     * @param taskInstance task instance
+     * @param compressed   write the log as a gzip stream
+     * @param out          output of the log bytes
+     * @throws IOException if the output can not be written
+     */
+    private void getLogBytes(TaskInstance taskInstance, boolean compressed, OutputStream out) throws IOException {
+        Host host = Host.of(taskInstance.getHost());
+        try {
+            if (compressed) {
+                ByteArrayOutputStream head = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(head)) {
+                    gzip.write(getLogHead(taskInstance, host));
+                }
+                head.writeTo(out);
+                logClient.getCompressedLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath(), out);
+                return;
+            }
+            out.write(getLogHead(taskInstance, host));
+            logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath(), out);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("get task instance log bytes error", e);
+        }
+    }
+
+    private byte[] getLogHead(TaskInstance taskInstance, Host host) {
+        return String.format(LOG_HEAD_FORMAT,
                 taskInstance.getLogPath(),
                 host,
                 Constants.SYSTEM_LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
-        return Bytes.concat(head,
-                logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath()));
     }
 }
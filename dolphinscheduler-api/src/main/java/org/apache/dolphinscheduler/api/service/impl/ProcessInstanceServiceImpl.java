@@ -37,6 +37,7 @@ import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.api.service.UsersService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
+import org.apache.dolphinscheduler.api.utils.SeekPageInfo;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.graph.DAG;
@@ -279,6 +280,88 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
             project.getCode(), processDefineCode, searchVal, executorId, statusArray, host, start, end);
 
         List<ProcessInstance> processInstances = processInstanceList.getRecords();
+        fillDurationAndExecutorName(processInstances);
+
+        pageInfo.setTotal((int) processInstanceList.getTotal());
+        pageInfo.setTotalList(processInstances);
+        result.setData(pageInfo);
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
+    /**
+     * keyset query process instance list, newest first, filtering according to project, process definition, time range, keyword, process status
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processDefineCode process definition code
+     * @param startDate start time
+     * @param endDate end time
+     * @param searchVal search value
+     * @param executorName executor name
+     * @param stateType state type
+     * @param host host
+     * @param prefixSearch match search value and host as prefixes instead of substrings
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param pageSize page size
+     * @return process instance list
+     */
+    @Override
+    public Result queryProcessInstanceListByKeyset(User loginUser, long projectCode, long processDefineCode, String startDate, String endDate,
+                                                   String searchVal, String executorName, ExecutionStatus stateType, String host,
+                                                   boolean prefixSearch, String cursor, Integer pageSize) {
+        Result result = new Result();
+        Project project = projectMapper.queryByCode(projectCode);
+        //check user access for project
+        Map<String, Object> checkResult = projectService.checkProjectAndAuth(loginUser, project, projectCode);
+        Status resultEnum = (Status) checkResult.get(Constants.STATUS);
+        if (resultEnum != Status.SUCCESS) {
+            putMsg(result, resultEnum);
+            return result;
+        }
+
+        SeekPageInfo.Cursor after = SeekPageInfo.parseCursor(cursor);
+        if (StringUtils.isNotEmpty(cursor) && after == null) {
+            putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, Constants.CURSOR);
+            return result;
+        }
+
+        int[] statusArray = null;
+        // filter by state
+        if (stateType != null) {
+            statusArray = new int[]{stateType.ordinal()};
+        }
+
+        Map<String, Object> checkAndParseDateResult = checkAndParseDateParameters(startDate, endDate);
+        resultEnum = (Status) checkAndParseDateResult.get(Constants.STATUS);
+        if (resultEnum != Status.SUCCESS) {
+            putMsg(result, resultEnum);
+            return result;
+        }
+        Date start = (Date) checkAndParseDateResult.get(Constants.START_TIME);
+        Date end = (Date) checkAndParseDateResult.get(Constants.END_TIME);
+        int executorId = usersService.getUserIdByName(executorName);
+
+        // fetch one more row to know whether there is a next page
+        List<ProcessInstance> processInstances = processInstanceMapper.queryProcessInstanceListByKeyset(project.getCode(),
+            processDefineCode, searchVal, executorId, statusArray, host, start, end, prefixSearch,
+            after == null ? null : after.getTime(), after == null ? null : after.getId(), pageSize + 1);
+
+        SeekPageInfo<ProcessInstance> pageInfo = new SeekPageInfo<>(pageSize);
+        if (processInstances.size() > pageSize) {
+            processInstances = processInstances.subList(0, pageSize);
+            ProcessInstance last = processInstances.get(pageSize - 1);
+            pageInfo.setNextCursor(SeekPageInfo.toCursor(last.getStartTime(), last.getId()));
+        }
+        fillDurationAndExecutorName(processInstances);
+
+        pageInfo.setTotalList(processInstances);
+        result.setData(pageInfo);
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
+    private void fillDurationAndExecutorName(List<ProcessInstance> processInstances) {
         List<Integer> userIds = Collections.emptyList();
         if (CollectionUtils.isNotEmpty(processInstances)) {
             userIds = processInstances.stream().map(ProcessInstance::getExecutorId).collect(Collectors.toList());
@@ -296,12 +379,6 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
                 processInstance.setExecutorName(executor.getUserName());
             }
         }
-
-        pageInfo.setTotal((int) processInstanceList.getTotal());
-        pageInfo.setTotalList(processInstances);
-        result.setData(pageInfo);
-        putMsg(result, Status.SUCCESS);
-        return result;
     }
 
     /**
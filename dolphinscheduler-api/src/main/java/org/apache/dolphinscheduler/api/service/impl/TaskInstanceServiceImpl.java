@@ -24,6 +24,7 @@ import org.apache.dolphinscheduler.api.service.TaskInstanceService;
 import org.apache.dolphinscheduler.api.service.UsersService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
+import org.apache.dolphinscheduler.api.utils.SeekPageInfo;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
@@ -37,6 +38,8 @@ import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import org.apache.commons.lang.StringUtils;
+
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -134,10 +137,95 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
         IPage<TaskInstance> taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPaging(
             page, project.getCode(), processInstanceId, processInstanceName, searchVal, taskName, executorId, statusArray, host, start, end
         );
-        Set<String> exclusionSet = new HashSet<>();
-        exclusionSet.add(Constants.CLASS);
-        exclusionSet.add("taskJson");
-        List<TaskInstance> taskInstanceList = taskInstanceIPage.getRecords();
+        fillDurationAndExecutorName(taskInstanceIPage.getRecords());
+        pageInfo.setTotal((int) taskInstanceIPage.getTotal());
+        pageInfo.setTotalList(CollectionUtils.getListByExclusion(taskInstanceIPage.getRecords(), getExclusionSet()));
+        result.setData(pageInfo);
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
+    /**
+     * keyset query task list by project, process instance, task name, task start time, task end time, task status, keyword,
+     * newest submitted first
+     *
+     * @param loginUser login user
+     * @param projectCode project code
+     * @param processInstanceId process instance id
+     * @param processInstanceName process instance name
+     * @param taskName task name
+     * @param executorName executor name
+     * @param startDate start time
+     * @param endDate end time
+     * @param searchVal search value
+     * @param stateType state type
+     * @param host host
+     * @param prefixSearch match search value, host and process instance name as prefixes instead of substrings
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param pageSize page size
+     * @return task list page
+     */
+    @Override
+    public Result queryTaskListByKeyset(User loginUser,
+                                        long projectCode,
+                                        Integer processInstanceId,
+                                        String processInstanceName,
+                                        String taskName,
+                                        String executorName,
+                                        String startDate,
+                                        String endDate,
+                                        String searchVal,
+                                        ExecutionStatus stateType,
+                                        String host,
+                                        boolean prefixSearch,
+                                        String cursor,
+                                        Integer pageSize) {
+        Result result = new Result();
+        Project project = projectMapper.queryByCode(projectCode);
+        //check user access for project
+        Map<String, Object> checkResult = projectService.checkProjectAndAuth(loginUser, project, projectCode);
+        Status status = (Status) checkResult.get(Constants.STATUS);
+        if (status != Status.SUCCESS) {
+            putMsg(result, status);
+            return result;
+        }
+        SeekPageInfo.Cursor after = SeekPageInfo.parseCursor(cursor);
+        if (StringUtils.isNotEmpty(cursor) && after == null) {
+            putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, Constants.CURSOR);
+            return result;
+        }
+        int[] statusArray = null;
+        if (stateType != null) {
+            statusArray = new int[]{stateType.ordinal()};
+        }
+        Map<String, Object> checkAndParseDateResult = checkAndParseDateParameters(startDate, endDate);
+        status = (Status) checkAndParseDateResult.get(Constants.STATUS);
+        if (status != Status.SUCCESS) {
+            putMsg(result, status);
+            return result;
+        }
+        Date start = (Date) checkAndParseDateResult.get(Constants.START_TIME);
+        Date end = (Date) checkAndParseDateResult.get(Constants.END_TIME);
+        int executorId = usersService.getUserIdByName(executorName);
+        // fetch one more row to know whether there is a next page
+        List<TaskInstance> taskInstanceList = taskInstanceMapper.queryTaskInstanceListByKeyset(
+            project.getCode(), processInstanceId, processInstanceName, searchVal, taskName, executorId, statusArray, host, start, end,
+            prefixSearch, after == null ? null : after.getTime(), after == null ? null : after.getId(), pageSize + 1
+        );
+        SeekPageInfo<Map<String, Object>> pageInfo = new SeekPageInfo<>(pageSize);
+        if (taskInstanceList.size() > pageSize) {
+            taskInstanceList = taskInstanceList.subList(0, pageSize);
+            TaskInstance last = taskInstanceList.get(pageSize - 1);
+            pageInfo.setNextCursor(SeekPageInfo.toCursor(last.getSubmitTime(), last.getId()));
+        }
+        fillDurationAndExecutorName(taskInstanceList);
+        pageInfo.setTotalList(CollectionUtils.getListByExclusion(taskInstanceList, getExclusionSet()));
+        result.setData(pageInfo);
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
+    private void fillDurationAndExecutorName(List<TaskInstance> taskInstanceList) {
         List<Integer> executorIds = taskInstanceList.stream().map(TaskInstance::getExecutorId).distinct().collect(Collectors.toList());
         List<User> users = usersService.queryUser(executorIds);
         Map<Integer, User> userMap = users.stream().collect(Collectors.toMap(User::getId, v -> v));
@@ -148,11 +236,13 @@ public class TaskInstanceServiceImpl extends BaseServiceImpl implements TaskInst
                 taskInstance.setExecutorName(user.getUserName());
             }
         }
-        pageInfo.setTotal((int) taskInstanceIPage.getTotal());
-        pageInfo.setTotalList(CollectionUtils.getListByExclusion(taskInstanceIPage.getRecords(), exclusionSet));
-        result.setData(pageInfo);
-        putMsg(result, Status.SUCCESS);
-        return result;
+    }
+
+    private Set<String> getExclusionSet() {
+        Set<String> exclusionSet = new HashSet<>();
+        exclusionSet.add(Constants.CLASS);
+        exclusionSet.add("taskJson");
+        return exclusionSet;
     }
 
     /**
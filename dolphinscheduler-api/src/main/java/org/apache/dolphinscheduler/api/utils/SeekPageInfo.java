@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.utils;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * keyset page info, the next page is fetched with the returned cursor instead of a page number
+ *
+ * @param <T> model
+ */
+public class SeekPageInfo<T> {
+
+    private static final String CURSOR_SEPARATOR = "_";
+
+    /**
+     * totalList
+     */
+    private List<T> totalList;
+    /**
+     * page size
+     */
+    private Integer pageSize;
+    /**
+     * cursor of the next page, null if this is the last page
+     */
+    private String nextCursor;
+
+    public SeekPageInfo() {
+
+    }
+
+    public SeekPageInfo(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public List<T> getTotalList() {
+        return totalList;
+    }
+
+    public void setTotalList(List<T> totalList) {
+        this.totalList = totalList;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * build the cursor pointing after the given row
+     *
+     * @param time sort time of the row
+     * @param id id of the row
+     * @return cursor
+     */
+    public static String toCursor(Date time, int id) {
+        return time.getTime() + CURSOR_SEPARATOR + id;
+    }
+
+    /**
+     * parse a cursor built by {@link #toCursor(Date, int)}
+     *
+     * @param cursor cursor
+     * @return cursor, or null if the cursor is malformed
+     */
+    public static Cursor parseCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int index = cursor.indexOf(CURSOR_SEPARATOR);
+        if (index <= 0) {
+            return null;
+        }
+        try {
+            long time = Long.parseLong(cursor.substring(0, index));
+            int id = Integer.parseInt(cursor.substring(index + 1));
+            return new Cursor(new Date(time), id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * position of the last row of a page
+     */
+    public static class Cursor {
+
+        private final Date time;
+
+        private final int id;
+
+        public Cursor(Date time, int id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        public Date getTime() {
+            return time;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
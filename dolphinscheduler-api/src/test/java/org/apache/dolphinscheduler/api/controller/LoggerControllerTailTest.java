@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.apache.dolphinscheduler.api.service.LoggerService;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.UserType;
+import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * logger controller tail log test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoggerControllerTailTest {
+
+    @InjectMocks
+    private LoggerController loggerController;
+
+    @Mock
+    private LoggerService loggerService;
+
+    @Mock
+    private AutoCloseable subscription;
+
+    private MockMvc mockMvc;
+
+    private User loginUser;
+
+    @Before
+    public void before() {
+        mockMvc = MockMvcBuilders.standaloneSetup(loggerController).build();
+        loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.GENERAL_USER);
+    }
+
+    @Test
+    public void testCancelOnCompletion() throws Exception {
+        ArgumentCaptor<LogTailListener> listener = ArgumentCaptor.forClass(LogTailListener.class);
+        Mockito.when(loggerService.tailLog(Mockito.eq(loginUser), Mockito.eq(1L), Mockito.eq(1), Mockito.eq(10L), listener.capture()))
+                .thenReturn(subscription);
+
+        MvcResult mvcResult = mockMvc.perform(get("/log/1/tail")
+                .requestAttr(Constants.SESSION_USER, loginUser)
+                .param("taskInstanceId", "1")
+                .param("offset", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        listener.getValue().onData(10, "a\nb".getBytes(StandardCharsets.UTF_8));
+        Mockito.verify(subscription, Mockito.never()).close();
+
+        // the connection to the log server is lost, the emitter completes and the subscription is cancelled
+        listener.getValue().onClose();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(content().string("id:13\ndata:a\ndata:b\n\n"));
+        Mockito.verify(subscription).close();
+    }
+}
@@ -82,6 +82,35 @@ public class ProcessInstanceControllerTest extends AbstractControllerTest {
         Assert.assertEquals(Status.SUCCESS.getCode(), result.getCode().intValue());
     }
 
+    @Test
+    public void testQueryProcessInstanceListByKeyset() throws Exception {
+        Result mockResult = new Result<>();
+        mockResult.setCode(Status.SUCCESS.getCode());
+        PowerMockito.when(processInstanceService
+                .queryProcessInstanceListByKeyset(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any(),
+                        Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false),
+                        Mockito.eq("1576339200000_12"), Mockito.eq(2)))
+                .thenReturn(mockResult);
+
+        MultiValueMap<String, String> paramsMap = new LinkedMultiValueMap<>();
+        paramsMap.add("processDefineCode", "91");
+        paramsMap.add("searchVal", "cxc");
+        paramsMap.add("host", "192.168.1.13");
+        paramsMap.add("prefixSearch", "false");
+        paramsMap.add("cursor", "1576339200000_12");
+        paramsMap.add("pageSize", "2");
+
+        MvcResult mvcResult = mockMvc.perform(get("/projects/1113/process-instances/seek")
+                .header("sessionId", sessionId)
+                .params(paramsMap))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+        Result result = JSONUtils.parseObject(mvcResult.getResponse().getContentAsString(), Result.class);
+        Assert.assertNotNull(result);
+        Assert.assertEquals(Status.SUCCESS.getCode(), result.getCode().intValue());
+    }
+
     @Test
     public void testQueryTaskListByProcessId() throws Exception {
         Map<String, Object> mockResult = new HashMap<>();
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.api.service;
 
 import org.apache.dolphinscheduler.api.enums.Status;
+import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
@@ -28,11 +29,21 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.service.log.LogClientService;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -46,6 +57,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * logger service test
@@ -133,6 +145,67 @@ public class LoggerServiceTest {
 
     }
 
+    @Test
+    public void testGetLogBytesToOutput() throws Exception {
+        LogClientService logClient = Mockito.mock(LogClientService.class);
+        ((LogClientService) ReflectionTestUtils.getField(loggerService, "logClient")).close();
+        ReflectionTestUtils.setField(loggerService, "logClient", logClient);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+
+        Mockito.doAnswer(invocation -> {
+            ((OutputStream) invocation.getArgument(3)).write("log".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(logClient).getLogBytes(Mockito.eq("127.0.0.1"), Mockito.eq(8080), Mockito.eq("/temp/log"), Mockito.any(OutputStream.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        loggerService.getLogBytes(1, false, out);
+        String log = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertTrue(log.startsWith("[LOG-PATH]: /temp/log"));
+        Assert.assertTrue(log.endsWith("log"));
+
+        // the log server fails after the first chunk, the download must not end as if the log was complete
+        Mockito.doThrow(new RemotingException("get log bytes error"))
+                .when(logClient).getLogBytes(Mockito.anyString(), Mockito.anyInt(), Mockito.anyString(), Mockito.any(OutputStream.class));
+        try {
+            loggerService.getLogBytes(1, false, new ByteArrayOutputStream());
+            Assert.fail("an incomplete log must fail the download");
+        } catch (ServiceException e) {
+            Assert.assertTrue(e.getCause() instanceof RemotingException);
+        }
+    }
+
+    @Test
+    public void testGetCompressedLogBytesToOutput() throws Exception {
+        LogClientService logClient = Mockito.mock(LogClientService.class);
+        ((LogClientService) ReflectionTestUtils.getField(loggerService, "logClient")).close();
+        ReflectionTestUtils.setField(loggerService, "logClient", logClient);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+
+        Mockito.doAnswer(invocation -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream((OutputStream) invocation.getArgument(3))) {
+                gzip.write("log".getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(logClient).getCompressedLogBytes(Mockito.eq("127.0.0.1"), Mockito.eq(8080), Mockito.eq("/temp/log"), Mockito.any(OutputStream.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        loggerService.getLogBytes(1, true, out);
+
+        // the head and the log are gzip members of one gzip file
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            IOUtils.copy(gzip, log);
+        }
+        String content = new String(log.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertTrue(content.startsWith("[LOG-PATH]: /temp/log"));
+        Assert.assertTrue(content.endsWith("log"));
+        Mockito.verify(logClient, Mockito.never()).getLogBytes(Mockito.anyString(), Mockito.anyInt(), Mockito.anyString(), Mockito.any(OutputStream.class));
+    }
+
     @Test
     public void testQueryLogInSpecifiedProject() {
         long projectCode = 1L;
@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.ProcessInstanceServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.ProjectServiceImpl;
 import org.apache.dolphinscheduler.api.utils.Result;
+import org.apache.dolphinscheduler.api.utils.SeekPageInfo;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
 import org.apache.dolphinscheduler.common.enums.Flag;
@@ -60,6 +61,7 @@ import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -230,6 +232,56 @@ public class ProcessInstanceServiceTest {
 
     }
 
+    @Test
+    public void testQueryProcessInstanceListByKeyset() {
+        long projectCode = 1L;
+        User loginUser = getAdminUser();
+        Project project = getProject(projectCode);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.PROJECT_NOT_FOUND, projectCode);
+
+        //project auth fail
+        when(projectMapper.queryByCode(projectCode)).thenReturn(project);
+        when(projectService.checkProjectAndAuth(loginUser, project, projectCode)).thenReturn(result);
+        Result projectAuthFailRes = processInstanceService.queryProcessInstanceListByKeyset(loginUser, projectCode, 0, "", "",
+            "", "", null, "", true, null, 1);
+        Assert.assertEquals(Status.PROJECT_NOT_FOUND.getCode(), (int) projectAuthFailRes.getCode());
+
+        //malformed cursor
+        putMsg(result, Status.SUCCESS, projectCode);
+        Result cursorRes = processInstanceService.queryProcessInstanceListByKeyset(loginUser, projectCode, 0, "", "",
+            "", "", null, "", true, "abc", 1);
+        Assert.assertEquals(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getCode(), (int) cursorRes.getCode());
+
+        //one more row than the page size means there is a next page
+        ProcessInstance newer = getProcessInstance();
+        newer.setId(2);
+        ProcessInstance older = getProcessInstance();
+        List<ProcessInstance> processInstanceList = new ArrayList<>();
+        processInstanceList.add(newer);
+        processInstanceList.add(older);
+        when(processInstanceMapper.queryProcessInstanceListByKeyset(eq(project.getCode()), eq(0L), eq("test"), Mockito.anyInt(),
+            Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), eq(true), eq(null), eq(null), eq(2)))
+            .thenReturn(processInstanceList);
+        Result firstPageRes = processInstanceService.queryProcessInstanceListByKeyset(loginUser, projectCode, 0, "", "",
+            "test", "", null, "", true, null, 1);
+        Assert.assertEquals(Status.SUCCESS.getCode(), (int) firstPageRes.getCode());
+        SeekPageInfo<ProcessInstance> firstPage = (SeekPageInfo<ProcessInstance>) firstPageRes.getData();
+        Assert.assertEquals(1, firstPage.getTotalList().size());
+        Assert.assertEquals(newer.getId(), firstPage.getTotalList().get(0).getId());
+        Assert.assertEquals(SeekPageInfo.toCursor(newer.getStartTime(), newer.getId()), firstPage.getNextCursor());
+
+        //the last page has no next cursor
+        when(processInstanceMapper.queryProcessInstanceListByKeyset(eq(project.getCode()), eq(0L), eq("test"), Mockito.anyInt(),
+            Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), eq(true), eq(newer.getStartTime()), eq(newer.getId()), eq(2)))
+            .thenReturn(Collections.singletonList(older));
+        Result lastPageRes = processInstanceService.queryProcessInstanceListByKeyset(loginUser, projectCode, 0, "", "",
+            "test", "", null, "", true, firstPage.getNextCursor(), 1);
+        SeekPageInfo<ProcessInstance> lastPage = (SeekPageInfo<ProcessInstance>) lastPageRes.getData();
+        Assert.assertEquals(older.getId(), lastPage.getTotalList().get(0).getId());
+        Assert.assertNull(lastPage.getNextCursor());
+    }
+
     @Test
     public void testQueryTopNLongestRunningProcessInstance() {
         long projectCode = 1L;
@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.ProjectServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.TaskInstanceServiceImpl;
 import org.apache.dolphinscheduler.api.utils.Result;
+import org.apache.dolphinscheduler.api.utils.SeekPageInfo;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
@@ -165,6 +166,39 @@ public class TaskInstanceServiceTest {
         Assert.assertEquals(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getCode(), (int)executorErrorEndDateRes.getCode());
     }
 
+    @Test
+    public void queryTaskListByKeyset() {
+        long projectCode = 1L;
+        User loginUser = getAdminUser();
+        Project project = getProject(projectCode);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS, projectCode);
+        when(projectMapper.queryByCode(projectCode)).thenReturn(project);
+        when(projectService.checkProjectAndAuth(loginUser, project, projectCode)).thenReturn(result);
+
+        //malformed cursor
+        Result cursorRes = taskInstanceService.queryTaskListByKeyset(loginUser, projectCode, 0, "", "",
+                "", "", "", "", null, "", true, "1_x", 20);
+        Assert.assertEquals(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getCode(), (int) cursorRes.getCode());
+
+        TaskInstance newer = getTaskInstance();
+        newer.setId(2);
+        newer.setSubmitTime(new Date());
+        TaskInstance older = getTaskInstance();
+        older.setSubmitTime(new Date());
+        List<TaskInstance> taskInstanceList = new ArrayList<>();
+        taskInstanceList.add(newer);
+        taskInstanceList.add(older);
+        when(taskInstanceMapper.queryTaskInstanceListByKeyset(eq(project.getCode()), eq(0), eq(""), eq(""), eq(""),
+                Mockito.anyInt(), any(), eq("192.168"), any(), any(), eq(true), eq(null), eq(null), eq(2))).thenReturn(taskInstanceList);
+        Result successRes = taskInstanceService.queryTaskListByKeyset(loginUser, projectCode, 0, "", "",
+                "", "", "", "", null, "192.168", true, null, 1);
+        Assert.assertEquals(Status.SUCCESS.getCode(), (int) successRes.getCode());
+        SeekPageInfo<Map<String, Object>> pageInfo = (SeekPageInfo<Map<String, Object>>) successRes.getData();
+        Assert.assertEquals(1, pageInfo.getTotalList().size());
+        Assert.assertEquals(SeekPageInfo.toCursor(newer.getSubmitTime(), newer.getId()), pageInfo.getNextCursor());
+    }
+
     /**
      * get Mock Admin User
      *
@@ -20,9 +20,12 @@ package org.apache.dolphinscheduler.api.service;
 import org.apache.dolphinscheduler.api.ApiApplicationServer;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.WorkerGroupServiceImpl;
+import org.apache.dolphinscheduler.api.utils.PageInfo;
+import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.ProfileType;
 import org.apache.dolphinscheduler.common.enums.UserType;
+import org.apache.dolphinscheduler.common.utils.HeartBeat;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.entity.WorkerGroup;
@@ -31,6 +34,7 @@ import org.apache.dolphinscheduler.dao.mapper.WorkerGroupMapper;
 import org.apache.dolphinscheduler.service.registry.RegistryClient;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -92,6 +96,27 @@ public class WorkerGroupServiceTest {
         Assert.assertEquals(Status.SUCCESS.getMsg(), result.get(Constants.MSG));
     }
 
+    @Test
+    public void testQueryAllGroupPagingWithBinaryHeartBeat() {
+        User user = new User();
+        user.setUserType(UserType.ADMIN_USER);
+        HeartBeat heartBeat = new HeartBeat(1_600_000_000_000L, 10, 0.3);
+        heartBeat.setReportTime(1_600_000_060_000L);
+        String workerGroupPath = Constants.REGISTRY_DOLPHINSCHEDULER_WORKERS + Constants.SINGLE_SLASH + groupName;
+        Mockito.when(registryClient.getChildrenKeys(Constants.REGISTRY_DOLPHINSCHEDULER_WORKERS)).thenReturn(Collections.singletonList(groupName));
+        Mockito.when(registryClient.getChildrenKeys(workerGroupPath)).thenReturn(Collections.singletonList("127.0.0.1:1234"));
+        Mockito.when(registryClient.get(workerGroupPath + Constants.SINGLE_SLASH + "127.0.0.1:1234")).thenReturn(heartBeat.encodeBinary());
+
+        Result result = workerGroupService.queryAllGroupPaging(user, 1, 10, null);
+        Assert.assertEquals(Status.SUCCESS.getCode(), (int) result.getCode());
+        List<WorkerGroup> workerGroups = ((PageInfo<WorkerGroup>) result.getData()).getTotalList();
+        Assert.assertEquals(1, workerGroups.size());
+        Assert.assertEquals(groupName, workerGroups.get(0).getName());
+        Assert.assertEquals("127.0.0.1:1234", workerGroups.get(0).getAddrList());
+        Assert.assertEquals(1_600_000_000_000L, workerGroups.get(0).getCreateTime().getTime());
+        Assert.assertEquals(1_600_000_060_000L, workerGroups.get(0).getUpdateTime().getTime());
+    }
+
     /**
      * get processInstances
      */
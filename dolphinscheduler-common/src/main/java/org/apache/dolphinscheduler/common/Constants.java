@@ -684,6 +684,11 @@ public final class Constants {
      */
     public static final String PAGE_NUMBER = "pageNo";
 
+    /**
+     * keyset page cursor
+     */
+    public static final String CURSOR = "cursor";
+
 
     /**
      *
@@ -822,4 +827,24 @@ public final class Constants {
      * schedule timezone
      */
     public static final String SCHEDULE_TIMEZONE = "schedule_timezone";
+
+    /**
+     * claim command retry times when other masters win the claim
+     */
+    public static final int CLAIM_COMMAND_RETRY_TIMES = 3;
+
+    /**
+     * max task definition logs of (code, version) cached to build the dag
+     */
+    public static final int TASK_DEFINITION_LOG_CACHE_SIZE = 10000;
+
+    /**
+     * max (code, version) pairs of one task definition log batch query
+     */
+    public static final int TASK_DEFINITION_LOG_BATCH_QUERY_SIZE = 500;
+
+    /**
+     * max estimated memory of the compiled process dags cached by master
+     */
+    public static final long PROCESS_DAG_CACHE_MAX_BYTES = 64L * 1024 * 1024;
 }
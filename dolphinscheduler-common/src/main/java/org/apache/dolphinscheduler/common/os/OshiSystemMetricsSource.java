@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+
+/**
+ * system metrics from oshi, used where /proc is not available
+ */
+class OshiSystemMetricsSource implements SystemMetricsSource {
+
+    private final HardwareAbstractionLayer hal = new SystemInfo().getHardware();
+
+    private long[] prevTicks;
+
+    @Override
+    public SystemMetrics sample() {
+        CentralProcessor processor = hal.getProcessor();
+        // the first sample has no previous ticks, the ticks since boot are not the current usage
+        double cpuUsage = prevTicks == null ? -1 : processor.getSystemCpuLoadBetweenTicks(prevTicks);
+        prevTicks = processor.getSystemCpuLoadTicks();
+
+        GlobalMemory memory = hal.getMemory();
+        double memoryUsage = (memory.getTotal() - memory.getAvailable()) * 1.0 / memory.getTotal();
+        double availablePhysicalMemorySize = memory.getAvailable() / 1024.0 / 1024 / 1024;
+
+        double loadAverage = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class).getSystemLoadAverage();
+        if (loadAverage < 0) {
+            loadAverage = processor.getSystemLoadAverage(1)[0];
+        }
+        return new SystemMetrics(System.currentTimeMillis(), cpuUsage, memoryUsage, availablePhysicalMemorySize, loadAverage);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * system metrics read from /proc/stat, /proc/meminfo and /proc/loadavg.
+ * when the process runs in a cgroup with a cpu quota or a memory limit, e.g. in a container,
+ * the cpu and memory are measured against the cgroup limits instead of the host, both cgroup v1 and v2 are supported.
+ * the load average is always the one of the host since cgroups do not account it.
+ */
+class ProcSystemMetricsSource implements SystemMetricsSource {
+
+    private static final double BYTES_PER_GB = 1024.0 * 1024 * 1024;
+
+    private static final int CPU_TICK_FIELDS = 8;
+
+    private static final int IDLE_FIELD = 3;
+
+    private static final int IOWAIT_FIELD = 4;
+
+    private static final String USAGE_USEC = "usage_usec ";
+
+    private final Path procRoot;
+
+    private final Path cgroupRoot;
+
+    private long prevCpuBusy;
+
+    private long prevCpuTotal;
+
+    private long prevCgroupCpuNanos = -1;
+
+    private long prevSampleNanos;
+
+    ProcSystemMetricsSource(Path procRoot, Path cgroupRoot) {
+        this.procRoot = procRoot;
+        this.cgroupRoot = cgroupRoot;
+    }
+
+    static boolean isSupported(Path procRoot) {
+        return Files.isReadable(procRoot.resolve("stat"))
+            && Files.isReadable(procRoot.resolve("meminfo"))
+            && Files.isReadable(procRoot.resolve("loadavg"));
+    }
+
+    @Override
+    public SystemMetrics sample() throws IOException {
+        long sampleNanos = System.nanoTime();
+        double cpuUsage = hostCpuUsage();
+        double cgroupCpuUsage = cgroupCpuUsage(sampleNanos);
+        if (cgroupCpuUsage >= 0) {
+            cpuUsage = cgroupCpuUsage;
+        }
+        prevSampleNanos = sampleNanos;
+
+        long memTotal = 0;
+        long memAvailable = -1;
+        long memFreeAndCached = 0;
+        for (String line : Files.readAllLines(procRoot.resolve("meminfo"), StandardCharsets.UTF_8)) {
+            if (line.startsWith("MemTotal:")) {
+                memTotal = parseKb(line);
+            } else if (line.startsWith("MemAvailable:")) {
+                memAvailable = parseKb(line);
+            } else if (line.startsWith("MemFree:") || line.startsWith("Buffers:") || line.startsWith("Cached:")) {
+                memFreeAndCached += parseKb(line);
+            }
+        }
+        if (memAvailable < 0) {
+            // kernels before 3.14 have no MemAvailable
+            memAvailable = memFreeAndCached;
+        }
+        long cgroupMemoryLimit = cgroupMemoryLimit();
+        if (cgroupMemoryLimit > 0 && cgroupMemoryLimit < memTotal) {
+            long cgroupMemoryUsage = cgroupMemoryUsage();
+            memTotal = cgroupMemoryLimit;
+            memAvailable = Math.min(memAvailable, Math.max(0, cgroupMemoryLimit - cgroupMemoryUsage));
+        }
+        double memoryUsage = memTotal == 0 ? Double.NaN : (memTotal - memAvailable) * 1.0 / memTotal;
+
+        String loadavg = new String(Files.readAllBytes(procRoot.resolve("loadavg")), StandardCharsets.UTF_8);
+        double loadAverage = Double.parseDouble(loadavg.substring(0, loadavg.indexOf(' ')));
+
+        return new SystemMetrics(System.currentTimeMillis(), cpuUsage, memoryUsage, memAvailable / BYTES_PER_GB, loadAverage);
+    }
+
+    /**
+     * cpu usage of the host since the previous sample, iowait counts as idle,
+     * unknown for the first sample since its ticks are counted since boot
+     */
+    private double hostCpuUsage() throws IOException {
+        String cpuLine = firstLine(procRoot.resolve("stat"));
+        String[] fields = cpuLine.trim().split("\\s+");
+        long total = 0;
+        long idle = 0;
+        for (int i = 0; i < CPU_TICK_FIELDS && i + 1 < fields.length; i++) {
+            long ticks = Long.parseLong(fields[i + 1]);
+            total += ticks;
+            if (i == IDLE_FIELD || i == IOWAIT_FIELD) {
+                idle += ticks;
+            }
+        }
+        long busy = total - idle;
+        long totalDelta = total - prevCpuTotal;
+        double usage = prevCpuTotal == 0 || totalDelta <= 0 ? Double.NaN : (busy - prevCpuBusy) * 1.0 / totalDelta;
+        prevCpuBusy = busy;
+        prevCpuTotal = total;
+        return usage;
+    }
+
+    /**
+     * cpu usage of the cgroup against its quota since the previous sample, -1 when the cpu is not limited
+     */
+    private double cgroupCpuUsage(long sampleNanos) throws IOException {
+        double quotaCores = cgroupCpuQuotaCores();
+        if (quotaCores <= 0) {
+            return -1;
+        }
+        long cpuNanos = cgroupCpuNanos();
+        if (cpuNanos < 0) {
+            return -1;
+        }
+        long prevCpuNanos = prevCgroupCpuNanos;
+        prevCgroupCpuNanos = cpuNanos;
+        if (prevCpuNanos < 0 || sampleNanos <= prevSampleNanos) {
+            return -1;
+        }
+        return Math.min(1, (cpuNanos - prevCpuNanos) / (quotaCores * (sampleNanos - prevSampleNanos)));
+    }
+
+    private double cgroupCpuQuotaCores() throws IOException {
+        // cgroup v2: "$MAX $PERIOD" where $MAX is "max" without a limit
+        String cpuMax = readIfExists(cgroupRoot.resolve("cpu.max"));
+        if (cpuMax != null) {
+            String[] parts = cpuMax.trim().split("\\s+");
+            return "max".equals(parts[0]) ? -1 : Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]);
+        }
+        // cgroup v1: the quota is -1 without a limit
+        String quota = readIfExists(cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us"));
+        String period = readIfExists(cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us"));
+        if (quota == null || period == null) {
+            return -1;
+        }
+        long quotaUs = Long.parseLong(quota.trim());
+        return quotaUs <= 0 ? -1 : quotaUs * 1.0 / Long.parseLong(period.trim());
+    }
+
+    private long cgroupCpuNanos() throws IOException {
+        String cpuStat = readIfExists(cgroupRoot.resolve("cpu.stat"));
+        if (cpuStat != null) {
+            for (String line : cpuStat.split("\n")) {
+                if (line.startsWith(USAGE_USEC)) {
+                    return Long.parseLong(line.substring(USAGE_USEC.length()).trim()) * 1000;
+                }
+            }
+        }
+        String usage = readIfExists(cgroupRoot.resolve("cpuacct").resolve("cpuacct.usage"));
+        return usage == null ? -1 : Long.parseLong(usage.trim());
+    }
+
+    private long cgroupMemoryLimit() throws IOException {
+        String limit = readIfExists(cgroupRoot.resolve("memory.max"));
+        if (limit == null) {
+            limit = readIfExists(cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes"));
+        }
+        if (limit == null || "max".equals(limit.trim())) {
+            return -1;
+        }
+        return Long.parseLong(limit.trim());
+    }
+
+    private long cgroupMemoryUsage() throws IOException {
+        String usage = readIfExists(cgroupRoot.resolve("memory.current"));
+        if (usage == null) {
+            usage = readIfExists(cgroupRoot.resolve("memory").resolve("memory.usage_in_bytes"));
+        }
+        return usage == null ? 0 : Long.parseLong(usage.trim());
+    }
+
+    private static long parseKb(String line) {
+        String[] parts = line.trim().split("\\s+");
+        return Long.parseLong(parts[1]) * 1024;
+    }
+
+    private static String firstLine(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line == null ? "" : line;
+        }
+    }
+
+    private static String readIfExists(Path path) throws IOException {
+        return Files.isReadable(path) ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+/**
+ * a sample of the system metrics, the values keep two decimals,
+ * a value that can not be read is {@link org.apache.dolphinscheduler.common.utils.OSUtils#NEGATIVE_ONE}
+ */
+public final class SystemMetrics {
+
+    private final long sampleTime;
+
+    private final double cpuUsage;
+
+    private final double memoryUsage;
+
+    private final double availablePhysicalMemorySize;
+
+    private final double loadAverage;
+
+    public SystemMetrics(long sampleTime, double cpuUsage, double memoryUsage, double availablePhysicalMemorySize, double loadAverage) {
+        this.sampleTime = sampleTime;
+        this.cpuUsage = round(cpuUsage);
+        this.memoryUsage = round(memoryUsage);
+        this.availablePhysicalMemorySize = round(availablePhysicalMemorySize);
+        this.loadAverage = round(loadAverage);
+    }
+
+    private static double round(double value) {
+        return Double.isNaN(value) || value < 0 ? -1 : Math.round(value * 100) / 100.0;
+    }
+
+    public long getSampleTime() {
+        return sampleTime;
+    }
+
+    /**
+     * @return cpu usage of the host, or of the cgroup when its cpu is limited
+     */
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * @return memory usage of the host, or of the cgroup when its memory is limited
+     */
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * @return available physical memory, unit: G
+     */
+    public double getAvailablePhysicalMemorySize() {
+        return availablePhysicalMemorySize;
+    }
+
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    @Override
+    public String toString() {
+        return "SystemMetrics{"
+            + "sampleTime=" + sampleTime
+            + ", cpuUsage=" + cpuUsage
+            + ", memoryUsage=" + memoryUsage
+            + ", availablePhysicalMemorySize=" + availablePhysicalMemorySize
+            + ", loadAverage=" + loadAverage
+            + '}';
+    }
+}
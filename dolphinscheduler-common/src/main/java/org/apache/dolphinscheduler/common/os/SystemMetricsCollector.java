@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * samples the system metrics in a background thread into a ring buffer of the recent samples,
+ * so that reading the metrics is only a volatile read instead of sampling the system on every call.
+ * besides the latest sample it keeps an exponentially weighted moving average of the samples,
+ * which smooths the short spikes out of the scheduling decisions.
+ */
+public class SystemMetricsCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsCollector.class);
+
+    /**
+     * sample interval
+     */
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * interval between the first two samples, the first one has no cpu usage
+     */
+    private static final long SEED_INTERVAL_MILLIS = 100L;
+
+    /**
+     * number of the recent samples kept
+     */
+    private static final int HISTORY_SIZE = 60;
+
+    /**
+     * weight of the newest sample in the moving average, about the last 5 samples dominate it
+     */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final SystemMetricsSource source;
+
+    private final double alpha;
+
+    /**
+     * ring buffer of the recent samples, guarded by this
+     */
+    private final SystemMetrics[] history;
+
+    private int historyNext;
+
+    private int historySize;
+
+    private double[] average;
+
+    private volatile SystemMetrics latest;
+
+    private volatile SystemMetrics smoothed;
+
+    SystemMetricsCollector(SystemMetricsSource source, int historySize, double alpha) {
+        this.source = source;
+        this.alpha = alpha;
+        this.history = new SystemMetrics[historySize];
+        SystemMetrics unknown = new SystemMetrics(0, -1, -1, -1, -1);
+        this.latest = unknown;
+        this.smoothed = unknown;
+    }
+
+    /**
+     * the collector of this process, it takes the first sample before it is returned
+     *
+     * @return collector
+     */
+    public static SystemMetricsCollector getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the latest sample
+     */
+    public SystemMetrics getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the samples, the sample time is the one of the latest sample
+     */
+    public SystemMetrics getSmoothed() {
+        return smoothed;
+    }
+
+    /**
+     * @return the recent samples, from the oldest to the latest
+     */
+    public synchronized List<SystemMetrics> getHistory() {
+        List<SystemMetrics> samples = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            samples.add(history[(historyNext - historySize + i + history.length) % history.length]);
+        }
+        return samples;
+    }
+
+    /**
+     * take a sample from the source, a failed sample keeps the previous values
+     */
+    synchronized void sample() {
+        SystemMetrics sample;
+        try {
+            sample = source.sample();
+        } catch (Exception e) {
+            logger.warn("sample system metrics error", e);
+            return;
+        }
+        history[historyNext] = sample;
+        historyNext = (historyNext + 1) % history.length;
+        historySize = Math.min(historySize + 1, history.length);
+
+        double[] values = {sample.getCpuUsage(), sample.getMemoryUsage(), sample.getAvailablePhysicalMemorySize(), sample.getLoadAverage()};
+        if (average == null) {
+            average = values;
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                // an unknown value does not move the average, an unknown average starts over from the value
+                if (values[i] >= 0) {
+                    average[i] = average[i] < 0 ? values[i] : average[i] + alpha * (values[i] - average[i]);
+                }
+            }
+        }
+        latest = sample;
+        smoothed = new SystemMetrics(sample.getSampleTime(), average[0], average[1], average[2], average[3]);
+    }
+
+    private void start(long intervalMillis) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("SystemMetricsSampler").build());
+        executor.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static SystemMetricsCollector create() {
+        Path procRoot = Paths.get("/proc");
+        SystemMetricsSource source = ProcSystemMetricsSource.isSupported(procRoot)
+            ? new ProcSystemMetricsSource(procRoot, Paths.get("/sys/fs/cgroup"))
+            : new OshiSystemMetricsSource();
+        SystemMetricsCollector collector = new SystemMetricsCollector(source, HISTORY_SIZE, EWMA_ALPHA);
+        collector.sample();
+        // seed the cpu usage, so that it is known before the first interval elapsed
+        try {
+            TimeUnit.MILLISECONDS.sleep(SEED_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        collector.sample();
+        collector.start(SAMPLE_INTERVAL_MILLIS);
+        return collector;
+    }
+
+    private static class Holder {
+        private static final SystemMetricsCollector INSTANCE = create();
+    }
+}
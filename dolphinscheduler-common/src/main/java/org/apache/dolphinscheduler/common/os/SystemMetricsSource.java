@@ -15,9 +15,18 @@
  * limitations under the License.
  */
 
-package org.apache.dolphinscheduler.common.enums;
+package org.apache.dolphinscheduler.common.os;
 
-public enum SlotCheckState {
+/**
+ * source of the system metrics samples, it is only called by the sampler thread
+ */
+interface SystemMetricsSource {
 
-    PASS,INJECT,CHANGE
+    /**
+     * take a sample, the cpu usage is measured since the previous sample
+     *
+     * @return sample
+     * @throws Exception if the metrics can not be read
+     */
+    SystemMetrics sample() throws Exception;
 }
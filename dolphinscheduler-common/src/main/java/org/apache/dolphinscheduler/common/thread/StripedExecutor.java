@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.thread;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * striped keyed serial executor, every key is hashed to a fixed lane run by one thread,
+ * so the tasks of one key run one at a time in submission order without any bookkeeping per key.
+ * the lanes run on virtual threads if asked to and the running jdk provides them.
+ */
+public class StripedExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedExecutor.class);
+
+    private final String name;
+
+    private final Lane[] lanes;
+
+    private final boolean virtual;
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param name thread name prefix
+     * @param laneCount lane count
+     * @param virtualThreads run the lanes on virtual threads, ignored before java 21
+     */
+    public StripedExecutor(String name, int laneCount, boolean virtualThreads) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("lane count must be positive : " + laneCount);
+        }
+        this.name = name;
+        ThreadFactory threadFactory = virtualThreads ? virtualThreadFactory(name) : null;
+        this.virtual = threadFactory != null;
+        if (threadFactory == null) {
+            threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-%d").build();
+        }
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+            lanes[i].thread = threadFactory.newThread(lanes[i]);
+            lanes[i].thread.start();
+        }
+    }
+
+    /**
+     * the lane of a key
+     */
+    public int laneOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * run the task after the tasks submitted before with the same key
+     */
+    public void execute(int key, Runnable task) {
+        executeOnLane(laneOf(key), task);
+    }
+
+    /**
+     * run the task on the lane, after the tasks submitted to the lane before
+     */
+    public void executeOnLane(int lane, Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException(name + " is shut down");
+        }
+        lanes[lane].tasks.offer(task);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * tasks waiting on the lane, the running one excluded
+     */
+    public int getQueuedTasks(int lane) {
+        return lanes[lane].tasks.size();
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * stop the lanes, the running tasks are interrupted and the queued tasks are dropped
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("virtual threads are not available on java {}, {} runs on platform threads",
+                    System.getProperty("java.version"), name);
+            return null;
+        }
+    }
+
+    private class Lane implements Runnable {
+
+        private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+        private Thread thread;
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                Runnable task;
+                try {
+                    task = tasks.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.error("{} task error", name, t);
+                }
+            }
+        }
+    }
+}
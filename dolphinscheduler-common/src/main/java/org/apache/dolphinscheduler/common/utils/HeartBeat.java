@@ -19,6 +19,11 @@ package org.apache.dolphinscheduler.common.utils;
 
 import org.apache.dolphinscheduler.common.Constants;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +32,26 @@ public class HeartBeat {
     private static final Logger logger = LoggerFactory.getLogger(HeartBeat.class);
     public static final String COMMA = ",";
 
+    /**
+     * prefix of the binary heartbeat, the legacy comma joined heartbeat always starts with a digit
+     */
+    public static final String BINARY_PREFIX = "@";
+
+    /**
+     * version of the binary heartbeat layout
+     */
+    private static final int BINARY_VERSION = 1;
+
+    /**
+     * the usages are published again once they change by this much
+     */
+    private static final double USAGE_CHANGE_THRESHOLD = 0.05;
+
+    /**
+     * the load average and available memory are published again once they change by this ratio, at least by 0.1
+     */
+    private static final double LOAD_CHANGE_RATIO = 0.1;
+
     private long startupTime;
     private long reportTime;
     private double cpuUsage;
@@ -185,7 +210,7 @@ public class HeartBeat {
      */
     public void updateServerState() {
         this.reportTime = System.currentTimeMillis();
-        if (loadAverage > maxCpuloadAvg || availablePhysicalMemorySize < reservedMemory) {
+        if (OSUtils.isOverloaded(loadAverage, availablePhysicalMemorySize, maxCpuloadAvg, reservedMemory)) {
             logger.warn("current cpu load average {} is too high or available memory {}G is too low, under max.cpuload.avg={} and reserved.memory={}G",
                     loadAverage, availablePhysicalMemorySize, maxCpuloadAvg, reservedMemory);
             this.serverStatus = Constants.ABNORMAL_NODE_STATUS;
@@ -198,12 +223,75 @@ public class HeartBeat {
     }
 
     /**
-     * encode heartbeat
+     * refresh the system info and the server state
      */
-    public String encodeHeartBeat() {
+    public void refresh() {
         this.fillSystemInfo();
         this.updateServerState();
+    }
+
+    /**
+     * whether the heartbeat changed enough since the published one to be worth publishing again,
+     * a change of the server state or of the worker counters is always published
+     *
+     * @param published last published heartbeat
+     * @return true if changed significantly
+     */
+    public boolean isChangedSignificantly(HeartBeat published) {
+        return serverStatus != published.serverStatus
+                || startupTime != published.startupTime
+                || processId != published.processId
+                || workerHostWeight != published.workerHostWeight
+                || workerExecThreadCount != published.workerExecThreadCount
+                || workerWaitingTaskCount != published.workerWaitingTaskCount
+                || maxCpuloadAvg != published.maxCpuloadAvg
+                || reservedMemory != published.reservedMemory
+                || Math.abs(cpuUsage - published.cpuUsage) >= USAGE_CHANGE_THRESHOLD
+                || Math.abs(memoryUsage - published.memoryUsage) >= USAGE_CHANGE_THRESHOLD
+                || isChangedByRatio(loadAverage, published.loadAverage)
+                || isChangedByRatio(availablePhysicalMemorySize, published.availablePhysicalMemorySize);
+    }
+
+    private static boolean isChangedByRatio(double value, double published) {
+        return Math.abs(value - published) >= LOAD_CHANGE_RATIO * Math.max(Math.abs(published), 1);
+    }
+
+    /**
+     * refresh and encode heartbeat
+     */
+    public String encodeHeartBeat() {
+        this.refresh();
+        return encodeBinary();
+    }
 
+    /**
+     * encode the current values to the binary heartbeat, the usages and sizes are kept with two decimals
+     * like {@link OSUtils} reports them, and the numbers are written as zigzag varints, so that it takes less
+     * than two thirds of the comma joined heartbeat and is decoded without any number parsing
+     */
+    public String encodeBinary() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(48);
+        out.write(BINARY_VERSION);
+        writeHundredths(out, cpuUsage);
+        writeHundredths(out, memoryUsage);
+        writeHundredths(out, loadAverage);
+        writeHundredths(out, availablePhysicalMemorySize);
+        writeHundredths(out, maxCpuloadAvg);
+        writeHundredths(out, reservedMemory);
+        writeVarLong(out, startupTime);
+        writeVarLong(out, reportTime - startupTime);
+        writeVarLong(out, serverStatus);
+        writeVarLong(out, processId);
+        writeVarLong(out, workerHostWeight);
+        writeVarLong(out, workerExecThreadCount);
+        writeVarLong(out, workerWaitingTaskCount);
+        return BINARY_PREFIX + Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * encode the current values to the legacy comma joined heartbeat
+     */
+    public String encodeText() {
         StringBuilder builder = new StringBuilder(100);
         builder.append(cpuUsage).append(COMMA);
         builder.append(memoryUsage).append(COMMA);
@@ -223,9 +311,12 @@ public class HeartBeat {
     }
 
     /**
-     * decode heartbeat
+     * decode heartbeat, both the binary and the legacy comma joined heartbeat are accepted
      */
     public static HeartBeat decodeHeartBeat(String heartBeatInfo) {
+        if (heartBeatInfo.startsWith(BINARY_PREFIX)) {
+            return decodeBinary(heartBeatInfo);
+        }
         String[] parts = heartBeatInfo.split(Constants.COMMA);
         if (parts.length != Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH) {
             return null;
@@ -246,4 +337,62 @@ public class HeartBeat {
         heartBeat.workerWaitingTaskCount = Integer.parseInt(parts[12]);
         return heartBeat;
     }
+
+    private static HeartBeat decodeBinary(String heartBeatInfo) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Base64.getDecoder().decode(heartBeatInfo.substring(BINARY_PREFIX.length())));
+            int version = in.get();
+            if (version != BINARY_VERSION) {
+                logger.warn("unsupported heartbeat version {}", version);
+                return null;
+            }
+            HeartBeat heartBeat = new HeartBeat();
+            heartBeat.cpuUsage = readHundredths(in);
+            heartBeat.memoryUsage = readHundredths(in);
+            heartBeat.loadAverage = readHundredths(in);
+            heartBeat.availablePhysicalMemorySize = readHundredths(in);
+            heartBeat.maxCpuloadAvg = readHundredths(in);
+            heartBeat.reservedMemory = readHundredths(in);
+            heartBeat.startupTime = readVarLong(in);
+            heartBeat.reportTime = heartBeat.startupTime + readVarLong(in);
+            heartBeat.serverStatus = (int) readVarLong(in);
+            heartBeat.processId = (int) readVarLong(in);
+            heartBeat.workerHostWeight = (int) readVarLong(in);
+            heartBeat.workerExecThreadCount = (int) readVarLong(in);
+            heartBeat.workerWaitingTaskCount = (int) readVarLong(in);
+            return heartBeat;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            logger.warn("invalid heartbeat: {}", heartBeatInfo);
+            return null;
+        }
+    }
+
+    private static void writeHundredths(ByteArrayOutputStream out, double value) {
+        writeVarLong(out, Math.round(value * 100));
+    }
+
+    private static double readHundredths(ByteBuffer in) {
+        return readVarLong(in) / 100.0;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
 }
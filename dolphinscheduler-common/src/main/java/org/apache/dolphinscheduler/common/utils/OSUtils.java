@@ -17,6 +17,8 @@
 
 package org.apache.dolphinscheduler.common.utils;
 
+import org.apache.dolphinscheduler.common.os.SystemMetrics;
+import org.apache.dolphinscheduler.common.os.SystemMetricsCollector;
 import org.apache.dolphinscheduler.common.shell.ShellExecutor;
 
 import org.apache.commons.lang.StringUtils;
@@ -27,10 +29,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.management.ManagementFactory;
-import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
-import java.math.RoundingMode;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -41,11 +40,6 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import oshi.SystemInfo;
-import oshi.hardware.CentralProcessor;
-import oshi.hardware.GlobalMemory;
-import oshi.hardware.HardwareAbstractionLayer;
-
 /**
  * os utils
  */
@@ -53,20 +47,12 @@ public class OSUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(OSUtils.class);
 
-    private static final SystemInfo SI = new SystemInfo();
-    public static final String TWO_DECIMAL = "0.00";
-
     /**
      * return -1 when the function can not get hardware env info
      * e.g {@link OSUtils#loadAverage()} {@link OSUtils#cpuUsage()}
      */
     public static final double NEGATIVE_ONE = -1;
 
-    private static final HardwareAbstractionLayer hal = SI.getHardware();
-    private static long[] prevTicks = new long[CentralProcessor.TickType.values().length];
-    private static long prevTickTime = 0L;
-    private static double cpuUsage = 0.0D;
-
     private OSUtils() {
         throw new UnsupportedOperationException("Construct OSUtils");
     }
@@ -78,82 +64,42 @@ public class OSUtils {
     private static final Pattern PATTERN = Pattern.compile("\\s+");
 
     /**
-     * get memory usage
+     * get memory usage from the latest sample of {@link SystemMetricsCollector}
      * Keep 2 decimal
      *
      * @return percent %
      */
     public static double memoryUsage() {
-        GlobalMemory memory = hal.getMemory();
-        double memoryUsage = (memory.getTotal() - memory.getAvailable()) * 1.0 / memory.getTotal();
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(memoryUsage));
+        return SystemMetricsCollector.getInstance().getLatest().getMemoryUsage();
     }
 
     /**
-     * get available physical memory size
+     * get available physical memory size from the latest sample of {@link SystemMetricsCollector}
      * <p>
      * Keep 2 decimal
      *
      * @return available Physical Memory Size, unit: G
      */
     public static double availablePhysicalMemorySize() {
-        GlobalMemory memory = hal.getMemory();
-        double availablePhysicalMemorySize = memory.getAvailable() / 1024.0 / 1024 / 1024;
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(availablePhysicalMemorySize));
+        return SystemMetricsCollector.getInstance().getLatest().getAvailablePhysicalMemorySize();
     }
 
     /**
-     * load average
+     * load average from the latest sample of {@link SystemMetricsCollector}
      *
      * @return load average
      */
     public static double loadAverage() {
-        double loadAverage;
-        try {
-            OperatingSystemMXBean osBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
-            loadAverage = osBean.getSystemLoadAverage();
-        } catch (Exception e) {
-            logger.error("get operation system load average exception, try another method ", e);
-            loadAverage = hal.getProcessor().getSystemLoadAverage(1)[0];
-            if (Double.isNaN(loadAverage)) {
-                return NEGATIVE_ONE;
-            }
-        }
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(loadAverage));
+        return SystemMetricsCollector.getInstance().getLatest().getLoadAverage();
     }
 
     /**
-     * get cpu usage
+     * get cpu usage from the latest sample of {@link SystemMetricsCollector}
      *
      * @return cpu usage
      */
     public static double cpuUsage() {
-        CentralProcessor processor = hal.getProcessor();
-
-        // Check if > ~ 0.95 seconds since last tick count.
-        long now = System.currentTimeMillis();
-        if (now - prevTickTime > 950) {
-            // Enough time has elapsed.
-            cpuUsage =  processor.getSystemCpuLoadBetweenTicks(prevTicks);
-            prevTickTime = System.currentTimeMillis();
-            prevTicks = processor.getSystemCpuLoadTicks();
-        }
-
-        if (Double.isNaN(cpuUsage)) {
-            return NEGATIVE_ONE;
-        }
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(cpuUsage));
+        return SystemMetricsCollector.getInstance().getLatest().getCpuUsage();
     }
 
     public static List<String> getUserList() {
@@ -430,11 +376,24 @@ public class OSUtils {
      * @return check memory and cpu usage
      */
     public static Boolean checkResource(double maxCpuloadAvg, double reservedMemory) {
+        // the smoothed metrics, so that a short spike does not stop the scheduling
+        return checkResource(SystemMetricsCollector.getInstance().getSmoothed(), maxCpuloadAvg, reservedMemory);
+    }
+
+    /**
+     * check memory and cpu usage of the metrics, a metric that can not be read passes the check
+     *
+     * @param metrics system metrics
+     * @param maxCpuloadAvg maxCpuloadAvg
+     * @param reservedMemory reservedMemory
+     * @return check memory and cpu usage
+     */
+    public static Boolean checkResource(SystemMetrics metrics, double maxCpuloadAvg, double reservedMemory) {
         // system load average
-        double loadAverage = loadAverage();
+        double loadAverage = metrics.getLoadAverage();
         // system available physical memory
-        double availablePhysicalMemorySize = availablePhysicalMemorySize();
-        if (loadAverage > maxCpuloadAvg || availablePhysicalMemorySize < reservedMemory) {
+        double availablePhysicalMemorySize = metrics.getAvailablePhysicalMemorySize();
+        if (isOverloaded(loadAverage, availablePhysicalMemorySize, maxCpuloadAvg, reservedMemory)) {
             logger.warn("current cpu load average {} is too high or available memory {}G is too low, under max.cpuload.avg={} and reserved.memory={}G",
                     loadAverage, availablePhysicalMemorySize, maxCpuloadAvg, reservedMemory);
             return false;
@@ -443,4 +402,19 @@ public class OSUtils {
         }
     }
 
+    /**
+     * whether the load average is too high or the available memory too low, an unknown value, i.e. negative, is not
+     * counted, otherwise a server whose metrics can not be read would never schedule again
+     *
+     * @param loadAverage load average
+     * @param availablePhysicalMemorySize available physical memory, unit: G
+     * @param maxCpuloadAvg maxCpuloadAvg
+     * @param reservedMemory reservedMemory, unit: G
+     * @return true if overloaded
+     */
+    public static boolean isOverloaded(double loadAverage, double availablePhysicalMemorySize, double maxCpuloadAvg, double reservedMemory) {
+        return (loadAverage >= 0 && loadAverage > maxCpuloadAvg)
+                || (availablePhysicalMemorySize >= 0 && availablePhysicalMemorySize < reservedMemory);
+    }
+
 }
@@ -46,6 +46,15 @@ public class OSUtilsTest {
         Assert.assertTrue(loadAverage >= 0.0);
     }
 
+    @Test
+    public void testCheckResource() {
+        Assert.assertTrue(OSUtils.checkResource(new SystemMetrics(1, 0.5, 0.5, 8, 1), 2, 1));
+        Assert.assertFalse(OSUtils.checkResource(new SystemMetrics(1, 0.5, 0.5, 8, 3), 2, 1));
+        Assert.assertFalse(OSUtils.checkResource(new SystemMetrics(1, 0.5, 0.5, 0.5, 1), 2, 1));
+        // the metrics that can not be read do not stop the scheduling
+        Assert.assertTrue(OSUtils.checkResource(new SystemMetrics(1, -1, -1, -1, -1), 2, 1));
+    }
+
     @Test
     public void cpuUsage() {
         double cpuUsage = OSUtils.cpuUsage();
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProcSystemMetricsSourceTest {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path procRoot;
+
+    private Path cgroupRoot;
+
+    @Before
+    public void before() throws IOException {
+        procRoot = folder.newFolder("proc").toPath();
+        cgroupRoot = folder.newFolder("cgroup").toPath();
+        write(procRoot.resolve("loadavg"), "1.25 0.76 1.21 2/71 17327\n");
+        write(procRoot.resolve("meminfo"), "MemTotal:        8388608 kB\nMemFree:          1048576 kB\nMemAvailable:    6291456 kB\n");
+        write(procRoot.resolve("stat"), "cpu  100 0 100 700 100 0 0 0 0 0\ncpu0 100 0 100 700 100 0 0 0 0 0\n");
+    }
+
+    @Test
+    public void testHost() throws Exception {
+        Assert.assertTrue(ProcSystemMetricsSource.isSupported(procRoot));
+        ProcSystemMetricsSource source = new ProcSystemMetricsSource(procRoot, cgroupRoot);
+        SystemMetrics first = source.sample();
+        // the first sample would measure the cpu since boot, it is unknown
+        Assert.assertEquals(-1, first.getCpuUsage(), 0);
+        Assert.assertEquals(0.25, first.getMemoryUsage(), 0);
+        Assert.assertEquals(6, first.getAvailablePhysicalMemorySize(), 0);
+        Assert.assertEquals(1.25, first.getLoadAverage(), 0);
+
+        // iowait counts as idle
+        write(procRoot.resolve("stat"), "cpu  250 0 150 800 100 0 0 0 0 0\n");
+        Assert.assertEquals(0.67, source.sample().getCpuUsage(), 0);
+    }
+
+    @Test
+    public void testCgroupV2() throws Exception {
+        write(cgroupRoot.resolve("memory.max"), String.valueOf(4 * GB));
+        write(cgroupRoot.resolve("memory.current"), String.valueOf(3 * GB));
+        write(cgroupRoot.resolve("cpu.max"), "200000 100000\n");
+        write(cgroupRoot.resolve("cpu.stat"), "usage_usec 1000\nuser_usec 800\n");
+        ProcSystemMetricsSource source = new ProcSystemMetricsSource(procRoot, cgroupRoot);
+        SystemMetrics metrics = source.sample();
+        Assert.assertEquals(0.75, metrics.getMemoryUsage(), 0);
+        Assert.assertEquals(1, metrics.getAvailablePhysicalMemorySize(), 0);
+
+        write(cgroupRoot.resolve("cpu.stat"), "usage_usec " + (1000 + 2_000_000) + "\n");
+        Thread.sleep(10);
+        // two cores fully busy over a much longer time than passed
+        Assert.assertEquals(1, source.sample().getCpuUsage(), 0);
+    }
+
+    @Test
+    public void testCgroupV1Unlimited() throws Exception {
+        Files.createDirectories(cgroupRoot.resolve("memory"));
+        Files.createDirectories(cgroupRoot.resolve("cpu"));
+        write(cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes"), "9223372036854771712\n");
+        write(cgroupRoot.resolve("memory").resolve("memory.usage_in_bytes"), String.valueOf(GB));
+        write(cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us"), "-1\n");
+        write(cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us"), "100000\n");
+        SystemMetrics metrics = new ProcSystemMetricsSource(procRoot, cgroupRoot).sample();
+        Assert.assertEquals(0.25, metrics.getMemoryUsage(), 0);
+        Assert.assertEquals(-1, metrics.getCpuUsage(), 0);
+    }
+
+    @Test
+    public void testCgroupV1Limited() throws Exception {
+        Files.createDirectories(cgroupRoot.resolve("memory"));
+        Files.createDirectories(cgroupRoot.resolve("cpu"));
+        Files.createDirectories(cgroupRoot.resolve("cpuacct"));
+        write(cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes"), String.valueOf(2 * GB));
+        write(cgroupRoot.resolve("memory").resolve("memory.usage_in_bytes"), String.valueOf(GB));
+        write(cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us"), "50000\n");
+        write(cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us"), "100000\n");
+        write(cgroupRoot.resolve("cpuacct").resolve("cpuacct.usage"), "0\n");
+        ProcSystemMetricsSource source = new ProcSystemMetricsSource(procRoot, cgroupRoot);
+        SystemMetrics metrics = source.sample();
+        Assert.assertEquals(0.5, metrics.getMemoryUsage(), 0);
+        Assert.assertEquals(1, metrics.getAvailablePhysicalMemorySize(), 0);
+        // no cpu usage before the second sample
+        Assert.assertEquals(-1, metrics.getCpuUsage(), 0);
+
+        long start = System.nanoTime();
+        Thread.sleep(200);
+        // half of the elapsed time on a quota of half a core is fully busy
+        write(cgroupRoot.resolve("cpuacct").resolve("cpuacct.usage"), String.valueOf((System.nanoTime() - start) / 2));
+        double cpuUsage = source.sample().getCpuUsage();
+        Assert.assertTrue(String.valueOf(cpuUsage), cpuUsage > 0.8 && cpuUsage <= 1);
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SystemMetricsCollectorTest {
+
+    @Test
+    public void testHistoryRingBuffer() {
+        Queue<SystemMetrics> samples = new ArrayDeque<>();
+        for (int i = 1; i <= 5; i++) {
+            samples.add(new SystemMetrics(i, 0.1 * i, 0.5, 4, 1));
+        }
+        SystemMetricsCollector collector = new SystemMetricsCollector(samples::poll, 3, 0.5);
+        Assert.assertTrue(collector.getHistory().isEmpty());
+        Assert.assertEquals(-1, collector.getLatest().getCpuUsage(), 0);
+
+        for (int i = 0; i < 5; i++) {
+            collector.sample();
+        }
+        List<SystemMetrics> history = collector.getHistory();
+        Assert.assertEquals(3, history.size());
+        Assert.assertEquals(Arrays.asList(3L, 4L, 5L), Arrays.asList(history.get(0).getSampleTime(),
+            history.get(1).getSampleTime(), history.get(2).getSampleTime()));
+        Assert.assertEquals(0.5, collector.getLatest().getCpuUsage(), 0);
+    }
+
+    @Test
+    public void testSmoothed() {
+        Queue<SystemMetrics> samples = new ArrayDeque<>(Arrays.asList(
+            new SystemMetrics(1, -1, 0.2, 8, 2),
+            new SystemMetrics(2, 0.4, 0.6, 4, 10),
+            new SystemMetrics(3, 0.8, 0.6, 4, 2)));
+        SystemMetricsCollector collector = new SystemMetricsCollector(samples::poll, 10, 0.5);
+
+        collector.sample();
+        Assert.assertEquals(-1, collector.getSmoothed().getCpuUsage(), 0);
+        Assert.assertEquals(2, collector.getSmoothed().getLoadAverage(), 0);
+
+        collector.sample();
+        // an unknown average starts over from the first known value
+        Assert.assertEquals(0.4, collector.getSmoothed().getCpuUsage(), 0);
+        Assert.assertEquals(0.4, collector.getSmoothed().getMemoryUsage(), 0);
+        Assert.assertEquals(6, collector.getSmoothed().getAvailablePhysicalMemorySize(), 0);
+        Assert.assertEquals(6, collector.getSmoothed().getLoadAverage(), 0);
+
+        collector.sample();
+        Assert.assertEquals(0.6, collector.getSmoothed().getCpuUsage(), 0);
+        Assert.assertEquals(4, collector.getSmoothed().getLoadAverage(), 0);
+        Assert.assertEquals(2, collector.getLatest().getLoadAverage(), 0);
+        Assert.assertEquals(3, collector.getSmoothed().getSampleTime());
+    }
+
+    @Test
+    public void testFailedSampleKeepsPreviousValues() {
+        Queue<SystemMetrics> samples = new ArrayDeque<>(Arrays.asList(new SystemMetrics(1, 0.3, 0.2, 8, 2)));
+        SystemMetricsCollector collector = new SystemMetricsCollector(() -> {
+            if (samples.isEmpty()) {
+                throw new IllegalStateException("no sample");
+            }
+            return samples.poll();
+        }, 10, 0.5);
+        collector.sample();
+        collector.sample();
+        Assert.assertEquals(0.3, collector.getLatest().getCpuUsage(), 0);
+        Assert.assertEquals(1, collector.getHistory().size());
+    }
+
+    @Test
+    public void testInstance() {
+        SystemMetrics metrics = SystemMetricsCollector.getInstance().getLatest();
+        Assert.assertTrue(metrics.getSampleTime() > 0);
+        Assert.assertTrue(metrics.getMemoryUsage() >= 0);
+        Assert.assertTrue(metrics.getAvailablePhysicalMemorySize() >= 0);
+    }
+}
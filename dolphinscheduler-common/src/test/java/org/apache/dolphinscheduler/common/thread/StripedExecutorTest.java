@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.thread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedExecutorTest {
+
+    private StripedExecutor stripedExecutor;
+
+    @After
+    public void after() {
+        if (stripedExecutor != null) {
+            stripedExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTasksOfOneKeyRunInOrder() throws InterruptedException {
+        stripedExecutor = new StripedExecutor("StripedExecutorTest", 4, false);
+        int keys = 16;
+        int tasksPerKey = 500;
+        List<List<Integer>> results = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            results.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                int sequence = i;
+                List<Integer> result = results.get(key);
+                stripedExecutor.execute(key, () -> {
+                    result.add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> result : results) {
+            for (int i = 0; i < tasksPerKey; i++) {
+                Assert.assertEquals(i, result.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testLaneOf() {
+        stripedExecutor = new StripedExecutor("StripedExecutorTest", 8, false);
+        Set<Integer> usedLanes = new HashSet<>();
+        for (int key = 1; key <= 64; key++) {
+            int lane = stripedExecutor.laneOf(key);
+            Assert.assertTrue(lane >= 0 && lane < 8);
+            Assert.assertEquals(lane, stripedExecutor.laneOf(key));
+            usedLanes.add(lane);
+        }
+        Assert.assertEquals(8, usedLanes.size());
+        Assert.assertTrue(stripedExecutor.laneOf(-7) >= 0);
+    }
+
+    @Test
+    public void testFailedTaskKeepsLaneRunning() throws InterruptedException {
+        stripedExecutor = new StripedExecutor("StripedExecutorTest", 1, true);
+        CountDownLatch done = new CountDownLatch(1);
+        stripedExecutor.execute(1, () -> {
+            throw new IllegalStateException("task failed");
+        });
+        stripedExecutor.execute(1, done::countDown);
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        stripedExecutor.shutdown();
+        try {
+            stripedExecutor.execute(1, done::countDown);
+            Assert.fail("rejected after shutdown");
+        } catch (RejectedExecutionException e) {
+            Assert.assertTrue(e.getMessage().contains("StripedExecutorTest"));
+        }
+    }
+}
@@ -18,6 +18,9 @@
 package org.apache.dolphinscheduler.common.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.dolphinscheduler.common.Constants;
 
@@ -38,6 +41,15 @@ public class HeartBeatTest {
         assertEquals(Constants.ABNORMAL_NODE_STATUS, heartBeat.getServerStatus());
     }
 
+    @Test
+    public void testUnknownMetricsState() {
+        HeartBeat heartBeat = new HeartBeat(System.currentTimeMillis(), 1, 1);
+        heartBeat.setLoadAverage(-1);
+        heartBeat.setAvailablePhysicalMemorySize(-1);
+        heartBeat.updateServerState();
+        assertEquals(Constants.NORMAL_NODE_STATUS, heartBeat.getServerStatus());
+    }
+
     @Test
     public void testBusyState() {
         long startupTime = System.currentTimeMillis();
@@ -73,4 +85,36 @@ public class HeartBeatTest {
         assertEquals(200, heartBeat.getWorkerWaitingTaskCount());
     }
 
+    @Test
+    public void testBinaryHeartBeat() {
+        String heartBeatInfo = "0.35,0.58,3.09,6.47,5.0,-1.0,1634033006749,1634033006857,1,29732,1,199,200";
+        HeartBeat heartBeat = HeartBeat.decodeHeartBeat(heartBeatInfo);
+
+        String binary = heartBeat.encodeBinary();
+        assertTrue(binary.startsWith(HeartBeat.BINARY_PREFIX));
+        assertTrue(binary.length() < heartBeatInfo.length() * 2 / 3);
+        assertEquals(heartBeatInfo, HeartBeat.decodeHeartBeat(binary).encodeText());
+
+        assertNull(HeartBeat.decodeHeartBeat(HeartBeat.BINARY_PREFIX + "AQ"));
+        assertNull(HeartBeat.decodeHeartBeat(HeartBeat.BINARY_PREFIX + "Ag"));
+    }
+
+    @Test
+    public void testChangedSignificantly() {
+        HeartBeat published = HeartBeat.decodeHeartBeat("0.35,0.58,3.09,6.47,5.0,1.0,1634033006749,1634033006857,0,29732,1,199,200");
+        HeartBeat heartBeat = HeartBeat.decodeHeartBeat("0.37,0.60,3.2,6.3,5.0,1.0,1634033006749,1634033007857,0,29732,1,199,200");
+        assertFalse(heartBeat.isChangedSignificantly(published));
+
+        heartBeat.setCpuUsage(0.45);
+        assertTrue(heartBeat.isChangedSignificantly(published));
+
+        heartBeat.setCpuUsage(0.35);
+        heartBeat.setLoadAverage(3.5);
+        assertTrue(heartBeat.isChangedSignificantly(published));
+
+        heartBeat.setLoadAverage(3.09);
+        heartBeat.setServerStatus(Constants.BUSY_NODE_STATUE);
+        assertTrue(heartBeat.isChangedSignificantly(published));
+    }
+
 }
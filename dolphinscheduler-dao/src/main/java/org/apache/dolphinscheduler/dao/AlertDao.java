@@ -53,6 +53,7 @@ import org.springframework.stereotype.Component;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.common.collect.Lists;
 
 @Component
@@ -102,6 +103,25 @@ public class AlertDao {
         return alertMapper.updateById(alert);
     }
 
+    /**
+     * update the sending(execution) status of alerts
+     *
+     * @param alertStatus alertStatus
+     * @param log log
+     * @param ids alert ids
+     * @return update alert result
+     */
+    public int updateAlerts(AlertStatus alertStatus, String log, List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Alert alert = new Alert();
+        alert.setAlertStatus(alertStatus);
+        alert.setUpdateTime(new Date());
+        alert.setLog(log);
+        return alertMapper.update(alert, new QueryWrapper<Alert>().lambda().in(Alert::getId, ids));
+    }
+
     /**
      * generate sign for alert
      *
@@ -135,6 +155,19 @@ public class AlertDao {
         return alertSendStatusMapper.insert(alertSendStatus);
     }
 
+    /**
+     * add AlertSendStatus in batch
+     *
+     * @param alertSendStatuses alert send statuses
+     * @return insert count
+     */
+    public int addAlertSendStatuses(List<AlertSendStatus> alertSendStatuses) {
+        if (alertSendStatuses.isEmpty()) {
+            return 0;
+        }
+        return alertSendStatusMapper.batchInsert(alertSendStatuses);
+    }
+
     /**
      * MasterServer or WorkerServer stopped
      *
@@ -249,12 +282,15 @@ public class AlertDao {
     }
 
     /**
-     * List alerts that are pending for execution
+     * List the oldest alerts that are pending for execution
+     *
+     * @param limit max count of the alerts
      */
-    public List<Alert> listPendingAlerts() {
+    public List<Alert> listPendingAlerts(int limit) {
         LambdaQueryWrapper<Alert> wrapper = new QueryWrapper<>(new Alert()).lambda()
-                .eq(Alert::getAlertStatus, AlertStatus.WAIT_EXECUTION);
-        return alertMapper.selectList(wrapper);
+                .eq(Alert::getAlertStatus, AlertStatus.WAIT_EXECUTION)
+                .orderByAsc(Alert::getId);
+        return alertMapper.selectPage(new Page<>(1, limit, false), wrapper).getRecords();
     }
 
     /**
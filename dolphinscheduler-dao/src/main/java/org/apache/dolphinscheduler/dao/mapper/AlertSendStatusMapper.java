@@ -19,7 +19,19 @@ package org.apache.dolphinscheduler.dao.mapper;
 
 import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
 public interface AlertSendStatusMapper extends BaseMapper<AlertSendStatus> {
+
+    /**
+     * batch insert alert send statuses
+     *
+     * @param alertSendStatuses alertSendStatuses
+     * @return insert count
+     */
+    int batchInsert(@Param("alertSendStatuses") List<AlertSendStatus> alertSendStatuses);
 }
@@ -52,10 +52,33 @@ public interface CommandMapper extends BaseMapper<Command> {
      */
     List<Command> queryCommandPage(@Param("limit") int limit, @Param("offset") int offset);
 
+    /**
+     * query commands which are not claimed by any master, in priority order
+     * @param limit limit
+     * @return command list
+     */
+    List<Command> queryUnclaimedCommands(@Param("limit") int limit);
 
     /**
-     * query command page by slot
+     * claim commands for master, commands already claimed by other masters are skipped
+     * @param host master host
+     * @param ids command ids
+     * @return claimed count
+     */
+    int claimCommands(@Param("host") String host, @Param("ids") List<Integer> ids);
+
+    /**
+     * query commands claimed by master, in priority order
+     * @param host master host
+     * @param limit limit
      * @return command list
      */
-    List<Command> queryCommandPageBySlot(@Param("limit") int limit, @Param("offset") int offset, @Param("masterCount") int masterCount, @Param("thisMasterSlot") int thisMasterSlot);
+    List<Command> queryClaimedCommands(@Param("host") String host, @Param("limit") int limit);
+
+    /**
+     * release commands claimed by master, so that other masters can claim them
+     * @param host master host
+     * @return released count
+     */
+    int releaseClaimedCommands(@Param("host") String host);
 }
@@ -116,6 +116,36 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
                                                           @Param("startTime") Date startTime,
                                                           @Param("endTime") Date endTime);
 
+    /**
+     * process instance page by keyset, newest first by (start_time, id)
+     *
+     * @param projectCode           projectCode
+     * @param processDefinitionCode processDefinitionCode
+     * @param searchVal             searchVal
+     * @param executorId            executorId
+     * @param statusArray           statusArray
+     * @param host                  host
+     * @param startTime             startTime
+     * @param endTime               endTime
+     * @param prefixSearch          match searchVal and host as prefixes instead of substrings
+     * @param lastStartTime         start time of the last instance of the previous page, null for the first page
+     * @param lastId                id of the last instance of the previous page
+     * @param limit                 max number of instances
+     * @return process instance list
+     */
+    List<ProcessInstance> queryProcessInstanceListByKeyset(@Param("projectCode") Long projectCode,
+                                                           @Param("processDefinitionCode") Long processDefinitionCode,
+                                                           @Param("searchVal") String searchVal,
+                                                           @Param("executorId") Integer executorId,
+                                                           @Param("states") int[] statusArray,
+                                                           @Param("host") String host,
+                                                           @Param("startTime") Date startTime,
+                                                           @Param("endTime") Date endTime,
+                                                           @Param("prefixSearch") boolean prefixSearch,
+                                                           @Param("lastStartTime") Date lastStartTime,
+                                                           @Param("lastId") Integer lastId,
+                                                           @Param("limit") int limit);
+
     /**
      * set failover by host and state array
      *
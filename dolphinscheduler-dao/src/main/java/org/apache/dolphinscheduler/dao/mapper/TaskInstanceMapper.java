@@ -97,5 +97,39 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                                     @Param("endTime") Date endTime
     );
 
+    /**
+     * task instance page by keyset, newest first by (submit_time, id)
+     *
+     * @param projectCode project code
+     * @param processInstanceId process instance id
+     * @param processInstanceName process instance name
+     * @param searchVal search value
+     * @param taskName task name
+     * @param executorId executor id
+     * @param statusArray status array
+     * @param host host
+     * @param startTime start time
+     * @param endTime end time
+     * @param prefixSearch match searchVal, host and processInstanceName as prefixes instead of substrings
+     * @param lastSubmitTime submit time of the last instance of the previous page, null for the first page
+     * @param lastId id of the last instance of the previous page
+     * @param limit max number of instances
+     * @return task instance list
+     */
+    List<TaskInstance> queryTaskInstanceListByKeyset(@Param("projectCode") Long projectCode,
+                                                     @Param("processInstanceId") Integer processInstanceId,
+                                                     @Param("processInstanceName") String processInstanceName,
+                                                     @Param("searchVal") String searchVal,
+                                                     @Param("taskName") String taskName,
+                                                     @Param("executorId") int executorId,
+                                                     @Param("states") int[] statusArray,
+                                                     @Param("host") String host,
+                                                     @Param("startTime") Date startTime,
+                                                     @Param("endTime") Date endTime,
+                                                     @Param("prefixSearch") boolean prefixSearch,
+                                                     @Param("lastSubmitTime") Date lastSubmitTime,
+                                                     @Param("lastId") Integer lastId,
+                                                     @Param("limit") int limit);
+
     List<TaskInstance> loadAllInfosNoRelease(@Param("processInstanceId") int processInstanceId, @Param("status") int status);
 }
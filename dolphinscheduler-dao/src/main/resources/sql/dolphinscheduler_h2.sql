@@ -337,8 +337,10 @@ CREATE TABLE t_ds_command
     dry_run                    int NULL DEFAULT 0,
     process_instance_id        int(11) DEFAULT 0,
     process_definition_version int(11) DEFAULT 0,
+    host                       varchar(135) NOT NULL DEFAULT '',
     PRIMARY KEY (id),
-    KEY                        priority_id_index (process_instance_priority, id)
+    KEY                        priority_id_index (process_instance_priority, id),
+    KEY                        host_priority_id_index (host, process_instance_priority, id)
 );
 
 -- ----------------------------
@@ -613,7 +615,10 @@ CREATE TABLE t_ds_process_instance
     var_pool                   longtext,
     dry_run                    int NULL DEFAULT 0,
     restart_time               datetime     DEFAULT NULL,
-    PRIMARY KEY (id)
+    PRIMARY KEY (id),
+    KEY                        start_time_id_index (start_time, id),
+    KEY                        process_definition_start_time_index (process_definition_code, start_time, id),
+    KEY                        process_instance_name_index (name)
 );
 
 -- ----------------------------
@@ -861,6 +866,8 @@ CREATE TABLE t_ds_task_instance
     var_pool                longtext,
     dry_run                 int NULL DEFAULT 0,
     PRIMARY KEY (id),
+    KEY                     idx_submit_time_id (submit_time, id),
+    KEY                     idx_name (name),
     FOREIGN KEY (process_instance_id) REFERENCES t_ds_process_instance (id) ON DELETE CASCADE
 );
 
@@ -268,10 +268,12 @@ CREATE TABLE t_ds_command (
   dry_run                   int DEFAULT '0' ,
   process_instance_id       int DEFAULT 0,
   process_definition_version int DEFAULT 0,
+  host                      varchar(135) NOT NULL DEFAULT '',
   PRIMARY KEY (id)
 ) ;
 
 create index priority_id_index on t_ds_command (process_instance_priority,id);
+create index host_priority_id_index on t_ds_command (host,process_instance_priority,id);
 
 --
 -- Table structure for table t_ds_datasource
@@ -548,6 +550,9 @@ CREATE TABLE t_ds_process_instance (
 
 create index process_instance_index on t_ds_process_instance (process_definition_code,id);
 create index start_time_index on t_ds_process_instance (start_time,end_time);
+create index start_time_id_index on t_ds_process_instance (start_time,id);
+create index process_definition_start_time_index on t_ds_process_instance (process_definition_code,start_time,id);
+create index process_instance_name_index on t_ds_process_instance (name varchar_pattern_ops);
 
 --
 -- Table structure for table t_ds_project
@@ -764,6 +769,8 @@ CREATE TABLE t_ds_task_instance (
 ) ;
 
 create index idx_task_instance_code_version on t_ds_task_instance (task_code, task_definition_version);
+create index idx_task_instance_submit_time_id on t_ds_task_instance (submit_time, id);
+create index idx_task_instance_name on t_ds_task_instance (name varchar_pattern_ops);
 
 --
 -- Table structure for table t_ds_tenant
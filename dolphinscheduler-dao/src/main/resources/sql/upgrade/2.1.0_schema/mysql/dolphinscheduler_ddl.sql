@@ -34,6 +34,15 @@ ALTER TABLE `t_ds_alert` ADD COLUMN `warning_type` tinyint(4) DEFAULT '2' COMMEN
 
 ALTER TABLE `t_ds_alert` ADD INDEX `idx_status` (`alert_status`) USING BTREE;
 
+ALTER TABLE `t_ds_command` ADD COLUMN `host` varchar(135) NOT NULL DEFAULT '' COMMENT 'host of the master which claimed the command, empty if not claimed';
+ALTER TABLE `t_ds_command` ADD INDEX `host_priority_id_index` (`host`,`process_instance_priority`,`id`) USING BTREE;
+
+ALTER TABLE `t_ds_process_instance` ADD INDEX `start_time_id_index` (`start_time`,`id`) USING BTREE;
+ALTER TABLE `t_ds_process_instance` ADD INDEX `process_definition_start_time_index` (`process_definition_code`,`start_time`,`id`) USING BTREE;
+ALTER TABLE `t_ds_process_instance` ADD INDEX `process_instance_name_index` (`name`) USING BTREE;
+ALTER TABLE `t_ds_task_instance` ADD INDEX `idx_submit_time_id` (`submit_time`,`id`) USING BTREE;
+ALTER TABLE `t_ds_task_instance` ADD INDEX `idx_name` (`name`) USING BTREE;
+
 --
 -- Table structure for table `t_ds_dq_comparison_type`
 --
@@ -161,6 +161,15 @@ EXECUTE 'CREATE TABLE IF NOT EXISTS' || quote_ident(v_schema) ||'."t_ds_relation
 EXECUTE 'DROP INDEX IF EXISTS "idx_alert_status"';
 EXECUTE 'CREATE INDEX IF NOT EXISTS idx_alert_status ON ' || quote_ident(v_schema) ||'.t_ds_alert USING Btree("alert_status")';
 
+EXECUTE 'ALTER TABLE ' || quote_ident(v_schema) ||'.t_ds_command ADD COLUMN IF NOT EXISTS "host" varchar(135) NOT NULL DEFAULT ''''';
+EXECUTE 'CREATE INDEX IF NOT EXISTS host_priority_id_index ON ' || quote_ident(v_schema) ||'.t_ds_command USING Btree("host","process_instance_priority","id")';
+
+EXECUTE 'CREATE INDEX IF NOT EXISTS start_time_id_index ON ' || quote_ident(v_schema) ||'.t_ds_process_instance USING Btree("start_time","id")';
+EXECUTE 'CREATE INDEX IF NOT EXISTS process_definition_start_time_index ON ' || quote_ident(v_schema) ||'.t_ds_process_instance USING Btree("process_definition_code","start_time","id")';
+EXECUTE 'CREATE INDEX IF NOT EXISTS process_instance_name_index ON ' || quote_ident(v_schema) ||'.t_ds_process_instance USING Btree("name" varchar_pattern_ops)';
+EXECUTE 'CREATE INDEX IF NOT EXISTS idx_task_instance_submit_time_id ON ' || quote_ident(v_schema) ||'.t_ds_task_instance USING Btree("submit_time","id")';
+EXECUTE 'CREATE INDEX IF NOT EXISTS idx_task_instance_name ON ' || quote_ident(v_schema) ||'.t_ds_task_instance USING Btree("name" varchar_pattern_ops)';
+
 EXECUTE 'DROP INDEX IF EXISTS "idx_task_definition_log_project_code"';
 EXECUTE 'CREATE INDEX IF NOT EXISTS idx_task_definition_log_project_code ON ' || quote_ident(v_schema) ||'.t_ds_task_definition_log USING Btree("project_code")';
 
@@ -20,8 +20,12 @@ package org.apache.dolphinscheduler.dao;
 import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.enums.ProfileType;
 import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -56,11 +60,46 @@ public class AlertDaoTest {
         alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
         alertDao.addAlert(alert);
 
-        List<Alert> alerts = alertDao.listPendingAlerts();
+        List<Alert> alerts = alertDao.listPendingAlerts(100);
         Assert.assertNotNull(alerts);
         Assert.assertNotEquals(0, alerts.size());
     }
 
+    @Test
+    public void testListPendingAlertsWithLimit() {
+        for (int i = 0; i < 3; i++) {
+            Alert alert = new Alert();
+            alert.setTitle("title" + i);
+            alert.setContent("content" + i);
+            alert.setAlertGroupId(1);
+            alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+            alertDao.addAlert(alert);
+        }
+
+        List<Alert> alerts = alertDao.listPendingAlerts(2);
+        Assert.assertEquals(2, alerts.size());
+        Assert.assertTrue(alerts.get(0).getId() < alerts.get(1).getId());
+
+        List<Integer> ids = alerts.stream().map(Alert::getId).collect(Collectors.toList());
+        Assert.assertEquals(2, alertDao.updateAlerts(AlertStatus.EXECUTION_SUCCESS, "", ids));
+        Assert.assertTrue(alertDao.listPendingAlerts(100).stream().noneMatch(alert -> ids.contains(alert.getId())));
+    }
+
+    @Test
+    public void testAddAlertSendStatuses() {
+        List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            AlertSendStatus alertSendStatus = new AlertSendStatus();
+            alertSendStatus.setAlertId(1);
+            alertSendStatus.setAlertPluginInstanceId(i);
+            alertSendStatus.setSendStatus(AlertStatus.EXECUTION_SUCCESS);
+            alertSendStatus.setLog("success");
+            alertSendStatus.setCreateTime(new Date());
+            alertSendStatuses.add(alertSendStatus);
+        }
+        Assert.assertEquals(3, alertDao.addAlertSendStatuses(alertSendStatuses));
+    }
+
     @Test
     public void testAddAlertSendStatus() {
         int insertCount = alertDao.addAlertSendStatus(AlertStatus.EXECUTION_SUCCESS,"success",1,1);
@@ -74,7 +113,7 @@ public class AlertDaoTest {
         String serverType = "Master";
         alertDao.sendServerStoppedAlert(alertGroupId, host, serverType);
         alertDao.sendServerStoppedAlert(alertGroupId, host, serverType);
-        long count = alertDao.listPendingAlerts()
+        long count = alertDao.listPendingAlerts(100)
                              .stream()
                              .filter(alert -> alert.getContent().contains(host))
                              .count();
@@ -20,10 +20,11 @@ package org.apache.dolphinscheduler.dao.mapper;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
@@ -43,6 +44,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -168,36 +170,28 @@ public class CommandMapperTest extends BaseDaoTest {
     }
 
     /**
-     * test query command page by slot
+     * test claim commands
      */
     @Test
-    public void testQueryCommandPageBySlot() {
-        int masterCount = 4;
-        int thisMasterSlot = 2;
-        // for hit or miss
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-    }
-
-    private boolean toTestQueryCommandPageBySlot(int masterCount, int thisMasterSlot) {
+    public void testClaimCommands() {
         Command command = createCommand();
-        int id = command.getId();
-        boolean hit = id % masterCount == thisMasterSlot;
-        List<Command> commandList = commandMapper.queryCommandPageBySlot(1, 0, masterCount, thisMasterSlot);
-        if (hit) {
-            assertEquals(id,commandList.get(0).getId());
-        } else {
-            commandList.forEach(o -> {
-                assertNotEquals(id, o.getId());
-                assertEquals(thisMasterSlot, o.getId() % masterCount);
-            });
-        }
-        return hit;
-    }
+        String host = "127.0.0.1:5678";
 
+        List<Integer> unclaimedIds = commandMapper.queryUnclaimedCommands(Integer.MAX_VALUE)
+                .stream().map(Command::getId).collect(Collectors.toList());
+        assertTrue(unclaimedIds.contains(command.getId()));
 
+        assertThat(commandMapper.claimCommands(host, unclaimedIds), greaterThan(0));
+        // claimed commands cannot be claimed again
+        assertEquals(0, commandMapper.claimCommands("127.0.0.2:5678", unclaimedIds));
+        assertTrue(commandMapper.queryUnclaimedCommands(Integer.MAX_VALUE).stream().noneMatch(o -> o.getId() == command.getId()));
+
+        List<Command> claimedCommands = commandMapper.queryClaimedCommands(host, Integer.MAX_VALUE);
+        assertTrue(claimedCommands.stream().anyMatch(o -> o.getId() == command.getId()));
+
+        assertThat(commandMapper.releaseClaimedCommands(host), greaterThan(0));
+        assertTrue(commandMapper.queryUnclaimedCommands(Integer.MAX_VALUE).stream().anyMatch(o -> o.getId() == command.getId()));
+    }
 
     /**
      * create command map
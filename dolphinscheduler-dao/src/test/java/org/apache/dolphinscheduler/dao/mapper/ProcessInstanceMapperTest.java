@@ -195,6 +195,53 @@ public class ProcessInstanceMapperTest extends BaseDaoTest {
         processInstanceMapper.deleteById(processInstance.getId());
     }
 
+    /**
+     * test query process instance list by keyset
+     */
+    @Test
+    public void testQueryProcessInstanceListByKeyset() {
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setCode(1L);
+        processDefinition.setProjectCode(1L);
+        processDefinition.setReleaseState(ReleaseState.ONLINE);
+        processDefinition.setUpdateTime(new Date());
+        processDefinition.setCreateTime(new Date());
+        processDefinitionMapper.insert(processDefinition);
+
+        Date earlier = new Date(2019 - 1900, 1 - 1, 1, 0, 10, 0);
+        Date later = new Date(2019 - 1900, 1 - 1, 1, 0, 20, 0);
+        ProcessInstance first = insertOne(earlier, null);
+        ProcessInstance second = insertOne(later, null);
+        ProcessInstance third = insertOne(later, null);
+        for (ProcessInstance processInstance : new ProcessInstance[]{first, second, third}) {
+            processInstance.setName("keyset-" + processInstance.getId());
+            processInstance.setIsSubProcess(Flag.NO);
+            processInstanceMapper.updateById(processInstance);
+        }
+
+        List<ProcessInstance> page = processInstanceMapper.queryProcessInstanceListByKeyset(1L, 0L, null, 0, null,
+                null, null, null, true, null, null, 2);
+        Assert.assertEquals(2, page.size());
+        Assert.assertEquals(third.getId(), page.get(0).getId());
+        Assert.assertEquals(second.getId(), page.get(1).getId());
+
+        ProcessInstance last = page.get(1);
+        page = processInstanceMapper.queryProcessInstanceListByKeyset(1L, 0L, null, 0, null,
+                null, null, null, true, last.getStartTime(), last.getId(), 2);
+        Assert.assertEquals(1, page.size());
+        Assert.assertEquals(first.getId(), page.get(0).getId());
+
+        page = processInstanceMapper.queryProcessInstanceListByKeyset(1L, 0L, "set-", 0, null,
+                null, null, null, true, null, null, 10);
+        Assert.assertEquals(0, page.size());
+        page = processInstanceMapper.queryProcessInstanceListByKeyset(1L, 0L, "set-", 0, null,
+                null, null, null, false, null, null, 10);
+        Assert.assertEquals(3, page.size());
+        page = processInstanceMapper.queryProcessInstanceListByKeyset(1L, 0L, "keyset-", 0, null,
+                null, null, null, true, null, null, 10);
+        Assert.assertEquals(3, page.size());
+    }
+
     /**
      * test set failover by host and state
      */
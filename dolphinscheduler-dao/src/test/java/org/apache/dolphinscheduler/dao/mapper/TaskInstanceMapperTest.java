@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.dao.BaseDaoTest;
 import org.apache.dolphinscheduler.dao.entity.ExecuteStatusCount;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 
@@ -47,6 +48,9 @@ public class TaskInstanceMapperTest extends BaseDaoTest {
     @Autowired
     private ProcessInstanceMapper processInstanceMapper;
 
+    @Autowired
+    private TaskDefinitionLogMapper taskDefinitionLogMapper;
+
     @Before
     public void before() {
         ProcessInstance processInstance = new ProcessInstance();
@@ -380,4 +384,57 @@ public class TaskInstanceMapperTest extends BaseDaoTest {
         Assert.assertEquals(taskInstanceIPage.getTotal(), 0);
 
     }
+
+    /**
+     * test query task instance list by keyset
+     */
+    @Test
+    public void testQueryTaskInstanceListByKeyset() {
+        TaskDefinitionLog taskDefinition = new TaskDefinitionLog();
+        taskDefinition.setCode(888888L);
+        taskDefinition.setName("keyset");
+        taskDefinition.setProjectCode(1111L);
+        taskDefinition.setTaskType("SHELL");
+        taskDefinition.setVersion(1);
+        taskDefinition.setCreateTime(new Date());
+        taskDefinition.setUpdateTime(new Date());
+        taskDefinitionLogMapper.insert(taskDefinition);
+
+        ProcessInstance processInstance = insertProcessInstance();
+        Date earlier = new Date(2019 - 1900, 1 - 1, 1, 0, 10, 0);
+        Date later = new Date(2019 - 1900, 1 - 1, 1, 0, 20, 0);
+        TaskInstance first = insertTaskInstance(processInstance.getId());
+        TaskInstance second = insertTaskInstance(processInstance.getId());
+        TaskInstance third = insertTaskInstance(processInstance.getId());
+        for (TaskInstance task : new TaskInstance[]{first, second, third}) {
+            task.setTaskCode(taskDefinition.getCode());
+            task.setTaskDefinitionVersion(taskDefinition.getVersion());
+            task.setSubmitTime(task == first ? earlier : later);
+            task.setHost("192.168.2.220:1234");
+            taskInstanceMapper.updateById(task);
+        }
+
+        List<TaskInstance> page = taskInstanceMapper.queryTaskInstanceListByKeyset(1111L, 0, null, null, null,
+                0, null, null, null, null, true, null, null, 2);
+        Assert.assertEquals(2, page.size());
+        Assert.assertEquals(third.getId(), page.get(0).getId());
+        Assert.assertEquals(second.getId(), page.get(1).getId());
+        Assert.assertEquals(processInstance.getName(), page.get(0).getProcessInstanceName());
+
+        TaskInstance last = page.get(1);
+        page = taskInstanceMapper.queryTaskInstanceListByKeyset(1111L, 0, null, null, null,
+                0, null, null, null, null, true, last.getSubmitTime(), last.getId(), 2);
+        Assert.assertEquals(1, page.size());
+        Assert.assertEquals(first.getId(), page.get(0).getId());
+
+        page = taskInstanceMapper.queryTaskInstanceListByKeyset(1111L, 0, null, null, null,
+                0, null, "2.220", null, null, true, null, null, 10);
+        Assert.assertEquals(0, page.size());
+        page = taskInstanceMapper.queryTaskInstanceListByKeyset(1111L, 0, null, null, null,
+                0, null, "2.220", null, null, false, null, null, 10);
+        Assert.assertEquals(3, page.size());
+        page = taskInstanceMapper.queryTaskInstanceListByKeyset(1111L, 0, null, null, null,
+                0, null, "192.168", null, null, true, null, null, 10);
+        Assert.assertEquals(3, page.size());
+    }
 }
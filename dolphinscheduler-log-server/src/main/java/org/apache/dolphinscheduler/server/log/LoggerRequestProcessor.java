@@ -17,8 +17,7 @@
 
 package org.apache.dolphinscheduler.server.log;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-import org.apache.dolphinscheduler.common.utils.LoggerUtils;
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
@@ -27,6 +26,8 @@ import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestComman
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogCancelCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
@@ -34,24 +35,24 @@ import org.apache.dolphinscheduler.remote.utils.Constants;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.netty.channel.Channel;
 
 /**
@@ -64,6 +65,19 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final ExecutorService executor;
 
+    /**
+     * readers of the recently viewed task logs, holding the line offset indexes and the segment line counts
+     */
+    private final Cache<String, TaskLogReader> logReaders = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * follows the task logs for the tail log subscriptions
+     */
+    private final TaskLogTailer taskLogTailer = new TaskLogTailer();
+
     public LoggerRequestProcessor() {
         this.executor = Executors.newFixedThreadPool(Constants.CPUS * 2 + 1);
     }
@@ -76,30 +90,27 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         final CommandType commandType = command.getType();
         switch (commandType) {
             case GET_LOG_BYTES_REQUEST:
-                GetLogBytesRequestCommand getLogRequest = JSONUtils.parseObject(
-                        command.getBody(), GetLogBytesRequestCommand.class);
+                GetLogBytesRequestCommand getLogRequest = command.deserializeBody(GetLogBytesRequestCommand.class);
                 String path = getLogRequest.getPath();
                 if (!checkPathSecurity(path)) {
                     throw new IllegalArgumentException("Illegal path");
                 }
-                byte[] bytes = getFileContentBytes(path);
-                GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
+                GetLogBytesResponseCommand getLogResponse = getFileContentBytes(path,
+                        getLogRequest.getOffset(), getLogRequest.getLimit(), getLogRequest.isCompressed());
                 channel.writeAndFlush(getLogResponse.convert2Command(command.getOpaque()));
                 break;
             case VIEW_WHOLE_LOG_REQUEST:
-                ViewLogRequestCommand viewLogRequest = JSONUtils.parseObject(
-                        command.getBody(), ViewLogRequestCommand.class);
+                ViewLogRequestCommand viewLogRequest = command.deserializeBody(ViewLogRequestCommand.class);
                 String viewLogPath = viewLogRequest.getPath();
                 if (!checkPathSecurity(viewLogPath)) {
                     throw new IllegalArgumentException("Illegal path");
                 }
-                String msg = LoggerUtils.readWholeFileContent(viewLogPath);
+                String msg = readWholeFileContent(viewLogPath);
                 ViewLogResponseCommand viewLogResponse = new ViewLogResponseCommand(msg);
                 channel.writeAndFlush(viewLogResponse.convert2Command(command.getOpaque()));
                 break;
             case ROLL_VIEW_LOG_REQUEST:
-                RollViewLogRequestCommand rollViewLogRequest = JSONUtils.parseObject(
-                        command.getBody(), RollViewLogRequestCommand.class);
+                RollViewLogRequestCommand rollViewLogRequest = command.deserializeBody(RollViewLogRequestCommand.class);
 
                 String rollViewLogPath = rollViewLogRequest.getPath();
                 if (!checkPathSecurity(rollViewLogPath)) {
@@ -116,8 +127,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 channel.writeAndFlush(rollViewLogRequestResponse.convert2Command(command.getOpaque()));
                 break;
             case REMOVE_TAK_LOG_REQUEST:
-                RemoveTaskLogRequestCommand removeTaskLogRequest = JSONUtils.parseObject(
-                        command.getBody(), RemoveTaskLogRequestCommand.class);
+                RemoveTaskLogRequestCommand removeTaskLogRequest = command.deserializeBody(RemoveTaskLogRequestCommand.class);
 
                 String taskLogPath = removeTaskLogRequest.getPath();
                 if (!checkPathSecurity(taskLogPath)) {
@@ -129,13 +139,28 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                     if (taskLogFile.exists()) {
                         status = taskLogFile.delete();
                     }
+                    status = TaskLogSegments.delete(taskLogFile.toPath()) && status;
                 } catch (Exception e) {
                     status = false;
                 }
+                logReaders.invalidate(taskLogPath);
+                TaskLogIndex.deleteIndex(taskLogPath);
 
                 RemoveTaskLogResponseCommand removeTaskLogResponse = new RemoveTaskLogResponseCommand(status);
                 channel.writeAndFlush(removeTaskLogResponse.convert2Command(command.getOpaque()));
                 break;
+            case TAIL_LOG_REQUEST:
+                TailLogRequestCommand tailLogRequest = command.deserializeBody(TailLogRequestCommand.class);
+                String tailLogPath = tailLogRequest.getPath();
+                if (!checkPathSecurity(tailLogPath)) {
+                    throw new IllegalArgumentException("Illegal path");
+                }
+                taskLogTailer.subscribe(channel, command.getOpaque(), tailLogPath, tailLogRequest.getOffset());
+                break;
+            case TAIL_LOG_CANCEL:
+                TailLogCancelCommand tailLogCancel = command.deserializeBody(TailLogCancelCommand.class);
+                taskLogTailer.cancel(channel, tailLogCancel.getSubscriptionId());
+                break;
             default:
                 throw new IllegalArgumentException("unknown commandType");
         }
@@ -163,29 +188,59 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         return this.executor;
     }
 
+    public TaskLogTailer getTaskLogTailer() {
+        return this.taskLogTailer;
+    }
+
+    @PreDestroy
+    public void close() {
+        taskLogTailer.close();
+    }
+
     /**
-     * get files content bytes for download file
+     * get a chunk of the file content bytes for download file, read across the rolled segments of the log
      *
      * @param filePath file path
-     * @return byte array of file
+     * @param offset offset of the chunk in the uncompressed log
+     * @param limit max length of the chunk, the rest of the log if not positive
+     * @param compressed return the chunk as a gzip member
+     * @return response of the chunk, the data is shorter than the limit at the end of the log if not compressed
      */
-    private byte[] getFileContentBytes(String filePath) {
-        try (InputStream in = new FileInputStream(filePath);
-             ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-            byte[] buf = new byte[1024];
-            int len;
-            while ((len = in.read(buf)) != -1) {
-                bos.write(buf, 0, len);
+    private GetLogBytesResponseCommand getFileContentBytes(String filePath, long offset, int limit, boolean compressed) {
+        try {
+            TaskLogReader reader = getTaskLogReader(filePath);
+            if (compressed) {
+                TaskLogReader.CompressedChunk chunk = reader.readCompressedBytes(offset, limit);
+                return new GetLogBytesResponseCommand(chunk.getData(), true, chunk.getLength(), offset);
             }
-            return bos.toByteArray();
-        } catch (IOException e) {
+            byte[] bytes = reader.readBytes(offset, limit);
+            return new GetLogBytesResponseCommand(bytes, false, bytes.length, offset);
+        } catch (IOException | ExecutionException e) {
             logger.error("get file bytes error", e);
         }
-        return new byte[0];
+        GetLogBytesResponseCommand errorResponse = new GetLogBytesResponseCommand(new byte[0], compressed, 0, offset);
+        errorResponse.setError(true);
+        return errorResponse;
     }
 
     /**
-     * read part file content，can skip any line and read some lines
+     * read whole file content, read across the rolled segments of the log
+     *
+     * @param filePath file path
+     * @return whole file content, empty if the log does not exist
+     */
+    private String readWholeFileContent(String filePath) {
+        try {
+            return getTaskLogReader(filePath).readWholeContent();
+        } catch (IOException | ExecutionException e) {
+            logger.error("read file error", e);
+        }
+        return "";
+    }
+
+    /**
+     * read part file content，can skip any line and read some lines,
+     * the lines are read from the nearest offset in the line index of the file
      *
      * @param filePath file path
      * @param skipLine skip line
@@ -195,17 +250,20 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
     private List<String> readPartFileContent(String filePath,
                                              int skipLine,
                                              int limit) {
-        File file = new File(filePath);
-        if (file.exists() && file.isFile()) {
-            try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-                return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
-            } catch (IOException e) {
-                logger.error("read file error", e);
+        try {
+            TaskLogReader reader = getTaskLogReader(filePath);
+            if (reader.exists()) {
+                return reader.readLines(skipLine, limit);
             }
-        } else {
             logger.info("file path: {} not exists", filePath);
+        } catch (IOException | ExecutionException e) {
+            logger.error("read file error", e);
         }
         return Collections.emptyList();
     }
 
+    private TaskLogReader getTaskLogReader(String filePath) throws ExecutionException {
+        return logReaders.get(filePath, () -> new TaskLogReader(filePath));
+    }
+
 }
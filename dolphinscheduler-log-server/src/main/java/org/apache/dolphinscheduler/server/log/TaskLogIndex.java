@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * sparse line offset index of a task log, the byte offset of every interval-th line.
+ * the index is built on the first access, extended when the log grows and stored beside the log file,
+ * so that a page of lines is read from the nearest indexed offset with positional reads
+ * instead of decoding all the lines before it.
+ * the lines are terminated by \n, \r or \r\n, like {@link java.nio.file.Files#lines(Path)}.
+ * the index is rebuilt when the log is truncated or replaced by a new file, e.g. rolled by {@link TaskLogFileAppender}.
+ */
+public class TaskLogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLogIndex.class);
+
+    /**
+     * suffix of the index file, appended to the log file name
+     */
+    public static final String INDEX_FILE_SUFFIX = ".idx";
+
+    /**
+     * default count of the lines between two indexed offsets
+     */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final int MAGIC = 0x44534c49;
+
+    private static final int VERSION = 2;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path logPath;
+
+    private final Path indexPath;
+
+    private final int interval;
+
+    /**
+     * offsets[k] is the byte offset of line k * interval
+     */
+    private long[] offsets = new long[] {0L};
+
+    private int size = 1;
+
+    /**
+     * count of the terminated lines indexed
+     */
+    private long lineCount;
+
+    /**
+     * log length indexed, the offset after the last scanned line terminator
+     */
+    private long indexedLength;
+
+    /**
+     * the last scanned byte is \r, a following \n belongs to the same line terminator
+     */
+    private boolean pendingCr;
+
+    /**
+     * file key of the log indexed, empty if not supported by the file system
+     */
+    private String fileKey = "";
+
+    public TaskLogIndex(String logPath) {
+        this(Paths.get(logPath), DEFAULT_INTERVAL);
+    }
+
+    public TaskLogIndex(Path logPath, int interval) {
+        this.logPath = logPath;
+        this.indexPath = getIndexPath(logPath);
+        this.interval = interval;
+        load();
+    }
+
+    public static Path getIndexPath(Path logPath) {
+        return logPath.resolveSibling(logPath.getFileName() + INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * read some lines of the log
+     *
+     * @param skipLine skip line number
+     * @param limit read lines limit
+     * @return lines, empty if the log does not exist
+     */
+    public synchronized List<String> readLines(int skipLine, int limit) throws IOException {
+        if (limit <= 0 || skipLine < 0) {
+            return Collections.emptyList();
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            refresh(channel, getFileKey(logPath));
+            int k = (int) Math.min(skipLine / interval, size - 1);
+            return readLines(channel, offsets[k], skipLine - (long) k * interval, limit);
+        } catch (NoSuchFileException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * extend the index to the current end of the log, the index is rebuilt when the log is truncated or replaced
+     */
+    private void refresh(FileChannel channel, String currentFileKey) throws IOException {
+        long length = channel.size();
+        if (!fileKey.isEmpty() && !currentFileKey.isEmpty() && !fileKey.equals(currentFileKey)) {
+            logger.info("task log {} is replaced, rebuild the index", logPath);
+            reset();
+        } else if (length < indexedLength) {
+            logger.info("task log {} is truncated, rebuild the index", logPath);
+            reset();
+        }
+        fileKey = currentFileKey;
+        if (length == indexedLength) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long position = indexedLength;
+        while (position < length) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                long offset = position + i;
+                if (pendingCr) {
+                    pendingCr = false;
+                    if (b == '\n') {
+                        indexedLength = offset + 1;
+                        if (lineCount % interval == 0) {
+                            offsets[size - 1] = offset + 1;
+                        }
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    lineCount++;
+                    indexedLength = offset + 1;
+                    pendingCr = b == '\r';
+                    if (lineCount % interval == 0) {
+                        addOffset(offset + 1);
+                    }
+                }
+            }
+            position += read;
+        }
+        save();
+    }
+
+    /**
+     * the file key of the log, which changes when the log is replaced by a new file
+     */
+    static String getFileKey(Path logPath) throws IOException {
+        Object key = Files.readAttributes(logPath, BasicFileAttributes.class).fileKey();
+        return key == null ? "" : key.toString();
+    }
+
+    private void addOffset(long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size << 1);
+        }
+        offsets[size++] = offset;
+    }
+
+    private void reset() {
+        offsets = new long[] {0L};
+        size = 1;
+        lineCount = 0;
+        indexedLength = 0;
+        pendingCr = false;
+    }
+
+    /**
+     * read the lines from the offset of a line start with positional reads, only the returned lines are decoded
+     */
+    private static List<String> readLines(FileChannel channel, long offset, long skipLine, int limit) throws IOException {
+        List<String> lines = new ArrayList<>(Math.min(limit, 1024));
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long position = offset;
+        long skipped = 0;
+        boolean cr = false;
+        boolean lineStarted = false;
+        while (lines.size() < limit) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read && lines.size() < limit; i++) {
+                byte b = bytes[i];
+                if (cr) {
+                    cr = false;
+                    if (b == '\n') {
+                        lineStart = i + 1;
+                        continue;
+                    }
+                }
+                if (b != '\n' && b != '\r') {
+                    lineStarted = true;
+                    continue;
+                }
+                cr = b == '\r';
+                if (skipped < skipLine) {
+                    skipped++;
+                } else {
+                    line.write(bytes, lineStart, i - lineStart);
+                    lines.add(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                }
+                line.reset();
+                lineStart = i + 1;
+                lineStarted = false;
+            }
+            if (skipped >= skipLine && lineStart < read) {
+                line.write(bytes, lineStart, read - lineStart);
+            }
+            position += read;
+        }
+        // the last line without terminator
+        if (lines.size() < limit && lineStarted && skipped >= skipLine) {
+            lines.add(new String(line.toByteArray(), StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    private void load() {
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(indexPath))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != interval) {
+                return;
+            }
+            String key = in.readUTF();
+            long length = in.readLong();
+            long count = in.readLong();
+            boolean cr = in.readBoolean();
+            int offsetCount = in.readInt();
+            long[] indexedOffsets = new long[Math.max(offsetCount, 1)];
+            for (int i = 0; i < offsetCount; i++) {
+                indexedOffsets[i] = in.readLong();
+            }
+            this.fileKey = key;
+            this.indexedLength = length;
+            this.lineCount = count;
+            this.pendingCr = cr;
+            this.offsets = indexedOffsets;
+            this.size = Math.max(offsetCount, 1);
+        } catch (IOException e) {
+            logger.warn("load task log index {} error, rebuild it", indexPath, e);
+            reset();
+        }
+    }
+
+    private void save() {
+        Path tmpPath = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmpPath))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(interval);
+                out.writeUTF(fileKey);
+                out.writeLong(indexedLength);
+                out.writeLong(lineCount);
+                out.writeBoolean(pendingCr);
+                out.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(offsets[i]);
+                }
+            }
+            Files.move(tmpPath, indexPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("save task log index {} error", indexPath, e);
+        }
+    }
+
+    /**
+     * delete the index file of the log
+     */
+    public static void deleteIndex(String logPath) {
+        try {
+            Files.deleteIfExists(getIndexPath(Paths.get(logPath)));
+        } catch (IOException e) {
+            logger.warn("delete task log index of {} error", logPath, e);
+        }
+    }
+
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * reads a task log across the segments rolled by {@link TaskLogFileAppender} and the active file,
+ * as if they were still one file. the lines of the active file are read with its {@link TaskLogIndex},
+ * the line counts and lengths of the segments are computed once, since a segment never changes after it is rolled.
+ */
+public class TaskLogReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path logPath;
+
+    private final TaskLogIndex activeIndex;
+
+    /**
+     * line counts of the segments in the written order
+     */
+    private final List<Long> segmentLineCounts = new ArrayList<>();
+
+    /**
+     * uncompressed lengths of the segments in the written order
+     */
+    private final List<Long> segmentLengths = new ArrayList<>();
+
+    public TaskLogReader(String logPath) {
+        this.logPath = Paths.get(logPath);
+        this.activeIndex = new TaskLogIndex(logPath);
+    }
+
+    public boolean exists() {
+        return TaskLogSegments.exists(logPath);
+    }
+
+    /**
+     * read some lines of the log
+     *
+     * @param skipLine skip line number
+     * @param limit read lines limit
+     * @return lines, empty if the log does not exist
+     */
+    public synchronized List<String> readLines(int skipLine, int limit) throws IOException {
+        if (limit <= 0 || skipLine < 0) {
+            return Collections.emptyList();
+        }
+        List<Path> segments = TaskLogSegments.list(logPath);
+        List<String> lines = new ArrayList<>(Math.min(limit, 1024));
+        long skip = skipLine;
+        for (int i = 0; i < segments.size() && lines.size() < limit; i++) {
+            long lineCount = getSegmentLineCount(segments, i);
+            if (skip >= lineCount) {
+                skip -= lineCount;
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(TaskLogSegments.open(segments.get(i)), StandardCharsets.UTF_8))) {
+                String line;
+                while (lines.size() < limit && (line = reader.readLine()) != null) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        lines.add(line);
+                    }
+                }
+            }
+        }
+        if (lines.size() < limit) {
+            lines.addAll(activeIndex.readLines((int) skip, limit - lines.size()));
+        }
+        return lines;
+    }
+
+    /**
+     * read the whole log content, the lines are terminated by \r\n
+     */
+    public String readWholeContent() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Path segment : TaskLogSegments.list(logPath)) {
+            appendLines(TaskLogSegments.open(segment), builder);
+        }
+        try {
+            appendLines(Files.newInputStream(logPath), builder);
+        } catch (NoSuchFileException e) {
+            // compressed on stop
+        }
+        return builder.toString();
+    }
+
+    /**
+     * read a chunk of the uncompressed log content
+     *
+     * @param offset offset of the chunk in the log
+     * @param limit max length of the chunk, the rest of the log if not positive
+     * @return bytes of the chunk, shorter than the limit at the end of the log
+     */
+    public synchronized byte[] readBytes(long offset, int limit) throws IOException {
+        return readBytes(offset, limit, false);
+    }
+
+    /**
+     * read a chunk of the log as a gzip member. a chunk starting at a compressed segment is the segment file itself,
+     * otherwise the uncompressed bytes up to the end of the segment or the limit are compressed,
+     * so the gzip members of the consecutive chunks make up a gzip file of the log
+     *
+     * @param offset offset of the chunk in the uncompressed log
+     * @param limit max length of the uncompressed bytes to compress, the rest of the log if not positive
+     * @return gzip member of the chunk and the uncompressed length it covers, whose length is 0 at the end of the log
+     */
+    public synchronized CompressedChunk readCompressedBytes(long offset, int limit) throws IOException {
+        List<Path> segments = TaskLogSegments.list(logPath);
+        long start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long length = getSegmentLength(segments, i);
+            if (offset == start && TaskLogSegments.isCompressed(segments.get(i))) {
+                return new CompressedChunk(Files.readAllBytes(segments.get(i)), length);
+            }
+            start += length;
+        }
+        byte[] bytes = readBytes(offset, limit, true);
+        if (bytes.length == 0) {
+            return new CompressedChunk(new byte[0], 0);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return new CompressedChunk(out.toByteArray(), bytes.length);
+    }
+
+    /**
+     * read the uncompressed bytes from the segments and the active file
+     *
+     * @param withinSegment stop at the end of the segment which the chunk starts in
+     */
+    private byte[] readBytes(long offset, int limit, boolean withinSegment) throws IOException {
+        List<Path> segments = TaskLogSegments.list(logPath);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long position = offset;
+        long start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long length = getSegmentLength(segments, i);
+            if (position < start + length) {
+                int count = remaining(out, limit, start + length - position);
+                try (InputStream in = TaskLogSegments.open(segments.get(i))) {
+                    skipFully(in, position - start);
+                    copy(in, out, count);
+                }
+                position = start + length;
+                if (withinSegment || (limit > 0 && out.size() >= limit)) {
+                    return out.toByteArray();
+                }
+            }
+            start += length;
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            long activeOffset = position - start;
+            int count = remaining(out, limit, channel.size() - activeOffset);
+            ByteBuffer buffer = ByteBuffer.allocate(count);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, activeOffset + buffer.position());
+                if (read <= 0) {
+                    break;
+                }
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        } catch (NoSuchFileException e) {
+            // compressed on stop
+        }
+        return out.toByteArray();
+    }
+
+    private long getSegmentLength(List<Path> segments, int i) throws IOException {
+        while (segmentLengths.size() <= i) {
+            segmentLengths.add(TaskLogSegments.length(segments.get(segmentLengths.size())));
+        }
+        return segmentLengths.get(i);
+    }
+
+    private long getSegmentLineCount(List<Path> segments, int i) throws IOException {
+        while (segmentLineCounts.size() <= i) {
+            try (InputStream in = TaskLogSegments.open(segments.get(segmentLineCounts.size()))) {
+                segmentLineCounts.add(countLines(in));
+            }
+        }
+        return segmentLineCounts.get(i);
+    }
+
+    /**
+     * count the lines terminated by \n, \r or \r\n, and the last line without terminator
+     */
+    static long countLines(InputStream in) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        long count = 0;
+        boolean cr = false;
+        boolean lineStarted = false;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (cr) {
+                    cr = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    count++;
+                    cr = b == '\r';
+                    lineStarted = false;
+                } else {
+                    lineStarted = true;
+                }
+            }
+        }
+        return lineStarted ? count + 1 : count;
+    }
+
+    private static int remaining(ByteArrayOutputStream out, int limit, long available) throws IOException {
+        long count = Math.max(available, 0);
+        if (limit > 0) {
+            count = Math.min(count, limit - out.size());
+        }
+        if (out.size() + count > Integer.MAX_VALUE) {
+            throw new IOException("task log is too large to read at once");
+        }
+        return (int) count;
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        long remaining = n;
+        byte[] buffer = null;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                // GZIPInputStream skips by reading, a short skip may need a read to tell the end
+                if (buffer == null) {
+                    buffer = new byte[READ_BUFFER_SIZE];
+                }
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    return;
+                }
+                skipped = read;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static void copy(InputStream in, ByteArrayOutputStream out, int count) throws IOException {
+        byte[] buffer = new byte[Math.min(READ_BUFFER_SIZE, Math.max(count, 1))];
+        int remaining = count;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+            if (read < 0) {
+                return;
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private static void appendLines(InputStream in, StringBuilder builder) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.append(line).append("\r\n");
+            }
+        }
+    }
+
+    /**
+     * a gzip member of a chunk of the log
+     */
+    public static class CompressedChunk {
+
+        private final byte[] data;
+
+        /**
+         * uncompressed length of the log the data covers
+         */
+        private final long length;
+
+        CompressedChunk(byte[] data, long length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+import org.apache.dolphinscheduler.remote.command.log.TailLogDataCommand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ * follows the task logs subscribed by the remote clients and pushes the appended lines as tail log data frames.
+ * a file watcher on the log directories wakes the tailer up when a log is written,
+ * the logs are also checked every poll interval in case the watcher misses an event.
+ * every subscription remembers the offset pushed so far, counting the segments rolled by {@link TaskLogFileAppender},
+ * the frames only contain whole lines unless a line is longer than the max frame size, and a slow client is only pushed to again when its channel is writable.
+ */
+public class TaskLogTailer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLogTailer.class);
+
+    /**
+     * max length of the data of a frame
+     */
+    static final int MAX_FRAME_SIZE = 256 * 1024;
+
+    private static final long POLL_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * subscriptions by channel id and subscription id
+     */
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+
+    private Thread tailThread;
+
+    private volatile boolean running = true;
+
+    /**
+     * follow the log from the offset, the bytes already in the log after the offset are pushed at once
+     *
+     * @param channel channel of the client
+     * @param subscriptionId opaque of the tail log request
+     * @param path log path
+     * @param offset offset to follow the log from
+     */
+    public void subscribe(Channel channel, long subscriptionId, String path, long offset) {
+        start();
+        Path logPath = Paths.get(path);
+        Subscription subscription = new Subscription(channel, subscriptionId, logPath, Math.max(offset, 0));
+        subscription.base = getRolledLength(logPath);
+        if (subscription.offset < subscription.base) {
+            // the rolled segments are read by the view and download requests
+            subscription.offset = subscription.base;
+        }
+        String key = subscription.key();
+        Subscription previous = subscriptions.put(key, subscription);
+        if (previous != null) {
+            previous.close();
+        }
+        channel.closeFuture().addListener(future -> {
+            Subscription removed = subscriptions.remove(key);
+            if (removed != null) {
+                removed.close();
+            }
+        });
+        watch(logPath.getParent());
+        logger.info("follow task log {} from offset {}, subscription {}", path, offset, key);
+        push(subscription);
+    }
+
+    /**
+     * stop following the log
+     *
+     * @param channel channel of the client
+     * @param subscriptionId opaque of the tail log request
+     */
+    public void cancel(Channel channel, long subscriptionId) {
+        Subscription subscription = subscriptions.remove(channel.id().asShortText() + "_" + subscriptionId);
+        if (subscription != null) {
+            subscription.close();
+            logger.info("stop following task log {}, subscription {}", subscription.logPath, subscription.key());
+        }
+    }
+
+    /**
+     * the uncompressed length of the segments rolled from the log
+     */
+    private static long getRolledLength(Path logPath) {
+        long length = 0;
+        try {
+            for (Path segment : TaskLogSegments.list(logPath)) {
+                length += TaskLogSegments.length(segment);
+            }
+        } catch (IOException e) {
+            logger.warn("get length of the rolled segments of task log {} error", logPath, e);
+        }
+        return length;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    private synchronized void start() {
+        if (tailThread != null || !running) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            logger.warn("create task log watch service error, poll the task logs every {} ms", POLL_INTERVAL_MILLIS, e);
+        }
+        tailThread = new Thread(this::tail, "TaskLogTailer");
+        tailThread.setDaemon(true);
+        tailThread.start();
+    }
+
+    private void watch(Path dir) {
+        if (watchService == null || dir == null) {
+            return;
+        }
+        watchKeys.computeIfAbsent(dir, d -> {
+            try {
+                return d.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            } catch (IOException e) {
+                logger.warn("watch task log dir {} error", d, e);
+                return null;
+            }
+        });
+    }
+
+    private void tail() {
+        while (running) {
+            try {
+                if (watchService != null) {
+                    WatchKey watchKey = watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (watchKey != null) {
+                        watchKey.pollEvents();
+                        watchKey.reset();
+                    }
+                } else {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                }
+                for (Subscription subscription : subscriptions.values()) {
+                    push(subscription);
+                }
+                unwatchIdleDirs();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("tail task logs error", e);
+            }
+        }
+    }
+
+    private void unwatchIdleDirs() {
+        watchKeys.entrySet().removeIf(entry -> {
+            boolean idle = subscriptions.values().stream().noneMatch(s -> entry.getKey().equals(s.logPath.getParent()));
+            if (idle) {
+                entry.getValue().cancel();
+            }
+            return idle;
+        });
+    }
+
+    /**
+     * push the bytes appended to the log since the last push, when the log is rolled by {@link TaskLogFileAppender},
+     * the rest of the rolled file is pushed before following the new active file
+     */
+    void push(Subscription subscription) {
+        synchronized (subscription) {
+            Channel channel = subscription.channel;
+            if (!channel.isActive()) {
+                subscriptions.remove(subscription.key());
+                subscription.close();
+                return;
+            }
+            try {
+                if (subscription.fileChannel == null && !subscription.open()) {
+                    return;
+                }
+                String fileKey = getFileKey(subscription.logPath);
+                boolean rolled = !subscription.fileKey.isEmpty() && !subscription.fileKey.equals(fileKey);
+                if (pushFile(subscription, rolled) && rolled) {
+                    logger.info("task log {} is rolled, follow the new file", subscription.logPath);
+                    subscription.base += subscription.fileChannel.size();
+                    subscription.offset = subscription.base;
+                    subscription.close();
+                    if (subscription.open()) {
+                        pushFile(subscription, false);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("push task log {} error", subscription.logPath, e);
+            }
+        }
+    }
+
+    /**
+     * push the file followed from the offset
+     *
+     * @param finished the file is rolled and no longer written, its last line is pushed even if not terminated
+     * @return true if the whole file is pushed
+     */
+    private boolean pushFile(Subscription subscription, boolean finished) throws IOException {
+        Channel channel = subscription.channel;
+        FileChannel fileChannel = subscription.fileChannel;
+        long size = fileChannel.size();
+        if (size < subscription.offset - subscription.base) {
+            logger.info("task log {} is truncated, follow it from the start", subscription.logPath);
+            subscription.offset = subscription.base;
+        }
+        long position = subscription.offset - subscription.base;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_FRAME_SIZE, Math.max(size - position, 0)));
+        while (position < size && channel.isWritable()) {
+            buffer.clear();
+            int read = fileChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            int length = finished && read == size - position ? read : frameLength(buffer.array(), read, read == MAX_FRAME_SIZE);
+            if (length == 0) {
+                break;
+            }
+            byte[] data = Arrays.copyOf(buffer.array(), length);
+            channel.writeAndFlush(new TailLogDataCommand(subscription.subscriptionId, subscription.offset, data).convert2Command());
+            subscription.offset += length;
+            position += length;
+        }
+        return position >= size;
+    }
+
+    /**
+     * the file key of the log, which changes when the log is rolled, empty if the log does not exist or not supported
+     */
+    private static String getFileKey(Path logPath) throws IOException {
+        try {
+            Object key = Files.readAttributes(logPath, BasicFileAttributes.class).fileKey();
+            return key == null ? "" : key.toString();
+        } catch (NoSuchFileException e) {
+            return "";
+        }
+    }
+
+    /**
+     * the length of the whole lines in the bytes read, a full frame without line terminator is cut at a utf-8 character boundary
+     */
+    static int frameLength(byte[] bytes, int read, boolean full) {
+        for (int i = read - 1; i >= 0; i--) {
+            if (bytes[i] == '\n' || bytes[i] == '\r') {
+                return i + 1;
+            }
+        }
+        if (!full) {
+            return 0;
+        }
+        int length = read;
+        // back off the continuation bytes and the lead byte of the cut character
+        while (length > 0 && (bytes[length - 1] & 0xC0) == 0x80) {
+            length--;
+        }
+        if (length > 0 && (bytes[length - 1] & 0x80) != 0) {
+            length--;
+        }
+        return length == 0 ? read : length;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        subscriptions.values().forEach(Subscription::close);
+        subscriptions.clear();
+        if (tailThread != null) {
+            tailThread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("close task log watch service error", e);
+            }
+        }
+    }
+
+    static class Subscription {
+
+        private final Channel channel;
+
+        private final long subscriptionId;
+
+        private final Path logPath;
+
+        /**
+         * offset of the log pushed so far, counting the segments rolled before the followed file
+         */
+        private long offset;
+
+        /**
+         * offset of the followed file in the log, the length of the segments rolled before it
+         */
+        private long base;
+
+        /**
+         * the followed file, kept open to push its rest after it is rolled
+         */
+        private FileChannel fileChannel;
+
+        private String fileKey = "";
+
+        Subscription(Channel channel, long subscriptionId, Path logPath, long offset) {
+            this.channel = channel;
+            this.subscriptionId = subscriptionId;
+            this.logPath = logPath;
+            this.offset = offset;
+        }
+
+        /**
+         * open the active file of the log
+         *
+         * @return false if the log is not created yet
+         */
+        boolean open() throws IOException {
+            try {
+                fileKey = getFileKey(logPath);
+                fileChannel = FileChannel.open(logPath, StandardOpenOption.READ);
+                return true;
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+        }
+
+        synchronized void close() {
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    logger.warn("close task log {} error", logPath, e);
+                }
+                fileChannel = null;
+            }
+        }
+
+        String key() {
+            return channel.id().asShortText() + "_" + subscriptionId;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+    }
+}
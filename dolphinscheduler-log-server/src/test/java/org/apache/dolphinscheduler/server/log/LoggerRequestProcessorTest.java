@@ -21,10 +21,16 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 
+import java.io.File;
+
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -106,4 +112,27 @@ public class LoggerRequestProcessorTest {
         LoggerRequestProcessor loggerRequestProcessor = new LoggerRequestProcessor();
         loggerRequestProcessor.process(channel, command);
     }
+
+    @Test
+    public void testProcessGetLogBytesRequestError() {
+        System.setProperty("DOLPHINSCHEDULER_WORKER_HOME", System.getProperty("user.dir"));
+        Channel channel = PowerMockito.mock(Channel.class);
+        // a directory can not be read as a log
+        File logDir = new File(System.getProperty("user.dir"), "target/unreadable.log");
+        Assert.assertTrue(logDir.isDirectory() || logDir.mkdirs());
+        GetLogBytesRequestCommand logRequestCommand = new GetLogBytesRequestCommand(logDir.getAbsolutePath(), 0, 1024);
+
+        Command command = new Command();
+        command.setType(CommandType.GET_LOG_BYTES_REQUEST);
+        command.setBody(JSONUtils.toJsonByteArray(logRequestCommand));
+
+        LoggerRequestProcessor loggerRequestProcessor = new LoggerRequestProcessor();
+        loggerRequestProcessor.process(channel, command);
+
+        ArgumentCaptor<Command> responseCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel).writeAndFlush(responseCaptor.capture());
+        GetLogBytesResponseCommand response = responseCaptor.getValue().deserializeBody(GetLogBytesResponseCommand.class);
+        Assert.assertTrue(response.isError());
+        Assert.assertEquals(0, response.getData().length);
+    }
 }
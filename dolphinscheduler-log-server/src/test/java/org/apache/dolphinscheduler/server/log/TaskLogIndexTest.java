@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskLogIndexTest {
+
+    private Path logPath;
+
+    @Before
+    public void before() throws IOException {
+        logPath = Files.createTempFile("task-log-index", ".log");
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(TaskLogIndex.getIndexPath(logPath));
+    }
+
+    @Test
+    public void testReadLinesLikeFilesLines() throws IOException {
+        Random random = new Random(1);
+        StringBuilder content = new StringBuilder();
+        String[] terminators = {"\n", "\r\n", "\r"};
+        for (int i = 0; i < 500; i++) {
+            content.append("line ").append(i).append(" 日志");
+            for (int j = random.nextInt(100); j > 0; j--) {
+                content.append('x');
+            }
+            content.append(terminators[random.nextInt(terminators.length)]);
+            if (random.nextInt(20) == 0) {
+                content.append('\n');
+            }
+        }
+        content.append("last line without terminator");
+        Files.write(logPath, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        TaskLogIndex index = new TaskLogIndex(logPath, 7);
+        for (int skip = 0; skip < 600; skip += 13) {
+            Assert.assertEquals(expectLines(skip, 30), index.readLines(skip, 30));
+        }
+        Assert.assertEquals(expectLines(0, Integer.MAX_VALUE), index.readLines(0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testLogGrowsAndIndexReload() throws IOException {
+        Files.write(logPath, "a\r".getBytes(StandardCharsets.UTF_8));
+        TaskLogIndex index = new TaskLogIndex(logPath, 2);
+        Assert.assertEquals(expectLines(0, 10), index.readLines(0, 10));
+
+        StringBuilder content = new StringBuilder("\n");
+        for (int i = 0; i < 100; i++) {
+            content.append("b").append(i).append("\r\n");
+        }
+        Files.write(logPath, content.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Assert.assertEquals(expectLines(51, 10), index.readLines(51, 10));
+        Assert.assertEquals(101, index.getLineCount());
+        Assert.assertTrue(Files.exists(TaskLogIndex.getIndexPath(logPath)));
+
+        TaskLogIndex reloaded = new TaskLogIndex(logPath, 2);
+        Assert.assertEquals(101, reloaded.getLineCount());
+        Assert.assertEquals(expectLines(99, 10), reloaded.readLines(99, 10));
+
+        // the log is rewritten shorter
+        Files.write(logPath, "c\nd\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expectLines(1, 10), reloaded.readLines(1, 10));
+        Assert.assertEquals(2, reloaded.getLineCount());
+    }
+
+    @Test
+    public void testLogReplaced() throws IOException {
+        Files.write(logPath, "a\nb\nc\nd\ne\n".getBytes(StandardCharsets.UTF_8));
+        TaskLogIndex index = new TaskLogIndex(logPath, 2);
+        Assert.assertEquals(Arrays.asList("d", "e"), index.readLines(3, 10));
+
+        // rolled to a segment, the new file grows past the indexed length before the next read
+        Path segmentPath = TaskLogSegments.getSegmentPath(logPath, 1);
+        try {
+            Files.move(logPath, segmentPath);
+            Files.write(logPath, "f\ng\nh\ni\nj\nk\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(Arrays.asList("i", "j", "k"), index.readLines(3, 10));
+            Assert.assertEquals(6, index.getLineCount());
+        } finally {
+            Files.deleteIfExists(segmentPath);
+        }
+    }
+
+    @Test
+    public void testLogNotExists() throws IOException {
+        Files.delete(logPath);
+        Assert.assertTrue(new TaskLogIndex(logPath, 10).readLines(0, 10).isEmpty());
+    }
+
+    private List<String> expectLines(int skip, int limit) throws IOException {
+        try (Stream<String> stream = Files.lines(logPath)) {
+            return stream.skip(skip).limit(limit).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskLogReaderTest {
+
+    private Path logDir;
+
+    private Path logPath;
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Before
+    public void before() throws IOException {
+        logDir = Files.createTempDirectory("task-log-reader");
+        logPath = logDir.resolve("1_1-1-1.log");
+        // a compressed segment, an uncompressed segment and the active file
+        Files.write(TaskLogSegments.getSegmentPath(logPath, 1), content(0, 300));
+        TaskLogSegments.compress(TaskLogSegments.getSegmentPath(logPath, 1));
+        Files.write(TaskLogSegments.getSegmentPath(logPath, 2), content(300, 500));
+        Files.write(logPath, content(500, 620));
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.list(logDir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDir);
+    }
+
+    @Test
+    public void testReadLines() throws IOException {
+        TaskLogReader reader = new TaskLogReader(logPath.toString());
+        Assert.assertTrue(reader.exists());
+        Assert.assertEquals(lines.subList(0, 10), reader.readLines(0, 10));
+        Assert.assertEquals(lines.subList(295, 305), reader.readLines(295, 10));
+        Assert.assertEquals(lines.subList(490, 620), reader.readLines(490, 1000));
+        Assert.assertEquals(lines, reader.readLines(0, 1000));
+        Assert.assertTrue(reader.readLines(620, 10).isEmpty());
+
+        String expected = lines.stream().map(line -> line + "\r\n").collect(Collectors.joining());
+        Assert.assertEquals(expected, reader.readWholeContent());
+    }
+
+    @Test
+    public void testReadBytes() throws IOException {
+        TaskLogReader reader = new TaskLogReader(logPath.toString());
+        byte[] expected = content(0, 620);
+        Assert.assertArrayEquals(expected, reader.readBytes(0, 0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk;
+        do {
+            chunk = reader.readBytes(out.size(), 1000);
+            out.write(chunk);
+        } while (chunk.length == 1000);
+        Assert.assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testReadCompressedBytes() throws IOException {
+        TaskLogReader reader = new TaskLogReader(logPath.toString());
+        Path compressedSegment = TaskLogSegments.list(logPath).get(0);
+
+        // the compressed segment is returned as it is
+        TaskLogReader.CompressedChunk chunk = reader.readCompressedBytes(0, 1000);
+        Assert.assertArrayEquals(Files.readAllBytes(compressedSegment), chunk.getData());
+        Assert.assertEquals(TaskLogSegments.length(compressedSegment), chunk.getLength());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long offset = 0;
+        while ((chunk = reader.readCompressedBytes(offset, 1000)).getLength() > 0) {
+            out.write(chunk.getData());
+            offset += chunk.getLength();
+        }
+        Assert.assertArrayEquals(content(0, 620), gunzip(out.toByteArray()));
+    }
+
+    @Test
+    public void testActiveFileCompressedOnStop() throws IOException {
+        TaskLogReader reader = new TaskLogReader(logPath.toString());
+        Assert.assertEquals(lines.subList(600, 620), reader.readLines(600, 100));
+        Files.move(logPath, TaskLogSegments.getSegmentPath(logPath, 3));
+        TaskLogSegments.compress(TaskLogSegments.getSegmentPath(logPath, 3));
+
+        Assert.assertTrue(reader.exists());
+        Assert.assertEquals(lines.subList(600, 620), reader.readLines(600, 100));
+        Assert.assertArrayEquals(content(0, 620), reader.readBytes(0, 0));
+    }
+
+    private byte[] content(int from, int to) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            String line = "[INFO] task log line " + i + " 日志";
+            if (lines.size() == i) {
+                lines.add(line);
+            }
+            builder.append(line).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+}
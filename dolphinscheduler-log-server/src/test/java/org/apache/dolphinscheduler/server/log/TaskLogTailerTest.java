@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.TailLogDataCommand;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class TaskLogTailerTest {
+
+    private Path logPath;
+
+    private TaskLogTailer tailer;
+
+    private EmbeddedChannel channel;
+
+    @Before
+    public void before() throws IOException {
+        logPath = Files.createTempFile("task-log-tailer", ".log");
+        tailer = new TaskLogTailer();
+        channel = new EmbeddedChannel();
+    }
+
+    @After
+    public void after() throws IOException {
+        tailer.close();
+        channel.finishAndReleaseAll();
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    public void testPushAppendedLines() throws IOException {
+        Files.write(logPath, "line 1\nline 2\npartial".getBytes(StandardCharsets.UTF_8));
+        tailer.subscribe(channel, 7L, logPath.toString(), 0);
+        Assert.assertEquals(1, tailer.getSubscriptionCount());
+
+        TailLogDataCommand data = readData();
+        Assert.assertEquals(7L, data.getSubscriptionId());
+        Assert.assertEquals(0L, data.getOffset());
+        Assert.assertEquals("line 1\nline 2\n", new String(data.getData(), StandardCharsets.UTF_8));
+        Assert.assertNull(channel.readOutbound());
+
+        Files.write(logPath, " line 3\nline 4\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        tailer.cancel(channel, 8L);
+        Assert.assertEquals(1, tailer.getSubscriptionCount());
+        // the tail thread pushes the appended lines
+        data = readData();
+        Assert.assertEquals(14L, data.getOffset());
+        Assert.assertEquals("partial line 3\nline 4\n", new String(data.getData(), StandardCharsets.UTF_8));
+
+        tailer.cancel(channel, 7L);
+        Assert.assertEquals(0, tailer.getSubscriptionCount());
+    }
+
+    @Test
+    public void testSubscriptionRemovedWhenChannelClosed() throws IOException {
+        Files.write(logPath, "line 1\n".getBytes(StandardCharsets.UTF_8));
+        tailer.subscribe(channel, 1L, logPath.toString(), 7);
+        Assert.assertNull(channel.readOutbound());
+        channel.close();
+        Assert.assertEquals(0, tailer.getSubscriptionCount());
+    }
+
+    @Test
+    public void testFollowRolledLog() throws IOException {
+        Path segmentPath = TaskLogSegments.getSegmentPath(logPath, 1);
+        try {
+            Files.write(logPath, "line 1\n".getBytes(StandardCharsets.UTF_8));
+            tailer.subscribe(channel, 1L, logPath.toString(), 0);
+            Assert.assertEquals("line 1\n", new String(readData().getData(), StandardCharsets.UTF_8));
+
+            // the rest of the rolled file is pushed before the new file
+            Files.write(logPath, "line 2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Files.move(logPath, segmentPath);
+            Files.write(logPath, "line 3\n".getBytes(StandardCharsets.UTF_8));
+            TailLogDataCommand data = readData();
+            Assert.assertEquals(7L, data.getOffset());
+            Assert.assertEquals("line 2", new String(data.getData(), StandardCharsets.UTF_8));
+            data = readData();
+            Assert.assertEquals(13L, data.getOffset());
+            Assert.assertEquals("line 3\n", new String(data.getData(), StandardCharsets.UTF_8));
+
+            // a new subscription follows from the offset counting the rolled segments
+            EmbeddedChannel another = new EmbeddedChannel();
+            tailer.subscribe(another, 2L, logPath.toString(), 0);
+            Command command = another.readOutbound();
+            data = command.deserializeBody(TailLogDataCommand.class);
+            Assert.assertEquals(13L, data.getOffset());
+            Assert.assertEquals("line 3\n", new String(data.getData(), StandardCharsets.UTF_8));
+            another.finishAndReleaseAll();
+        } finally {
+            Files.deleteIfExists(segmentPath);
+        }
+    }
+
+    @Test
+    public void testFrameLength() {
+        byte[] lines = "a\nbc\rd".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(5, TaskLogTailer.frameLength(lines, lines.length, false));
+        Assert.assertEquals(5, TaskLogTailer.frameLength(lines, lines.length, true));
+
+        byte[] noTerminator = "abc".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(0, TaskLogTailer.frameLength(noTerminator, noTerminator.length, false));
+        Assert.assertEquals(3, TaskLogTailer.frameLength(noTerminator, noTerminator.length, true));
+
+        // a full frame ending inside a multi-byte character is cut before the character
+        byte[] cut = "ab日".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(2, TaskLogTailer.frameLength(cut, cut.length - 1, true));
+        Assert.assertEquals(2, TaskLogTailer.frameLength(cut, cut.length - 2, true));
+    }
+
+    private TailLogDataCommand readData() {
+        long deadline = System.currentTimeMillis() + 10000;
+        Command command;
+        while ((command = channel.readOutbound()) == null && System.currentTimeMillis() < deadline) {
+            channel.runPendingTasks();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Assert.assertNotNull(command);
+        Assert.assertEquals(CommandType.TAIL_LOG_DATA, command.getType());
+        return command.deserializeBody(TailLogDataCommand.class);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+
+import java.util.List;
+
+/**
+ * cache of the compiled dag of process definition code and version,
+ * the task nodes and dag are shared by the workflows and must not be changed
+ */
+public interface ProcessDagCacheManager {
+
+    /**
+     * get all the task nodes of the process definition version
+     *
+     * @param processDefinitionCode processDefinitionCode
+     * @param processDefinitionVersion processDefinitionVersion
+     * @return unmodifiable task node list
+     */
+    List<TaskNode> getTaskNodeList(long processDefinitionCode, int processDefinitionVersion);
+
+    /**
+     * get the dag of all the task nodes of the process definition version,
+     * which is the dag of a workflow without start nodes and recovery nodes
+     *
+     * @param processDefinitionCode processDefinitionCode
+     * @param processDefinitionVersion processDefinitionVersion
+     * @return dag, null if the process definition has no task node
+     */
+    DAG<String, TaskNode, TaskNodeRelation> getDag(long processDefinitionCode, int processDefinitionVersion) throws Exception;
+
+    /**
+     * remove all the cached dags, e.g. the release state of a task definition changed
+     */
+    void evictAll();
+}
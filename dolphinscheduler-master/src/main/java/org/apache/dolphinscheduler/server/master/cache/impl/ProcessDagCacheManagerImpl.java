@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.TaskDependType;
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.common.process.ProcessDag;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.dao.utils.DagHelper;
+import org.apache.dolphinscheduler.server.master.cache.ProcessDagCacheManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * cache of the compiled dag of process definition code and version, bounded by the estimated memory of the task nodes
+ */
+@Component
+public class ProcessDagCacheManagerImpl implements ProcessDagCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessDagCacheManagerImpl.class);
+
+    /**
+     * estimated memory of a task node and its dag vertex and edges besides the large strings
+     */
+    private static final int TASK_NODE_BASE_BYTES = 1024;
+
+    @Autowired
+    private ProcessService processService;
+
+    private final Cache<String, CompiledProcessDag> processDagCache = Caffeine.newBuilder()
+        .maximumWeight(Constants.PROCESS_DAG_CACHE_MAX_BYTES)
+        .weigher((String key, CompiledProcessDag compiledProcessDag) -> compiledProcessDag.estimatedBytes)
+        .recordStats()
+        .build();
+
+    public ProcessDagCacheManagerImpl() {
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, processDagCache, "process_dag");
+        Gauge.builder("process_dag_cache_estimated_bytes", processDagCache,
+            cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+            .description("estimated memory of the cached process dags")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public List<TaskNode> getTaskNodeList(long processDefinitionCode, int processDefinitionVersion) {
+        return getCompiledProcessDag(processDefinitionCode, processDefinitionVersion).taskNodeList;
+    }
+
+    @Override
+    public DAG<String, TaskNode, TaskNodeRelation> getDag(long processDefinitionCode, int processDefinitionVersion) throws Exception {
+        CompiledProcessDag compiledProcessDag = getCompiledProcessDag(processDefinitionCode, processDefinitionVersion);
+        // built on the first workflow which uses the whole dag
+        if (compiledProcessDag.dag == null && !compiledProcessDag.taskNodeList.isEmpty()) {
+            ProcessDag processDag = DagHelper.generateFlowDag(compiledProcessDag.taskNodeList,
+                Collections.emptyList(), Collections.emptyList(), TaskDependType.TASK_POST);
+            if (processDag != null) {
+                compiledProcessDag.dag = DagHelper.buildDagGraph(processDag);
+            }
+        }
+        return compiledProcessDag.dag;
+    }
+
+    @Override
+    public void evictAll() {
+        processDagCache.invalidateAll();
+        logger.info("process dag cache evicted");
+    }
+
+    private CompiledProcessDag getCompiledProcessDag(long processDefinitionCode, int processDefinitionVersion) {
+        String key = processDefinitionCode + "_" + processDefinitionVersion;
+        CompiledProcessDag compiledProcessDag = processDagCache.getIfPresent(key);
+        if (compiledProcessDag == null) {
+            List<ProcessTaskRelation> processTaskRelations = processService.findRelationByCode(processDefinitionCode, processDefinitionVersion);
+            List<TaskDefinitionLog> taskDefinitionLogs = processService.getTaskDefineLogListByRelation(processTaskRelations);
+            List<TaskNode> taskNodeList = processService.transformTask(processTaskRelations, taskDefinitionLogs);
+            compiledProcessDag = new CompiledProcessDag(taskNodeList);
+            processDagCache.put(key, compiledProcessDag);
+        }
+        return compiledProcessDag;
+    }
+
+    /**
+     * task nodes and the whole dag of a process definition version
+     */
+    private static class CompiledProcessDag {
+
+        private final List<TaskNode> taskNodeList;
+
+        private final int estimatedBytes;
+
+        /**
+         * the dag is only read after built, building it twice concurrently is harmless
+         */
+        private volatile DAG<String, TaskNode, TaskNodeRelation> dag;
+
+        CompiledProcessDag(List<TaskNode> taskNodeList) {
+            this.taskNodeList = Collections.unmodifiableList(taskNodeList);
+            long bytes = 0;
+            for (TaskNode taskNode : taskNodeList) {
+                // the large strings of the node are utf16 chars
+                bytes += TASK_NODE_BASE_BYTES
+                    + 2L * (StringUtils.length(taskNode.getParams())
+                    + StringUtils.length(taskNode.getDependence())
+                    + StringUtils.length(taskNode.getConditionResult())
+                    + StringUtils.length(taskNode.getSwitchResult())
+                    + StringUtils.length(taskNode.getPreTasks()));
+            }
+            this.estimatedBytes = (int) Math.min(bytes, Integer.MAX_VALUE);
+        }
+    }
+}
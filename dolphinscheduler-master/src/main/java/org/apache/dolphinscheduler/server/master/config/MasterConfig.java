@@ -19,6 +19,9 @@ package org.apache.dolphinscheduler.server.master.config;
 
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostSelector;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -31,12 +34,18 @@ public class MasterConfig {
     private int fetchCommandNum;
     private int preExecThreads;
     private int execThreads;
+    private boolean execVirtualThreads;
+    private int taskEventBatchSize = 100;
     private int dispatchTaskNumber;
+    private boolean dispatchBatchEnabled = false;
+    private int dispatchLaneThreads = 2;
+    private Map<String, Integer> dispatchLaneWeights = new HashMap<>();
     private HostSelector hostSelector;
     private int heartbeatInterval;
     private int taskCommitRetryTimes;
     private int taskCommitInterval;
     private int stateWheelInterval;
+    private int dependentReconcileInterval = 60;
     private double maxCpuLoadAvg;
     private double reservedMemory;
     private int failoverInterval;
@@ -74,6 +83,22 @@ public class MasterConfig {
         this.execThreads = execThreads;
     }
 
+    public boolean isExecVirtualThreads() {
+        return execVirtualThreads;
+    }
+
+    public void setExecVirtualThreads(boolean execVirtualThreads) {
+        this.execVirtualThreads = execVirtualThreads;
+    }
+
+    public int getTaskEventBatchSize() {
+        return taskEventBatchSize;
+    }
+
+    public void setTaskEventBatchSize(int taskEventBatchSize) {
+        this.taskEventBatchSize = taskEventBatchSize;
+    }
+
     public int getDispatchTaskNumber() {
         return dispatchTaskNumber;
     }
@@ -82,6 +107,30 @@ public class MasterConfig {
         this.dispatchTaskNumber = dispatchTaskNumber;
     }
 
+    public boolean isDispatchBatchEnabled() {
+        return dispatchBatchEnabled;
+    }
+
+    public void setDispatchBatchEnabled(boolean dispatchBatchEnabled) {
+        this.dispatchBatchEnabled = dispatchBatchEnabled;
+    }
+
+    public int getDispatchLaneThreads() {
+        return dispatchLaneThreads;
+    }
+
+    public void setDispatchLaneThreads(int dispatchLaneThreads) {
+        this.dispatchLaneThreads = dispatchLaneThreads;
+    }
+
+    public Map<String, Integer> getDispatchLaneWeights() {
+        return dispatchLaneWeights;
+    }
+
+    public void setDispatchLaneWeights(Map<String, Integer> dispatchLaneWeights) {
+        this.dispatchLaneWeights = dispatchLaneWeights;
+    }
+
     public HostSelector getHostSelector() {
         return hostSelector;
     }
@@ -122,6 +171,14 @@ public class MasterConfig {
         this.stateWheelInterval = stateWheelInterval;
     }
 
+    public int getDependentReconcileInterval() {
+        return dependentReconcileInterval;
+    }
+
+    public void setDependentReconcileInterval(int dependentReconcileInterval) {
+        this.dependentReconcileInterval = dependentReconcileInterval;
+    }
+
     public double getMaxCpuLoadAvg() {
         return maxCpuLoadAvg > 0 ? maxCpuLoadAvg : Runtime.getRuntime().availableProcessors() * 2;
     }
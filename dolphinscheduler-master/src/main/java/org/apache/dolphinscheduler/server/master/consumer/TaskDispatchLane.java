@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.consumer;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * dispatch lane of a worker group, the lane threads only dispatch the tasks of its worker group,
+ * so a worker group without available workers does not hold back the dispatch of the others.
+ * the queue admits the tasks by worker group as well, so the submitters of the other groups are not held back either
+ */
+class TaskDispatchLane {
+
+    private final String workerGroup;
+
+    private final int threads;
+
+    private final ExecutorService executor;
+
+    private volatile boolean running = true;
+
+    private volatile long lastActiveTime = System.currentTimeMillis();
+
+    private final Counter dispatchedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer dispatchTimer;
+
+    TaskDispatchLane(String workerGroup, int threads) {
+        this.workerGroup = workerGroup;
+        this.threads = threads;
+        this.executor = ThreadUtils.newDaemonFixedThreadExecutor("TaskDispatchLane-" + workerGroup, threads);
+        this.dispatchedCounter = Counter.builder("task_dispatch_lane_dispatched")
+            .description("tasks dispatched by the dispatch lane of a worker group")
+            .tag("worker_group", workerGroup)
+            .register(Metrics.globalRegistry);
+        this.failedCounter = Counter.builder("task_dispatch_lane_failed")
+            .description("tasks that failed to dispatch in the dispatch lane of a worker group")
+            .tag("worker_group", workerGroup)
+            .register(Metrics.globalRegistry);
+        this.dispatchTimer = Timer.builder("task_dispatch_lane_latency")
+            .description("time the dispatch lane of a worker group takes to dispatch the polled tasks")
+            .tag("worker_group", workerGroup)
+            .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * start the lane threads
+     *
+     * @param dispatchLoop dispatch loop of a lane thread
+     */
+    void start(Runnable dispatchLoop) {
+        for (int i = 0; i < threads; i++) {
+            executor.execute(dispatchLoop);
+        }
+    }
+
+    /**
+     * stop the lane, the lane threads exit after their current dispatch round
+     */
+    void stop() {
+        running = false;
+        executor.shutdown();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * whether the lane has dispatched nothing for the idle time
+     *
+     * @param now current time millis
+     * @param idleMillis idle time millis
+     * @return true if idle
+     */
+    boolean isIdle(long now, long idleMillis) {
+        return now - lastActiveTime >= idleMillis;
+    }
+
+    /**
+     * record a dispatch round of the lane
+     *
+     * @param dispatched dispatched tasks
+     * @param sent tasks sent in batches, they are recorded by {@link #recordAck} once their worker acks them
+     * @param failed failed tasks
+     * @param startNanos start time of the round
+     */
+    void record(int dispatched, int sent, int failed, long startNanos) {
+        if (dispatched + sent + failed == 0) {
+            return;
+        }
+        lastActiveTime = System.currentTimeMillis();
+        dispatchedCounter.increment(dispatched);
+        failedCounter.increment(failed);
+        dispatchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * record the ack of a task batch
+     *
+     * @param dispatched tasks the worker accepted
+     * @param failed tasks parked to be dispatched again
+     */
+    void recordAck(int dispatched, int failed) {
+        lastActiveTime = System.currentTimeMillis();
+        dispatchedCounter.increment(dispatched);
+        failedCounter.increment(failed);
+    }
+
+    String getWorkerGroup() {
+        return workerGroup;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+}
@@ -19,11 +19,15 @@ package org.apache.dolphinscheduler.server.master.consumer;
 
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.thread.Stopper;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchRequestCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
@@ -32,18 +36,22 @@ import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
-import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
-import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
 
+import org.apache.commons.collections4.CollectionUtils;
+
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -64,11 +72,16 @@ public class TaskPriorityQueueConsumer extends Thread {
      */
     private static final Logger logger = LoggerFactory.getLogger(TaskPriorityQueueConsumer.class);
 
+    /**
+     * a lane of a worker group without queued tasks and workers is stopped after this idle time
+     */
+    private static final long LANE_IDLE_TIMEOUT_MILLIS = 60_000L;
+
     /**
      * taskUpdateQueue
      */
     @Autowired
-    private TaskPriorityQueue<TaskPriority> taskPriorityQueue;
+    private TaskPriorityQueueImpl taskPriorityQueue;
 
     /**
      * processService
@@ -101,65 +114,258 @@ public class TaskPriorityQueueConsumer extends Thread {
     private TaskEventService taskEventService;
 
     /**
-     * consumer thread pool
+     * server node manager
      */
-    private ThreadPoolExecutor consumerThreadPoolExecutor;
+    @Autowired
+    private ServerNodeManager serverNodeManager;
+
+    /**
+     * dispatch lanes by worker group
+     */
+    private final ConcurrentHashMap<String, TaskDispatchLane> dispatchLanes = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
-        this.consumerThreadPoolExecutor = (ThreadPoolExecutor) ThreadUtils.newDaemonFixedThreadExecutor("TaskUpdateQueueConsumerThread", masterConfig.getDispatchTaskNumber());
+        startLaneIfAbsent(Constants.DEFAULT_WORKER_GROUP);
+        // retry the parked tasks of a worker group once its workers change, e.g. a worker registers or reports a new load
+        serverNodeManager.addWorkerInfoChangeListener((workerGroupNodes, workerNodeInfo) -> {
+            for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    startLaneIfAbsent(entry.getKey());
+                    taskPriorityQueue.unpark(entry.getKey());
+                }
+            }
+        });
         super.start();
     }
 
+    /**
+     * start a lane for every worker group that has queued tasks, stop the lanes of the worker groups that are gone
+     */
     @Override
     public void run() {
-        int fetchTaskNum = masterConfig.getDispatchTaskNumber();
         while (Stopper.isRunning()) {
             try {
-                List<TaskPriority> failedDispatchTasks = this.batchDispatch(fetchTaskNum);
-
-                if (!failedDispatchTasks.isEmpty()) {
-                    for (TaskPriority dispatchFailedTask : failedDispatchTasks) {
-                        taskPriorityQueue.put(dispatchFailedTask);
-                    }
-                    // If there are tasks in a cycle that cannot find the worker group,
-                    // sleep for 1 second
-                    if (taskPriorityQueue.size() <= failedDispatchTasks.size()) {
-                        TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
-                    }
+                Set<String> queuedWorkerGroups = taskPriorityQueue.getWorkerGroups();
+                for (String workerGroup : queuedWorkerGroups) {
+                    startLaneIfAbsent(workerGroup);
                 }
+                stopIdleLanes(queuedWorkerGroups);
+                TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (Exception e) {
-                logger.error("dispatcher task error", e);
+                logger.error("start dispatch lane error", e);
             }
         }
     }
 
+    private void startLaneIfAbsent(String workerGroup) {
+        dispatchLanes.computeIfAbsent(workerGroup, group -> {
+            int weight = masterConfig.getDispatchLaneWeights().getOrDefault(group, 1);
+            TaskDispatchLane lane = new TaskDispatchLane(group, Math.max(1, masterConfig.getDispatchLaneThreads() * weight));
+            lane.start(() -> dispatchLoop(lane));
+            logger.info("start dispatch lane of worker group {} with {} threads", group, lane.getThreads());
+            return lane;
+        });
+    }
+
     /**
-     * batch dispatch with thread pool
+     * stop the lanes that are idle, have no queued tasks and no workers in their worker group,
+     * a lane is started again once a task of its worker group is queued or a worker of the group registers
      */
-    private List<TaskPriority> batchDispatch(int fetchTaskNum) throws TaskPriorityQueueException, InterruptedException {
-        List<TaskPriority> failedDispatchTasks = Collections.synchronizedList(new ArrayList<>());
-        CountDownLatch latch = new CountDownLatch(fetchTaskNum);
+    private void stopIdleLanes(Set<String> queuedWorkerGroups) {
+        long now = System.currentTimeMillis();
+        for (TaskDispatchLane lane : dispatchLanes.values()) {
+            String workerGroup = lane.getWorkerGroup();
+            if (queuedWorkerGroups.contains(workerGroup) || !lane.isIdle(now, LANE_IDLE_TIMEOUT_MILLIS)
+                    || CollectionUtils.isNotEmpty(serverNodeManager.getWorkerGroupNodes(workerGroup))) {
+                continue;
+            }
+            if (dispatchLanes.remove(workerGroup, lane)) {
+                lane.stop();
+                logger.info("stop the idle dispatch lane of worker group {}", workerGroup);
+            }
+        }
+    }
+
+    /**
+     * dispatch loop of a lane thread
+     */
+    private void dispatchLoop(TaskDispatchLane lane) {
+        int fetchTaskNum = masterConfig.getDispatchTaskNumber();
+        while (Stopper.isRunning() && lane.isRunning()) {
+            try {
+                long startNanos = System.nanoTime();
+                DispatchRound round = masterConfig.isDispatchBatchEnabled()
+                        ? this.dispatchByWorker(lane, fetchTaskNum) : this.dispatchOne(lane.getWorkerGroup());
+                // park the failed tasks with their worker group instead of polling them again right away
+                for (TaskPriority dispatchFailedTask : round.failedTasks) {
+                    taskPriorityQueue.park(dispatchFailedTask);
+                }
+                lane.record(round.dispatched, round.sent, round.failedTasks.size(), startNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("dispatch task of worker group {} error", lane.getWorkerGroup(), e);
+            }
+        }
+    }
+
+    /**
+     * dispatch one task of the worker group
+     */
+    private DispatchRound dispatchOne(String workerGroup) throws InterruptedException {
+        DispatchRound round = new DispatchRound();
+        TaskPriority taskPriority = taskPriorityQueue.poll(workerGroup, Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        if (Objects.isNull(taskPriority)) {
+            return round;
+        }
+        if (this.dispatchTask(taskPriority)) {
+            round.dispatched++;
+        } else {
+            round.failedTasks.add(taskPriority);
+        }
+        return round;
+    }
+
+    /**
+     * group the polled tasks of the worker group by worker and send every group in one batch, the worker acks are
+     * handled asynchronously so that a slow worker does not hold back the dispatch to the others
+     */
+    private DispatchRound dispatchByWorker(TaskDispatchLane lane, int fetchTaskNum) throws InterruptedException {
+        String workerGroup = lane.getWorkerGroup();
+        DispatchRound round = new DispatchRound();
+        List<TaskPriority> failedDispatchTasks = round.failedTasks;
+        Map<Host, List<TaskPriority>> workerTasks = new HashMap<>();
 
         for (int i = 0; i < fetchTaskNum; i++) {
-            TaskPriority taskPriority = taskPriorityQueue.poll(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+            // only wait for the first task, a partial batch is sent as soon as the queue is drained
+            TaskPriority taskPriority = taskPriorityQueue.poll(workerGroup, i == 0 ? Constants.SLEEP_TIME_MILLIS : 0, TimeUnit.MILLISECONDS);
             if (Objects.isNull(taskPriority)) {
-                latch.countDown();
-                continue;
+                break;
             }
+            try {
+                if (isTaskNeedToCheck(taskPriority) && taskInstanceIsFinalState(taskPriority.getTaskId())) {
+                    // when task finish, ignore this task, there is no need to dispatch anymore
+                    continue;
+                }
+                TaskExecutionContext context = taskPriority.getTaskExecutionContext();
+                Host host = dispatcher.select(new ExecutionContext(null, ExecutorType.WORKER, context.getWorkerGroup()));
+                workerTasks.computeIfAbsent(host, k -> new ArrayList<>()).add(taskPriority);
+            } catch (RuntimeException e) {
+                logger.error("dispatch error: ", e);
+                failedDispatchTasks.add(taskPriority);
+            } catch (ExecuteException e) {
+                logger.error("dispatch error: {}", e.getMessage());
+                failedDispatchTasks.add(taskPriority);
+            }
+        }
+
+        for (Map.Entry<Host, List<TaskPriority>> entry : workerTasks.entrySet()) {
+            try {
+                sendBatch(lane, entry.getKey(), entry.getValue(), false);
+                round.sent += entry.getValue().size();
+            } catch (ExecuteException e) {
+                logger.error("dispatch error: {}", e.getMessage());
+                failedDispatchTasks.addAll(entry.getValue());
+            }
+        }
+        return round;
+    }
 
-            consumerThreadPoolExecutor.submit(() -> {
-                boolean dispatchResult = this.dispatchTask(taskPriority);
-                if (!dispatchResult) {
-                    failedDispatchTasks.add(taskPriority);
+    /**
+     * send the tasks to the worker in one batch, the tasks are counted as dispatched once the worker acks them
+     *
+     * @param lane dispatch lane
+     * @param host worker host
+     * @param tasks tasks of the batch
+     * @param resent whether the batch is sent again because its ack is lost
+     * @throws ExecuteException if the batch can not be sent
+     */
+    private void sendBatch(TaskDispatchLane lane, Host host, List<TaskPriority> tasks, boolean resent) throws ExecuteException {
+        List<String> taskExecutionContexts = new ArrayList<>(tasks.size());
+        for (TaskPriority taskPriority : tasks) {
+            taskExecutionContexts.add(JSONUtils.toJsonString(taskPriority.getTaskExecutionContext()));
+        }
+        Command command = new TaskExecuteBatchRequestCommand(taskExecutionContexts).convert2Command();
+        dispatcher.dispatchBatch(host, command, responseFuture -> onBatchAck(lane, host, tasks, responseFuture, resent));
+    }
+
+    /**
+     * handle the worker ack of a task batch.
+     * a batch that was not sent is parked to be dispatched again. a batch that reached the worker but is not acked,
+     * e.g. the ack timed out, may already run on the worker, so it is sent to the same worker once more, the worker skips
+     * the task instances it already runs. if that is not acked either, only the tasks whose instance is still waiting for
+     * dispatch are parked, e.g. a worker of an older version does not know the batch request and never acks it
+     *
+     * @param lane dispatch lane
+     * @param host worker host
+     * @param tasks tasks of the batch
+     * @param responseFuture response future
+     * @param resent whether the batch was sent again because its ack is lost
+     */
+    void onBatchAck(TaskDispatchLane lane, Host host, List<TaskPriority> tasks, ResponseFuture responseFuture, boolean resent) {
+        Command response = responseFuture.getResponseCommand();
+        TaskExecuteBatchAckCommand ackCommand = response == null ? null : response.deserializeBody(TaskExecuteBatchAckCommand.class);
+        if (ackCommand == null || ackCommand.getAcceptedTaskInstanceIds() == null) {
+            if (!responseFuture.isSendOK()) {
+                logger.error("send task batch to {} failed, park {} tasks in the queue", host, tasks.size(), responseFuture.getCause());
+                parkTasks(lane, tasks);
+                return;
+            }
+            if (!resent) {
+                logger.warn("no ack of task batch from {}, send {} tasks to it again", host, tasks.size());
+                try {
+                    sendBatch(lane, host, tasks, true);
+                    return;
+                } catch (ExecuteException e) {
+                    logger.error("send task batch to {} again error: {}", host, e.getMessage());
                 }
-                latch.countDown();
-            });
+            }
+            List<TaskPriority> waitingTasks = getTasksWaitingForDispatch(tasks);
+            logger.warn("no ack of task batch from {}, park {} of {} tasks in the queue", host, waitingTasks.size(), tasks.size());
+            parkTasks(lane, waitingTasks);
+            return;
+        }
+        Set<Integer> acceptedTaskInstanceIds = new HashSet<>(ackCommand.getAcceptedTaskInstanceIds());
+        int accepted = 0;
+        for (TaskPriority taskPriority : tasks) {
+            // the worker reports the rejected tasks as failed by itself
+            if (acceptedTaskInstanceIds.contains(taskPriority.getTaskExecutionContext().getTaskInstanceId())) {
+                addDispatchEvent(taskPriority.getTaskExecutionContext(), host);
+                accepted++;
+            }
         }
+        lane.recordAck(accepted, 0);
+    }
 
-        latch.await();
+    /**
+     * the tasks whose instance is still submitted, an instance the worker already reported or that is finished is not dispatched again
+     */
+    private List<TaskPriority> getTasksWaitingForDispatch(List<TaskPriority> tasks) {
+        List<TaskPriority> waitingTasks = new ArrayList<>(tasks.size());
+        for (TaskPriority taskPriority : tasks) {
+            try {
+                TaskInstance taskInstance = processService.findTaskInstanceById(taskPriority.getTaskId());
+                if (taskInstance != null && taskInstance.getState() == ExecutionStatus.SUBMITTED_SUCCESS) {
+                    waitingTasks.add(taskPriority);
+                }
+            } catch (Exception e) {
+                logger.error("query task instance {} error, park it in the queue", taskPriority.getTaskId(), e);
+                waitingTasks.add(taskPriority);
+            }
+        }
+        return waitingTasks;
+    }
 
-        return failedDispatchTasks;
+    private void parkTasks(TaskDispatchLane lane, List<TaskPriority> tasks) {
+        for (TaskPriority taskPriority : tasks) {
+            taskPriorityQueue.park(taskPriority);
+        }
+        lane.recordAck(0, tasks.size());
     }
 
     /**
@@ -184,7 +390,7 @@ public class TaskPriorityQueueConsumer extends Thread {
             result = dispatcher.dispatch(executionContext);
 
             if (result) {
-                addDispatchEvent(context, executionContext);
+                addDispatchEvent(context, executionContext.getHost());
             }
         } catch (RuntimeException e) {
             logger.error("dispatch error: ", e);
@@ -197,8 +403,8 @@ public class TaskPriorityQueueConsumer extends Thread {
     /**
      * add dispatch event
      */
-    private void addDispatchEvent(TaskExecutionContext context, ExecutionContext executionContext) {
-        TaskEvent taskEvent = TaskEvent.newDispatchEvent(context.getProcessInstanceId(), context.getTaskInstanceId(), executionContext.getHost().getAddress());
+    private void addDispatchEvent(TaskExecutionContext context, Host host) {
+        TaskEvent taskEvent = TaskEvent.newDispatchEvent(context.getProcessInstanceId(), context.getTaskInstanceId(), host.getAddress());
         taskEventService.addEvent(taskEvent);
     }
 
@@ -231,4 +437,19 @@ public class TaskPriorityQueueConsumer extends Thread {
         }
         return false;
     }
+
+    /**
+     * result of a dispatch round of a lane thread
+     */
+    private static class DispatchRound {
+
+        private int dispatched;
+
+        /**
+         * tasks sent in batches, they are counted when their worker acks them
+         */
+        private int sent;
+
+        private final List<TaskPriority> failedTasks = new ArrayList<>();
+    }
 }
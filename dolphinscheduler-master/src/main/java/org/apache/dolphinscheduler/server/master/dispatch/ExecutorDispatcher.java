@@ -17,6 +17,8 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch;
 
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
@@ -82,14 +84,7 @@ public class ExecutorDispatcher implements InitializingBean {
         /**
          * host select
          */
-
-        Host host = hostManager.select(context);
-        if (StringUtils.isEmpty(host.getAddress())) {
-            throw new ExecuteException(String.format("fail to execute : %s due to no suitable worker, "
-                            + "current task needs worker group %s to execute",
-                    context.getCommand(),context.getWorkerGroup()));
-        }
-        context.setHost(host);
+        context.setHost(select(context));
         executorManager.beforeExecute(context);
         try {
             /**
@@ -101,6 +96,36 @@ public class ExecutorDispatcher implements InitializingBean {
         }
     }
 
+    /**
+     * select the host to execute the context
+     *
+     * @param context context
+     * @return host
+     * @throws ExecuteException if there is no suitable host
+     */
+    public Host select(final ExecutionContext context) throws ExecuteException {
+        Host host = hostManager.select(context);
+        if (StringUtils.isEmpty(host.getAddress())) {
+            throw new ExecuteException(String.format("fail to execute : %s due to no suitable worker, "
+                            + "current task needs worker group %s to execute",
+                    context.getCommand(),context.getWorkerGroup()));
+        }
+        return host;
+    }
+
+    /**
+     * send a task batch to the worker without waiting for its ack,
+     * the ack, the timeout or the send failure is passed to the callback
+     *
+     * @param host worker host
+     * @param command task execute batch command
+     * @param invokeCallback callback
+     * @throws ExecuteException if the batch can not be sent
+     */
+    public void dispatchBatch(final Host host, final Command command, final InvokeCallback invokeCallback) throws ExecuteException {
+        nettyExecutorManager.executeBatch(host, command, invokeCallback);
+    }
+
     /**
      * register init
      * @throws Exception if error throws Exception
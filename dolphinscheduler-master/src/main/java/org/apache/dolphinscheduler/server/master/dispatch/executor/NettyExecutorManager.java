@@ -22,12 +22,15 @@ import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteResponseProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteRunningProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskExecuteStatusBatchProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
 import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
 
@@ -53,6 +56,11 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
 
     private final Logger logger = LoggerFactory.getLogger(NettyExecutorManager.class);
 
+    /**
+     * how long a task batch waits for the worker ack
+     */
+    private static final long BATCH_ACK_TIMEOUT_MILLIS = 30 * 1000L;
+
     /**
      * server node manager
      */
@@ -68,6 +76,9 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
     @Autowired
     private TaskExecuteResponseProcessor taskExecuteResponseProcessor;
 
+    @Autowired
+    private TaskExecuteStatusBatchProcessor taskExecuteStatusBatchProcessor;
+
     /**
      * netty remote client
      */
@@ -85,6 +96,8 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
     public void init() {
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE, taskExecuteResponseProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RUNNING, taskExecuteRunningProcessor);
+        // workers report the status of the tasks they got on this connection back over the same channel
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_STATUS_BATCH, taskExecuteStatusBatchProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_KILL_RESPONSE, taskKillResponseProcessor);
     }
 
@@ -179,6 +192,25 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
         }
     }
 
+    /**
+     * send the batch asynchronously, the worker ack is passed to the callback
+     *
+     * @param host host
+     * @param command task execute batch command
+     * @param invokeCallback callback
+     * @throws ExecuteException if the batch can not be sent
+     */
+    public void executeBatch(final Host host, final Command command, final InvokeCallback invokeCallback) throws ExecuteException {
+        try {
+            nettyRemotingClient.sendAsync(host, command, BATCH_ACK_TIMEOUT_MILLIS, invokeCallback);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecuteException(String.format("send command : %s to %s interrupted", command, host), e);
+        } catch (RemotingException e) {
+            throw new ExecuteException(String.format("send command : %s to %s error", command, host), e);
+        }
+    }
+
     /**
      * get all nodes
      *
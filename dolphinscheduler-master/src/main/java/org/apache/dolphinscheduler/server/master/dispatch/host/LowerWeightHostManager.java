@@ -20,38 +20,33 @@ package org.apache.dolphinscheduler.server.master.dispatch.host;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.utils.HeartBeat;
 import org.apache.dolphinscheduler.remote.utils.Host;
-import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.registry.WorkerInfoChangeListener;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * lower weight host manager
+ * lower weight host manager, the host weights of every worker group are rebuilt on worker info changes
+ * and published as an immutable snapshot, so that selecting a host takes no lock
  */
-public class LowerWeightHostManager extends CommonHostManager {
+public class LowerWeightHostManager extends CommonHostManager implements WorkerInfoChangeListener {
 
     private final Logger logger = LoggerFactory.getLogger(LowerWeightHostManager.class);
 
@@ -61,32 +56,19 @@ public class LowerWeightHostManager extends CommonHostManager {
     private LowerWeightRoundRobin selector;
 
     /**
-     * worker host weights
+     * worker host weights snapshot, replaced as a whole and never modified after published
      */
-    private ConcurrentHashMap<String, Set<HostWeight>> workerHostWeightsMap;
+    private volatile Map<String, Set<HostWeight>> workerHostWeightsMap = Collections.emptyMap();
 
     /**
-     * worker group host lock
+     * decoded heartbeat by worker address, only accessed by the refresh
      */
-    private Lock lock;
-
-    /**
-     * executor service
-     */
-    private ScheduledExecutorService executorService;
+    private final Map<String, DecodedHeartBeat> heartBeatCache = new HashMap<>();
 
     @PostConstruct
     public void init() {
         this.selector = new LowerWeightRoundRobin();
-        this.workerHostWeightsMap = new ConcurrentHashMap<>();
-        this.lock = new ReentrantLock();
-        this.executorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("LowerWeightHostManagerExecutor"));
-        this.executorService.scheduleWithFixedDelay(new RefreshResourceTask(), 0, 1, TimeUnit.SECONDS);
-    }
-
-    @PreDestroy
-    public void close() {
-        this.executorService.shutdownNow();
+        serverNodeManager.addWorkerInfoChangeListener(this);
     }
 
     /**
@@ -97,7 +79,7 @@ public class LowerWeightHostManager extends CommonHostManager {
      */
     @Override
     public Host select(ExecutionContext context) {
-        Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
+        Set<HostWeight> workerHostWeights = workerHostWeightsMap.get(context.getWorkerGroup());
         if (CollectionUtils.isNotEmpty(workerHostWeights)) {
             return selector.select(workerHostWeights).getHost();
         }
@@ -109,50 +91,66 @@ public class LowerWeightHostManager extends CommonHostManager {
         throw new UnsupportedOperationException("not support");
     }
 
-    private void syncWorkerHostWeight(Map<String, Set<HostWeight>> workerHostWeights) {
-        lock.lock();
-        try {
-            workerHostWeightsMap.clear();
-            workerHostWeightsMap.putAll(workerHostWeights);
-        } finally {
-            lock.unlock();
-        }
+    @Override
+    public void notify(Map<String, Set<String>> workerGroupNodes, Map<String, String> workerNodeInfo) {
+        new RefreshResourceTask(workerGroupNodes, workerNodeInfo).run();
     }
 
-    private Set<HostWeight> getWorkerHostWeights(String workerGroup) {
-        lock.lock();
-        try {
-            return workerHostWeightsMap.get(workerGroup);
-        } finally {
-            lock.unlock();
+    /**
+     * heartbeat decoded from the heartbeat string
+     */
+    private static class DecodedHeartBeat {
+
+        private final String heartBeatInfo;
+
+        private final HeartBeat heartBeat;
+
+        DecodedHeartBeat(String heartBeatInfo, HeartBeat heartBeat) {
+            this.heartBeatInfo = heartBeatInfo;
+            this.heartBeat = heartBeat;
         }
     }
 
     class RefreshResourceTask implements Runnable {
 
+        private final Map<String, Set<String>> workerGroupNodes;
+
+        private final Map<String, String> workerNodeInfo;
+
+        RefreshResourceTask() {
+            this(Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        RefreshResourceTask(Map<String, Set<String>> workerGroupNodes, Map<String, String> workerNodeInfo) {
+            this.workerGroupNodes = workerGroupNodes;
+            this.workerNodeInfo = workerNodeInfo;
+        }
+
         @Override
         public void run() {
-            try {
-                Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
-                Map<String, Set<String>> workerGroupNodes = serverNodeManager.getWorkerGroupNodes();
-                for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
-                    String workerGroup = entry.getKey();
-                    Set<String> nodes = entry.getValue();
-                    Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
-                    for (String node : nodes) {
-                        String heartbeat = serverNodeManager.getWorkerNodeInfo(node);
-                        Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
-                        if (hostWeightOpt.isPresent()) {
-                            hostWeights.add(hostWeightOpt.get());
+            synchronized (heartBeatCache) {
+                try {
+                    Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
+                    for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
+                        String workerGroup = entry.getKey();
+                        Set<String> nodes = entry.getValue();
+                        Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
+                        for (String node : nodes) {
+                            String heartbeat = workerNodeInfo.get(node);
+                            Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
+                            if (hostWeightOpt.isPresent()) {
+                                hostWeights.add(hostWeightOpt.get());
+                            }
+                        }
+                        if (!hostWeights.isEmpty()) {
+                            workerHostWeights.put(workerGroup, hostWeights);
                         }
                     }
-                    if (!hostWeights.isEmpty()) {
-                        workerHostWeights.put(workerGroup, hostWeights);
-                    }
+                    heartBeatCache.keySet().retainAll(workerNodeInfo.keySet());
+                    workerHostWeightsMap = Collections.unmodifiableMap(workerHostWeights);
+                } catch (Throwable ex) {
+                    logger.error("RefreshResourceTask error", ex);
                 }
-                syncWorkerHostWeight(workerHostWeights);
-            } catch (Throwable ex) {
-                logger.error("RefreshResourceTask error", ex);
             }
         }
 
@@ -161,7 +159,7 @@ public class LowerWeightHostManager extends CommonHostManager {
                 logger.warn("worker {} in work group {} have not received the heartbeat", addr, workerGroup);
                 return Optional.empty();
             }
-            HeartBeat heartBeat = HeartBeat.decodeHeartBeat(heartBeatInfo);
+            HeartBeat heartBeat = decodeHeartBeat(addr, heartBeatInfo);
             if (heartBeat == null) {
                 return Optional.empty();
             }
@@ -180,6 +178,18 @@ public class LowerWeightHostManager extends CommonHostManager {
                             heartBeat.getCpuUsage(), heartBeat.getMemoryUsage(), heartBeat.getLoadAverage(),
                             heartBeat.getStartupTime()));
         }
+
+        /**
+         * decode the heartbeat only when it changed since the last refresh
+         */
+        private HeartBeat decodeHeartBeat(String addr, String heartBeatInfo) {
+            DecodedHeartBeat decoded = heartBeatCache.get(addr);
+            if (decoded == null || !decoded.heartBeatInfo.equals(heartBeatInfo)) {
+                decoded = new DecodedHeartBeat(heartBeatInfo, HeartBeat.decodeHeartBeat(heartBeatInfo));
+                heartBeatCache.put(addr, decoded);
+            }
+            return decoded.heartBeat;
+        }
     }
 
 }
@@ -18,11 +18,12 @@
 package org.apache.dolphinscheduler.server.master.processor;
 
 import org.apache.dolphinscheduler.common.enums.CacheType;
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.cache.ProcessDagCacheManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,11 +47,17 @@ public class CacheProcessor implements NettyRequestProcessor {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private ProcessDagCacheManager processDagCacheManager;
+
     @Override
     public void process(Channel channel, Command command) {
         Preconditions.checkArgument(CommandType.CACHE_EXPIRE == command.getType(), String.format("invalid command type: %s", command.getType()));
 
-        CacheExpireCommand cacheExpireCommand = JSONUtils.parseObject(command.getBody(), CacheExpireCommand.class);
+        CacheExpireCommand cacheExpireCommand = command.deserializeBody(CacheExpireCommand.class);
 
         logger.info("received command : {}", cacheExpireCommand);
 
@@ -69,5 +76,10 @@ public class CacheProcessor implements NettyRequestProcessor {
             cache.evict(cacheExpireCommand.getCacheKey());
             logger.info("cache evict, type:{}, key:{}", cacheType.getCacheName(), cacheExpireCommand.getCacheKey());
         }
+        if (cacheType == CacheType.TASK_DEFINITION) {
+            processService.evictTaskDefineLogCache(cacheExpireCommand.getCacheKey());
+            // the release state of a task definition is compiled into the process dags
+            processDagCacheManager.evictAll();
+        }
     }
 }
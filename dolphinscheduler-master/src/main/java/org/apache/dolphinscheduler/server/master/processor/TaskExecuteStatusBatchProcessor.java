@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteStatusBatchCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.channel.Channel;
+
+/**
+ * task execute status batch processor, every report of the batch is handled
+ * as if it had been sent in a frame of its own and is acked separately
+ */
+@Component
+public class TaskExecuteStatusBatchProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskExecuteStatusBatchProcessor.class);
+
+    @Autowired
+    private TaskEventService taskEventService;
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_EXECUTE_STATUS_BATCH == command.getType(), String.format("invalid command type : %s", command.getType()));
+        TaskExecuteStatusBatchCommand batchCommand = command.deserializeBody(TaskExecuteStatusBatchCommand.class);
+        logger.info("received command : {}", batchCommand);
+
+        // running reports go first, a task may report running and its result in the same batch
+        for (TaskExecuteRunningCommand runningCommand : batchCommand.getRunningCommands()) {
+            taskEventService.addEvent(TaskEvent.newRunningEvent(runningCommand, channel));
+        }
+        for (TaskExecuteResponseCommand responseCommand : batchCommand.getResponseCommands()) {
+            taskEventService.addEvent(TaskEvent.newResultEvent(responseCommand, channel));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.common.enums.Event;
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckCommand;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ * task events of one or more process instances handled together,
+ * the changed task instances are persisted in one jdbc batch and transaction,
+ * the events are acked and their state events are submitted only after the commit.
+ * the events of a process instance are added in order and its state events keep that order.
+ */
+public class TaskEventBatch {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBatch.class);
+
+    private final ProcessService processService;
+
+    private final WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    /**
+     * changed task instances, the latest change of a task instance wins
+     */
+    private final Map<Integer, TaskInstance> changedTaskInstances = new LinkedHashMap<>();
+
+    /**
+     * running and result events waiting for the commit
+     */
+    private final List<TaskEvent> events = new ArrayList<>();
+
+    /**
+     * events failed to handle, acked with failure
+     */
+    private final Set<TaskEvent> failedEvents = new HashSet<>();
+
+    public TaskEventBatch(ProcessService processService, WorkflowExecuteThreadPool workflowExecuteThreadPool) {
+        this.processService = processService;
+        this.workflowExecuteThreadPool = workflowExecuteThreadPool;
+    }
+
+    /**
+     * the task instance changed by an earlier event of this batch
+     */
+    public TaskInstance getChangedTaskInstance(int taskInstanceId) {
+        return changedTaskInstances.get(taskInstanceId);
+    }
+
+    /**
+     * persist the task instance when the batch commits
+     */
+    public void save(TaskInstance taskInstance) {
+        changedTaskInstances.put(taskInstance.getId(), taskInstance);
+    }
+
+    /**
+     * ack the running or result event and submit its state event when the batch commits
+     *
+     * @param taskEvent task event
+     * @param handled false if handling the event failed, the worker is acked with failure and retries
+     */
+    public void complete(TaskEvent taskEvent, boolean handled) {
+        events.add(taskEvent);
+        if (!handled) {
+            failedEvents.add(taskEvent);
+        }
+    }
+
+    public int size() {
+        return events.size() + changedTaskInstances.size();
+    }
+
+    /**
+     * persist the changed task instances, then ack the events and submit their state events
+     */
+    public void commit() {
+        Set<Integer> failedTaskInstanceIds = persist();
+        for (TaskEvent taskEvent : events) {
+            boolean success = !failedEvents.contains(taskEvent) && !failedTaskInstanceIds.contains(taskEvent.getTaskInstanceId());
+            ack(taskEvent, success);
+
+            StateEvent stateEvent = new StateEvent();
+            stateEvent.setProcessInstanceId(taskEvent.getProcessInstanceId());
+            stateEvent.setTaskInstanceId(taskEvent.getTaskInstanceId());
+            stateEvent.setExecutionStatus(taskEvent.getState());
+            stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
+            workflowExecuteThreadPool.submitStateEvent(stateEvent);
+        }
+    }
+
+    /**
+     * @return ids of the task instances failed to persist
+     */
+    private Set<Integer> persist() {
+        Set<Integer> failedTaskInstanceIds = new HashSet<>();
+        if (changedTaskInstances.isEmpty()) {
+            return failedTaskInstanceIds;
+        }
+        List<TaskInstance> taskInstances = new ArrayList<>(changedTaskInstances.values());
+        try {
+            processService.updateTaskInstances(taskInstances);
+            return failedTaskInstanceIds;
+        } catch (Exception e) {
+            logger.error("persist {} task instances in batch error, persist them one by one", taskInstances.size(), e);
+        }
+        for (TaskInstance taskInstance : taskInstances) {
+            try {
+                processService.saveTaskInstance(taskInstance);
+            } catch (Exception e) {
+                logger.error("persist task instance {} error", taskInstance.getId(), e);
+                failedTaskInstanceIds.add(taskInstance.getId());
+            }
+        }
+        return failedTaskInstanceIds;
+    }
+
+    private void ack(TaskEvent taskEvent, boolean success) {
+        Channel channel = taskEvent.getChannel();
+        if (channel == null) {
+            return;
+        }
+        int status = success ? ExecutionStatus.SUCCESS.getCode() : ExecutionStatus.FAILURE.getCode();
+        int taskInstanceId = success ? taskEvent.getTaskInstanceId() : -1;
+        try {
+            if (taskEvent.getEvent() == Event.RESULT) {
+                channel.writeAndFlush(new TaskExecuteResponseAckCommand(status, taskInstanceId).convert2Command());
+            } else {
+                channel.writeAndFlush(new TaskExecuteRunningAckCommand(status, taskInstanceId).convert2Command());
+            }
+        } catch (Exception e) {
+            logger.error("ack task event error, event: {}", taskEvent, e);
+        }
+    }
+}
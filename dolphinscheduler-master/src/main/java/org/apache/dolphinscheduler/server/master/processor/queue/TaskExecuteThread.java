@@ -18,12 +18,8 @@
 package org.apache.dolphinscheduler.server.master.processor.queue;
 
 import org.apache.dolphinscheduler.common.enums.Event;
-import org.apache.dolphinscheduler.common.enums.StateEvent;
-import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
-import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseAckCommand;
-import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckCommand;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThread;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
@@ -35,8 +31,6 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.netty.channel.Channel;
-
 /**
  * task execute thread
  */
@@ -66,10 +60,26 @@ public class TaskExecuteThread {
     }
 
     public void run() {
-        while (!this.events.isEmpty()) {
+        TaskEventBatch batch = new TaskEventBatch(processService, workflowExecuteThreadPool);
+        drainTo(batch);
+        batch.commit();
+    }
+
+    /**
+     * handle the events queued so far in order, their task instances are persisted
+     * and they are acked when the batch commits
+     *
+     * @param batch batch
+     */
+    public void drainTo(TaskEventBatch batch) {
+        int size = this.events.size();
+        for (int i = 0; i < size; i++) {
             TaskEvent event = this.events.peek();
+            if (event == null) {
+                break;
+            }
             try {
-                persist(event);
+                handle(event, batch);
             } catch (Exception e) {
                 logger.error("persist error, event:{}, error: {}", event, e);
             } finally {
@@ -104,51 +114,47 @@ public class TaskExecuteThread {
     }
 
     /**
-     * persist task event
+     * handle task event
      *
      * @param taskEvent taskEvent
+     * @param batch the batch persisting the changes of the event
      */
-    private void persist(TaskEvent taskEvent) {
+    private void handle(TaskEvent taskEvent, TaskEventBatch batch) {
         Event event = taskEvent.getEvent();
         int taskInstanceId = taskEvent.getTaskInstanceId();
         int processInstanceId = taskEvent.getProcessInstanceId();
 
-        TaskInstance taskInstance;
-        WorkflowExecuteThread workflowExecuteThread = this.processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
-        if (workflowExecuteThread != null && workflowExecuteThread.checkTaskInstanceById(taskInstanceId)) {
-            taskInstance = workflowExecuteThread.getTaskInstance(taskInstanceId);
-        } else {
-            taskInstance = processService.findTaskInstanceById(taskInstanceId);
+        TaskInstance taskInstance = batch.getChangedTaskInstance(taskInstanceId);
+        if (taskInstance == null) {
+            WorkflowExecuteThread workflowExecuteThread = this.processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+            if (workflowExecuteThread != null && workflowExecuteThread.checkTaskInstanceById(taskInstanceId)) {
+                taskInstance = workflowExecuteThread.getTaskInstance(taskInstanceId);
+            } else {
+                taskInstance = processService.findTaskInstanceById(taskInstanceId);
+            }
         }
 
         switch (event) {
             case DISPATCH:
-                handleDispatchEvent(taskEvent, taskInstance);
-                // dispatch event do not need to submit state event
-                return;
+                // dispatch event do not need to be acked nor to submit state event
+                handleDispatchEvent(taskEvent, taskInstance, batch);
+                break;
             case DELAY:
             case RUNNING:
-                handleRunningEvent(taskEvent, taskInstance);
+                handleRunningEvent(taskEvent, taskInstance, batch);
                 break;
             case RESULT:
-                handleResultEvent(taskEvent, taskInstance);
+                handleResultEvent(taskEvent, taskInstance, batch);
                 break;
             default:
                 throw new IllegalArgumentException("invalid event type : " + event);
         }
-
-        StateEvent stateEvent = new StateEvent();
-        stateEvent.setProcessInstanceId(taskEvent.getProcessInstanceId());
-        stateEvent.setTaskInstanceId(taskEvent.getTaskInstanceId());
-        stateEvent.setExecutionStatus(taskEvent.getState());
-        stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
-        workflowExecuteThreadPool.submitStateEvent(stateEvent);
     }
 
     /**
      * handle dispatch event
      */
-    private void handleDispatchEvent(TaskEvent taskEvent, TaskInstance taskInstance) {
+    private void handleDispatchEvent(TaskEvent taskEvent, TaskInstance taskInstance, TaskEventBatch batch) {
         if (taskInstance == null) {
             logger.error("taskInstance is null");
             return;
@@ -158,14 +164,13 @@ public class TaskExecuteThread {
         }
         taskInstance.setState(ExecutionStatus.DISPATCH);
         taskInstance.setHost(taskEvent.getWorkerAddress());
-        processService.saveTaskInstance(taskInstance);
+        batch.save(taskInstance);
     }
 
     /**
      * handle running event
      */
-    private void handleRunningEvent(TaskEvent taskEvent, TaskInstance taskInstance) {
-        Channel channel = taskEvent.getChannel();
+    private void handleRunningEvent(TaskEvent taskEvent, TaskInstance taskInstance, TaskEventBatch batch) {
         try {
             if (taskInstance != null) {
                 if (taskInstance.getState().typeIsFinished()) {
@@ -178,24 +183,21 @@ public class TaskExecuteThread {
                     taskInstance.setExecutePath(taskEvent.getExecutePath());
                     taskInstance.setPid(taskEvent.getProcessId());
                     taskInstance.setAppLink(taskEvent.getAppIds());
-                    processService.saveTaskInstance(taskInstance);
+                    batch.save(taskInstance);
                 }
             }
             // if taskInstance is null (maybe deleted) or finish. retry will be meaningless . so ack success
-            TaskExecuteRunningAckCommand taskExecuteRunningAckCommand = new TaskExecuteRunningAckCommand(ExecutionStatus.SUCCESS.getCode(), taskEvent.getTaskInstanceId());
-            channel.writeAndFlush(taskExecuteRunningAckCommand.convert2Command());
+            batch.complete(taskEvent, true);
         } catch (Exception e) {
             logger.error("worker ack master error", e);
-            TaskExecuteRunningAckCommand taskExecuteRunningAckCommand = new TaskExecuteRunningAckCommand(ExecutionStatus.FAILURE.getCode(), -1);
-            channel.writeAndFlush(taskExecuteRunningAckCommand.convert2Command());
+            batch.complete(taskEvent, false);
         }
     }
 
     /**
      * handle result event
      */
-    private void handleResultEvent(TaskEvent taskEvent, TaskInstance taskInstance) {
-        Channel channel = taskEvent.getChannel();
+    private void handleResultEvent(TaskEvent taskEvent, TaskInstance taskInstance, TaskEventBatch batch) {
         try {
             if (taskInstance != null) {
                 dataQualityResultOperator.operateDqExecuteResult(taskEvent, taskInstance);
@@ -210,15 +212,13 @@ public class TaskExecuteThread {
                 taskInstance.setEndTime(taskEvent.getEndTime());
                 taskInstance.setVarPool(taskEvent.getVarPool());
                 processService.changeOutParam(taskInstance);
-                processService.saveTaskInstance(taskInstance);
+                batch.save(taskInstance);
             }
             // if taskInstance is null (maybe deleted) . retry will be meaningless . so response success
-            TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = new TaskExecuteResponseAckCommand(ExecutionStatus.SUCCESS.getCode(), taskEvent.getTaskInstanceId());
-            channel.writeAndFlush(taskExecuteResponseAckCommand.convert2Command());
+            batch.complete(taskEvent, true);
         } catch (Exception e) {
             logger.error("worker response master error", e);
-            TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = new TaskExecuteResponseAckCommand(ExecutionStatus.FAILURE.getCode(), -1);
-            channel.writeAndFlush(taskExecuteResponseAckCommand.convert2Command());
+            batch.complete(taskEvent, false);
         }
     }
 }
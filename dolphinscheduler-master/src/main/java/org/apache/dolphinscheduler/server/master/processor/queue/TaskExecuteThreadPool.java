@@ -17,31 +17,33 @@
 
 package org.apache.dolphinscheduler.server.master.processor.queue;
 
+import org.apache.dolphinscheduler.common.thread.StripedExecutor;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
 import org.apache.dolphinscheduler.server.utils.DataQualityResultOperator;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
 
 @Component
-public class TaskExecuteThreadPool extends ThreadPoolTaskExecutor {
+public class TaskExecuteThreadPool {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskExecuteThreadPool.class);
 
-    private final ConcurrentHashMap<String, TaskExecuteThread> multiThreadFilterMap = new ConcurrentHashMap<>();
-
     @Autowired
     private MasterConfig masterConfig;
 
@@ -69,12 +71,19 @@ public class TaskExecuteThreadPool extends ThreadPoolTaskExecutor {
      */
     private final ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap = new ConcurrentHashMap<>();
 
+    /**
+     * the task events of a process instance are persisted by the lane it hashes to, one batch at a time and in order
+     */
+    private StripedExecutor stripedExecutor;
+
     @PostConstruct
     private void init() {
-        this.setDaemon(true);
-        this.setThreadNamePrefix("Task-Execute-Thread-");
-        this.setMaxPoolSize(masterConfig.getExecThreads());
-        this.setCorePoolSize(masterConfig.getExecThreads());
+        this.stripedExecutor = new StripedExecutor("Task-Execute-Thread", masterConfig.getExecThreads(), masterConfig.isExecVirtualThreads());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.stripedExecutor.shutdown();
     }
 
     public void submitTaskEvent(TaskEvent taskEvent) {
@@ -96,9 +105,38 @@ public class TaskExecuteThreadPool extends ThreadPoolTaskExecutor {
         }
     }
 
+    /**
+     * handle the events of all process instances, the process instances of a lane are persisted together
+     * in batches of up to task-event-batch-size events. a lane still busy with the batches of the last pass is skipped,
+     * its events are picked up by the next pass.
+     */
     public void eventHandler() {
-        for (TaskExecuteThread taskExecuteThread: taskExecuteThreadMap.values()) {
-            executeEvent(taskExecuteThread);
+        Map<Integer, List<TaskExecuteThread>> laneTaskExecuteThreads = new HashMap<>();
+        for (TaskExecuteThread taskExecuteThread : taskExecuteThreadMap.values()) {
+            if (taskExecuteThread.eventSize() == 0) {
+                continue;
+            }
+            int lane = stripedExecutor.laneOf(taskExecuteThread.getProcessInstanceId());
+            if (stripedExecutor.getQueuedTasks(lane) > 0) {
+                continue;
+            }
+            laneTaskExecuteThreads.computeIfAbsent(lane, k -> new ArrayList<>()).add(taskExecuteThread);
+        }
+        for (Map.Entry<Integer, List<TaskExecuteThread>> entry : laneTaskExecuteThreads.entrySet()) {
+            List<TaskExecuteThread> batch = new ArrayList<>();
+            int batchEventSize = 0;
+            for (TaskExecuteThread taskExecuteThread : entry.getValue()) {
+                batch.add(taskExecuteThread);
+                batchEventSize += taskExecuteThread.eventSize();
+                if (batchEventSize >= masterConfig.getTaskEventBatchSize()) {
+                    submitBatch(entry.getKey(), batch);
+                    batch = new ArrayList<>();
+                    batchEventSize = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitBatch(entry.getKey(), batch);
+            }
         }
     }
 
@@ -106,31 +144,42 @@ public class TaskExecuteThreadPool extends ThreadPoolTaskExecutor {
         if (taskExecuteThread.eventSize() == 0) {
             return;
         }
-        if (multiThreadFilterMap.containsKey(taskExecuteThread.getKey())) {
-            return;
-        }
-        multiThreadFilterMap.put(taskExecuteThread.getKey(), taskExecuteThread);
-        ListenableFuture future = this.submitListenable(taskExecuteThread::run);
-        future.addCallback(new ListenableFutureCallback() {
-            @Override
-            public void onFailure(Throwable ex) {
-                logger.error("handle event {} failed: {}", taskExecuteThread.getProcessInstanceId(), ex);
-                if (!processInstanceExecCacheManager.contains(taskExecuteThread.getProcessInstanceId())) {
-                    taskExecuteThreadMap.remove(taskExecuteThread.getProcessInstanceId());
-                    logger.info("remove process instance: {}", taskExecuteThread.getProcessInstanceId());
-                }
-                multiThreadFilterMap.remove(taskExecuteThread.getKey());
-            }
+        submitBatch(stripedExecutor.laneOf(taskExecuteThread.getProcessInstanceId()), Collections.singletonList(taskExecuteThread));
+    }
 
-            @Override
-            public void onSuccess(Object result) {
-                logger.info("persist events {} succeeded.", taskExecuteThread.getProcessInstanceId());
+    private void submitBatch(int lane, List<TaskExecuteThread> taskExecuteThreads) {
+        stripedExecutor.executeOnLane(lane, () -> {
+            try {
+                persistBatch(taskExecuteThreads);
+                logger.info("persist events of process instances {} succeeded.", processInstanceIds(taskExecuteThreads));
+            } catch (Exception e) {
+                logger.error("handle events of process instances {} failed", processInstanceIds(taskExecuteThreads), e);
+            }
+            for (TaskExecuteThread taskExecuteThread : taskExecuteThreads) {
                 if (!processInstanceExecCacheManager.contains(taskExecuteThread.getProcessInstanceId())) {
                     taskExecuteThreadMap.remove(taskExecuteThread.getProcessInstanceId());
                     logger.info("remove process instance: {}", taskExecuteThread.getProcessInstanceId());
                 }
-                multiThreadFilterMap.remove(taskExecuteThread.getKey());
             }
         });
     }
+
+    /**
+     * handle the events of the process instances in one batch, acked after the batch commits
+     */
+    void persistBatch(List<TaskExecuteThread> taskExecuteThreads) {
+        TaskEventBatch batch = new TaskEventBatch(processService, workflowExecuteThreadPool);
+        for (TaskExecuteThread taskExecuteThread : taskExecuteThreads) {
+            taskExecuteThread.drainTo(batch);
+        }
+        batch.commit();
+    }
+
+    private List<Integer> processInstanceIds(List<TaskExecuteThread> taskExecuteThreads) {
+        List<Integer> processInstanceIds = new ArrayList<>(taskExecuteThreads.size());
+        for (TaskExecuteThread taskExecuteThread : taskExecuteThreads) {
+            processInstanceIds.add(taskExecuteThread.getProcessInstanceId());
+        }
+        return processInstanceIds;
+    }
 }
@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -84,7 +85,7 @@ public class ServerNodeManager implements InitializingBean {
     private final Lock workerNodeInfoLock = new ReentrantLock();
 
     /**
-     * worker group nodes
+     * worker group nodes, every node set is replaced as a whole and never modified
      */
     private final ConcurrentHashMap<String, Set<String>> workerGroupNodes = new ConcurrentHashMap<>();
 
@@ -94,9 +95,14 @@ public class ServerNodeManager implements InitializingBean {
     private final Set<String> masterNodes = new HashSet<>();
 
     /**
-     * worker node info
+     * worker node info, copy on write under the worker node info lock
      */
-    private final Map<String, String> workerNodeInfo = new HashMap<>();
+    private volatile Map<String, String> workerNodeInfo = Collections.emptyMap();
+
+    /**
+     * worker info change listeners
+     */
+    private final List<WorkerInfoChangeListener> workerInfoChangeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * executor service
@@ -186,6 +192,12 @@ public class ServerNodeManager implements InitializingBean {
         for (String workerGroup : workerGroups) {
             syncWorkerGroupNodes(workerGroup, registryClient.getWorkerGroupNodesDirectly(workerGroup));
         }
+
+        /*
+         * worker node info from zookeeper, it is kept up to date by the worker registry events afterwards
+         * and reconciled with the registry by the periodic sync
+         */
+        syncAllWorkerNodeInfo(registryClient.getServerMaps(NodeType.WORKER, true));
     }
 
     /**
@@ -196,9 +208,13 @@ public class ServerNodeManager implements InitializingBean {
         @Override
         public void run() {
             try {
-                // sync worker node info
+                // the registry events are applied incrementally, read the registry again to reconcile
+                // with it in case an event is missed or reordered
                 Map<String, String> newWorkerNodeInfo = registryClient.getServerMaps(NodeType.WORKER, true);
-                syncAllWorkerNodeInfo(newWorkerNodeInfo);
+                Map<String, Set<String>> newWorkerGroupNodes = new HashMap<>();
+                for (String workerGroup : registryClient.getWorkerGroupDirectly()) {
+                    newWorkerGroupNodes.put(workerGroup, new HashSet<>(registryClient.getWorkerGroupNodesDirectly(workerGroup)));
+                }
 
                 // sync worker group nodes from database
                 List<WorkerGroup> workerGroupList = workerGroupMapper.queryAllWorkerGroup();
@@ -213,10 +229,13 @@ public class ServerNodeManager implements InitializingBean {
                             }
                         }
                         if (!nodes.isEmpty()) {
-                            syncWorkerGroupNodes(workerGroup, nodes);
+                            newWorkerGroupNodes.put(workerGroup, nodes);
                         }
                     }
                 }
+                syncAllWorkerNodeInfo(newWorkerNodeInfo);
+                syncAllWorkerGroupNodes(newWorkerGroupNodes);
+                notifyWorkerInfoChange();
             } catch (Exception e) {
                 logger.error("WorkerNodeInfoAndGroupDbSyncTask error:", e);
             }
@@ -235,27 +254,28 @@ public class ServerNodeManager implements InitializingBean {
             final String data = event.data();
             if (registryClient.isWorkerPath(path)) {
                 try {
+                    // the events carry the node and its heartbeat, apply them incrementally without reading the registry
                     if (type == Type.ADD) {
                         logger.info("worker group node : {} added.", path);
                         String group = parseGroup(path);
-                        Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
-                        logger.info("currentNodes : {}", currentNodes);
-                        syncWorkerGroupNodes(group, currentNodes);
+                        String node = parseNode(path);
+                        addWorkerGroupNode(group, node);
+                        if (StringUtils.isNotEmpty(data)) {
+                            syncSingleWorkerNodeInfo(node, data);
+                        }
                     } else if (type == Type.REMOVE) {
                         logger.info("worker group node : {} down.", path);
                         String group = parseGroup(path);
-                        Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
-                        syncWorkerGroupNodes(group, currentNodes);
+                        String node = parseNode(path);
+                        if (removeWorkerGroupNode(group, node)) {
+                            removeWorkerNodeInfo(node);
+                        }
                         alertDao.sendServerStoppedAlert(1, path, "WORKER");
                     } else if (type == Type.UPDATE) {
                         logger.debug("worker group node : {} update, data: {}", path, data);
-                        String group = parseGroup(path);
-                        Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
-                        syncWorkerGroupNodes(group, currentNodes);
-
-                        String node = parseNode(path);
-                        syncSingleWorkerNodeInfo(node, data);
+                        syncSingleWorkerNodeInfo(parseNode(path), data);
                     }
+                    notifyWorkerInfoChange();
                 } catch (IllegalArgumentException ex) {
                     logger.warn(ex.getMessage());
                 } catch (Exception ex) {
@@ -371,10 +391,60 @@ public class ServerNodeManager implements InitializingBean {
     private void syncWorkerGroupNodes(String workerGroup, Collection<String> nodes) {
         workerGroupLock.lock();
         try {
-            Set<String> workerNodes = workerGroupNodes.getOrDefault(workerGroup, new HashSet<>());
-            workerNodes.clear();
-            workerNodes.addAll(nodes);
-            workerGroupNodes.put(workerGroup, workerNodes);
+            workerGroupNodes.put(workerGroup, Collections.unmodifiableSet(new HashSet<>(nodes)));
+        } finally {
+            workerGroupLock.unlock();
+        }
+    }
+
+    /**
+     * sync the nodes of all worker groups, the worker groups not in the new nodes are removed
+     *
+     * @param newWorkerGroupNodes nodes by worker group
+     */
+    private void syncAllWorkerGroupNodes(Map<String, Set<String>> newWorkerGroupNodes) {
+        workerGroupLock.lock();
+        try {
+            workerGroupNodes.keySet().retainAll(newWorkerGroupNodes.keySet());
+            for (Map.Entry<String, Set<String>> entry : newWorkerGroupNodes.entrySet()) {
+                workerGroupNodes.put(entry.getKey(), Collections.unmodifiableSet(new HashSet<>(entry.getValue())));
+            }
+        } finally {
+            workerGroupLock.unlock();
+        }
+    }
+
+    /**
+     * add a node to a worker group
+     *
+     * @param workerGroup worker group
+     * @param node worker node
+     */
+    private void addWorkerGroupNode(String workerGroup, String node) {
+        workerGroupLock.lock();
+        try {
+            Set<String> nodes = new HashSet<>(workerGroupNodes.getOrDefault(workerGroup, Collections.emptySet()));
+            nodes.add(node);
+            workerGroupNodes.put(workerGroup, Collections.unmodifiableSet(nodes));
+        } finally {
+            workerGroupLock.unlock();
+        }
+    }
+
+    /**
+     * remove a node from a worker group
+     *
+     * @param workerGroup worker group
+     * @param node worker node
+     * @return true if the node is in no worker group anymore
+     */
+    private boolean removeWorkerGroupNode(String workerGroup, String node) {
+        workerGroupLock.lock();
+        try {
+            Set<String> nodes = new HashSet<>(workerGroupNodes.getOrDefault(workerGroup, Collections.emptySet()));
+            nodes.remove(node);
+            workerGroupNodes.put(workerGroup, Collections.unmodifiableSet(nodes));
+            return workerGroupNodes.values().stream().noneMatch(groupNodes -> groupNodes.contains(node));
         } finally {
             workerGroupLock.unlock();
         }
@@ -391,19 +461,10 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker nodes
      */
     public Set<String> getWorkerGroupNodes(String workerGroup) {
-        workerGroupLock.lock();
-        try {
-            if (StringUtils.isEmpty(workerGroup)) {
-                workerGroup = Constants.DEFAULT_WORKER_GROUP;
-            }
-            Set<String> nodes = workerGroupNodes.get(workerGroup);
-            if (CollectionUtils.isNotEmpty(nodes)) {
-                return Collections.unmodifiableSet(nodes);
-            }
-            return nodes;
-        } finally {
-            workerGroupLock.unlock();
+        if (StringUtils.isEmpty(workerGroup)) {
+            workerGroup = Constants.DEFAULT_WORKER_GROUP;
         }
+        return workerGroupNodes.get(workerGroup);
     }
 
     /**
@@ -412,7 +473,7 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker node info
      */
     public Map<String, String> getWorkerNodeInfo() {
-        return Collections.unmodifiableMap(workerNodeInfo);
+        return workerNodeInfo;
     }
 
     /**
@@ -422,12 +483,7 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker node info
      */
     public String getWorkerNodeInfo(String workerNode) {
-        workerNodeInfoLock.lock();
-        try {
-            return workerNodeInfo.getOrDefault(workerNode, null);
-        } finally {
-            workerNodeInfoLock.unlock();
-        }
+        return workerNodeInfo.get(workerNode);
     }
 
     /**
@@ -438,8 +494,7 @@ public class ServerNodeManager implements InitializingBean {
     private void syncAllWorkerNodeInfo(Map<String, String> newWorkerNodeInfo) {
         workerNodeInfoLock.lock();
         try {
-            workerNodeInfo.clear();
-            workerNodeInfo.putAll(newWorkerNodeInfo);
+            workerNodeInfo = Collections.unmodifiableMap(new HashMap<>(newWorkerNodeInfo));
         } finally {
             workerNodeInfoLock.unlock();
         }
@@ -451,12 +506,50 @@ public class ServerNodeManager implements InitializingBean {
     private void syncSingleWorkerNodeInfo(String node, String info) {
         workerNodeInfoLock.lock();
         try {
-            workerNodeInfo.put(node, info);
+            Map<String, String> newWorkerNodeInfo = new HashMap<>(workerNodeInfo);
+            newWorkerNodeInfo.put(node, info);
+            workerNodeInfo = Collections.unmodifiableMap(newWorkerNodeInfo);
         } finally {
             workerNodeInfoLock.unlock();
         }
     }
 
+    /**
+     * remove single worker node info
+     */
+    private void removeWorkerNodeInfo(String node) {
+        workerNodeInfoLock.lock();
+        try {
+            Map<String, String> newWorkerNodeInfo = new HashMap<>(workerNodeInfo);
+            newWorkerNodeInfo.remove(node);
+            workerNodeInfo = Collections.unmodifiableMap(newWorkerNodeInfo);
+        } finally {
+            workerNodeInfoLock.unlock();
+        }
+    }
+
+    /**
+     * add worker info change listener, it is notified with the current worker info at once
+     *
+     * @param listener listener
+     */
+    public void addWorkerInfoChangeListener(WorkerInfoChangeListener listener) {
+        workerInfoChangeListeners.add(listener);
+        listener.notify(getWorkerGroupNodes(), workerNodeInfo);
+    }
+
+    private void notifyWorkerInfoChange() {
+        Map<String, Set<String>> currentWorkerGroupNodes = getWorkerGroupNodes();
+        Map<String, String> currentWorkerNodeInfo = workerNodeInfo;
+        for (WorkerInfoChangeListener listener : workerInfoChangeListeners) {
+            try {
+                listener.notify(currentWorkerGroupNodes, currentWorkerNodeInfo);
+            } catch (Exception e) {
+                logger.error("notify worker info change error", e);
+            }
+        }
+    }
+
     /**
      * destroy
      */
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
+import org.apache.dolphinscheduler.plugin.task.api.utils.DependentUtils;
+import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * index of the dependent tasks waiting for upstream process or task instances,
+ * keyed by the upstream process definition code, the depended task code and the date interval.
+ * a waiting dependent task is woken up when an upstream instance running on this master finishes,
+ * the periodic state check of the dependent task only reconciles the upstream instances finished on other masters.
+ */
+@Component
+public class DependentTaskIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependentTaskIndex.class);
+
+    /**
+     * waiting dependencies by upstream process definition code
+     */
+    private final ConcurrentHashMap<Long, Set<Dependency>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * waiting dependencies by waiting dependent task
+     */
+    private final ConcurrentHashMap<TaskInstanceKey, List<Dependency>> waitingTasks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    /**
+     * register the dependent items the dependent task still waits for, replacing the former registration
+     *
+     * @param processInstance process instance of the dependent task
+     * @param taskInstance dependent task instance
+     * @param dependentItems waiting dependent items
+     * @param dependentDate dependent date
+     */
+    public void register(ProcessInstance processInstance, TaskInstance taskInstance, Collection<DependentItem> dependentItems, Date dependentDate) {
+        unregister(processInstance, taskInstance);
+        TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
+        if (taskInstanceKey == null || dependentItems.isEmpty()) {
+            return;
+        }
+        List<Dependency> taskDependencies = new ArrayList<>();
+        for (DependentItem dependentItem : dependentItems) {
+            List<DateInterval> dateIntervals = DependentUtils.getDateIntervalList(dependentDate, dependentItem.getDateValue());
+            for (DateInterval dateInterval : dateIntervals) {
+                taskDependencies.add(new Dependency(dependentItem.getDefinitionCode(), dependentItem.getDepTaskCode(),
+                        dateInterval, taskInstanceKey, taskInstance.getId()));
+            }
+        }
+        waitingTasks.put(taskInstanceKey, taskDependencies);
+        for (Dependency dependency : taskDependencies) {
+            dependencies.computeIfAbsent(dependency.definitionCode, code -> ConcurrentHashMap.newKeySet()).add(dependency);
+        }
+    }
+
+    /**
+     * unregister the dependent task
+     *
+     * @param processInstance process instance of the dependent task
+     * @param taskInstance dependent task instance
+     */
+    public void unregister(ProcessInstance processInstance, TaskInstance taskInstance) {
+        TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
+        if (taskInstanceKey == null) {
+            return;
+        }
+        List<Dependency> taskDependencies = waitingTasks.remove(taskInstanceKey);
+        if (taskDependencies == null) {
+            return;
+        }
+        for (Dependency dependency : taskDependencies) {
+            dependencies.computeIfPresent(dependency.definitionCode, (code, definitionDependencies) -> {
+                definitionDependencies.remove(dependency);
+                return definitionDependencies.isEmpty() ? null : definitionDependencies;
+            });
+        }
+    }
+
+    /**
+     * wake up the dependent tasks waiting for the finished process instance or any task of it
+     *
+     * @param processInstance finished process instance
+     */
+    public void processInstanceFinished(ProcessInstance processInstance) {
+        wakeUp(processInstance, null);
+    }
+
+    /**
+     * wake up the dependent tasks waiting for the finished task instance
+     *
+     * @param processInstance process instance of the finished task
+     * @param taskInstance finished task instance
+     */
+    public void taskInstanceFinished(ProcessInstance processInstance, TaskInstance taskInstance) {
+        wakeUp(processInstance, taskInstance);
+    }
+
+    /**
+     * count of the waiting dependent tasks
+     */
+    public int size() {
+        return waitingTasks.size();
+    }
+
+    private void wakeUp(ProcessInstance processInstance, TaskInstance taskInstance) {
+        Set<Dependency> definitionDependencies = dependencies.get(processInstance.getProcessDefinitionCode());
+        if (definitionDependencies == null) {
+            return;
+        }
+        Set<Dependency> wokenDependencies = new LinkedHashSet<>();
+        for (Dependency dependency : definitionDependencies) {
+            // a dependency on all tasks is only woken up when the process instance finished
+            if (taskInstance != null && dependency.taskCode != taskInstance.getTaskCode()) {
+                continue;
+            }
+            if (inDateInterval(processInstance, dependency.dateInterval)) {
+                wokenDependencies.add(dependency);
+            }
+        }
+        Set<TaskInstanceKey> wokenTasks = new LinkedHashSet<>();
+        for (Dependency dependency : wokenDependencies) {
+            if (wokenTasks.add(dependency.taskInstanceKey)) {
+                logger.info("upstream process instance {} finished, wake up dependent task {}",
+                        processInstance.getId(), dependency.taskInstanceKey);
+                addTaskStateChangeEvent(dependency);
+            }
+        }
+    }
+
+    /**
+     * the upstream process instance may be found in the interval by its schedule, start or end time
+     */
+    private boolean inDateInterval(ProcessInstance processInstance, DateInterval dateInterval) {
+        Date[] times = {processInstance.getScheduleTime(), processInstance.getStartTime(), processInstance.getEndTime()};
+        boolean anyTime = false;
+        for (Date time : times) {
+            if (time == null) {
+                continue;
+            }
+            anyTime = true;
+            if (!time.before(dateInterval.getStartTime()) && !time.after(dateInterval.getEndTime())) {
+                return true;
+            }
+        }
+        return !anyTime;
+    }
+
+    private void addTaskStateChangeEvent(Dependency dependency) {
+        StateEvent stateEvent = new StateEvent();
+        stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
+        stateEvent.setProcessInstanceId(dependency.taskInstanceKey.getProcessInstanceId());
+        stateEvent.setTaskInstanceId(dependency.taskInstanceId);
+        stateEvent.setTaskCode(dependency.taskInstanceKey.getTaskCode());
+        stateEvent.setExecutionStatus(ExecutionStatus.RUNNING_EXECUTION);
+        workflowExecuteThreadPool.submitStateEvent(stateEvent);
+    }
+
+    /**
+     * a dependent task waiting for the task of an upstream process definition in a date interval
+     */
+    private static final class Dependency {
+
+        private final long definitionCode;
+
+        private final long taskCode;
+
+        private final DateInterval dateInterval;
+
+        private final TaskInstanceKey taskInstanceKey;
+
+        private final int taskInstanceId;
+
+        private Dependency(long definitionCode, long taskCode, DateInterval dateInterval,
+                           TaskInstanceKey taskInstanceKey, int taskInstanceId) {
+            this.definitionCode = definitionCode;
+            this.taskCode = taskCode;
+            this.dateInterval = dateInterval;
+            this.taskInstanceKey = taskInstanceKey;
+            this.taskInstanceId = taskInstanceId;
+        }
+    }
+}
@@ -28,6 +28,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * workflows are woken up as soon as state events are submitted to them,
+ * this service only sweeps the workflows at a low frequency as a safety net
+ */
 @Service
 public class EventExecuteService extends Thread {
 
@@ -54,7 +58,7 @@ public class EventExecuteService extends Thread {
         while (Stopper.isRunning()) {
             try {
                 eventHandler();
-                TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS_SHORT);
+                TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
             } catch (Exception e) {
                 logger.error("Event service thread error", e);
             }
@@ -18,7 +18,6 @@
 package org.apache.dolphinscheduler.server.master.runner;
 
 import org.apache.dolphinscheduler.common.Constants;
-import org.apache.dolphinscheduler.common.enums.SlotCheckState;
 import org.apache.dolphinscheduler.common.thread.Stopper;
 import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
@@ -28,10 +27,10 @@ import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.server.master.cache.ProcessDagCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
-import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
@@ -102,6 +101,12 @@ public class MasterSchedulerService extends Thread {
     @Autowired
     private StateWheelExecuteThread stateWheelExecuteThread;
 
+    @Autowired
+    private ProcessDagCacheManager processDagCacheManager;
+
+    @Autowired
+    private DependentTaskIndex dependentTaskIndex;
+
     /**
      * constructor of MasterSchedulerService
      */
@@ -109,6 +114,11 @@ public class MasterSchedulerService extends Thread {
         this.masterPrepareExecService = (ThreadPoolExecutor) ThreadUtils.newDaemonFixedThreadExecutor("Master-Pre-Exec-Thread", masterConfig.getPreExecThreads());
         NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
+        // commands claimed before restart have not been handled, give them back to all masters
+        int releasedCount = processService.releaseClaimedCommands(getLocalAddress());
+        if (releasedCount > 0) {
+            logger.info("release {} commands claimed before master restart", releasedCount);
+        }
     }
 
     @Override
@@ -144,8 +154,8 @@ public class MasterSchedulerService extends Thread {
     }
 
     /**
-     * 1. get command by slot
-     * 2. donot handle command if slot is empty
+     * 1. claim commands
+     * 2. donot handle command if nothing claimed
      */
     private void scheduleProcess() throws Exception {
         List<Command> commands = findCommands();
@@ -171,7 +181,9 @@ public class MasterSchedulerService extends Thread {
                     , nettyExecutorManager
                     , processAlertManager
                     , masterConfig
-                    , stateWheelExecuteThread);
+                    , stateWheelExecuteThread
+                    , processDagCacheManager
+                    , dependentTaskIndex);
 
             this.processInstanceExecCacheManager.cache(processInstance.getId(), workflowExecuteThread);
             if (processInstance.getTimeout() > 0) {
@@ -187,12 +199,6 @@ public class MasterSchedulerService extends Thread {
         for (final Command command : commands) {
             masterPrepareExecService.execute(() -> {
                 try {
-                    // slot check again
-                    SlotCheckState slotCheckState = slotCheck(command);
-                    if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
-                        logger.info("handle command {} skip, slot check state: {}", command.getId(), slotCheckState);
-                        return;
-                    }
                     ProcessInstance processInstance = processService.handleCommand(logger,
                             getLocalAddress(),
                             command);
@@ -220,33 +226,13 @@ public class MasterSchedulerService extends Thread {
     }
 
     private List<Command> findCommands() {
-        int pageNumber = 0;
-        int pageSize = masterConfig.getFetchCommandNum();
         List<Command> result = new ArrayList<>();
         if (Stopper.isRunning()) {
-            int thisMasterSlot = ServerNodeManager.getSlot();
-            int masterCount = ServerNodeManager.getMasterSize();
-            if (masterCount > 0) {
-                result = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
-            }
+            result = processService.claimCommands(masterConfig.getFetchCommandNum(), getLocalAddress());
         }
         return result;
     }
 
-    private SlotCheckState slotCheck(Command command) {
-        int slot = ServerNodeManager.getSlot();
-        int masterSize = ServerNodeManager.getMasterSize();
-        SlotCheckState state;
-        if (masterSize <= 0) {
-            state = SlotCheckState.CHANGE;
-        } else if (command.getId() % masterSize == slot) {
-            state = SlotCheckState.PASS;
-        } else {
-            state = SlotCheckState.INJECT;
-        }
-        return state;
-    }
-
     private String getLocalAddress() {
         return NetUtils.getAddr(masterConfig.getListenPort());
     }
@@ -33,7 +33,7 @@ import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
 
 import org.apache.hadoop.util.ThreadUtil;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,31 +46,41 @@ import org.springframework.stereotype.Component;
  * 2. dependent task state check
  * 3. retry task check
  * 4. timeout process check
+ * every check is registered in a timing wheel with the time it is due, so only the due checks are visited
  */
 @Component
 public class StateWheelExecuteThread extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(StateWheelExecuteThread.class);
 
+    private static final long WHEEL_TICK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final int WHEEL_SIZE = 512;
+
     /**
      * process timeout check list
      */
-    private ConcurrentLinkedQueue<Integer> processInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private TimingWheel<Integer> processInstanceTimeoutCheckList = newTimingWheel();
 
     /**
      * task time out check list
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private TimingWheel<TaskInstanceKey> taskInstanceTimeoutCheckList = newTimingWheel();
 
     /**
      * task retry check list
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceRetryCheckList = new ConcurrentLinkedQueue<>();
+    private TimingWheel<TaskInstanceKey> taskInstanceRetryCheckList = newTimingWheel();
 
     /**
      * task state check list
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceStateCheckList = new ConcurrentLinkedQueue<>();
+    private TimingWheel<TaskInstanceKey> taskInstanceStateCheckList = newTimingWheel();
+
+    /**
+     * task dispatch check list
+     */
+    private TimingWheel<TaskInstanceKey> taskInstanceDispatchCheckList = newTimingWheel();
 
     @Autowired
     private MasterConfig masterConfig;
@@ -85,10 +95,12 @@ public class StateWheelExecuteThread extends Thread {
     public void run() {
         while (Stopper.isRunning()) {
             try {
-                checkTask4Timeout();
-                checkTask4Retry();
-                checkTask4State();
-                checkProcess4Timeout();
+                long now = System.currentTimeMillis();
+                checkTask4Timeout(now);
+                checkTask4Retry(now);
+                checkTask4State(now);
+                checkTask4Dispatch(now);
+                checkProcess4Timeout(now);
             } catch (Exception e) {
                 logger.error("state wheel thread check error:", e);
             }
@@ -97,25 +109,21 @@ public class StateWheelExecuteThread extends Thread {
     }
 
     public void addProcess4TimeoutCheck(ProcessInstance processInstance) {
-        processInstanceTimeoutCheckList.add(processInstance.getId());
+        processInstanceTimeoutCheckList.add(processInstance.getId(), getProcessTimeoutDeadline(processInstance));
     }
 
     public void removeProcess4TimeoutCheck(ProcessInstance processInstance) {
         processInstanceTimeoutCheckList.remove(processInstance.getId());
     }
 
-    private void checkProcess4Timeout() {
+    private void checkProcess4Timeout(long now) {
         if (processInstanceTimeoutCheckList.isEmpty()) {
             return;
         }
-        for (Integer processInstanceId : processInstanceTimeoutCheckList) {
-            if (processInstanceId == null) {
-                continue;
-            }
+        for (Integer processInstanceId : processInstanceTimeoutCheckList.pollExpired(now)) {
             WorkflowExecuteThread workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}", processInstanceId);
-                processInstanceTimeoutCheckList.remove(processInstanceId);
                 continue;
             }
             ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
@@ -125,7 +133,8 @@ public class StateWheelExecuteThread extends Thread {
             long timeRemain = DateUtils.getRemainTime(processInstance.getStartTime(), (long) processInstance.getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
             if (timeRemain < 0) {
                 addProcessTimeoutEvent(processInstance);
-                processInstanceTimeoutCheckList.remove(processInstance.getId());
+            } else {
+                processInstanceTimeoutCheckList.add(processInstanceId, getRecheckDeadline(now, timeRemain));
             }
         }
     }
@@ -144,11 +153,9 @@ public class StateWheelExecuteThread extends Thread {
             logger.error("taskDefinition is null, taskId:{}", taskInstance.getId());
             return;
         }
+        // only the tasks with timeout open can time out
         if (TimeoutFlag.OPEN == taskDefinition.getTimeoutFlag()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
-        }
-        if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
+            taskInstanceTimeoutCheckList.add(taskInstanceKey, getTaskTimeoutDeadline(taskInstance));
         }
     }
 
@@ -176,7 +183,21 @@ public class StateWheelExecuteThread extends Thread {
             return;
         }
         logger.debug("addTask4RetryCheck, taskCode:{}, processInstanceId:{}", taskInstance.getTaskCode(), taskInstance.getProcessInstanceId());
-        taskInstanceRetryCheckList.add(taskInstanceKey);
+        taskInstanceRetryCheckList.add(taskInstanceKey, getTaskRetryDeadline(taskInstance));
+    }
+
+    /**
+     * check the waiting retry task at the next tick instead of its retry time, e.g. the process is ready to stop
+     */
+    public void wakeUpTask4RetryCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
+        TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
+        if (taskInstanceKey == null) {
+            logger.error("taskInstanceKey is null");
+            return;
+        }
+        if (taskInstanceRetryCheckList.remove(taskInstanceKey)) {
+            taskInstanceRetryCheckList.add(taskInstanceKey, System.currentTimeMillis());
+        }
     }
 
     public void removeTask4RetryCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
@@ -198,7 +219,7 @@ public class StateWheelExecuteThread extends Thread {
             return;
         }
         if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceStateCheckList.add(taskInstanceKey);
+            taskInstanceStateCheckList.add(taskInstanceKey, getStateCheckDeadline(taskInstance, System.currentTimeMillis()));
         }
     }
 
@@ -211,11 +232,26 @@ public class StateWheelExecuteThread extends Thread {
         taskInstanceStateCheckList.remove(taskInstanceKey);
     }
 
-    private void checkTask4Timeout() {
+    /**
+     * dispatch the task again at the next tick, e.g. the task priority queue rejected it since its worker group is full
+     */
+    public void addTask4DispatchCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
+        TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
+        if (taskInstanceKey == null) {
+            logger.error("taskInstanceKey is null");
+            return;
+        }
+        if (taskInstanceDispatchCheckList.contains(taskInstanceKey)) {
+            return;
+        }
+        taskInstanceDispatchCheckList.add(taskInstanceKey, System.currentTimeMillis() + WHEEL_TICK_MILLIS);
+    }
+
+    private void checkTask4Timeout(long now) {
         if (taskInstanceTimeoutCheckList.isEmpty()) {
             return;
         }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutCheckList) {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutCheckList.pollExpired(now)) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -223,32 +259,32 @@ public class StateWheelExecuteThread extends Thread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceTimeoutCheckList.remove(taskInstanceKey);
                 continue;
             }
             TaskInstance taskInstance = workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
             if (taskInstance == null) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceTimeoutCheckList.remove(taskInstanceKey);
                 continue;
             }
             if (TimeoutFlag.OPEN == taskInstance.getTaskDefine().getTimeoutFlag()) {
                 long timeRemain = DateUtils.getRemainTime(taskInstance.getStartTime(), (long) taskInstance.getTaskDefine().getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
                 if (timeRemain < 0) {
                     addTaskTimeoutEvent(taskInstance);
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+                } else {
+                    // not started yet or started later than registered
+                    taskInstanceTimeoutCheckList.add(taskInstanceKey, getRecheckDeadline(now, timeRemain));
                 }
             }
         }
     }
 
-    private void checkTask4Retry() {
+    private void checkTask4Retry(long now) {
         if (taskInstanceRetryCheckList.isEmpty()) {
             return;
         }
 
-        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckList) {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckList.pollExpired(now)) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -257,7 +293,6 @@ public class StateWheelExecuteThread extends Thread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
                 continue;
             }
 
@@ -266,14 +301,12 @@ public class StateWheelExecuteThread extends Thread {
 
             if (processInstance.getState() == ExecutionStatus.READY_STOP) {
                 addProcessStopEvent(processInstance);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
-                break;
+                continue;
             }
 
             if (taskInstance == null) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
                 continue;
             }
 
@@ -284,16 +317,17 @@ public class StateWheelExecuteThread extends Thread {
                 taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
 
                 addTaskRetryEvent(taskInstance);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
+            } else {
+                taskInstanceRetryCheckList.add(taskInstanceKey, Math.max(getTaskRetryDeadline(taskInstance), now + WHEEL_TICK_MILLIS));
             }
         }
     }
 
-    private void checkTask4State() {
+    private void checkTask4State(long now) {
         if (taskInstanceStateCheckList.isEmpty()) {
             return;
         }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckList) {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckList.pollExpired(now)) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -301,16 +335,16 @@ public class StateWheelExecuteThread extends Thread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceStateCheckList.remove(taskInstanceKey);
                 continue;
             }
             TaskInstance taskInstance = workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
             if (taskInstance == null) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceStateCheckList.remove(taskInstanceKey);
                 continue;
             }
+            // the state check is periodic until the task finished and removed the check
+            taskInstanceStateCheckList.add(taskInstanceKey, getStateCheckDeadline(taskInstance, now));
             if (taskInstance.getState().typeIsFinished()) {
                 continue;
             }
@@ -318,6 +352,51 @@ public class StateWheelExecuteThread extends Thread {
         }
     }
 
+    private void checkTask4Dispatch(long now) {
+        if (taskInstanceDispatchCheckList.isEmpty()) {
+            return;
+        }
+        for (TaskInstanceKey taskInstanceKey : taskInstanceDispatchCheckList.pollExpired(now)) {
+            // the workflow lane checks whether the task still waits for dispatch
+            addTaskDispatchEvent(taskInstanceKey);
+        }
+    }
+
+    private static <K> TimingWheel<K> newTimingWheel() {
+        return new TimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    private long getProcessTimeoutDeadline(ProcessInstance processInstance) {
+        long startTime = processInstance.getStartTime() == null ? System.currentTimeMillis() : processInstance.getStartTime().getTime();
+        return startTime + TimeUnit.MINUTES.toMillis(processInstance.getTimeout());
+    }
+
+    private long getTaskTimeoutDeadline(TaskInstance taskInstance) {
+        // a task not started yet can not time out before now + timeout
+        long startTime = taskInstance.getStartTime() == null ? System.currentTimeMillis() : taskInstance.getStartTime().getTime();
+        return startTime + TimeUnit.MINUTES.toMillis(taskInstance.getTaskDefine().getTimeout());
+    }
+
+    private long getTaskRetryDeadline(TaskInstance taskInstance) {
+        long endTime = taskInstance.getEndTime() == null ? System.currentTimeMillis() : taskInstance.getEndTime().getTime();
+        return endTime + TimeUnit.MINUTES.toMillis(taskInstance.getRetryInterval());
+    }
+
+    /**
+     * the dependent tasks are woken up by the DependentTaskIndex, the state check only reconciles with db
+     */
+    private long getStateCheckDeadline(TaskInstance taskInstance, long now) {
+        int interval = taskInstance.isDependTask() ? masterConfig.getDependentReconcileInterval() : masterConfig.getStateWheelInterval();
+        return now + TimeUnit.SECONDS.toMillis(interval);
+    }
+
+    /**
+     * the remain time is in seconds and rounded down, recheck one second after it
+     */
+    private long getRecheckDeadline(long now, long timeRemainSeconds) {
+        return now + TimeUnit.SECONDS.toMillis(timeRemainSeconds + 1);
+    }
+
     private void addTaskStateChangeEvent(TaskInstance taskInstance) {
         StateEvent stateEvent = new StateEvent();
         stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
@@ -346,6 +425,14 @@ public class StateWheelExecuteThread extends Thread {
         workflowExecuteThreadPool.submitStateEvent(stateEvent);
     }
 
+    private void addTaskDispatchEvent(TaskInstanceKey taskInstanceKey) {
+        StateEvent stateEvent = new StateEvent();
+        stateEvent.setType(StateEventType.TASK_DISPATCH);
+        stateEvent.setProcessInstanceId(taskInstanceKey.getProcessInstanceId());
+        stateEvent.setTaskCode(taskInstanceKey.getTaskCode());
+        workflowExecuteThreadPool.submitStateEvent(stateEvent);
+    }
+
     private void addTaskTimeoutEvent(TaskInstance taskInstance) {
         StateEvent stateEvent = new StateEvent();
         stateEvent.setType(StateEventType.TASK_TIMEOUT);
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * pending predecessor counters of the task nodes of a workflow dag.
+ * the predecessors of a node are its depend nodes in the dag, a forbidden depend node is replaced by its own predecessors.
+ * the adjacency is built once per workflow and the counters of the successors are decremented
+ * when a predecessor completes or is skipped, so that the readiness of a task node is O(1).
+ * not thread safe, it is only used by the thread handling the events of the workflow.
+ */
+public class TaskDependencyTracker {
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * node index by task code
+     */
+    private final Map<Long, Integer> indexes;
+
+    private final long[] codes;
+
+    /**
+     * predecessor codes of the node, in the order of the depend list
+     */
+    private final long[][] predecessors;
+
+    /**
+     * successor indexes of the node
+     */
+    private final int[][] successors;
+
+    private final boolean[] conditionsTask;
+
+    /**
+     * count of the predecessors neither complete nor skipped
+     */
+    private final int[] pendingCounts;
+
+    private final boolean[] resolved;
+
+    private final boolean[] skipped;
+
+    /**
+     * a predecessor completed but not successfully or is a conditions task,
+     * the depend result must be checked against the predecessor task instances
+     */
+    private final boolean[] needCheck;
+
+    private int skippedCount;
+
+    /**
+     * @param dag workflow dag
+     * @param forbiddenTaskCodes codes of the forbidden task nodes
+     */
+    public TaskDependencyTracker(DAG<String, TaskNode, TaskNodeRelation> dag, Set<Long> forbiddenTaskCodes) throws Exception {
+        List<String> nodes = dag.topologicalSort();
+        int size = nodes.size();
+        this.indexes = new HashMap<>(size * 2);
+        this.codes = new long[size];
+        this.predecessors = new long[size][];
+        this.successors = new int[size][];
+        this.conditionsTask = new boolean[size];
+        this.pendingCounts = new int[size];
+        this.resolved = new boolean[size];
+        this.skipped = new boolean[size];
+        this.needCheck = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            codes[i] = Long.parseLong(nodes.get(i));
+            indexes.put(codes[i], i);
+            conditionsTask[i] = dag.getNode(nodes.get(i)).isConditionsTask();
+        }
+        List<List<Integer>> successorList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            successorList.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            Set<Long> predecessorCodes = new LinkedHashSet<>();
+            addPredecessors(dag, nodes.get(i), forbiddenTaskCodes, predecessorCodes, new HashSet<>());
+            long[] predecessorArray = predecessorCodes.isEmpty() ? EMPTY : new long[predecessorCodes.size()];
+            int j = 0;
+            for (Long predecessorCode : predecessorCodes) {
+                predecessorArray[j++] = predecessorCode;
+                successorList.get(indexes.get(predecessorCode)).add(i);
+            }
+            predecessors[i] = predecessorArray;
+            pendingCounts[i] = predecessorArray.length;
+        }
+        for (int i = 0; i < size; i++) {
+            List<Integer> successorIndexes = successorList.get(i);
+            successors[i] = new int[successorIndexes.size()];
+            for (int j = 0; j < successorIndexes.size(); j++) {
+                successors[i][j] = successorIndexes.get(j);
+            }
+        }
+    }
+
+    /**
+     * trace the depend list of the node, the predecessors of a forbidden depend node take its place
+     */
+    private static void addPredecessors(DAG<String, TaskNode, TaskNodeRelation> dag, String node, Set<Long> forbiddenTaskCodes,
+                                        Set<Long> predecessorCodes, Set<String> visited) {
+        List<String> depList = dag.getNode(node).getDepList();
+        if (depList == null) {
+            return;
+        }
+        for (String depNode : depList) {
+            if (!dag.containsNode(depNode) || !visited.add(depNode)) {
+                continue;
+            }
+            long depCode = Long.parseLong(depNode);
+            if (forbiddenTaskCodes.contains(depCode)) {
+                addPredecessors(dag, depNode, forbiddenTaskCodes, predecessorCodes, visited);
+            } else {
+                predecessorCodes.add(depCode);
+            }
+        }
+    }
+
+    /**
+     * a task instance of the node completed, only the first completion decrements the counters of the successors
+     *
+     * @param taskCode task code
+     * @param success whether the task instance is successful
+     */
+    public void taskComplete(long taskCode, boolean success) {
+        Integer index = indexes.get(taskCode);
+        if (index == null) {
+            return;
+        }
+        boolean check = !success || conditionsTask[index];
+        boolean first = !resolved[index];
+        resolved[index] = true;
+        for (int successor : successors[index]) {
+            if (first) {
+                pendingCounts[successor]--;
+            }
+            if (check) {
+                needCheck[successor] = true;
+            }
+        }
+    }
+
+    /**
+     * resolve the nodes newly added to the skip nodes, the skip nodes are only ever added
+     *
+     * @param skipTaskNodes skip task node codes
+     */
+    public void syncSkipped(Collection<String> skipTaskNodes) {
+        if (skipTaskNodes.size() == skippedCount) {
+            return;
+        }
+        skippedCount = skipTaskNodes.size();
+        for (String skipTaskNode : skipTaskNodes) {
+            Integer index = indexes.get(Long.parseLong(skipTaskNode));
+            if (index == null || skipped[index]) {
+                continue;
+            }
+            skipped[index] = true;
+            if (!resolved[index]) {
+                resolved[index] = true;
+                for (int successor : successors[index]) {
+                    pendingCounts[successor]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return count of the predecessors of the node neither complete nor skipped, 0 if the node is not in the dag
+     */
+    public int getPendingCount(long taskCode) {
+        Integer index = indexes.get(taskCode);
+        return index == null ? 0 : pendingCounts[index];
+    }
+
+    /**
+     * @return whether the depend result of the node must be checked against its predecessor task instances
+     */
+    public boolean isNeedCheck(long taskCode) {
+        Integer index = indexes.get(taskCode);
+        return index != null && needCheck[index];
+    }
+
+    /**
+     * @return predecessor codes of the node
+     */
+    public long[] getPredecessors(long taskCode) {
+        Integer index = indexes.get(taskCode);
+        return index == null ? EMPTY : predecessors[index];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * hashed timing wheel, every key is registered with a deadline and polled out once the deadline passed.
+ * add, remove and contains are O(1), polling only visits the slots of the elapsed ticks,
+ * keys whose deadline is more than one round away stay in their slot until their round comes.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+
+    private final List<Set<K>> slots;
+
+    /**
+     * key -> deadline tick
+     */
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+
+    /**
+     * the last polled tick
+     */
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new HashSet<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * register the key, a deadline already passed is polled out at the next tick
+     *
+     * @return false if the key is already registered
+     */
+    public synchronized boolean add(K key, long deadlineMillis) {
+        if (deadlineTicks.containsKey(key)) {
+            return false;
+        }
+        // round up, the key is never polled out before its deadline tick
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        deadlineTicks.put(key, tick);
+        slot(tick).add(key);
+        return true;
+    }
+
+    /**
+     * @return false if the key is not registered
+     */
+    public synchronized boolean remove(K key) {
+        Long tick = deadlineTicks.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        slot(tick).remove(key);
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return deadlineTicks.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return deadlineTicks.isEmpty();
+    }
+
+    /**
+     * advance the wheel to the given time
+     *
+     * @return the keys whose deadline passed, they are no longer registered
+     */
+    public synchronized List<K> pollExpired(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        if (nowTick <= currentTick) {
+            return new ArrayList<>();
+        }
+        List<K> expired = new ArrayList<>();
+        if (!deadlineTicks.isEmpty()) {
+            // every slot is visited at most once even if the wheel fell behind for more than one round
+            long elapsedTicks = Math.min(nowTick - currentTick, slots.size());
+            for (long tick = nowTick - elapsedTicks + 1; tick <= nowTick; tick++) {
+                Iterator<K> iterator = slot(tick).iterator();
+                while (iterator.hasNext()) {
+                    K key = iterator.next();
+                    if (deadlineTicks.get(key) <= nowTick) {
+                        iterator.remove();
+                        deadlineTicks.remove(key);
+                        expired.add(key);
+                    }
+                }
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    private Set<K> slot(long tick) {
+        return slots.get((int) (tick % slots.size()));
+    }
+}
@@ -47,10 +47,8 @@ import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.Environment;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
-import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
 import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
-import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.utils.DagHelper;
@@ -62,6 +60,7 @@ import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.BlockingParameters;
 import org.apache.dolphinscheduler.remote.command.HostUpdateCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.ProcessDagCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.runner.task.ITaskProcessor;
@@ -78,7 +77,6 @@ import org.apache.commons.lang.math.NumberUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -195,6 +193,11 @@ public class WorkflowExecuteThread {
      */
     private Map<Long, TaskNode> forbiddenTaskMap = new ConcurrentHashMap<>();
 
+    /**
+     * pending predecessor counters of the task nodes in the dag
+     */
+    private TaskDependencyTracker taskDependencyTracker;
+
     /**
      * skip task map, code as key
      */
@@ -210,6 +213,11 @@ public class WorkflowExecuteThread {
      */
     private ConcurrentLinkedQueue<StateEvent> stateEvents = new ConcurrentLinkedQueue<>();
 
+    /**
+     * whether a handling of the state events is queued, so a burst of events queues one handling only
+     */
+    private final AtomicBoolean eventHandlingScheduled = new AtomicBoolean(false);
+
     /**
      * ready to submit task queue
      */
@@ -226,6 +234,16 @@ public class WorkflowExecuteThread {
      */
     private StateWheelExecuteThread stateWheelExecuteThread;
 
+    /**
+     * compiled process dag cache
+     */
+    private ProcessDagCacheManager processDagCacheManager;
+
+    /**
+     * index of the waiting dependent tasks, woken up when the tasks or the process of this workflow finished
+     */
+    private DependentTaskIndex dependentTaskIndex;
+
     /**
      * constructor of WorkflowExecuteThread
      *
@@ -235,14 +253,20 @@ public class WorkflowExecuteThread {
      * @param processAlertManager     processAlertManager
      * @param masterConfig            masterConfig
      * @param stateWheelExecuteThread stateWheelExecuteThread
+     * @param processDagCacheManager  processDagCacheManager
+     * @param dependentTaskIndex      dependentTaskIndex
      */
     public WorkflowExecuteThread(ProcessInstance processInstance
         , ProcessService processService
         , NettyExecutorManager nettyExecutorManager
         , ProcessAlertManager processAlertManager
         , MasterConfig masterConfig
-        , StateWheelExecuteThread stateWheelExecuteThread) {
+        , StateWheelExecuteThread stateWheelExecuteThread
+        , ProcessDagCacheManager processDagCacheManager
+        , DependentTaskIndex dependentTaskIndex) {
         this.processService = processService;
+        this.dependentTaskIndex = dependentTaskIndex;
+        this.processDagCacheManager = processDagCacheManager;
         this.processInstance = processInstance;
         this.masterConfig = masterConfig;
         this.nettyExecutorManager = nettyExecutorManager;
@@ -302,6 +326,21 @@ public class WorkflowExecuteThread {
         return this.stateEvents.size();
     }
 
+    /**
+     * @return true if no handling of the state events was queued yet, the caller queues one
+     */
+    public boolean scheduleEventHandling() {
+        return eventHandlingScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * called by the queued handling before it drains the state events,
+     * the events added from now on need a handling of their own
+     */
+    public void startEventHandling() {
+        eventHandlingScheduled.set(false);
+    }
+
     public ProcessInstance getProcessInstance() {
         return this.processInstance;
     }
@@ -336,6 +375,9 @@ public class WorkflowExecuteThread {
             case PROCESS_BLOCKED:
                 result = processBlockHandler(stateEvent);
                 break;
+            case TASK_DISPATCH:
+                result = taskDispatchHandler(stateEvent);
+                break;
             default:
                 break;
         }
@@ -443,9 +485,10 @@ public class WorkflowExecuteThread {
         stateWheelExecuteThread.removeTask4TimeoutCheck(processInstance, taskInstance);
         stateWheelExecuteThread.removeTask4RetryCheck(processInstance, taskInstance);
         stateWheelExecuteThread.removeTask4StateCheck(processInstance, taskInstance);
+        dependentTaskIndex.taskInstanceFinished(processInstance, taskInstance);
 
         if (taskInstance.getState().typeIsSuccess()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
             processInstance.setVarPool(taskInstance.getVarPool());
             processService.saveProcessInstance(processInstance);
             if (!processInstance.isBlocked()) {
@@ -455,7 +498,7 @@ public class WorkflowExecuteThread {
             // retry task
             retryTaskInstance(taskInstance);
         } else if (taskInstance.getState().typeIsFailure()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
             // There are child nodes and the failure policy is: CONTINUE
             if (DagHelper.haveAllNodeAfterNode(Long.toString(taskInstance.getTaskCode()), dag)
                     && processInstance.getFailureStrategy() == FailureStrategy.CONTINUE) {
@@ -467,7 +510,7 @@ public class WorkflowExecuteThread {
                 }
             }
         } else if (taskInstance.getState().typeIsFinished()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
         }
 
         this.updateProcessInstanceState();
@@ -543,6 +586,19 @@ public class WorkflowExecuteThread {
         return true;
     }
 
+    /**
+     * dispatch a task the task priority queue rejected before
+     */
+    private boolean taskDispatchHandler(StateEvent stateEvent) {
+        ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(stateEvent.getTaskCode());
+        if (taskProcessor == null) {
+            logger.warn("can not find the task processor to dispatch, taskCode:{}", stateEvent.getTaskCode());
+            return true;
+        }
+        taskProcessor.action(TaskAction.DISPATCH);
+        return true;
+    }
+
     /**
      * update process instance
      */
@@ -791,6 +847,7 @@ public class WorkflowExecuteThread {
         try {
             isStart = false;
             buildFlowDag();
+            taskDependencyTracker = new TaskDependencyTracker(dag, forbiddenTaskMap.keySet());
             initTaskQueue();
             submitPostNode(null);
             isStart = true;
@@ -804,6 +861,7 @@ public class WorkflowExecuteThread {
      */
     private void endProcess() {
         this.stateEvents.clear();
+        dependentTaskIndex.processInstanceFinished(processInstance);
         if (processDefinition.getExecutionType().typeIsSerialWait()) {
             checkSerialProcess(processDefinition);
         }
@@ -859,9 +917,7 @@ public class WorkflowExecuteThread {
 
         List<TaskInstance> recoverNodeList = getStartTaskInstanceList(processInstance.getCommandParam());
 
-        List<ProcessTaskRelation> processTaskRelations = processService.findRelationByCode(processDefinition.getCode(), processDefinition.getVersion());
-        List<TaskDefinitionLog> taskDefinitionLogs = processService.getTaskDefineLogListByRelation(processTaskRelations);
-        List<TaskNode> taskNodeList = processService.transformTask(processTaskRelations, taskDefinitionLogs);
+        List<TaskNode> taskNodeList = processDagCacheManager.getTaskNodeList(processDefinition.getCode(), processDefinition.getVersion());
         forbiddenTaskMap.clear();
 
         taskNodeList.forEach(taskNode -> {
@@ -873,6 +929,15 @@ public class WorkflowExecuteThread {
         // generate process to get DAG info
         List<String> recoveryNodeCodeList = getRecoveryNodeCodeList(recoverNodeList);
         List<String> startNodeNameList = parseStartNodeName(processInstance.getCommandParam());
+        if (startNodeNameList.isEmpty() && recoveryNodeCodeList.isEmpty()
+            && processInstance.getTaskDependType() == TaskDependType.TASK_POST) {
+            // the workflow runs the whole dag, which is shared by the workflows of the process definition version
+            dag = processDagCacheManager.getDag(processDefinition.getCode(), processDefinition.getVersion());
+            if (dag == null) {
+                logger.error("processDag is null");
+            }
+            return;
+        }
         ProcessDag processDag = generateFlowDag(taskNodeList,
             startNodeNameList, recoveryNodeCodeList, processInstance.getTaskDependType());
         if (processDag == null) {
@@ -912,7 +977,7 @@ public class WorkflowExecuteThread {
                 taskInstanceMap.put(task.getId(), task);
 
                 if (task.isTaskComplete()) {
-                    completeTaskMap.put(task.getTaskCode(), task.getId());
+                    addCompleteTask(task);
                     continue;
                 }
                 if (task.isConditionsTask() || DagHelper.haveConditionsAfterNode(Long.toString(task.getTaskCode()), dag)) {
@@ -1340,62 +1405,55 @@ public class WorkflowExecuteThread {
     }
 
     /**
-     * determine whether the dependencies of the task node are complete
+     * add the task instance to the complete tasks and count it down from the pending predecessors of its successors
+     */
+    private void addCompleteTask(TaskInstance taskInstance) {
+        completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+        taskDependencyTracker.taskComplete(taskInstance.getTaskCode(), taskInstance.getState().typeIsSuccess());
+    }
+
+    /**
+     * determine whether the dependencies of the task node are complete,
+     * the forbidden depend nodes are replaced by their predecessors and the skipped depend nodes are ignored.
+     * the predecessor task instances are only checked when all of them are complete or one of them is not successful
      *
      * @return DependResult
      */
-    private DependResult isTaskDepsComplete(String taskCode) {
-
-        Collection<String> startNodes = dag.getBeginNode();
-        // if vertex,returns true directly
-        if (startNodes.contains(taskCode)) {
+    private DependResult isTaskDepsComplete(long taskCode) {
+        taskDependencyTracker.syncSkipped(skipTaskNodeMap.keySet());
+        if (!taskDependencyTracker.isNeedCheck(taskCode)) {
+            if (taskDependencyTracker.getPendingCount(taskCode) > 0) {
+                return DependResult.WAITING;
+            }
+            logger.info("taskCode: {} dependencies are complete", taskCode);
             return DependResult.SUCCESS;
         }
-        TaskNode taskNode = dag.getNode(taskCode);
-        List<String> indirectDepCodeList = new ArrayList<>();
-        setIndirectDepList(taskCode, indirectDepCodeList);
-        for (String depsNode : indirectDepCodeList) {
-            if (dag.containsNode(depsNode) && !skipTaskNodeMap.containsKey(depsNode)) {
-                // dependencies must be fully completed
-                Long despNodeTaskCode = Long.parseLong(depsNode);
-                if (!completeTaskMap.containsKey(despNodeTaskCode)) {
-                    return DependResult.WAITING;
-                }
-                Integer depsTaskId = completeTaskMap.get(despNodeTaskCode);
-                ExecutionStatus depTaskState = taskInstanceMap.get(depsTaskId).getState();
-                if (depTaskState.typeIsPause() || depTaskState.typeIsCancel()) {
-                    return DependResult.NON_EXEC;
-                }
-                // ignore task state if current task is condition and block
-                if (taskNode.isConditionsTask() || taskNode.isBlockingTask()) {
-                    continue;
-                }
-                if (!dependTaskSuccess(depsNode, taskCode)) {
-                    return DependResult.FAILED;
-                }
+        String taskNodeCode = Long.toString(taskCode);
+        TaskNode taskNode = dag.getNode(taskNodeCode);
+        for (long depsTaskCode : taskDependencyTracker.getPredecessors(taskCode)) {
+            String depsNode = Long.toString(depsTaskCode);
+            if (skipTaskNodeMap.containsKey(depsNode)) {
+                continue;
             }
-        }
-        logger.info("taskCode: {} completeDependTaskList: {}", taskCode, Arrays.toString(completeTaskMap.keySet().toArray()));
-        return DependResult.SUCCESS;
-    }
-
-    /**
-     * This function is specially used to handle the dependency situation where the parent node is a prohibited node.
-     * When the parent node is a forbidden node, the dependency relationship should continue to be traced
-     *
-     * @param taskCode            taskCode
-     * @param indirectDepCodeList All indirectly dependent nodes
-     */
-    private void setIndirectDepList(String taskCode, List<String> indirectDepCodeList) {
-        TaskNode taskNode = dag.getNode(taskCode);
-        List<String> depCodeList = taskNode.getDepList();
-        for (String depsNode : depCodeList) {
-            if (forbiddenTaskMap.containsKey(Long.parseLong(depsNode))) {
-                setIndirectDepList(depsNode, indirectDepCodeList);
-            } else {
-                indirectDepCodeList.add(depsNode);
+            // dependencies must be fully completed
+            Integer depsTaskId = completeTaskMap.get(depsTaskCode);
+            if (depsTaskId == null) {
+                return DependResult.WAITING;
+            }
+            ExecutionStatus depTaskState = taskInstanceMap.get(depsTaskId).getState();
+            if (depTaskState.typeIsPause() || depTaskState.typeIsCancel()) {
+                return DependResult.NON_EXEC;
+            }
+            // ignore task state if current task is condition and block
+            if (taskNode.isConditionsTask() || taskNode.isBlockingTask()) {
+                continue;
+            }
+            if (!dependTaskSuccess(depsNode, taskNodeCode)) {
+                return DependResult.FAILED;
             }
         }
+        logger.info("taskCode: {} dependencies are complete", taskCode);
+        return DependResult.SUCCESS;
     }
 
     /**
@@ -1690,7 +1748,7 @@ public class WorkflowExecuteThread {
      * @return DependResult
      */
     private DependResult getDependResultForTask(TaskInstance taskInstance) {
-        return isTaskDepsComplete(Long.toString(taskInstance.getTaskCode()));
+        return isTaskDepsComplete(taskInstance.getTaskCode());
     }
 
     /**
@@ -1755,6 +1813,11 @@ public class WorkflowExecuteThread {
             readyToSubmitTaskQueue.clear();
         }
 
+        // the waiting retry tasks are checked at their retry time, check them now to stop the process in time
+        for (TaskInstance retryTaskInstance : waitToRetryTaskInstanceMap.values()) {
+            stateWheelExecuteThread.wakeUpTask4RetryCheck(processInstance, retryTaskInstance);
+        }
+
         for (long taskCode : activeTaskProcessorMaps.keySet()) {
             ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(taskCode);
             Integer taskInstanceId = validTaskMap.get(taskCode);
@@ -1799,7 +1862,7 @@ public class WorkflowExecuteThread {
                         task.setState(retryTask.getState());
                         logger.info("task: {} has been forced success, put it into complete task list and stop retrying", task.getName());
                         removeTaskFromStandbyList(task);
-                        completeTaskMap.put(task.getTaskCode(), task.getId());
+                        addCompleteTask(task);
                         taskInstanceMap.put(task.getId(), task);
                         submitPostNode(Long.toString(task.getTaskCode()));
                         continue;
@@ -1818,7 +1881,7 @@ public class WorkflowExecuteThread {
                         this.taskFailedSubmit = true;
                         // Remove and add to complete map and error map
                         removeTaskFromStandbyList(task);
-                        completeTaskMap.put(task.getTaskCode(), task.getId());
+                        addCompleteTask(task);
                         errorTaskMap.put(task.getTaskCode(), task.getId());
                         logger.error("process {}, task {}, code:{} submit task failed.", task.getProcessInstanceId(), task.getName(), task.getTaskCode());
                     } else {
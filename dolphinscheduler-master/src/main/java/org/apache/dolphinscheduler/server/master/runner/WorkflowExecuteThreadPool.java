@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.master.runner;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.StateEvent;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.common.thread.StripedExecutor;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
@@ -33,20 +34,17 @@ import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.commons.lang.StringUtils;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
 
 @Component
-public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
+public class WorkflowExecuteThreadPool {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkflowExecuteThreadPool.class);
 
@@ -66,20 +64,22 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
     private StateWheelExecuteThread stateWheelExecuteThread;
 
     /**
-     * multi-thread filter, avoid handling workflow at the same time
+     * every process instance is handled by the lane it hashes to, one event handling at a time and in order
      */
-    private ConcurrentHashMap<String, WorkflowExecuteThread> multiThreadFilterMap = new ConcurrentHashMap();
+    private StripedExecutor stripedExecutor;
 
     @PostConstruct
     private void init() {
-        this.setDaemon(true);
-        this.setThreadNamePrefix("Workflow-Execute-Thread-");
-        this.setMaxPoolSize(masterConfig.getExecThreads());
-        this.setCorePoolSize(masterConfig.getExecThreads());
+        this.stripedExecutor = new StripedExecutor("Workflow-Execute-Thread", masterConfig.getExecThreads(), masterConfig.isExecVirtualThreads());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.stripedExecutor.shutdown();
     }
 
     /**
-     * submit state event
+     * submit state event, and wake up the workflow to handle it
      */
     public void submitStateEvent(StateEvent stateEvent) {
         WorkflowExecuteThread workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(stateEvent.getProcessInstanceId());
@@ -87,53 +87,59 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
             logger.warn("workflowExecuteThread is null, stateEvent:{}", stateEvent);
             return;
         }
-        workflowExecuteThread.addStateEvent(stateEvent);
+        if (workflowExecuteThread.addStateEvent(stateEvent)) {
+            executeEvent(workflowExecuteThread);
+        }
     }
 
     /**
-     * start workflow
+     * start workflow, then handle the events which arrived before the workflow started
      */
     public void startWorkflow(WorkflowExecuteThread workflowExecuteThread) {
-        submit(workflowExecuteThread::startProcess);
+        stripedExecutor.execute(workflowExecuteThread.getProcessInstance().getId(), () -> {
+            workflowExecuteThread.startProcess();
+            handleEvents(workflowExecuteThread);
+        });
     }
 
     /**
      * execute workflow
+     * <p>
+     * the events of a workflow are handled on the lane of its process instance, one handling at a time and in order.
+     * at most one handling of a workflow is queued, it handles all the events arrived before it ran
      */
     public void executeEvent(WorkflowExecuteThread workflowExecuteThread) {
         if (!workflowExecuteThread.isStart() || workflowExecuteThread.eventSize() == 0) {
             return;
         }
-        if (multiThreadFilterMap.containsKey(workflowExecuteThread.getKey())) {
+        if (!workflowExecuteThread.scheduleEventHandling()) {
             return;
         }
-        multiThreadFilterMap.put(workflowExecuteThread.getKey(), workflowExecuteThread);
-        int processInstanceId = workflowExecuteThread.getProcessInstance().getId();
-        ListenableFuture future = this.submitListenable(workflowExecuteThread::handleEvents);
-        future.addCallback(new ListenableFutureCallback() {
-            @Override
-            public void onFailure(Throwable ex) {
-                logger.error("handle events {} failed", processInstanceId, ex);
-                multiThreadFilterMap.remove(workflowExecuteThread.getKey());
-            }
+        stripedExecutor.execute(workflowExecuteThread.getProcessInstance().getId(), () -> handleEvents(workflowExecuteThread));
+    }
 
-            @Override
-            public void onSuccess(Object result) {
-                // if an exception occurs, first, the error message cannot be printed in the log;
-                // secondly, the `multiThreadFilterMap` cannot be remove the `workflowExecuteThread`, resulting in the state of process instance cannot be changed and memory leak
-                try {
-                    if (workflowExecuteThread.workFlowFinish()) {
-                        stateWheelExecuteThread.removeProcess4TimeoutCheck(workflowExecuteThread.getProcessInstance());
-                        processInstanceExecCacheManager.removeByProcessInstanceId(processInstanceId);
-                        notifyProcessChanged(workflowExecuteThread.getProcessInstance());
-                        logger.info("process instance {} finished.", processInstanceId);
-                    }
-                } catch (Exception e) {
-                    logger.error("handle events {} success, but notify changed error", processInstanceId, e);
-                }
-                multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+    private void handleEvents(WorkflowExecuteThread workflowExecuteThread) {
+        workflowExecuteThread.startEventHandling();
+        if (!workflowExecuteThread.isStart() || workflowExecuteThread.eventSize() == 0) {
+            return;
+        }
+        int processInstanceId = workflowExecuteThread.getProcessInstance().getId();
+        try {
+            workflowExecuteThread.handleEvents();
+        } catch (Exception e) {
+            logger.error("handle events {} failed", processInstanceId, e);
+            return;
+        }
+        try {
+            if (workflowExecuteThread.workFlowFinish()) {
+                stateWheelExecuteThread.removeProcess4TimeoutCheck(workflowExecuteThread.getProcessInstance());
+                processInstanceExecCacheManager.removeByProcessInstanceId(processInstanceId);
+                notifyProcessChanged(workflowExecuteThread.getProcessInstance());
+                logger.info("process instance {} finished.", processInstanceId);
             }
-        });
+        } catch (Exception e) {
+            logger.error("handle events {} success, but notify changed error", processInstanceId, e);
+        }
     }
 
     /**
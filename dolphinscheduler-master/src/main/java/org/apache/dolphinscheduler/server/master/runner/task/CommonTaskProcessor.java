@@ -26,9 +26,9 @@ import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionConte
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.runner.StateWheelExecuteThread;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
-import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
 
 import org.apache.commons.lang.StringUtils;
@@ -43,10 +43,12 @@ import com.google.auto.service.AutoService;
 @AutoService(ITaskProcessor.class)
 public class CommonTaskProcessor extends BaseTaskProcessor {
 
-    private TaskPriorityQueue taskUpdateQueue;
+    private TaskPriorityQueueImpl taskUpdateQueue;
 
     private NettyExecutorManager nettyExecutorManager = SpringApplicationContext.getBean(NettyExecutorManager.class);
 
+    private StateWheelExecuteThread stateWheelExecuteThread = SpringApplicationContext.getBean(StateWheelExecuteThread.class);
+
     @Override
     protected boolean submitTask() {
         this.taskInstance = processService.submitTaskWithRetry(processInstance, taskInstance, maxRetryTimes, commitInterval);
@@ -124,7 +126,12 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
 
             taskPriority.setTaskExecutionContext(taskExecutionContext);
 
-            taskUpdateQueue.put(taskPriority);
+            // never wait for a full worker group on the workflow event lane, the other workflows of the lane would wait too
+            if (!taskUpdateQueue.offer(taskPriority)) {
+                logger.info("the queue of worker group {} is full, dispatch task {} again later", taskExecutionContext.getWorkerGroup(), taskInstance.getName());
+                stateWheelExecuteThread.addTask4DispatchCheck(processInstance, taskInstance);
+                return true;
+            }
             logger.info(String.format("master submit success, task : %s", taskInstance.getName()));
             return true;
         } catch (Exception e) {
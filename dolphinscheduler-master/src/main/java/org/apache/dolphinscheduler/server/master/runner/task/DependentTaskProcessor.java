@@ -24,11 +24,14 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskTimeoutStrategy;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
 import org.apache.dolphinscheduler.plugin.task.api.model.DependentTaskModel;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.DependentParameters;
 import org.apache.dolphinscheduler.plugin.task.api.utils.DependentUtils;
+import org.apache.dolphinscheduler.server.master.runner.DependentTaskIndex;
 import org.apache.dolphinscheduler.server.utils.DependentExecute;
 import org.apache.dolphinscheduler.server.utils.LogUtils;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -66,6 +69,8 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
 
     boolean allDependentItemFinished;
 
+    private DependentTaskIndex dependentTaskIndex = SpringApplicationContext.getBean(DependentTaskIndex.class);
+
     @Override
     public boolean submitTask() {
         this.taskInstance = processService.submitTaskWithRetry(processInstance, taskInstance, maxRetryTimes, commitInterval);
@@ -95,6 +100,8 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
         if (allDependentItemFinished) {
             getTaskDependResult();
             endTask();
+        } else {
+            registerWaitingDependItems();
         }
         return true;
     }
@@ -135,6 +142,7 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
 
     @Override
     protected boolean pauseTask() {
+        dependentTaskIndex.unregister(processInstance, taskInstance);
         this.taskInstance.setState(ExecutionStatus.PAUSE);
         this.taskInstance.setEndTime(new Date());
         processService.saveTaskInstance(taskInstance);
@@ -143,6 +151,7 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
 
     @Override
     protected boolean killTask() {
+        dependentTaskIndex.unregister(processInstance, taskInstance);
         this.taskInstance.setState(ExecutionStatus.KILL);
         this.taskInstance.setEndTime(new Date());
         processService.saveTaskInstance(taskInstance);
@@ -157,6 +166,9 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
     private boolean allDependentTaskFinish() {
         boolean finish = true;
         for (DependentExecute dependentExecute : dependentTaskList) {
+            if (!dependentExecute.finish(dependentDate)) {
+                finish = false;
+            }
             for (Map.Entry<String, DependResult> entry : dependentExecute.getDependResultMap().entrySet()) {
                 if (!dependResultMap.containsKey(entry.getKey())) {
                     dependResultMap.put(entry.getKey(), entry.getValue());
@@ -164,13 +176,21 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
                     logger.info("dependent item complete {} {},{}", DEPENDENT_SPLIT, entry.getKey(), entry.getValue());
                 }
             }
-            if (!dependentExecute.finish(dependentDate)) {
-                finish = false;
-            }
         }
         return finish;
     }
 
+    /**
+     * register the dependent items still waiting, so that the task is woken up once an upstream instance finished
+     */
+    private void registerWaitingDependItems() {
+        List<DependentItem> waitingDependItems = new ArrayList<>();
+        for (DependentExecute dependentExecute : dependentTaskList) {
+            waitingDependItems.addAll(dependentExecute.getWaitingDependItems());
+        }
+        dependentTaskIndex.register(processInstance, taskInstance, waitingDependItems, dependentDate);
+    }
+
     /**
      * get dependent result
      *
@@ -191,6 +211,7 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
      *
      */
     private void endTask() {
+        dependentTaskIndex.unregister(processInstance, taskInstance);
         ExecutionStatus status;
         status = (result == DependResult.SUCCESS) ? ExecutionStatus.SUCCESS : ExecutionStatus.FAILURE;
         taskInstance.setState(status);
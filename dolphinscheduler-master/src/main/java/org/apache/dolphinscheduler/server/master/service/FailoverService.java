@@ -125,6 +125,11 @@ public class FailoverService {
         }
         Date serverStartupTime = getServerStartupTime(NodeType.MASTER, masterHost);
         long startTime = System.currentTimeMillis();
+        // commands claimed by myself are released on startup, they may be claimed again already
+        if (!masterHost.equals(getLocalAddress())) {
+            int releasedCommandCount = processService.releaseClaimedCommands(masterHost);
+            LOGGER.info("master[{}] failover, release claimed command size:{}", masterHost, releasedCommandCount);
+        }
         List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(masterHost);
         LOGGER.info("start master[{}] failover, process list size:{}", masterHost, needFailoverProcessInstanceList.size());
         List<Server> workerServers = registryClient.getServerList(NodeType.WORKER);
@@ -149,15 +149,7 @@ public class DependentExecute {
      */
     private DependResult getDependTaskResult(long taskCode, ProcessInstance processInstance) {
         DependResult result;
-        TaskInstance taskInstance = null;
-        List<TaskInstance> taskInstanceList = processService.findValidTaskListByProcessId(processInstance.getId());
-
-        for (TaskInstance task : taskInstanceList) {
-            if (task.getTaskCode() == taskCode) {
-                taskInstance = task;
-                break;
-            }
-        }
+        TaskInstance taskInstance = processService.findValidTaskInstanceByTaskCode(processInstance.getId(), taskCode);
 
         if (taskInstance == null) {
             // cannot find task in the process instance
@@ -248,9 +240,8 @@ public class DependentExecute {
     public boolean finish(Date currentTime) {
         if (modelDependResult == DependResult.WAITING) {
             modelDependResult = getModelDependResult(currentTime);
-            return false;
         }
-        return true;
+        return modelDependResult != DependResult.WAITING;
     }
 
     /**
@@ -293,4 +284,22 @@ public class DependentExecute {
         return dependResultMap;
     }
 
+    /**
+     * get the dependent items without result yet
+     *
+     * @return waiting dependent items
+     */
+    public List<DependentItem> getWaitingDependItems() {
+        List<DependentItem> waitingDependItems = new ArrayList<>();
+        if (modelDependResult != DependResult.WAITING) {
+            return waitingDependItems;
+        }
+        for (DependentItem dependentItem : dependItemList) {
+            if (!dependResultMap.containsKey(dependentItem.getKey())) {
+                waitingDependItems.add(dependentItem);
+            }
+        }
+        return waitingDependItems;
+    }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessDagCacheManagerImplTest {
+
+    @InjectMocks
+    private ProcessDagCacheManagerImpl processDagCacheManager;
+
+    @Mock
+    private ProcessService processService;
+
+    @Before
+    public void before() {
+        TaskNode taskNode1 = new TaskNode();
+        taskNode1.setCode(1L);
+        taskNode1.setPreTasks("[]");
+        TaskNode taskNode2 = new TaskNode();
+        taskNode2.setCode(2L);
+        taskNode2.setPreTasks("[1]");
+        Mockito.when(processService.transformTask(Mockito.any(), Mockito.any()))
+            .thenReturn(new ArrayList<>(Arrays.asList(taskNode1, taskNode2)));
+    }
+
+    @Test
+    public void testGetTaskNodeList() {
+        List<TaskNode> taskNodeList = processDagCacheManager.getTaskNodeList(1L, 1);
+        Assert.assertEquals(2, taskNodeList.size());
+        Assert.assertSame(taskNodeList, processDagCacheManager.getTaskNodeList(1L, 1));
+        Mockito.verify(processService, Mockito.times(1)).findRelationByCode(1L, 1);
+
+        processDagCacheManager.getTaskNodeList(1L, 2);
+        Mockito.verify(processService, Mockito.times(1)).findRelationByCode(1L, 2);
+    }
+
+    @Test
+    public void testGetDag() throws Exception {
+        DAG<String, TaskNode, TaskNodeRelation> dag = processDagCacheManager.getDag(1L, 1);
+        Assert.assertEquals(2, dag.getNodesCount());
+        Assert.assertTrue(dag.getBeginNode().contains("1"));
+        Assert.assertSame(dag, processDagCacheManager.getDag(1L, 1));
+    }
+
+    @Test
+    public void testEvictAll() {
+        processDagCacheManager.getTaskNodeList(1L, 1);
+        processDagCacheManager.evictAll();
+        processDagCacheManager.getTaskNodeList(1L, 1);
+        Mockito.verify(processService, Mockito.times(2)).findRelationByCode(1L, 1);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.consumer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * task dispatch lane test
+ */
+public class TaskDispatchLaneTest {
+
+    @Test
+    public void testStartAndStop() throws Exception {
+        TaskDispatchLane lane = new TaskDispatchLane("group_a", 2);
+        Assert.assertEquals("group_a", lane.getWorkerGroup());
+        Assert.assertEquals(2, lane.getThreads());
+
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch exited = new CountDownLatch(2);
+        lane.start(() -> {
+            started.countDown();
+            while (lane.isRunning()) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            exited.countDown();
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(lane.isRunning());
+
+        lane.stop();
+        Assert.assertFalse(lane.isRunning());
+        Assert.assertTrue(exited.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testIdle() {
+        TaskDispatchLane lane = new TaskDispatchLane("group_b", 1);
+        long now = System.currentTimeMillis();
+        Assert.assertFalse(lane.isIdle(now, 60_000L));
+        Assert.assertTrue(lane.isIdle(now + 60_000L, 60_000L));
+
+        // an empty round does not make the lane active
+        lane.record(0, 0, 0, System.nanoTime());
+        Assert.assertTrue(lane.isIdle(now + 60_000L, 60_000L));
+
+        lane.record(1, 0, 0, System.nanoTime());
+        Assert.assertFalse(lane.isIdle(now + 60_000L - 1000L, 60_000L));
+        Assert.assertTrue(lane.isIdle(System.currentTimeMillis() + 60_000L, 60_000L));
+        lane.stop();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.consumer;
+
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchAckCommand;
+import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * test the worker ack handling of task batches
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TaskPriorityQueueConsumerBatchAckTest {
+
+    private final Host host = new Host("127.0.0.1", 1234);
+
+    private final TaskDispatchLane lane = new TaskDispatchLane("default", 1);
+
+    @InjectMocks
+    private TaskPriorityQueueConsumer taskPriorityQueueConsumer;
+
+    @Mock
+    private TaskPriorityQueueImpl taskPriorityQueue;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private ExecutorDispatcher dispatcher;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @After
+    public void close() {
+        lane.stop();
+    }
+
+    @Test
+    public void testAckTimeout() throws Exception {
+        TaskPriority submittedTask = newTaskPriority(1);
+        TaskPriority runningTask = newTaskPriority(2);
+        List<TaskPriority> tasks = Arrays.asList(submittedTask, runningTask);
+
+        // the worker may have accepted the batch, it is sent to the same worker again instead of being parked
+        taskPriorityQueueConsumer.onBatchAck(lane, host, tasks, newResponseFuture(true, null), false);
+        Mockito.verify(dispatcher).dispatchBatch(ArgumentMatchers.eq(host), ArgumentMatchers.any(Command.class), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(taskPriorityQueue);
+
+        // the ack of the resent batch times out as well, only the task the worker did not report is parked
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(newTaskInstance(1, ExecutionStatus.SUBMITTED_SUCCESS));
+        Mockito.when(processService.findTaskInstanceById(2)).thenReturn(newTaskInstance(2, ExecutionStatus.RUNNING_EXECUTION));
+        taskPriorityQueueConsumer.onBatchAck(lane, host, tasks, newResponseFuture(true, null), true);
+        Mockito.verify(taskPriorityQueue).park(submittedTask);
+        Mockito.verify(taskPriorityQueue, Mockito.never()).park(runningTask);
+        // the batch is not sent a third time
+        Mockito.verify(dispatcher).dispatchBatch(ArgumentMatchers.eq(host), ArgumentMatchers.any(Command.class), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(taskEventService);
+    }
+
+    @Test
+    public void testSendFailed() {
+        TaskPriority task = newTaskPriority(1);
+        taskPriorityQueueConsumer.onBatchAck(lane, host, Collections.singletonList(task), newResponseFuture(false, null), false);
+        Mockito.verify(taskPriorityQueue).park(task);
+        Mockito.verifyNoInteractions(dispatcher, processService, taskEventService);
+    }
+
+    @Test
+    public void testAck() {
+        Command ack = new TaskExecuteBatchAckCommand(Collections.singletonList(1)).convert2Command(1L);
+        taskPriorityQueueConsumer.onBatchAck(lane, host, Arrays.asList(newTaskPriority(1), newTaskPriority(2)),
+                newResponseFuture(true, ack), false);
+
+        ArgumentCaptor<TaskEvent> taskEvent = ArgumentCaptor.forClass(TaskEvent.class);
+        Mockito.verify(taskEventService).addEvent(taskEvent.capture());
+        Assert.assertEquals(1, taskEvent.getValue().getTaskInstanceId());
+        Assert.assertEquals(host.getAddress(), taskEvent.getValue().getWorkerAddress());
+        Mockito.verifyNoInteractions(taskPriorityQueue, dispatcher);
+    }
+
+    private ResponseFuture newResponseFuture(boolean sendOk, Command response) {
+        ResponseFuture responseFuture = Mockito.mock(ResponseFuture.class);
+        Mockito.lenient().when(responseFuture.isSendOK()).thenReturn(sendOk);
+        Mockito.when(responseFuture.getResponseCommand()).thenReturn(response);
+        return responseFuture;
+    }
+
+    private TaskPriority newTaskPriority(int taskInstanceId) {
+        TaskExecutionContext context = new TaskExecutionContext();
+        context.setTaskInstanceId(taskInstanceId);
+        context.setProcessInstanceId(10);
+        TaskPriority taskPriority = new TaskPriority(0, 10, 0, taskInstanceId, "default");
+        taskPriority.setTaskExecutionContext(context);
+        return taskPriority;
+    }
+
+    private TaskInstance newTaskInstance(int id, ExecutionStatus state) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setState(state);
+        return taskInstance;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.executor;
+
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteStatusBatchCommand;
+import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.processor.TaskExecuteResponseProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskExecuteRunningProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskExecuteStatusBatchProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * status reports a worker batches back over the dispatch connection
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NettyExecutorManagerStatusBatchTest {
+
+    private static final int PORT = 30001;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @InjectMocks
+    private TaskExecuteStatusBatchProcessor taskExecuteStatusBatchProcessor;
+
+    private NettyRemotingServer workerServer;
+
+    private NettyExecutorManager nettyExecutorManager;
+
+    @Before
+    public void before() {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        serverConfig.setListenPort(PORT);
+        workerServer = new NettyRemotingServer(serverConfig);
+        // the fake worker answers every task it gets with one batch on the same channel
+        workerServer.registerProcessor(CommandType.TASK_EXECUTE_REQUEST,
+            (channel, command) -> channel.writeAndFlush(buildStatusBatch().convert2Command()));
+        workerServer.start();
+
+        nettyExecutorManager = new NettyExecutorManager();
+        ReflectionTestUtils.setField(nettyExecutorManager, "taskExecuteRunningProcessor", Mockito.mock(TaskExecuteRunningProcessor.class));
+        ReflectionTestUtils.setField(nettyExecutorManager, "taskExecuteResponseProcessor", Mockito.mock(TaskExecuteResponseProcessor.class));
+        ReflectionTestUtils.setField(nettyExecutorManager, "taskKillResponseProcessor", Mockito.mock(TaskKillResponseProcessor.class));
+        ReflectionTestUtils.setField(nettyExecutorManager, "taskExecuteStatusBatchProcessor", taskExecuteStatusBatchProcessor);
+        nettyExecutorManager.init();
+    }
+
+    @After
+    public void after() {
+        nettyExecutorManager.getNettyRemotingClient().close();
+        workerServer.close();
+    }
+
+    @Test
+    public void testStatusBatchOnDispatchChannel() throws Exception {
+        TaskExecuteRequestCommand requestCommand = new TaskExecuteRequestCommand();
+        requestCommand.setTaskExecutionContext("{}");
+        nettyExecutorManager.doExecute(Host.of(NetUtils.getAddr(PORT)), requestCommand.convert2Command());
+
+        ArgumentCaptor<TaskEvent> eventCaptor = ArgumentCaptor.forClass(TaskEvent.class);
+        Mockito.verify(taskEventService, Mockito.timeout(5000).times(2)).addEvent(eventCaptor.capture());
+        List<TaskEvent> events = eventCaptor.getAllValues();
+        Assert.assertEquals(1, events.get(0).getTaskInstanceId());
+        Assert.assertEquals(ExecutionStatus.RUNNING_EXECUTION, events.get(0).getState());
+        Assert.assertEquals(2, events.get(1).getTaskInstanceId());
+        Assert.assertEquals(ExecutionStatus.SUCCESS, events.get(1).getState());
+    }
+
+    private TaskExecuteStatusBatchCommand buildStatusBatch() {
+        TaskExecuteRunningCommand runningCommand = new TaskExecuteRunningCommand();
+        runningCommand.setTaskInstanceId(1);
+        runningCommand.setProcessInstanceId(1);
+        runningCommand.setStatus(ExecutionStatus.RUNNING_EXECUTION.getCode());
+        TaskExecuteResponseCommand responseCommand = new TaskExecuteResponseCommand();
+        responseCommand.setTaskInstanceId(2);
+        responseCommand.setProcessInstanceId(1);
+        responseCommand.setStatus(ExecutionStatus.SUCCESS.getCode());
+        TaskExecuteStatusBatchCommand batchCommand = new TaskExecuteStatusBatchCommand();
+        batchCommand.getRunningCommands().add(runningCommand);
+        batchCommand.getResponseCommands().add(responseCommand);
+        return batchCommand;
+    }
+}
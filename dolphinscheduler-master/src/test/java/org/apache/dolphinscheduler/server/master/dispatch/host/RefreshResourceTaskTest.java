@@ -17,8 +17,14 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch.host;
 
+import org.apache.dolphinscheduler.common.utils.HeartBeat;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
 
+import java.util.Collections;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,4 +50,22 @@ public class RefreshResourceTaskTest {
             .getHostWeight("192.168.1.1:22", "default", null)
             .isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSelectFromRefreshedSnapshot() {
+        lowerWeightHostManager.init();
+        ExecutionContext context = new ExecutionContext(new Command(), ExecutorType.WORKER, "default");
+        Assert.assertNull(lowerWeightHostManager.select(context).getAddress());
+
+        HeartBeat heartBeat = new HeartBeat(System.currentTimeMillis(), 10, 0.1, 100, 10);
+        heartBeat.setCpuUsage(0.1);
+        heartBeat.setMemoryUsage(0.1);
+        lowerWeightHostManager.notify(
+            Collections.singletonMap("default", Collections.singleton("192.168.1.1:1234")),
+            Collections.singletonMap("192.168.1.1:1234", heartBeat.encodeHeartBeat()));
+        Assert.assertEquals("192.168.1.1:1234", lowerWeightHostManager.select(context).getAddress());
+
+        lowerWeightHostManager.notify(Collections.emptyMap(), Collections.emptyMap());
+        Assert.assertNull(lowerWeightHostManager.select(context).getAddress());
+    }
+}
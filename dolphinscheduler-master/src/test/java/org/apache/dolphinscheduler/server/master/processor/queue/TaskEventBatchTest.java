@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.server.utils.DataQualityResultOperator;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.netty.channel.Channel;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskEventBatchTest {
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private DataQualityResultOperator dataQualityResultOperator;
+
+    @Mock
+    private Channel channel;
+
+    private TaskExecuteThread firstProcessInstance;
+
+    private TaskExecuteThread secondProcessInstance;
+
+    @Before
+    public void before() {
+        Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 1234));
+        Mockito.when(processService.findTaskInstanceById(ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setId(invocation.getArgument(0));
+            taskInstance.setState(ExecutionStatus.DISPATCH);
+            return taskInstance;
+        });
+        firstProcessInstance = newTaskExecuteThread(1);
+        secondProcessInstance = newTaskExecuteThread(2);
+    }
+
+    @Test
+    public void testCommitAcksAfterBatchUpdate() {
+        firstProcessInstance.addEvent(newRunningEvent(1, 11));
+        firstProcessInstance.addEvent(newResultEvent(1, 11));
+        secondProcessInstance.addEvent(newRunningEvent(2, 21));
+
+        TaskEventBatch batch = new TaskEventBatch(processService, workflowExecuteThreadPool);
+        firstProcessInstance.drainTo(batch);
+        secondProcessInstance.drainTo(batch);
+        Mockito.verify(channel, Mockito.never()).writeAndFlush(ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(workflowExecuteThreadPool);
+        batch.commit();
+
+        InOrder inOrder = Mockito.inOrder(processService, channel);
+        ArgumentCaptor<List<TaskInstance>> taskInstancesCaptor = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(processService).updateTaskInstances(taskInstancesCaptor.capture());
+        ArgumentCaptor<Command> ackCaptor = ArgumentCaptor.forClass(Command.class);
+        inOrder.verify(channel, Mockito.times(3)).writeAndFlush(ackCaptor.capture());
+
+        // the running and the result of task instance 11 end in one row update
+        List<TaskInstance> taskInstances = taskInstancesCaptor.getValue();
+        Assert.assertEquals(2, taskInstances.size());
+        Assert.assertEquals(ExecutionStatus.SUCCESS, taskInstances.get(0).getState());
+        Assert.assertEquals(ExecutionStatus.RUNNING_EXECUTION, taskInstances.get(1).getState());
+
+        List<Command> acks = ackCaptor.getAllValues();
+        Assert.assertEquals(CommandType.TASK_EXECUTE_RUNNING_ACK, acks.get(0).getType());
+        Assert.assertEquals(CommandType.TASK_EXECUTE_RESPONSE_ACK, acks.get(1).getType());
+        Assert.assertEquals(21, acks.get(2).deserializeBody(TaskExecuteRunningAckCommand.class).getTaskInstanceId());
+
+        ArgumentCaptor<StateEvent> stateEventCaptor = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.times(3)).submitStateEvent(stateEventCaptor.capture());
+        Assert.assertEquals(ExecutionStatus.RUNNING_EXECUTION, stateEventCaptor.getAllValues().get(0).getExecutionStatus());
+        Assert.assertEquals(ExecutionStatus.SUCCESS, stateEventCaptor.getAllValues().get(1).getExecutionStatus());
+        Mockito.verify(processService, Mockito.never()).saveTaskInstance(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testCommitFallsBackToSingleUpdates() {
+        Mockito.doThrow(new RuntimeException("batch failed")).when(processService).updateTaskInstances(ArgumentMatchers.anyList());
+        Mockito.when(processService.saveTaskInstance(ArgumentMatchers.argThat(taskInstance -> taskInstance.getId() == 21)))
+                .thenThrow(new RuntimeException("row failed"));
+        firstProcessInstance.addEvent(newResultEvent(1, 11));
+        secondProcessInstance.addEvent(newResultEvent(2, 21));
+
+        TaskEventBatch batch = new TaskEventBatch(processService, workflowExecuteThreadPool);
+        firstProcessInstance.drainTo(batch);
+        secondProcessInstance.drainTo(batch);
+        batch.commit();
+
+        Mockito.verify(processService, Mockito.times(2)).saveTaskInstance(ArgumentMatchers.any());
+        ArgumentCaptor<Command> ackCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel, Mockito.times(2)).writeAndFlush(ackCaptor.capture());
+        TaskExecuteResponseAckCommand succeeded = ackCaptor.getAllValues().get(0).deserializeBody(TaskExecuteResponseAckCommand.class);
+        Assert.assertEquals(ExecutionStatus.SUCCESS.getCode(), succeeded.getStatus());
+        TaskExecuteResponseAckCommand failed = ackCaptor.getAllValues().get(1).deserializeBody(TaskExecuteResponseAckCommand.class);
+        Assert.assertEquals(ExecutionStatus.FAILURE.getCode(), failed.getStatus());
+    }
+
+    private TaskExecuteThread newTaskExecuteThread(int processInstanceId) {
+        return new TaskExecuteThread(processInstanceId, processService, workflowExecuteThreadPool,
+                processInstanceExecCacheManager, dataQualityResultOperator);
+    }
+
+    private TaskEvent newRunningEvent(int processInstanceId, int taskInstanceId) {
+        TaskExecuteRunningCommand command = new TaskExecuteRunningCommand();
+        command.setProcessInstanceId(processInstanceId);
+        command.setTaskInstanceId(taskInstanceId);
+        command.setStatus(ExecutionStatus.RUNNING_EXECUTION.getCode());
+        command.setStartTime(new Date());
+        return TaskEvent.newRunningEvent(command, channel);
+    }
+
+    private TaskEvent newResultEvent(int processInstanceId, int taskInstanceId) {
+        TaskExecuteResponseCommand command = new TaskExecuteResponseCommand();
+        command.setProcessInstanceId(processInstanceId);
+        command.setTaskInstanceId(taskInstanceId);
+        command.setStatus(ExecutionStatus.SUCCESS.getCode());
+        command.setEndTime(new Date());
+        return TaskEvent.newResultEvent(command, channel);
+    }
+}
@@ -17,18 +17,27 @@
 
 package org.apache.dolphinscheduler.server.master.registry;
 
+import org.apache.dolphinscheduler.common.enums.NodeType;
+import org.apache.dolphinscheduler.common.utils.HeartBeat;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.mapper.WorkerGroupMapper;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.Event.Type;
 import org.apache.dolphinscheduler.service.registry.RegistryClient;
 
+import java.util.Collections;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 /**
  * server node manager test
@@ -57,4 +66,64 @@ public class ServerNodeManagerTest {
         //serverNodeManager.getWorkerGroupNodes()
     }
 
+    @Test
+    public void testWorkerDataListenerAppliesEventsIncrementally() {
+        RegistryClient registryClient = PowerMockito.mock(RegistryClient.class);
+        PowerMockito.when(registryClient.isWorkerPath(Mockito.anyString())).thenReturn(true);
+        ServerNodeManager manager = new ServerNodeManager();
+        Whitebox.setInternalState(manager, "registryClient", registryClient);
+        Whitebox.setInternalState(manager, "alertDao", alertDao);
+        ServerNodeManager.WorkerDataListener listener = manager.new WorkerDataListener();
+
+        String heartBeat = new HeartBeat(1L, 1, 1).encodeBinary();
+        listener.notify(new Event(null, "/nodes/worker/default/127.0.0.1:1234", heartBeat, Type.ADD));
+        listener.notify(new Event(null, "/nodes/worker/other/127.0.0.1:1234", heartBeat, Type.ADD));
+        Assert.assertEquals(Collections.singleton("127.0.0.1:1234"), manager.getWorkerGroupNodes("default"));
+        Assert.assertEquals(heartBeat, manager.getWorkerNodeInfo("127.0.0.1:1234"));
+
+        String updatedHeartBeat = new HeartBeat(2L, 1, 1).encodeBinary();
+        listener.notify(new Event(null, "/nodes/worker/default/127.0.0.1:1234", updatedHeartBeat, Type.UPDATE));
+        Assert.assertEquals(updatedHeartBeat, manager.getWorkerNodeInfo("127.0.0.1:1234"));
+
+        // the node info is kept while the node is still in another group
+        listener.notify(new Event(null, "/nodes/worker/default/127.0.0.1:1234", null, Type.REMOVE));
+        Assert.assertTrue(manager.getWorkerGroupNodes("default").isEmpty());
+        Assert.assertEquals(updatedHeartBeat, manager.getWorkerNodeInfo("127.0.0.1:1234"));
+        listener.notify(new Event(null, "/nodes/worker/other/127.0.0.1:1234", null, Type.REMOVE));
+        Assert.assertNull(manager.getWorkerNodeInfo("127.0.0.1:1234"));
+
+        // no registry read is needed to apply the events
+        Mockito.verify(registryClient, Mockito.never()).getWorkerGroupNodesDirectly(Mockito.anyString());
+        Mockito.verify(registryClient, Mockito.never()).getServerMaps(Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testWorkerNodeInfoAndGroupDbSyncTaskReconcilesWithRegistry() {
+        RegistryClient registryClient = PowerMockito.mock(RegistryClient.class);
+        PowerMockito.when(registryClient.isWorkerPath(Mockito.anyString())).thenReturn(true);
+        ServerNodeManager manager = new ServerNodeManager();
+        Whitebox.setInternalState(manager, "registryClient", registryClient);
+        Whitebox.setInternalState(manager, "alertDao", alertDao);
+        Whitebox.setInternalState(manager, "workerGroupMapper", workerGroupMapper);
+        ServerNodeManager.WorkerDataListener listener = manager.new WorkerDataListener();
+
+        String heartBeat = new HeartBeat(1L, 1, 1).encodeBinary();
+        listener.notify(new Event(null, "/nodes/worker/default/127.0.0.1:1234", heartBeat, Type.ADD));
+        listener.notify(new Event(null, "/nodes/worker/gone/127.0.0.1:1235", heartBeat, Type.ADD));
+
+        // the remove event of 127.0.0.1:1234 and the add event of 127.0.0.1:1236 are missed
+        String otherHeartBeat = new HeartBeat(2L, 1, 1).encodeBinary();
+        PowerMockito.when(registryClient.getServerMaps(NodeType.WORKER, true))
+                .thenReturn(Collections.singletonMap("127.0.0.1:1236", otherHeartBeat));
+        PowerMockito.when(registryClient.getWorkerGroupDirectly()).thenReturn(Collections.singletonList("default"));
+        PowerMockito.when(registryClient.getWorkerGroupNodesDirectly("default")).thenReturn(Collections.singletonList("127.0.0.1:1236"));
+        Mockito.when(workerGroupMapper.queryAllWorkerGroup()).thenReturn(Collections.emptyList());
+        manager.new WorkerNodeInfoAndGroupDbSyncTask().run();
+
+        Assert.assertEquals(Collections.singleton("127.0.0.1:1236"), manager.getWorkerGroupNodes("default"));
+        Assert.assertNull(manager.getWorkerGroupNodes("gone"));
+        Assert.assertNull(manager.getWorkerNodeInfo("127.0.0.1:1234"));
+        Assert.assertEquals(otherHeartBeat, manager.getWorkerNodeInfo("127.0.0.1:1236"));
+    }
+
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DependentTaskIndexTest {
+
+    private static final long UPSTREAM_DEFINITION_CODE = 2L;
+
+    private static final long UPSTREAM_TASK_CODE = 20L;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    @InjectMocks
+    private DependentTaskIndex dependentTaskIndex;
+
+    @Test
+    public void testWakeUpByTaskInstance() {
+        ProcessInstance processInstance = processInstance(100, 1L);
+        TaskInstance taskInstance = taskInstance(1000, 10L);
+        dependentTaskIndex.register(processInstance, taskInstance,
+                Collections.singletonList(dependentItem(UPSTREAM_TASK_CODE)), new Date());
+        Assert.assertEquals(1, dependentTaskIndex.size());
+
+        ProcessInstance upstreamProcessInstance = processInstance(200, UPSTREAM_DEFINITION_CODE);
+        dependentTaskIndex.taskInstanceFinished(upstreamProcessInstance, taskInstance(2000, 21L));
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+
+        dependentTaskIndex.taskInstanceFinished(upstreamProcessInstance, taskInstance(2001, UPSTREAM_TASK_CODE));
+        ArgumentCaptor<StateEvent> stateEvent = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(stateEvent.capture());
+        Assert.assertEquals(100, stateEvent.getValue().getProcessInstanceId());
+        Assert.assertEquals(1000, stateEvent.getValue().getTaskInstanceId());
+        Assert.assertEquals(10L, stateEvent.getValue().getTaskCode());
+    }
+
+    @Test
+    public void testWakeUpByProcessInstance() {
+        ProcessInstance processInstance = processInstance(100, 1L);
+        TaskInstance taskInstance = taskInstance(1000, 10L);
+        dependentTaskIndex.register(processInstance, taskInstance,
+                Arrays.asList(dependentItem(Constants.DEPENDENT_ALL_TASK_CODE), dependentItem(UPSTREAM_TASK_CODE)), new Date());
+
+        ProcessInstance upstreamProcessInstance = processInstance(200, UPSTREAM_DEFINITION_CODE);
+        dependentTaskIndex.processInstanceFinished(processInstance(300, 3L));
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+
+        // woken up once for the two dependent items
+        dependentTaskIndex.processInstanceFinished(upstreamProcessInstance);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.times(1)).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testNotInDateInterval() {
+        ProcessInstance processInstance = processInstance(100, 1L);
+        TaskInstance taskInstance = taskInstance(1000, 10L);
+        dependentTaskIndex.register(processInstance, taskInstance,
+                Collections.singletonList(dependentItem(Constants.DEPENDENT_ALL_TASK_CODE)), new Date());
+
+        ProcessInstance upstreamProcessInstance = processInstance(200, UPSTREAM_DEFINITION_CODE);
+        upstreamProcessInstance.setScheduleTime(new Date(System.currentTimeMillis() - 3 * Constants.SLEEP_TIME_MILLIS * 86400));
+        dependentTaskIndex.processInstanceFinished(upstreamProcessInstance);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testUnregister() {
+        ProcessInstance processInstance = processInstance(100, 1L);
+        TaskInstance taskInstance = taskInstance(1000, 10L);
+        dependentTaskIndex.register(processInstance, taskInstance,
+                Collections.singletonList(dependentItem(UPSTREAM_TASK_CODE)), new Date());
+        dependentTaskIndex.unregister(processInstance, taskInstance);
+        Assert.assertEquals(0, dependentTaskIndex.size());
+
+        dependentTaskIndex.processInstanceFinished(processInstance(200, UPSTREAM_DEFINITION_CODE));
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+    }
+
+    private ProcessInstance processInstance(int id, long definitionCode) {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(id);
+        processInstance.setProcessDefinitionCode(definitionCode);
+        processInstance.setScheduleTime(new Date());
+        return processInstance;
+    }
+
+    private TaskInstance taskInstance(int id, long taskCode) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setTaskCode(taskCode);
+        taskInstance.setTaskDefinitionVersion(1);
+        return taskInstance;
+    }
+
+    private DependentItem dependentItem(long depTaskCode) {
+        DependentItem dependentItem = new DependentItem();
+        dependentItem.setDefinitionCode(UPSTREAM_DEFINITION_CODE);
+        dependentItem.setDepTaskCode(depTaskCode);
+        dependentItem.setCycle("day");
+        dependentItem.setDateValue("today");
+        return dependentItem;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskDependencyTrackerTest {
+
+    /**
+     * 1 -> 2(forbidden) -> 4, 1 -> 3 -> 4, 4 -> 5(conditions) -> 6
+     */
+    private DAG<String, TaskNode, TaskNodeRelation> buildDag() {
+        DAG<String, TaskNode, TaskNodeRelation> dag = new DAG<>();
+        addNode(dag, 1L, null);
+        addNode(dag, 2L, null, 1L);
+        addNode(dag, 3L, null, 1L);
+        addNode(dag, 4L, null, 2L, 3L);
+        addNode(dag, 5L, "CONDITIONS", 4L);
+        addNode(dag, 6L, null, 5L);
+        return dag;
+    }
+
+    private void addNode(DAG<String, TaskNode, TaskNodeRelation> dag, long code, String type, long... depCodes) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setCode(code);
+        taskNode.setType(type == null ? "SHELL" : type);
+        String[] depList = new String[depCodes.length];
+        for (int i = 0; i < depCodes.length; i++) {
+            depList[i] = Long.toString(depCodes[i]);
+        }
+        taskNode.setDepList(Arrays.asList(depList));
+        dag.addNode(Long.toString(code), taskNode);
+        for (String dep : depList) {
+            dag.addEdge(dep, Long.toString(code));
+        }
+    }
+
+    @Test
+    public void testForbiddenPredecessors() throws Exception {
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(), Collections.singleton(2L));
+        Assert.assertEquals(6, tracker.size());
+        Assert.assertArrayEquals(new long[] {1L, 3L}, tracker.getPredecessors(4L));
+        Assert.assertEquals(0, tracker.getPendingCount(1L));
+        Assert.assertEquals(2, tracker.getPendingCount(4L));
+
+        tracker.taskComplete(1L, true);
+        Assert.assertEquals(0, tracker.getPendingCount(3L));
+        Assert.assertEquals(1, tracker.getPendingCount(4L));
+        // a node completed again does not count down twice
+        tracker.taskComplete(1L, true);
+        Assert.assertEquals(1, tracker.getPendingCount(4L));
+
+        tracker.taskComplete(3L, true);
+        Assert.assertEquals(0, tracker.getPendingCount(4L));
+        Assert.assertFalse(tracker.isNeedCheck(4L));
+    }
+
+    @Test
+    public void testNeedCheck() throws Exception {
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(), new HashSet<>());
+        Assert.assertArrayEquals(new long[] {2L, 3L}, tracker.getPredecessors(4L));
+
+        tracker.taskComplete(2L, false);
+        Assert.assertTrue(tracker.isNeedCheck(4L));
+        Assert.assertEquals(1, tracker.getPendingCount(4L));
+
+        // the successors of a conditions task check the branch to run
+        tracker.taskComplete(5L, true);
+        Assert.assertTrue(tracker.isNeedCheck(6L));
+        Assert.assertEquals(0, tracker.getPendingCount(6L));
+    }
+
+    @Test
+    public void testSyncSkipped() throws Exception {
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(), new HashSet<>());
+        tracker.taskComplete(2L, true);
+        tracker.syncSkipped(Arrays.asList("2", "3"));
+        Assert.assertEquals(0, tracker.getPendingCount(4L));
+        Assert.assertFalse(tracker.isNeedCheck(4L));
+
+        tracker.syncSkipped(Arrays.asList("2", "3"));
+        Assert.assertEquals(0, tracker.getPendingCount(4L));
+        Assert.assertEquals(0, tracker.getPendingCount(100L));
+        Assert.assertEquals(0, tracker.getPredecessors(100L).length);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testPollExpired() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(1000, 8, 0);
+        Assert.assertTrue(timingWheel.add("a", 3500));
+        Assert.assertTrue(timingWheel.add("b", 3000));
+        Assert.assertFalse(timingWheel.add("a", 1000));
+        Assert.assertEquals(2, timingWheel.size());
+
+        Assert.assertTrue(timingWheel.pollExpired(2000).isEmpty());
+        Assert.assertEquals(Collections.singletonList("b"), timingWheel.pollExpired(3000));
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.pollExpired(4000));
+        Assert.assertTrue(timingWheel.isEmpty());
+    }
+
+    @Test
+    public void testPassedDeadline() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(1000, 8, 5000);
+        timingWheel.add("a", 1000);
+        Assert.assertTrue(timingWheel.pollExpired(5500).isEmpty());
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.pollExpired(6000));
+    }
+
+    @Test
+    public void testMultipleRounds() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(1000, 4, 0);
+        timingWheel.add("a", 2000);
+        timingWheel.add("b", 6000);
+        timingWheel.add("c", 30000);
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.pollExpired(2000));
+        Assert.assertTrue(timingWheel.pollExpired(5000).isEmpty());
+        Assert.assertEquals(Collections.singletonList("b"), timingWheel.pollExpired(7000));
+        // fell behind for more than one round
+        List<String> expired = timingWheel.pollExpired(100000);
+        Assert.assertEquals(Collections.singletonList("c"), expired);
+        Assert.assertTrue(timingWheel.isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(1000, 8, 0);
+        timingWheel.add("a", 1000);
+        timingWheel.add("b", 1000);
+        Assert.assertTrue(timingWheel.remove("a"));
+        Assert.assertFalse(timingWheel.remove("a"));
+        Assert.assertFalse(timingWheel.contains("a"));
+        Assert.assertEquals(Arrays.asList("b"), timingWheel.pollExpired(1000));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner.task;
+
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.common.thread.StripedExecutor;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.runner.StateWheelExecuteThread;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * test the dispatch of common tasks into the task priority queue
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CommonTaskProcessorDispatchTest {
+
+    private final TaskPriorityQueueImpl taskPriorityQueue = new TaskPriorityQueueImpl(1, 60000);
+
+    private final StripedExecutor workflowLanes = new StripedExecutor("WorkflowLaneTest", 1, false);
+
+    private StateWheelExecuteThread stateWheelExecuteThread;
+
+    @Before
+    public void before() {
+        ApplicationContext applicationContext = Mockito.mock(ApplicationContext.class);
+        new SpringApplicationContext().setApplicationContext(applicationContext);
+        stateWheelExecuteThread = Mockito.mock(StateWheelExecuteThread.class);
+        Mockito.when(applicationContext.getBean(MasterConfig.class)).thenReturn(new MasterConfig());
+        Mockito.when(applicationContext.getBean(TaskPriorityQueueImpl.class)).thenReturn(taskPriorityQueue);
+        Mockito.when(applicationContext.getBean(StateWheelExecuteThread.class)).thenReturn(stateWheelExecuteThread);
+    }
+
+    @After
+    public void after() {
+        workflowLanes.shutdown();
+    }
+
+    @Test
+    public void testFullWorkerGroupDoesNotStallTheLane() throws Exception {
+        Assert.assertTrue(taskPriorityQueue.offer(new TaskPriority(Priority.HIGHEST.getCode(), 99, 0, 99, "group_full")));
+
+        ProcessInstance fullProcessInstance = newProcessInstance(1);
+        TaskInstance fullTaskInstance = newTaskInstance(10, 1, "group_full");
+        CommonTaskProcessor fullProcessor = newProcessor(fullTaskInstance, fullProcessInstance);
+        CommonTaskProcessor otherProcessor = newProcessor(newTaskInstance(20, 2, "group_other"), newProcessInstance(2));
+        Assert.assertEquals(workflowLanes.laneOf(1), workflowLanes.laneOf(2));
+
+        // both workflows run on the same lane, the one of the full worker group goes first
+        CountDownLatch dispatched = new CountDownLatch(2);
+        workflowLanes.execute(1, () -> {
+            Assert.assertTrue(fullProcessor.action(TaskAction.DISPATCH));
+            dispatched.countDown();
+        });
+        workflowLanes.execute(2, () -> {
+            Assert.assertTrue(otherProcessor.action(TaskAction.DISPATCH));
+            dispatched.countDown();
+        });
+        Assert.assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(20, taskPriorityQueue.poll("group_other", 0, TimeUnit.MILLISECONDS).getTaskId());
+        Mockito.verify(stateWheelExecuteThread).addTask4DispatchCheck(fullProcessInstance, fullTaskInstance);
+
+        // the dispatch check of the state wheel dispatches the task again once its worker group has room
+        Assert.assertEquals(99, taskPriorityQueue.poll("group_full", 0, TimeUnit.MILLISECONDS).getTaskId());
+        Assert.assertTrue(fullProcessor.action(TaskAction.DISPATCH));
+        Assert.assertEquals(10, taskPriorityQueue.poll("group_full", 0, TimeUnit.MILLISECONDS).getTaskId());
+        Assert.assertEquals(0, taskPriorityQueue.size());
+    }
+
+    private CommonTaskProcessor newProcessor(TaskInstance taskInstance, ProcessInstance processInstance) {
+        CommonTaskProcessor processor = new CommonTaskProcessor() {
+            @Override
+            protected TaskExecutionContext getTaskExecutionContext(TaskInstance taskInstance) {
+                TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+                taskExecutionContext.setTaskInstanceId(taskInstance.getId());
+                taskExecutionContext.setWorkerGroup(taskInstance.getWorkerGroup());
+                return taskExecutionContext;
+            }
+        };
+        processor.init(taskInstance, processInstance);
+        return processor;
+    }
+
+    private ProcessInstance newProcessInstance(int id) {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(id);
+        processInstance.setProcessInstancePriority(Priority.MEDIUM);
+        return processInstance;
+    }
+
+    private TaskInstance newTaskInstance(int id, int processInstanceId, String workerGroup) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setName("task_" + id);
+        taskInstance.setProcessInstanceId(processInstanceId);
+        taskInstance.setProcessInstancePriority(Priority.MEDIUM);
+        taskInstance.setWorkerGroup(workerGroup);
+        taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
+        return taskInstance;
+    }
+}
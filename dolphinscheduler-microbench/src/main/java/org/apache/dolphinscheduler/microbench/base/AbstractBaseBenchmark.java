@@ -51,7 +51,7 @@ public abstract class AbstractBaseBenchmark {
 
     private static Logger logger = LoggerFactory.getLogger(AbstractBaseBenchmark.class);
 
-    private ChainedOptionsBuilder newOptionsBuilder() {
+    protected ChainedOptionsBuilder newOptionsBuilder() {
 
         String className = getClass().getSimpleName();
 
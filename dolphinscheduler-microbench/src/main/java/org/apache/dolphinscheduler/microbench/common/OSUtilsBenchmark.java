@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oshi.SystemInfo;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+
+/**
+ * cost of reading the system metrics for a heartbeat and of the resource check before every scheduling loop,
+ * sampling oshi and the os bean on every call as OSUtils did before vs reading the samples of the background collector.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OSUtilsBenchmark extends AbstractBaseBenchmark {
+
+    private static final HardwareAbstractionLayer HAL = new SystemInfo().getHardware();
+
+    private static final String TWO_DECIMAL = "0.00";
+
+    @Benchmark
+    public double onDemandHeartBeatMetrics() {
+        return onDemandMemoryUsage() + onDemandAvailablePhysicalMemorySize() + onDemandLoadAverage();
+    }
+
+    @Benchmark
+    public double cachedHeartBeatMetrics() {
+        return OSUtils.memoryUsage() + OSUtils.availablePhysicalMemorySize() + OSUtils.loadAverage() + OSUtils.cpuUsage();
+    }
+
+    @Benchmark
+    public boolean onDemandCheckResource() {
+        return onDemandLoadAverage() < Double.MAX_VALUE && onDemandAvailablePhysicalMemorySize() > 0;
+    }
+
+    @Benchmark
+    public boolean cachedCheckResource() {
+        return OSUtils.checkResource(Double.MAX_VALUE, 0);
+    }
+
+    private static double onDemandMemoryUsage() {
+        GlobalMemory memory = HAL.getMemory();
+        return twoDecimal((memory.getTotal() - memory.getAvailable()) * 1.0 / memory.getTotal());
+    }
+
+    private static double onDemandAvailablePhysicalMemorySize() {
+        return twoDecimal(HAL.getMemory().getAvailable() / 1024.0 / 1024 / 1024);
+    }
+
+    private static double onDemandLoadAverage() {
+        return twoDecimal(ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class).getSystemLoadAverage());
+    }
+
+    private static double twoDecimal(double value) {
+        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
+        df.setRoundingMode(RoundingMode.HALF_UP);
+        return Double.parseDouble(df.format(value));
+    }
+}
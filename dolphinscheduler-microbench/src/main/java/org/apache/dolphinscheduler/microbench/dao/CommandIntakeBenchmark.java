@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.dao;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * master command intake benchmark against an in-memory h2 t_ds_command,
+ * the former modulo slot query `id % masterCount = slot` vs
+ * the claim of CommandMapper.queryUnclaimedCommands/claimCommands,
+ * with growing command backlog and master count.
+ * idStep is the auto_increment_increment of the database, a multi-primary mysql cluster
+ * gives the ids of the commands inserted on one node the same remainder, leaving the slots of other masters empty.
+ * every intake is done by the next master in turn, claimed commands are released afterwards
+ * (instead of being deleted as handleCommand does) to keep the backlog stable.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandIntakeBenchmark extends AbstractBaseBenchmark {
+
+    private static final int FETCH_COMMAND_NUM = 10;
+
+    private static final String MOD_SLOT_SQL = "select * from t_ds_command where id % ? = ? "
+            + "order by process_instance_priority, id asc limit ? offset 0";
+
+    private static final String UNCLAIMED_SQL = "select * from t_ds_command where host = '' "
+            + "order by host, process_instance_priority, id asc limit ?";
+
+    private static final String CLAIMED_SQL = "select * from t_ds_command where host = ? "
+            + "order by host, process_instance_priority, id asc limit ?";
+
+    private static final String RELEASE_SQL = "update t_ds_command set host = '' where host = ?";
+
+    @Param({"1", "3", "8"})
+    private int masterCount;
+
+    @Param({"10000", "200000"})
+    private int backlog;
+
+    @Param({"1", "3"})
+    private int idStep;
+
+    private Connection connection;
+
+    private PreparedStatement modSlotStatement;
+
+    private PreparedStatement unclaimedStatement;
+
+    private PreparedStatement claimedStatement;
+
+    private PreparedStatement releaseStatement;
+
+    private int slot;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        // h2 would answer the repeated reads of the unchanged table with the previous result without running them
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_ds_command ("
+                    + "id int not null auto_increment, "
+                    + "process_definition_code bigint, "
+                    + "command_param varchar(255), "
+                    + "process_instance_priority int, "
+                    + "host varchar(135) not null default '', "
+                    + "primary key (id))");
+            statement.execute("create index priority_id_index on t_ds_command (process_instance_priority, id)");
+            statement.execute("create index host_priority_id_index on t_ds_command (host, process_instance_priority, id)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into t_ds_command "
+                + "(id, process_definition_code, command_param, process_instance_priority) values (?, ?, ?, ?)")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < backlog; i++) {
+                insert.setInt(1, 1 + i * idStep);
+                insert.setLong(2, random.nextLong(1000));
+                insert.setString(3, "{}");
+                insert.setInt(4, random.nextInt(5));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        modSlotStatement = connection.prepareStatement(MOD_SLOT_SQL);
+        unclaimedStatement = connection.prepareStatement(UNCLAIMED_SQL);
+        claimedStatement = connection.prepareStatement(CLAIMED_SQL);
+        releaseStatement = connection.prepareStatement(RELEASE_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        modSlotStatement.close();
+        unclaimedStatement.close();
+        claimedStatement.close();
+        releaseStatement.close();
+        connection.close();
+    }
+
+    private int nextSlot() {
+        slot = (slot + 1) % masterCount;
+        return slot;
+    }
+
+    @Benchmark
+    public int modSlotIntake() throws SQLException {
+        int thisMasterSlot = nextSlot();
+        modSlotStatement.setInt(1, masterCount);
+        modSlotStatement.setInt(2, thisMasterSlot);
+        modSlotStatement.setInt(3, FETCH_COMMAND_NUM);
+        return consume(modSlotStatement);
+    }
+
+    @Benchmark
+    public int claimIntake() throws SQLException {
+        String host = "192.168.0." + nextSlot() + ":5678";
+        unclaimedStatement.setInt(1, FETCH_COMMAND_NUM);
+        List<Integer> ids = new ArrayList<>(FETCH_COMMAND_NUM);
+        int result = 0;
+        try (ResultSet resultSet = unclaimedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt("id"));
+                result += resultSet.getInt("id");
+            }
+        }
+        if (ids.isEmpty()) {
+            return result;
+        }
+        int claimedCount;
+        StringBuilder claimSql = new StringBuilder("update t_ds_command set host = ? where host = '' and id in (");
+        for (int i = 0; i < ids.size(); i++) {
+            claimSql.append(i == 0 ? "?" : ",?");
+        }
+        claimSql.append(')');
+        try (PreparedStatement claimStatement = connection.prepareStatement(claimSql.toString())) {
+            claimStatement.setString(1, host);
+            for (int i = 0; i < ids.size(); i++) {
+                claimStatement.setInt(i + 2, ids.get(i));
+            }
+            claimedCount = claimStatement.executeUpdate();
+        }
+        if (claimedCount != ids.size()) {
+            claimedStatement.setString(1, host);
+            claimedStatement.setInt(2, FETCH_COMMAND_NUM);
+            result = consume(claimedStatement);
+        }
+
+        releaseStatement.setString(1, host);
+        releaseStatement.executeUpdate();
+        return result;
+    }
+
+    private int consume(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count += resultSet.getInt("id");
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.dao;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * process instance list benchmark against an in-memory h2 t_ds_process_instance,
+ * the offset page of ProcessInstanceMapper.queryProcessInstanceListPaging (with the count query of the page)
+ * vs the keyset page of ProcessInstanceMapper.queryProcessInstanceListByKeyset after the same number of skipped pages,
+ * and the substring vs prefix name search of the first page, for a whole project or a single process definition.
+ * the dataset is generated in the trial setup, run with -p rows=10000000 and a large heap for a 10M rows dataset.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InstanceListPagingBenchmark extends AbstractBaseBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final int PROJECT_NUM = 10;
+
+    private static final int DEFINITION_NUM = 100;
+
+    private static final long PROJECT_CODE = 1;
+
+    private static final long DEFINITION_CODE = PROJECT_CODE + PROJECT_NUM;
+
+    private static final String SEARCH_VAL = "process" + DEFINITION_CODE + "-";
+
+    private static final String FROM_SQL = "from t_ds_process_instance instance "
+            + "join t_ds_process_definition define on instance.process_definition_code = define.code "
+            + "where instance.is_sub_process = 0 and define.project_code = ? ";
+
+    private static final String SELECT_SQL = "select instance.id, instance.name, instance.process_definition_code, instance.state, "
+            + "instance.start_time, instance.end_time, instance.host, instance.executor_id ";
+
+    private static final String DEFINITION_SQL = "and instance.process_definition_code = ? ";
+
+    @Param({"200000", "1000000"})
+    private int rows;
+
+    @Param({"1", "100"})
+    private int skippedPages;
+
+    @Param({"false", "true"})
+    private boolean byDefinition;
+
+    private Connection connection;
+
+    private PreparedStatement countStatement;
+
+    private PreparedStatement offsetStatement;
+
+    private PreparedStatement keysetStatement;
+
+    private PreparedStatement substringSearchStatement;
+
+    private PreparedStatement prefixSearchStatement;
+
+    private Timestamp lastStartTime;
+
+    private int lastId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        // h2 would answer the repeated reads of the unchanged tables with the previous result without running them
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_ds_process_definition ("
+                    + "id int not null auto_increment, "
+                    + "code bigint not null, "
+                    + "name varchar(255), "
+                    + "project_code bigint not null, "
+                    + "primary key (id), "
+                    + "unique (code))");
+            statement.execute("create table t_ds_process_instance ("
+                    + "id int not null auto_increment, "
+                    + "name varchar(255), "
+                    + "process_definition_code bigint not null, "
+                    + "state tinyint, "
+                    + "start_time datetime, "
+                    + "end_time datetime, "
+                    + "host varchar(135), "
+                    + "is_sub_process int default 0, "
+                    + "executor_id int not null, "
+                    + "primary key (id))");
+            statement.execute("create index process_instance_index on t_ds_process_instance (process_definition_code, id)");
+            statement.execute("create index start_time_index on t_ds_process_instance (start_time, end_time)");
+            statement.execute("create index start_time_id_index on t_ds_process_instance (start_time, id)");
+            statement.execute("create index process_definition_start_time_index on t_ds_process_instance "
+                    + "(process_definition_code, start_time, id)");
+            statement.execute("create index process_instance_name_index on t_ds_process_instance (name)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into t_ds_process_definition "
+                + "(code, name, project_code) values (?, ?, ?)")) {
+            for (int i = 0; i < DEFINITION_NUM; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "process" + i);
+                insert.setLong(3, i % PROJECT_NUM);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into t_ds_process_instance "
+                + "(name, process_definition_code, state, start_time, end_time, host, executor_id) values (?, ?, ?, ?, ?, ?, ?)")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long time = System.currentTimeMillis() - rows * 1000L;
+            for (int i = 0; i < rows; i++) {
+                // instances of the same second share a start time, like the instances of one schedule
+                time += random.nextInt(2) * 1000L;
+                int definitionCode = random.nextInt(DEFINITION_NUM);
+                insert.setString(1, "process" + definitionCode + "-1-" + time);
+                insert.setLong(2, definitionCode);
+                insert.setInt(3, random.nextInt(8));
+                insert.setTimestamp(4, new Timestamp(time));
+                insert.setTimestamp(5, new Timestamp(time + random.nextInt(60000)));
+                insert.setString(6, "192.168.0." + random.nextInt(20) + ":5678");
+                insert.setInt(7, 1);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+        String filterSql = FROM_SQL + (byDefinition ? DEFINITION_SQL : "");
+        countStatement = connection.prepareStatement("select count(*) " + filterSql);
+        offsetStatement = connection.prepareStatement(SELECT_SQL + filterSql
+                + "order by instance.start_time desc, instance.end_time desc limit ? offset ?");
+        keysetStatement = connection.prepareStatement(SELECT_SQL + filterSql
+                + "and instance.start_time <= ? and (instance.start_time < ? or instance.id < ?) "
+                + "order by instance.start_time desc, instance.id desc limit ?");
+        substringSearchStatement = connection.prepareStatement(SELECT_SQL + filterSql
+                + "and instance.name like concat('%', ?, '%') order by instance.start_time desc, instance.id desc limit ?");
+        prefixSearchStatement = connection.prepareStatement(SELECT_SQL + filterSql
+                + "and instance.name like ? order by instance.start_time desc, instance.id desc limit ?");
+
+        // the cursor a client holds after paging through the skipped pages with the keyset query
+        try (PreparedStatement cursor = connection.prepareStatement(SELECT_SQL + filterSql
+                + "order by instance.start_time desc, instance.id desc limit 1 offset ?")) {
+            int index = bindFilter(cursor);
+            cursor.setInt(index, skippedPages * PAGE_SIZE - 1);
+            try (ResultSet resultSet = cursor.executeQuery()) {
+                resultSet.next();
+                lastId = resultSet.getInt("id");
+                lastStartTime = resultSet.getTimestamp("start_time");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        countStatement.close();
+        offsetStatement.close();
+        keysetStatement.close();
+        substringSearchStatement.close();
+        prefixSearchStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int offsetPage() throws SQLException {
+        bindFilter(countStatement);
+        int count;
+        try (ResultSet resultSet = countStatement.executeQuery()) {
+            resultSet.next();
+            count = resultSet.getInt(1);
+        }
+        int index = bindFilter(offsetStatement);
+        offsetStatement.setInt(index, PAGE_SIZE);
+        offsetStatement.setInt(index + 1, skippedPages * PAGE_SIZE);
+        return count + consume(offsetStatement);
+    }
+
+    @Benchmark
+    public int keysetPage() throws SQLException {
+        int index = bindFilter(keysetStatement);
+        keysetStatement.setTimestamp(index, lastStartTime);
+        keysetStatement.setTimestamp(index + 1, lastStartTime);
+        keysetStatement.setInt(index + 2, lastId);
+        keysetStatement.setInt(index + 3, PAGE_SIZE);
+        return consume(keysetStatement);
+    }
+
+    @Benchmark
+    public int substringSearch() throws SQLException {
+        int index = bindFilter(substringSearchStatement);
+        substringSearchStatement.setString(index, SEARCH_VAL);
+        substringSearchStatement.setInt(index + 1, PAGE_SIZE);
+        return consume(substringSearchStatement);
+    }
+
+    @Benchmark
+    public int prefixSearch() throws SQLException {
+        int index = bindFilter(prefixSearchStatement);
+        prefixSearchStatement.setString(index, SEARCH_VAL + "%");
+        prefixSearchStatement.setInt(index + 1, PAGE_SIZE);
+        return consume(prefixSearchStatement);
+    }
+
+    private int bindFilter(PreparedStatement statement) throws SQLException {
+        statement.setLong(1, PROJECT_CODE);
+        if (!byDefinition) {
+            return 2;
+        }
+        statement.setLong(2, DEFINITION_CODE);
+        return 3;
+    }
+
+    private int consume(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count += resultSet.getInt("id");
+            }
+        }
+        return count;
+    }
+}
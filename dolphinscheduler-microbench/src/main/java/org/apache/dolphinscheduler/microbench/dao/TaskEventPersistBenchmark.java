@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.dao;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * master task event persistence benchmark against a h2 t_ds_task_instance, in events per second:
+ * one auto committed row update per event as TaskExecuteThread did before, vs
+ * the micro batches of TaskEventBatch, one jdbc batch and one commit per batchSize events.
+ * commits cost nothing in memory, the file database writes every commit to disk like a real database does.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskEventPersistBenchmark extends AbstractBaseBenchmark {
+
+    private static final int EVENTS = 1000;
+
+    private static final int TASK_INSTANCES = 10000;
+
+    private static final String UPDATE_SQL = "update t_ds_task_instance set state = ?, host = ?, log_path = ?, "
+            + "execute_path = ?, pid = ?, start_time = ?, end_time = ? where id = ?";
+
+    @Param({"10", "100"})
+    private int batchSize;
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    private Path databaseDir;
+
+    private Connection connection;
+
+    private PreparedStatement updateStatement;
+
+    private int nextTaskInstanceId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException, IOException {
+        if ("file".equals(storage)) {
+            databaseDir = Files.createTempDirectory("task-event-persist");
+            connection = DriverManager.getConnection("jdbc:h2:file:" + databaseDir.resolve("ds") + ";WRITE_DELAY=0");
+        } else {
+            connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_ds_task_instance ("
+                    + "id int not null auto_increment, "
+                    + "name varchar(255), "
+                    + "state tinyint, "
+                    + "host varchar(135), "
+                    + "log_path varchar(255), "
+                    + "execute_path varchar(255), "
+                    + "pid int, "
+                    + "start_time timestamp, "
+                    + "end_time timestamp, "
+                    + "process_instance_id int, "
+                    + "primary key (id))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into t_ds_task_instance "
+                + "(name, state, process_instance_id) values (?, ?, ?)")) {
+            for (int i = 0; i < TASK_INSTANCES; i++) {
+                insert.setString(1, "task-" + i);
+                insert.setInt(2, 0);
+                insert.setInt(3, i / 10);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        updateStatement = connection.prepareStatement(UPDATE_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        updateStatement.close();
+        connection.close();
+        if (databaseDir != null) {
+            try (Stream<Path> files = Files.walk(databaseDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void perEventUpdate() throws SQLException {
+        connection.setAutoCommit(true);
+        for (int i = 0; i < EVENTS; i++) {
+            bind(i);
+            updateStatement.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batchedUpdate() throws SQLException {
+        connection.setAutoCommit(false);
+        for (int i = 0; i < EVENTS; i++) {
+            bind(i);
+            updateStatement.addBatch();
+            if ((i + 1) % batchSize == 0) {
+                updateStatement.executeBatch();
+                connection.commit();
+            }
+        }
+        updateStatement.executeBatch();
+        connection.commit();
+    }
+
+    private void bind(int event) throws SQLException {
+        nextTaskInstanceId = nextTaskInstanceId % TASK_INSTANCES + 1;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        updateStatement.setInt(1, event % 2 == 0 ? 1 : 7);
+        updateStatement.setString(2, "192.168.0.1:1234");
+        updateStatement.setString(3, "/logs/" + nextTaskInstanceId + ".log");
+        updateStatement.setString(4, "/exec/" + nextTaskInstanceId);
+        updateStatement.setInt(5, event);
+        updateStatement.setTimestamp(6, now);
+        updateStatement.setTimestamp(7, now);
+        updateStatement.setInt(8, nextTaskInstanceId);
+    }
+}
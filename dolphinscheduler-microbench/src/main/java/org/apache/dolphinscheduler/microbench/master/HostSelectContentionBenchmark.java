@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.master;
+
+import org.apache.dolphinscheduler.common.utils.HeartBeat;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
+import org.apache.dolphinscheduler.server.master.dispatch.host.CommonHostManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.LowerWeightHostManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * host selection of LowerWeightHostManager by 32 threads,
+ * the host weights map guarded by a lock vs the immutable snapshot.
+ * the refresh benchmarks compare rebuilding the host weights by decoding all heartbeats as before
+ * vs rebuilding the snapshot on worker info change, which only decodes the changed heartbeats.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HostSelectContentionBenchmark extends AbstractBaseBenchmark {
+
+    private static final String WORKER_GROUP = "default";
+
+    private static final int WORKERS = 20;
+
+    private Map<String, Set<String>> workerGroupNodes;
+
+    private Map<String, String> workerNodeInfo;
+
+    private ExecutionContext context;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Map<String, Set<HostWeight>> lockedHostWeightsMap = new HashMap<>();
+
+    private final LowerWeightRoundRobin selector = new LowerWeightRoundRobin();
+
+    private LowerWeightHostManager lowerWeightHostManager;
+
+    @Setup
+    public void setUp() throws Exception {
+        Set<String> nodes = new HashSet<>();
+        workerNodeInfo = new HashMap<>();
+        for (int i = 0; i < WORKERS; i++) {
+            String node = "192.168.1." + i + ":1234";
+            HeartBeat heartBeat = new HeartBeat(System.currentTimeMillis(), 10, 0.1, 100, 100);
+            heartBeat.setCpuUsage(0.01 * i);
+            heartBeat.setMemoryUsage(0.01 * i);
+            nodes.add(node);
+            workerNodeInfo.put(node, heartBeat.encodeHeartBeat());
+        }
+        workerGroupNodes = Collections.singletonMap(WORKER_GROUP, nodes);
+        context = new ExecutionContext(new Command(), ExecutorType.WORKER, WORKER_GROUP);
+
+        lockedRefresh();
+
+        lowerWeightHostManager = new LowerWeightHostManager();
+        Field field = CommonHostManager.class.getDeclaredField("serverNodeManager");
+        field.setAccessible(true);
+        field.set(lowerWeightHostManager, new ServerNodeManager());
+        lowerWeightHostManager.init();
+        lowerWeightHostManager.notify(workerGroupNodes, workerNodeInfo);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Host lockedSelect() {
+        Set<HostWeight> hostWeights;
+        lock.lock();
+        try {
+            hostWeights = lockedHostWeightsMap.get(WORKER_GROUP);
+        } finally {
+            lock.unlock();
+        }
+        return selector.select(hostWeights).getHost();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockedRefresh() {
+        Map<String, Set<HostWeight>> hostWeightsMap = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
+            Set<HostWeight> hostWeights = new HashSet<>();
+            for (String node : entry.getValue()) {
+                HeartBeat heartBeat = HeartBeat.decodeHeartBeat(workerNodeInfo.get(node));
+                hostWeights.add(new HostWeight(HostWorker.of(node, heartBeat.getWorkerHostWeight(), entry.getKey()),
+                        heartBeat.getCpuUsage(), heartBeat.getMemoryUsage(), heartBeat.getLoadAverage(),
+                        heartBeat.getStartupTime()));
+            }
+            hostWeightsMap.put(entry.getKey(), hostWeights);
+        }
+        lock.lock();
+        try {
+            lockedHostWeightsMap.clear();
+            lockedHostWeightsMap.putAll(hostWeightsMap);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Host snapshotSelect() {
+        return lowerWeightHostManager.select(context);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void snapshotRefresh() {
+        lowerWeightHostManager.notify(workerGroupNodes, workerNodeInfo);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.master;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.server.master.runner.TimingWheel;
+import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StateWheelExecuteThread check cost with many registered timeout checks,
+ * the ConcurrentLinkedQueue walked on every tick vs the TimingWheel polling only the due checks.
+ * deadlines are spread over one hour, every tick advances the clock by one second and
+ * re-registers the due checks one hour later to keep the registrations stable.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StateWheelTickBenchmark extends AbstractBaseBenchmark {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private static final long SPREAD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"100000"})
+    private int registrations;
+
+    private ConcurrentLinkedQueue<TaskInstanceKey> queue;
+
+    private TimingWheel<TaskInstanceKey> timingWheel;
+
+    /**
+     * the deadline the check would compute from the task instance
+     */
+    private Map<TaskInstanceKey, Long> deadlines;
+
+    private TaskInstanceKey[] keys;
+
+    private long queueNow;
+
+    private long wheelNow;
+
+    @Setup
+    public void setUp() {
+        queue = new ConcurrentLinkedQueue<>();
+        timingWheel = new TimingWheel<>(TICK_MILLIS, 512, 0);
+        deadlines = new HashMap<>();
+        keys = new TaskInstanceKey[registrations];
+        for (int i = 0; i < registrations; i++) {
+            TaskInstanceKey key = new TaskInstanceKey(i, i, 1);
+            long deadline = ThreadLocalRandom.current().nextLong(SPREAD_MILLIS) + TICK_MILLIS;
+            keys[i] = key;
+            deadlines.put(key, deadline);
+            queue.add(key);
+            timingWheel.add(key, deadline);
+        }
+        queueNow = 0;
+        wheelNow = 0;
+    }
+
+    @Benchmark
+    public int queueTick() {
+        queueNow += TICK_MILLIS;
+        int fired = 0;
+        for (TaskInstanceKey key : queue) {
+            if (deadlines.get(key) <= queueNow) {
+                queue.remove(key);
+                deadlines.put(key, queueNow + SPREAD_MILLIS);
+                queue.add(key);
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public int timingWheelTick() {
+        wheelNow += TICK_MILLIS;
+        int fired = 0;
+        for (TaskInstanceKey key : timingWheel.pollExpired(wheelNow)) {
+            timingWheel.add(key, wheelNow + SPREAD_MILLIS);
+            fired++;
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public boolean queueAddAndCancel() {
+        TaskInstanceKey key = keys[ThreadLocalRandom.current().nextInt(registrations)];
+        queue.remove(key);
+        if (!queue.contains(key)) {
+            queue.add(key);
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean timingWheelAddAndCancel() {
+        TaskInstanceKey key = keys[ThreadLocalRandom.current().nextInt(registrations)];
+        timingWheel.remove(key);
+        return timingWheel.add(key, deadlines.get(key));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.master;
+
+import org.apache.dolphinscheduler.common.thread.StripedExecutor;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+/**
+ * workflow events handled per second, every event is submitted to its workflow and the workflow is woken up:
+ * filterMap: a thread pool gated by a running filter map, a ListenableFuture and a callback per submit,
+ * the way WorkflowExecuteThreadPool and TaskExecuteThreadPool did before,
+ * striped: the StripedExecutor lane of the workflow with at most one handling queued per workflow, platform threads,
+ * virtual: the StripedExecutor lanes on virtual threads, platform threads before java 21.
+ * run with -prof gc for the allocation per event (gc.alloc.rate.norm divided by the events per invocation).
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WorkflowEventDispatchBenchmark extends AbstractBaseBenchmark {
+
+    private static final int EVENTS = 10000;
+
+    private static final int THREADS = 8;
+
+    private static final Object EVENT = new Object();
+
+    @Param({"filterMap", "striped", "virtual"})
+    private String executor;
+
+    @Param({"100", "10000"})
+    private int activeWorkflows;
+
+    private ThreadPoolTaskExecutor threadPool;
+
+    private ConcurrentHashMap<Integer, Workflow> multiThreadFilterMap;
+
+    private StripedExecutor stripedExecutor;
+
+    private Workflow[] workflows;
+
+    private final AtomicLong handledEvents = new AtomicLong();
+
+    private long submittedEvents;
+
+    @Setup
+    public void setUp() {
+        if ("filterMap".equals(executor)) {
+            threadPool = new ThreadPoolTaskExecutor();
+            threadPool.setCorePoolSize(THREADS);
+            threadPool.setMaxPoolSize(THREADS);
+            threadPool.setDaemon(true);
+            threadPool.initialize();
+            multiThreadFilterMap = new ConcurrentHashMap<>();
+        } else {
+            stripedExecutor = new StripedExecutor("bench-lane", THREADS, "virtual".equals(executor));
+        }
+        workflows = new Workflow[activeWorkflows];
+        for (int i = 0; i < activeWorkflows; i++) {
+            workflows[i] = new Workflow(i + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (threadPool != null) {
+            threadPool.shutdown();
+        }
+        if (stripedExecutor != null) {
+            stripedExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long submitAndHandle() {
+        for (int i = 0; i < EVENTS; i++) {
+            Workflow workflow = workflows[i % activeWorkflows];
+            workflow.events.add(EVENT);
+            if (stripedExecutor != null) {
+                if (workflow.handlingScheduled.compareAndSet(false, true)) {
+                    stripedExecutor.execute(workflow.id, workflow::handleEvents);
+                }
+            } else {
+                executeEvent(workflow);
+            }
+        }
+        submittedEvents += EVENTS;
+        while (handledEvents.get() < submittedEvents) {
+            LockSupport.parkNanos(1000);
+        }
+        return submittedEvents;
+    }
+
+    private void executeEvent(Workflow workflow) {
+        if (workflow.events.isEmpty()) {
+            return;
+        }
+        if (multiThreadFilterMap.putIfAbsent(workflow.id, workflow) != null) {
+            return;
+        }
+        ListenableFuture<?> future = threadPool.submitListenable(workflow::handleEvents);
+        future.addCallback(new ListenableFutureCallback<Object>() {
+            @Override
+            public void onFailure(Throwable ex) {
+                multiThreadFilterMap.remove(workflow.id);
+            }
+
+            @Override
+            public void onSuccess(Object result) {
+                multiThreadFilterMap.remove(workflow.id);
+                executeEvent(workflow);
+            }
+        });
+    }
+
+    private class Workflow {
+
+        private final int id;
+
+        private final ConcurrentLinkedQueue<Object> events = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean handlingScheduled = new AtomicBoolean(false);
+
+        Workflow(int id) {
+            this.id = id;
+        }
+
+        void handleEvents() {
+            handlingScheduled.set(false);
+            int handled = 0;
+            while (events.poll() != null) {
+                handled++;
+            }
+            handledEvents.addAndGet(handled);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.master;
+
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.impl.ProcessInstanceExecCacheManagerImpl;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThread;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * latency from submitting a state event to a workflow until the workflow handled it,
+ * with growing number of active workflows.
+ * wakeup=true: WorkflowExecuteThreadPool.submitStateEvent wakes up the workflow directly,
+ * wakeup=false: the event is only queued and picked up by a sweep over all workflows
+ * every 100ms, as the EventExecuteService used to do.
+ */
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorkflowEventLatencyBenchmark extends AbstractBaseBenchmark {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 100;
+
+    @Param({"1000", "10000", "50000"})
+    private int activeWorkflows;
+
+    @Param({"true", "false"})
+    private boolean wakeup;
+
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    private BenchWorkflowExecuteThread[] workflows;
+
+    private Thread sweeper;
+
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() throws Exception {
+        workflowExecuteThreadPool = new WorkflowExecuteThreadPool();
+        MasterConfig masterConfig = new MasterConfig();
+        masterConfig.setExecThreads(Runtime.getRuntime().availableProcessors());
+        Field masterConfigField = WorkflowExecuteThreadPool.class.getDeclaredField("masterConfig");
+        masterConfigField.setAccessible(true);
+        masterConfigField.set(workflowExecuteThreadPool, masterConfig);
+        Method init = WorkflowExecuteThreadPool.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(workflowExecuteThreadPool);
+
+        processInstanceExecCacheManager = new ProcessInstanceExecCacheManagerImpl();
+        Field field = WorkflowExecuteThreadPool.class.getDeclaredField("processInstanceExecCacheManager");
+        field.setAccessible(true);
+        field.set(workflowExecuteThreadPool, processInstanceExecCacheManager);
+
+        workflows = new BenchWorkflowExecuteThread[activeWorkflows];
+        for (int i = 0; i < activeWorkflows; i++) {
+            ProcessInstance processInstance = new ProcessInstance();
+            processInstance.setId(i + 1);
+            workflows[i] = new BenchWorkflowExecuteThread(processInstance);
+            processInstanceExecCacheManager.cache(processInstance.getId(), workflows[i]);
+        }
+
+        running = true;
+        if (!wakeup) {
+            sweeper = new Thread(this::sweep, "bench-event-sweeper");
+            sweeper.setDaemon(true);
+            sweeper.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        if (sweeper != null) {
+            sweeper.join();
+        }
+        workflowExecuteThreadPool.shutdown();
+    }
+
+    @Benchmark
+    public void submitAndHandle() throws InterruptedException {
+        BenchWorkflowExecuteThread workflow = workflows[ThreadLocalRandom.current().nextInt(activeWorkflows)];
+        StateEvent stateEvent = new StateEvent();
+        stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
+        stateEvent.setProcessInstanceId(workflow.getProcessInstance().getId());
+        CountDownLatch handled = new CountDownLatch(1);
+        workflow.expect(handled);
+        if (wakeup) {
+            workflowExecuteThreadPool.submitStateEvent(stateEvent);
+        } else {
+            workflow.addStateEvent(stateEvent);
+        }
+        handled.await();
+    }
+
+    private void sweep() {
+        while (running) {
+            for (WorkflowExecuteThread workflowExecuteThread : processInstanceExecCacheManager.getAll()) {
+                workflowExecuteThreadPool.executeEvent(workflowExecuteThread);
+            }
+            try {
+                Thread.sleep(SWEEP_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * started workflow which only acknowledges the handled events
+     */
+    private static class BenchWorkflowExecuteThread extends WorkflowExecuteThread {
+
+        private final ConcurrentLinkedQueue<StateEvent> events = new ConcurrentLinkedQueue<>();
+
+        private final String key;
+
+        private volatile CountDownLatch handled;
+
+        BenchWorkflowExecuteThread(ProcessInstance processInstance) {
+            super(processInstance, null, null, null, null, null, null, null);
+            this.key = String.valueOf(processInstance.getId());
+        }
+
+        void expect(CountDownLatch handled) {
+            this.handled = handled;
+        }
+
+        @Override
+        public boolean isStart() {
+            return true;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean addStateEvent(StateEvent stateEvent) {
+            return events.add(stateEvent);
+        }
+
+        @Override
+        public int eventSize() {
+            return events.size();
+        }
+
+        @Override
+        public void handleEvents() {
+            while (events.poll() != null) {
+                handled.countDown();
+            }
+        }
+
+        @Override
+        public boolean workFlowFinish() {
+            return false;
+        }
+    }
+}
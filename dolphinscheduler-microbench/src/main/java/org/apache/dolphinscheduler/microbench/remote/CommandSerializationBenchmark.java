@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.microbench.remote;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.remote.codec.NettyDecoder;
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * encode/decode throughput of a TaskExecuteRequestCommand frame through NettyEncoder and NettyDecoder
+ * with json vs protostuff bodies, the frame size of each serialization is logged on setup.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CommandSerializationBenchmark extends AbstractBaseBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandSerializationBenchmark.class);
+
+    @Param({"JSON", "PROTOSTUFF"})
+    private String serialization;
+
+    private SerializationType serializationType;
+
+    private TaskExecuteRequestCommand requestCommand;
+
+    private EmbeddedChannel encodeChannel;
+
+    private EmbeddedChannel decodeChannel;
+
+    private ByteBuf frame;
+
+    @Setup
+    public void setUp() {
+        serializationType = SerializationType.of(serialization);
+        requestCommand = new TaskExecuteRequestCommand(JSONUtils.toJsonString(newTaskExecutionContext()));
+        encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        decodeChannel = new EmbeddedChannel(new NettyDecoder());
+        frame = encodeFrame();
+        logger.info("TaskExecuteRequestCommand {} frame bytes: {}", serializationType, frame.readableBytes());
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+        encodeChannel.finishAndReleaseAll();
+        decodeChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode() {
+        ByteBuf buf = encodeFrame();
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public TaskExecuteRequestCommand decode() {
+        decodeChannel.writeInbound(frame.retainedDuplicate());
+        Command command = decodeChannel.readInbound();
+        return command.deserializeBody(TaskExecuteRequestCommand.class);
+    }
+
+    private ByteBuf encodeFrame() {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        command.setSerialization(serializationType);
+        command.setBody(serializationType.serialize(requestCommand));
+        encodeChannel.writeOutbound(command);
+        return encodeChannel.readOutbound();
+    }
+
+    private static TaskExecutionContext newTaskExecutionContext() {
+        TaskExecutionContext context = new TaskExecutionContext();
+        context.setTaskInstanceId(10001);
+        context.setTaskName("daily_etl_load_orders");
+        context.setFirstSubmitTime(new Date());
+        context.setStartTime(new Date());
+        context.setTaskType("SHELL");
+        context.setHost("192.168.1.10:1234");
+        context.setExecutePath("/tmp/dolphinscheduler/exec/process/1/2/3/10001");
+        context.setLogPath("/opt/dolphinscheduler/logs/2/3/10001.log");
+        context.setProcessId(0);
+        context.setProcessDefineCode(5342634645312L);
+        context.setProcessDefineVersion(3);
+        context.setProcessInstanceId(3);
+        context.setScheduleTime(new Date());
+        context.setGlobalParams("[{\"prop\":\"dt\",\"direct\":\"IN\",\"type\":\"VARCHAR\",\"value\":\"$[yyyy-MM-dd]\"}]");
+        context.setExecutorId(1);
+        context.setTenantCode("default");
+        context.setQueue("default");
+        context.setProjectCode(5342634645000L);
+        context.setTaskParams("{\"localParams\":[],\"rawScript\":\"#!/bin/bash\\necho \\\"load ${dt}\\\"\\nsleep 1\","
+                + "\"resourceList\":[]}");
+        context.setEnvFile("/opt/dolphinscheduler/conf/env/dolphinscheduler_env.sh");
+        Map<String, String> definedParams = new HashMap<>();
+        definedParams.put("dt", "2022-01-01");
+        definedParams.put("system.task.definition.name", "daily_etl_load_orders");
+        context.setDefinedParams(definedParams);
+        context.setTaskAppId("3_10001");
+        context.setTaskTimeout(Integer.MAX_VALUE);
+        context.setWorkerGroup("default");
+        context.setTaskLogName("TaskLogInfo-SHELL-5342634645312-3-3-10001");
+        context.setVarPool("[]");
+        return context;
+    }
+}
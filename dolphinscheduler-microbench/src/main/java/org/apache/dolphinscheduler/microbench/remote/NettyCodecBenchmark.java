@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.microbench.remote;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.codec.NettyDecoder;
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * NettyEncoder/NettyDecoder cost per frame, run with the gc profiler so that
+ * gc.alloc.rate.norm reports the bytes allocated per encoded or decoded command.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NettyCodecBenchmark extends AbstractBaseBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int bodySize;
+
+    private Command command;
+
+    private EmbeddedChannel encodeChannel;
+
+    private EmbeddedChannel decodeChannel;
+
+    /**
+     * encoded frame in a pooled direct buffer, as it arrives from the socket
+     */
+    private ByteBuf frame;
+
+    @Setup
+    public void setUp() {
+        byte[] body = new byte[bodySize];
+        ThreadLocalRandom.current().nextBytes(body);
+        command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        command.setBody(body);
+        encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        decodeChannel = new EmbeddedChannel(new NettyDecoder());
+
+        encodeChannel.writeOutbound(command);
+        ByteBuf encoded = encodeChannel.readOutbound();
+        frame = PooledByteBufAllocator.DEFAULT.directBuffer(encoded.readableBytes());
+        frame.writeBytes(encoded);
+        encoded.release();
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+        encodeChannel.finishAndReleaseAll();
+        decodeChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode() {
+        encodeChannel.writeOutbound(command);
+        ByteBuf buf = encodeChannel.readOutbound();
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public Command decode() {
+        decodeChannel.writeInbound(frame.retainedDuplicate());
+        Command decoded = decodeChannel.readInbound();
+
+        return decoded;
+    }
+
+    @Override
+    protected ChainedOptionsBuilder newOptionsBuilder() {
+        return super.newOptionsBuilder().addProfiler(GCProfiler.class);
+    }
+}
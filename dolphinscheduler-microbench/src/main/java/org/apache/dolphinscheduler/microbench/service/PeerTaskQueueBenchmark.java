@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.service;
+
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
+import org.apache.dolphinscheduler.service.queue.PeerTaskInstancePriorityQueue;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * one submit wave of a dag of the given width through the ready to submit queue of a workflow:
+ * every task is checked by contains and put, then checked again and removed in submit order,
+ * the way WorkflowExecuteThread adds tasks to and removes them from the standby list.
+ * linear: java.util.PriorityQueue with a scanning contains, the way PeerTaskInstancePriorityQueue was before,
+ * indexed: PeerTaskInstancePriorityQueue.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PeerTaskQueueBenchmark extends AbstractBaseBenchmark {
+
+    @Param({"linear", "indexed"})
+    private String queue;
+
+    @Param({"100", "1000", "10000"})
+    private int width;
+
+    private TaskInstance[] taskInstances;
+
+    private TaskInstance[] submitOrder;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        Priority[] priorities = Priority.values();
+        taskInstances = new TaskInstance[width];
+        for (int i = 0; i < width; i++) {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setTaskCode(1000000L + i);
+            taskInstance.setTaskDefinitionVersion(1);
+            taskInstance.setTaskInstancePriority(priorities[random.nextInt(priorities.length)]);
+            taskInstances[i] = taskInstance;
+        }
+        submitOrder = taskInstances.clone();
+        for (int i = submitOrder.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            TaskInstance taskInstance = submitOrder[i];
+            submitOrder[i] = submitOrder[j];
+            submitOrder[j] = taskInstance;
+        }
+    }
+
+    @Benchmark
+    public void submitWave(Blackhole blackhole) throws TaskPriorityQueueException {
+        if ("linear".equals(queue)) {
+            LinearQueue linearQueue = new LinearQueue();
+            for (TaskInstance taskInstance : taskInstances) {
+                if (!linearQueue.contains(taskInstance)) {
+                    linearQueue.put(taskInstance);
+                }
+            }
+            for (TaskInstance taskInstance : submitOrder) {
+                blackhole.consume(linearQueue.contains(taskInstance));
+                blackhole.consume(linearQueue.remove(taskInstance));
+            }
+        } else {
+            PeerTaskInstancePriorityQueue indexedQueue = new PeerTaskInstancePriorityQueue();
+            for (TaskInstance taskInstance : taskInstances) {
+                if (!indexedQueue.contains(taskInstance)) {
+                    indexedQueue.put(taskInstance);
+                }
+            }
+            for (TaskInstance taskInstance : submitOrder) {
+                blackhole.consume(indexedQueue.contains(taskInstance));
+                blackhole.consume(indexedQueue.remove(taskInstance));
+            }
+        }
+    }
+
+    /**
+     * the former queue, a priority queue with a scanning contains
+     */
+    private static class LinearQueue {
+
+        private final PriorityQueue<TaskInstance> queue = new PriorityQueue<>(3000,
+                Comparator.comparing(TaskInstance::getTaskInstancePriority));
+
+        void put(TaskInstance taskInstance) {
+            queue.add(taskInstance);
+        }
+
+        boolean contains(TaskInstance taskInstance) {
+            Iterator<TaskInstance> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                TaskInstance queued = iterator.next();
+                if (taskInstance.getTaskCode() == queued.getTaskCode()
+                        && taskInstance.getTaskDefinitionVersion() == queued.getTaskDefinitionVersion()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean remove(TaskInstance taskInstance) {
+            return queue.remove(taskInstance);
+        }
+    }
+}
@@ -266,7 +266,7 @@ public final class ZookeeperRegistry implements Registry {
             final ChildData data = event.getData();
             if (data != null) {
                 path(data.getPath());
-                data(new String(data.getData()));
+                data(new String(data.getData(), StandardCharsets.UTF_8));
             }
         }
     }
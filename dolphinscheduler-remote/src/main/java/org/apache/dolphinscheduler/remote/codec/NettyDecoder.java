@@ -19,29 +19,44 @@ package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandContext;
-import org.apache.dolphinscheduler.remote.command.CommandHeader;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+import org.apache.dolphinscheduler.remote.utils.Constants;
 
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
 
 /**
- * netty decoder
+ * netty decoder, waits until the whole frame is received and hands the body over
+ * as a retained slice of the received buffer, see {@link Command#release()}
  */
-public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
-    private static final Logger logger = LoggerFactory.getLogger(NettyDecoder.class);
+public class NettyDecoder extends ByteToMessageDecoder {
+
+    private static final CommandType[] COMMAND_TYPES = CommandType.values();
+
+    /**
+     * magic + version + type + opaque + context length
+     */
+    private static final int HEADER_LENGTH = 1 + 1 + 1 + 8 + 4;
+
+    /**
+     * version 1 header carries the serialization byte
+     */
+    private static final int HEADER_LENGTH_WITH_SERIALIZATION = HEADER_LENGTH + 1;
+
+    private final int maxFrameLength;
 
     public NettyDecoder() {
-        super(State.MAGIC);
+        this(Constants.NETTY_MAX_FRAME_LENGTH);
     }
 
-    private final CommandHeader commandHeader = new CommandHeader();
+    public NettyDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
 
     /**
      * decode
@@ -52,53 +67,48 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
      */
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        switch (state()) {
-            case MAGIC:
-                checkMagic(in.readByte());
-                checkpoint(State.VERSION);
-                // fallthru
-            case VERSION:
-                checkVersion(in.readByte());
-                checkpoint(State.COMMAND);
-                // fallthru
-            case COMMAND:
-                commandHeader.setType(in.readByte());
-                checkpoint(State.OPAQUE);
-                // fallthru
-            case OPAQUE:
-                commandHeader.setOpaque(in.readLong());
-                checkpoint(State.CONTEXT_LENGTH);
-                // fallthru
-            case CONTEXT_LENGTH:
-                commandHeader.setContextLength(in.readInt());
-                checkpoint(State.CONTEXT);
-                // fallthru
-            case CONTEXT:
-                byte[] context = new byte[commandHeader.getContextLength()];
-                in.readBytes(context);
-                commandHeader.setContext(context);
-                checkpoint(State.BODY_LENGTH);
-                // fallthru
-            case BODY_LENGTH:
-                commandHeader.setBodyLength(in.readInt());
-                checkpoint(State.BODY);
-                // fallthru
-            case BODY:
-                byte[] body = new byte[commandHeader.getBodyLength()];
-                in.readBytes(body);
-                //
-                Command packet = new Command();
-                packet.setType(commandType(commandHeader.getType()));
-                packet.setOpaque(commandHeader.getOpaque());
-                packet.setContext(CommandContext.valueOf(commandHeader.getContext()));
-                packet.setBody(body);
-                out.add(packet);
-                //
-                checkpoint(State.MAGIC);
-                break;
-            default:
-                logger.warn("unknown decoder state {}", state());
+        int readable = in.readableBytes();
+        if (readable < 2) {
+            return;
+        }
+        int readerIndex = in.readerIndex();
+        checkMagic(in.getByte(readerIndex));
+        byte version = in.getByte(readerIndex + 1);
+        checkVersion(version);
+
+        int headerLength = version == Command.VERSION_JSON ? HEADER_LENGTH : HEADER_LENGTH_WITH_SERIALIZATION;
+        if (readable < headerLength) {
+            return;
         }
+        int contextLength = in.getInt(readerIndex + headerLength - 4);
+        checkLength(contextLength);
+        checkFrameLength(ctx, in, (long) headerLength + contextLength + 4);
+        int bodyLengthOffset = headerLength + contextLength;
+        if (readable < bodyLengthOffset + 4) {
+            return;
+        }
+        int bodyLength = in.getInt(readerIndex + bodyLengthOffset);
+        checkLength(bodyLength);
+        checkFrameLength(ctx, in, (long) bodyLengthOffset + 4 + bodyLength);
+        if (readable < bodyLengthOffset + 4 + bodyLength) {
+            return;
+        }
+
+        in.skipBytes(2);
+        SerializationType serialization = version == Command.VERSION_JSON
+                ? SerializationType.JSON : SerializationType.of(in.readByte());
+        CommandType type = commandType(in.readByte());
+        Command packet = new Command(in.readLong());
+        in.skipBytes(4);
+        byte[] context = new byte[contextLength];
+        in.readBytes(context);
+        in.skipBytes(4);
+
+        packet.setType(type);
+        packet.setContext(CommandContext.valueOf(context));
+        packet.setSerialization(serialization);
+        packet.setBodyBuffer(in.readRetainedSlice(bodyLength));
+        out.add(packet);
     }
 
     /**
@@ -107,12 +117,10 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
      * @param type type
      */
     private CommandType commandType(byte type) {
-        for (CommandType ct : CommandType.values()) {
-            if (ct.ordinal() == type) {
-                return ct;
-            }
+        if (type < 0 || type >= COMMAND_TYPES.length) {
+            return null;
         }
-        return null;
+        return COMMAND_TYPES[type];
     }
 
     /**
@@ -130,19 +138,29 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
      * check version
      */
     private void checkVersion(byte version) {
-        if (version != Command.VERSION) {
+        if (version != Command.VERSION_JSON && version != Command.VERSION) {
             throw new IllegalArgumentException("illegal protocol [version]" + version);
         }
     }
 
-    enum State {
-        MAGIC,
-        VERSION,
-        COMMAND,
-        OPAQUE,
-        CONTEXT_LENGTH,
-        CONTEXT,
-        BODY_LENGTH,
-        BODY;
+    /**
+     * check context or body length
+     */
+    private void checkLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("illegal packet [length]" + length);
+        }
+    }
+
+    /**
+     * check frame length before waiting for the rest of the frame to be buffered,
+     * the channel is closed since the stream cannot be resynchronized after the frame is dropped
+     */
+    private void checkFrameLength(ChannelHandlerContext ctx, ByteBuf in, long frameLength) {
+        if (frameLength > maxFrameLength) {
+            in.skipBytes(in.readableBytes());
+            ctx.close();
+            throw new TooLongFrameException("frame length " + frameLength + " exceeds " + maxFrameLength);
+        }
     }
 }
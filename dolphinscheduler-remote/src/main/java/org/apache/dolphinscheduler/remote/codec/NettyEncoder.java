@@ -18,44 +18,61 @@
 package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 
+import java.util.List;
+
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
 /**
- * netty encoder
+ * netty encoder, writes the header into a pooled buffer and appends the body
+ * without copying it
  */
 @Sharable
-public class NettyEncoder extends MessageToByteEncoder<Command> {
+public class NettyEncoder extends MessageToMessageEncoder<Command> {
+
+    /**
+     * magic + version + serialization + type + opaque + context length + body length
+     */
+    private static final int MAX_HEADER_LENGTH = 1 + 1 + 1 + 1 + 8 + 4 + 4;
 
     /**
      * encode
      *
      * @param ctx channel handler context
      * @param msg command
-     * @param out byte buffer
+     * @param out out content
      */
     @Override
-    protected void encode(ChannelHandlerContext ctx, Command msg, ByteBuf out) throws Exception {
+    protected void encode(ChannelHandlerContext ctx, Command msg, List<Object> out) throws Exception {
         if (msg == null) {
             throw new RemotingException("encode msg is null");
         }
-        out.writeByte(Command.MAGIC);
-        out.writeByte(Command.VERSION);
-        out.writeByte(msg.getType().ordinal());
-        out.writeLong(msg.getOpaque());
-        writeContext(msg, out);
-        out.writeInt(msg.getBody().length);
-        out.writeBytes(msg.getBody());
-    }
+        byte[] context = msg.getContext().toBytes();
+        byte[] body = msg.getBody();
+        ByteBuf header = ctx.alloc().ioBuffer(MAX_HEADER_LENGTH + context.length);
+        header.writeByte(Command.MAGIC);
+        if (msg.getSerialization() == SerializationType.JSON) {
+            // json bodies keep the version 0 frame which nodes of older versions understand
+            header.writeByte(Command.VERSION_JSON);
+        } else {
+            header.writeByte(Command.VERSION);
+            header.writeByte(msg.getSerialization().getCode());
+        }
+        header.writeByte(msg.getType().ordinal());
+        header.writeLong(msg.getOpaque());
+        header.writeInt(context.length);
+        header.writeBytes(context);
+        header.writeInt(body.length);
 
-    private void writeContext(Command msg, ByteBuf out) {
-        byte[] headerBytes = msg.getContext().toBytes();
-        out.writeInt(headerBytes.length);
-        out.writeBytes(headerBytes);
+        CompositeByteBuf frame = ctx.alloc().compositeBuffer(2);
+        frame.addComponents(true, header, Unpooled.wrappedBuffer(body));
+        out.add(frame);
     }
 }
-
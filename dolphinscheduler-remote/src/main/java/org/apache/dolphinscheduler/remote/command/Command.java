@@ -16,9 +16,14 @@
  */
 package org.apache.dolphinscheduler.remote.command;
 
+import org.apache.dolphinscheduler.remote.utils.Constants;
+
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicLong;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  *  receive task log request command and content fill
  *  for netty data serializable transfer
@@ -28,7 +33,24 @@ public class Command implements Serializable {
     private static final AtomicLong REQUEST_ID = new AtomicLong(1);
 
     public static final byte MAGIC = (byte) 0xbabe;
-    public static final byte VERSION = 0;
+
+    /**
+     * protocol version 0, json body without serialization byte
+     */
+    public static final byte VERSION_JSON = 0;
+
+    /**
+     * protocol version 1, the version byte is followed by the body serialization byte
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * serialization of the bodies built by this node.
+     * it is chosen per process and not negotiated per connection, the body is serialized when the command is built,
+     * before the channel is known. every node reads both protocol versions, but a node switched to protostuff
+     * sends protostuff to all of its peers, so switch only when no node of an older version is left
+     */
+    public static final SerializationType DEFAULT_SERIALIZATION = SerializationType.of(Constants.COMMAND_SERIALIZATION);
 
     public Command(){
         this.opaque = REQUEST_ID.getAndIncrement();
@@ -58,6 +80,16 @@ public class Command implements Serializable {
      */
     private byte[] body;
 
+    /**
+     * data body still held in the received buffer, released once copied to body or the command is processed
+     */
+    private transient ByteBuf bodyBuffer;
+
+    /**
+     * body serialization
+     */
+    private SerializationType serialization = SerializationType.JSON;
+
     public CommandType getType() {
         return type;
     }
@@ -75,6 +107,10 @@ public class Command implements Serializable {
     }
 
     public byte[] getBody() {
+        if (body == null && bodyBuffer != null) {
+            body = ByteBufUtil.getBytes(bodyBuffer);
+            release();
+        }
         return body;
     }
 
@@ -82,6 +118,55 @@ public class Command implements Serializable {
         this.body = body;
     }
 
+    public ByteBuf getBodyBuffer() {
+        return bodyBuffer;
+    }
+
+    public void setBodyBuffer(ByteBuf bodyBuffer) {
+        this.bodyBuffer = bodyBuffer;
+    }
+
+    /**
+     * release the received body buffer, if any
+     */
+    public void release() {
+        if (bodyBuffer != null) {
+            bodyBuffer.release();
+            bodyBuffer = null;
+        }
+    }
+
+    public SerializationType getSerialization() {
+        return serialization;
+    }
+
+    public void setSerialization(SerializationType serialization) {
+        this.serialization = serialization;
+    }
+
+    /**
+     * serialize the body with the default serialization
+     *
+     * @param obj body object
+     */
+    public void serializeBody(Object obj) {
+        this.serialization = DEFAULT_SERIALIZATION;
+        this.body = serialization.serialize(obj);
+    }
+
+    /**
+     * deserialize the body with the serialization it was written with
+     *
+     * @param clazz body class
+     * @return body object
+     */
+    public <T> T deserializeBody(Class<T> clazz) {
+        if (body == null && bodyBuffer != null) {
+            return serialization.deserialize(bodyBuffer.duplicate(), clazz);
+        }
+        return serialization.deserialize(body, clazz);
+    }
+
     public CommandContext getContext() {
         return context;
     }
@@ -90,6 +175,13 @@ public class Command implements Serializable {
         this.context = context;
     }
 
+    private int getBodyLength() {
+        if (body != null) {
+            return body.length;
+        }
+        return bodyBuffer == null ? 0 : bodyBuffer.readableBytes();
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -115,7 +207,8 @@ public class Command implements Serializable {
 
     @Override
     public String toString() {
-        return "Command [type=" + type + ", opaque=" + opaque + ", bodyLen=" + (body == null ? 0 : body.length) + "]";
+        return "Command [type=" + type + ", opaque=" + opaque + ", serialization=" + serialization
+                + ", bodyLen=" + getBodyLength() + "]";
     }
 
 }
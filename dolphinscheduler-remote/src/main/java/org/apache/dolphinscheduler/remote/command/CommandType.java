@@ -148,5 +148,29 @@ public enum CommandType {
     /**
      * task state event request
      */
-    TASK_WAKEUP_EVENT_REQUEST;
+    TASK_WAKEUP_EVENT_REQUEST,
+    /**
+     * execute a batch of tasks on one worker
+     */
+    TASK_EXECUTE_BATCH_REQUEST,
+    /**
+     * worker ack of a task execute batch
+     */
+    TASK_EXECUTE_BATCH_ACK,
+    /**
+     * a batch of task execute running and response reports from one worker
+     */
+    TASK_EXECUTE_STATUS_BATCH,
+    /**
+     * follow a task log, the log server pushes the appended bytes
+     */
+    TAIL_LOG_REQUEST,
+    /**
+     * appended bytes of a followed task log
+     */
+    TAIL_LOG_DATA,
+    /**
+     * stop following a task log
+     */
+    TAIL_LOG_CANCEL;
 }
@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-
 import java.io.Serializable;
 
 /**
@@ -57,8 +55,7 @@ public class HostUpdateCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.PROCESS_HOST_UPDATE_REQUEST);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.serializeBody(this);
         return command;
     }
 
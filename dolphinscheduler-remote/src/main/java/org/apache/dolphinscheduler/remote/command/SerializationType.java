@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.rpc.serializer.ProtoStuffUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+/**
+ * serialization of the command body
+ */
+public enum SerializationType {
+
+    /**
+     * json body, the only one understood by nodes speaking protocol version 0
+     */
+    JSON((byte) 0) {
+        @Override
+        public byte[] serialize(Object obj) {
+            return JSONUtils.toJsonByteArray(obj);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] body, Class<T> clazz) {
+            return JSONUtils.parseObject(body, clazz);
+        }
+
+        @Override
+        public <T> T deserialize(ByteBuf body, Class<T> clazz) {
+            return JSONUtils.parseObject(body.toString(StandardCharsets.UTF_8), clazz);
+        }
+    },
+
+    /**
+     * protostuff binary body
+     */
+    PROTOSTUFF((byte) 1) {
+        @Override
+        public byte[] serialize(Object obj) {
+            return ProtoStuffUtils.serialize(obj);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] body, Class<T> clazz) {
+            return ProtoStuffUtils.deserialize(body, clazz);
+        }
+
+        @Override
+        public <T> T deserialize(ByteBuf body, Class<T> clazz) {
+            if (body.hasArray()) {
+                return ProtoStuffUtils.deserialize(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes(), clazz);
+            }
+            return ProtoStuffUtils.deserialize(new ByteBufInputStream(body), clazz);
+        }
+    };
+
+    private static final SerializationType[] CODES = new SerializationType[] {JSON, PROTOSTUFF};
+
+    private final byte code;
+
+    SerializationType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public abstract byte[] serialize(Object obj);
+
+    public abstract <T> T deserialize(byte[] body, Class<T> clazz);
+
+    public abstract <T> T deserialize(ByteBuf body, Class<T> clazz);
+
+    public static SerializationType of(byte code) {
+        if (code < 0 || code >= CODES.length) {
+            throw new IllegalArgumentException("illegal serialization type " + code);
+        }
+        return CODES[code];
+    }
+
+    /**
+     * serialization type by name, case insensitive
+     */
+    public static SerializationType of(String name) {
+        for (SerializationType type : values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("illegal serialization type " + name);
+    }
+}
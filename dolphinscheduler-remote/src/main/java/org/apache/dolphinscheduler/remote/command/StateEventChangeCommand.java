@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 
 import java.io.Serializable;
@@ -77,8 +76,7 @@ public class StateEventChangeCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.STATE_EVENT_REQUEST);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.serializeBody(this);
         return command;
     }
 
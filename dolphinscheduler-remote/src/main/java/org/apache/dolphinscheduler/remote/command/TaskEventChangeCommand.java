@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-
 import java.io.Serializable;
 
 /**
@@ -64,8 +62,7 @@ public class TaskEventChangeCommand implements Serializable {
     public Command convert2Command(CommandType commandType) {
         Command command = new Command();
         command.setType(commandType);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.serializeBody(this);
         return command;
     }
 
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *  worker ack of a task execute batch, carries the task instances submitted to the worker
+ */
+public class TaskExecuteBatchAckCommand implements Serializable {
+
+    /**
+     *  accepted task instance ids
+     */
+    private List<Integer> acceptedTaskInstanceIds;
+
+    public TaskExecuteBatchAckCommand() {
+    }
+
+    public TaskExecuteBatchAckCommand(List<Integer> acceptedTaskInstanceIds) {
+        this.acceptedTaskInstanceIds = acceptedTaskInstanceIds;
+    }
+
+    public List<Integer> getAcceptedTaskInstanceIds() {
+        return acceptedTaskInstanceIds;
+    }
+
+    public void setAcceptedTaskInstanceIds(List<Integer> acceptedTaskInstanceIds) {
+        this.acceptedTaskInstanceIds = acceptedTaskInstanceIds;
+    }
+
+    /**
+     *  package response command
+     *
+     * @param opaque request unique identification
+     * @return command
+     */
+    public Command convert2Command(long opaque) {
+        Command command = new Command(opaque);
+        command.setType(CommandType.TASK_EXECUTE_BATCH_ACK);
+        command.serializeBody(this);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskExecuteBatchAckCommand{"
+                + "acceptedTaskInstanceIds=" + acceptedTaskInstanceIds
+                + '}';
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *  execute a batch of tasks on one worker request command
+ */
+public class TaskExecuteBatchRequestCommand implements Serializable {
+
+    /**
+     *  task execution contexts
+     */
+    private List<String> taskExecutionContexts;
+
+    public TaskExecuteBatchRequestCommand() {
+    }
+
+    public TaskExecuteBatchRequestCommand(List<String> taskExecutionContexts) {
+        this.taskExecutionContexts = taskExecutionContexts;
+    }
+
+    public List<String> getTaskExecutionContexts() {
+        return taskExecutionContexts;
+    }
+
+    public void setTaskExecutionContexts(List<String> taskExecutionContexts) {
+        this.taskExecutionContexts = taskExecutionContexts;
+    }
+
+    /**
+     *  package request command
+     *
+     * @return command
+     */
+    public Command convert2Command() {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_BATCH_REQUEST);
+        command.serializeBody(this);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskExecuteBatchRequestCommand{"
+                + "taskExecutionContexts=" + (taskExecutionContexts == null ? 0 : taskExecutionContexts.size())
+                + '}';
+    }
+}
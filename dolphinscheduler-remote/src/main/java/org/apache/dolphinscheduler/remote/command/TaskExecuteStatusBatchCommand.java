@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  task execute running and response reports of one worker sent in one frame
+ */
+public class TaskExecuteStatusBatchCommand implements Serializable {
+
+    /**
+     *  task execute running reports
+     */
+    private List<TaskExecuteRunningCommand> runningCommands = new ArrayList<>();
+
+    /**
+     *  task execute response reports, handled after the running reports
+     */
+    private List<TaskExecuteResponseCommand> responseCommands = new ArrayList<>();
+
+    public List<TaskExecuteRunningCommand> getRunningCommands() {
+        return runningCommands;
+    }
+
+    public void setRunningCommands(List<TaskExecuteRunningCommand> runningCommands) {
+        this.runningCommands = runningCommands;
+    }
+
+    public List<TaskExecuteResponseCommand> getResponseCommands() {
+        return responseCommands;
+    }
+
+    public void setResponseCommands(List<TaskExecuteResponseCommand> responseCommands) {
+        this.responseCommands = responseCommands;
+    }
+
+    /**
+     *  package status batch command
+     *
+     * @return command
+     */
+    public Command convert2Command() {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_STATUS_BATCH);
+        command.serializeBody(this);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskExecuteStatusBatchCommand{"
+                + "runningCommands=" + (runningCommands == null ? 0 : runningCommands.size())
+                + ", responseCommands=" + (responseCommands == null ? 0 : responseCommands.size())
+                + '}';
+    }
+}
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command.log;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 
@@ -33,6 +32,21 @@ public class GetLogBytesRequestCommand implements Serializable {
      */
     private String path;
 
+    /**
+     *  offset of the requested chunk
+     */
+    private long offset;
+
+    /**
+     *  max length of the requested chunk, the whole file from the offset if not positive
+     */
+    private int limit;
+
+    /**
+     *  return the chunk as a gzip member, the compressed segments of the log are returned as they are
+     */
+    private boolean compressed;
+
     public GetLogBytesRequestCommand() {
     }
 
@@ -40,6 +54,19 @@ public class GetLogBytesRequestCommand implements Serializable {
         this.path = path;
     }
 
+    public GetLogBytesRequestCommand(String path, long offset, int limit) {
+        this.path = path;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public GetLogBytesRequestCommand(String path, long offset, int limit, boolean compressed) {
+        this.path = path;
+        this.offset = offset;
+        this.limit = limit;
+        this.compressed = compressed;
+    }
+
     public String getPath() {
         return path;
     }
@@ -48,6 +75,30 @@ public class GetLogBytesRequestCommand implements Serializable {
         this.path = path;
     }
 
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     /**
      * package request command
      *
@@ -56,8 +107,7 @@ public class GetLogBytesRequestCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.GET_LOG_BYTES_REQUEST);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.serializeBody(this);
         return command;
     }
 }
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command.log;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 
@@ -33,6 +32,26 @@ public class GetLogBytesResponseCommand implements Serializable {
      */
     private byte[] data;
 
+    /**
+     *  the data is a gzip member
+     */
+    private boolean compressed;
+
+    /**
+     *  uncompressed length of the log the data covers
+     */
+    private long length;
+
+    /**
+     *  offset of the data in the uncompressed log, -1 from a log server ignoring the requested offset
+     */
+    private long offset = -1;
+
+    /**
+     *  the log could not be read, the data is empty then and is not the end of the log
+     */
+    private boolean error;
+
     public GetLogBytesResponseCommand() {
     }
 
@@ -40,6 +59,13 @@ public class GetLogBytesResponseCommand implements Serializable {
         this.data = data;
     }
 
+    public GetLogBytesResponseCommand(byte[] data, boolean compressed, long length, long offset) {
+        this.data = data;
+        this.compressed = compressed;
+        this.length = length;
+        this.offset = offset;
+    }
+
     public byte[] getData() {
         return data;
     }
@@ -48,6 +74,38 @@ public class GetLogBytesResponseCommand implements Serializable {
         this.data = data;
     }
 
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void setError(boolean error) {
+        this.error = error;
+    }
+
     /**
      * package response command
      *
@@ -57,8 +115,7 @@ public class GetLogBytesResponseCommand implements Serializable {
     public Command convert2Command(long opaque) {
         Command command = new Command(opaque);
         command.setType(CommandType.GET_LOG_BYTES_RESPONSE);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.serializeBody(this);
         return command;
     }
 
@@ -133,6 +133,8 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
     private void processReceived(final Channel channel, final Command command) {
         ResponseFuture future = ResponseFuture.getFuture(command.getOpaque());
         if (future != null) {
+            // the response outlives this handler, copy the body out of the received buffer
+            command.getBody();
             future.setResponseCommand(command);
             future.release();
             if (future.getInvokeCallback() != null) {
@@ -154,15 +156,19 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
                     pair.getLeft().process(channel, command);
                 } catch (Exception e) {
                     logger.error(String.format("process command %s exception", command), e);
+                } finally {
+                    command.release();
                 }
             };
             try {
                 pair.getRight().submit(run);
             } catch (RejectedExecutionException e) {
                 logger.warn("thread pool is full, discard command {} from {}", command, ChannelUtils.getRemoteAddress(channel));
+                command.release();
             }
         } else {
             logger.warn("receive response {}, but not matched any request ", command);
+            command.release();
         }
     }
 
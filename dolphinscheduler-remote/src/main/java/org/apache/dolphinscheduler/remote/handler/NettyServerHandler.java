@@ -120,6 +120,7 @@ public class NettyServerHandler extends ChannelInboundHandlerAdapter {
             if (logger.isDebugEnabled()) {
                 logger.debug("server receive heart beat from: host: {}", ChannelUtils.getRemoteAddress(channel));
             }
+            msg.release();
             return;
         }
         final Pair<NettyRequestProcessor, ExecutorService> pair = processors.get(commandType);
@@ -129,15 +130,19 @@ public class NettyServerHandler extends ChannelInboundHandlerAdapter {
                     pair.getLeft().process(channel, msg);
                 } catch (Exception ex) {
                     logger.error("process msg {} error", msg, ex);
+                } finally {
+                    msg.release();
                 }
             };
             try {
                 pair.getRight().submit(r);
             } catch (RejectedExecutionException e) {
                 logger.warn("thread pool is full, discard msg {} from {}", msg, ChannelUtils.getRemoteAddress(channel));
+                msg.release();
             }
         } else {
             logger.warn("commandType {} not support", commandType);
+            msg.release();
         }
     }
 
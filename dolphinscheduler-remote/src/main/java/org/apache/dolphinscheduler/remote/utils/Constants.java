@@ -57,6 +57,18 @@ public class Constants {
      */
     public static final String NETTY_EPOLL_ENABLE = System.getProperty("netty.epoll.enable", "true");
 
+    /**
+     * serialization of the command bodies sent by this node to all of its peers, it is not negotiated per connection.
+     * json by default so that nodes of older versions can still read them, switch to protostuff once the whole
+     * cluster, including api servers and log clients, is upgraded
+     */
+    public static final String COMMAND_SERIALIZATION = System.getProperty("remote.command.serialization", "json");
+
+    /**
+     * max length of a received frame, a channel sending a longer frame is closed
+     */
+    public static final int NETTY_MAX_FRAME_LENGTH = Integer.getInteger("remote.max.frame.length", 128 * 1024 * 1024);
+
     /**
      * OS Name
      */
@@ -17,6 +17,9 @@
 
 package org.apache.dolphinscheduler.rpc.serializer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -34,7 +37,10 @@ public class ProtoStuffUtils {
         throw new IllegalStateException("Utility class");
     }
 
-    private static LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+    /**
+     * LinkedBuffer is not thread safe, every serializing thread gets its own
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
 
     private static Map<Class<?>, Schema<?>> schemaCache = new ConcurrentHashMap<>();
 
@@ -42,6 +48,7 @@ public class ProtoStuffUtils {
     public static <T> byte[] serialize(T obj) {
         Class<T> clazz = (Class<T>) obj.getClass();
         Schema<T> schema = getSchema(clazz);
+        LinkedBuffer buffer = BUFFER.get();
         byte[] data;
         try {
             data = ProtostuffIOUtil.toByteArray(obj, schema, buffer);
@@ -65,4 +72,28 @@ public class ProtoStuffUtils {
         ProtostuffIOUtil.mergeFrom(bytes, obj, schema);
         return obj;
     }
+
+    public static <T> T deserialize(byte[] bytes, int offset, int length, Class<T> clazz) {
+        Schema<T> schema = getSchema(clazz);
+        T obj = schema.newMessage();
+        if (null == obj) {
+            return null;
+        }
+        ProtostuffIOUtil.mergeFrom(bytes, offset, length, obj, schema);
+        return obj;
+    }
+
+    public static <T> T deserialize(InputStream in, Class<T> clazz) {
+        Schema<T> schema = getSchema(clazz);
+        T obj = schema.newMessage();
+        if (null == obj) {
+            return null;
+        }
+        try {
+            ProtostuffIOUtil.mergeFrom(in, obj, schema);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return obj;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+
+/**
+ * netty codec test
+ */
+public class NettyCodecTest {
+
+    @Test
+    public void testJsonFrame() {
+        ByteBuf frame = encode(SerializationType.JSON);
+        Assert.assertEquals(Command.VERSION_JSON, frame.getByte(1));
+
+        TaskExecuteRequestCommand requestCommand = decode(frame, SerializationType.JSON);
+        Assert.assertEquals("{\"taskInstanceId\":1}", requestCommand.getTaskExecutionContext());
+    }
+
+    @Test
+    public void testProtostuffFrame() {
+        ByteBuf frame = encode(SerializationType.PROTOSTUFF);
+        Assert.assertEquals(Command.VERSION, frame.getByte(1));
+        Assert.assertEquals(SerializationType.PROTOSTUFF.getCode(), frame.getByte(2));
+
+        TaskExecuteRequestCommand requestCommand = decode(frame, SerializationType.PROTOSTUFF);
+        Assert.assertEquals("{\"taskInstanceId\":1}", requestCommand.getTaskExecutionContext());
+    }
+
+    @Test
+    public void testBodyBufferRelease() {
+        ByteBuf frame = encode(SerializationType.JSON);
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyDecoder());
+        Assert.assertTrue(channel.writeInbound(frame));
+        Command command = channel.readInbound();
+        ByteBuf bodyBuffer = command.getBodyBuffer();
+        Assert.assertEquals(1, bodyBuffer.refCnt());
+
+        byte[] body = command.getBody();
+        Assert.assertNull(command.getBodyBuffer());
+        Assert.assertEquals(0, bodyBuffer.refCnt());
+        Assert.assertEquals("{\"taskInstanceId\":1}",
+                command.deserializeBody(TaskExecuteRequestCommand.class).getTaskExecutionContext());
+        Assert.assertEquals(body.length, SerializationType.JSON.serialize(new TaskExecuteRequestCommand("{\"taskInstanceId\":1}")).length);
+    }
+
+    @Test
+    public void testTooLongFrame() {
+        ByteBuf frame = encode(SerializationType.JSON);
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyDecoder(frame.readableBytes() - 1));
+        try {
+            channel.writeInbound(frame.readRetainedSlice(frame.readableBytes() - 1));
+            Assert.fail("frame longer than the max frame length is decoded");
+        } catch (TooLongFrameException e) {
+            Assert.assertFalse(channel.isOpen());
+        }
+        frame.release();
+    }
+
+    private ByteBuf encode(SerializationType serializationType) {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        command.setSerialization(serializationType);
+        command.setBody(serializationType.serialize(new TaskExecuteRequestCommand("{\"taskInstanceId\":1}")));
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyEncoder());
+        Assert.assertTrue(channel.writeOutbound(command));
+        return channel.readOutbound();
+    }
+
+    private TaskExecuteRequestCommand decode(ByteBuf frame, SerializationType serializationType) {
+        EmbeddedChannel channel = new EmbeddedChannel(new NettyDecoder());
+        // split the frame to replay the decoder state
+        Assert.assertFalse(channel.writeInbound(frame.readRetainedSlice(3)));
+        Assert.assertTrue(channel.writeInbound(frame));
+        Command command = channel.readInbound();
+        Assert.assertEquals(CommandType.TASK_EXECUTE_REQUEST, command.getType());
+        Assert.assertEquals(serializationType, command.getSerialization());
+        return command.deserializeBody(TaskExecuteRequestCommand.class);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.recovery.ResilientFileOutputStream;
+import ch.qos.logback.core.util.FileSize;
+
+/**
+ * task log file appender, a file appender which optionally rolls the task log by size
+ * and compresses the finished segments, see {@link TaskLogSegments} for the segment layout.
+ * the task log is rolled after the event which makes it reach the max file size, so a segment always ends with a whole event,
+ * and with compressOnStop the rest of the task log is rolled and compressed too when the appender is stopped,
+ * which the sifting appender does when the task is finalized.
+ * the segments are compressed in the background by a single daemon thread.
+ */
+public class TaskLogFileAppender extends FileAppender<ILoggingEvent> {
+
+    private static final ExecutorService COMPRESS_EXECUTOR = ThreadUtils.newDaemonFixedThreadExecutor("TaskLogCompressor", 1);
+
+    /**
+     * max size of the active task log file, not rolled by size if not set
+     */
+    private FileSize maxFileSize;
+
+    /**
+     * compress the segments rolled by size
+     */
+    private boolean compress = true;
+
+    /**
+     * roll and compress the task log when the appender is stopped
+     */
+    private boolean compressOnStop;
+
+    private Path logPath;
+
+    private int nextSegmentIndex;
+
+    @Override
+    public void start() {
+        if (maxFileSize != null && (maxFileSize.getSize() <= 0 || maxFileSize.getSize() >= TaskLogSegments.MAX_SEGMENT_SIZE)) {
+            addError("maxFileSize of [" + name + "] should be between 0 and 4GB, got " + maxFileSize);
+            return;
+        }
+        if (isPrudent() && (maxFileSize != null || compressOnStop)) {
+            addError("prudent mode is not supported with maxFileSize or compressOnStop of [" + name + "]");
+            return;
+        }
+        if (fileName != null) {
+            logPath = Paths.get(fileName);
+            nextSegmentIndex = TaskLogSegments.nextIndex(logPath);
+        }
+        super.start();
+    }
+
+    @Override
+    protected void subAppend(ILoggingEvent event) {
+        super.subAppend(event);
+        if (maxFileSize != null && isStarted() && currentFileSize() >= maxFileSize.getSize()) {
+            lock.lock();
+            try {
+                if (currentFileSize() >= maxFileSize.getSize()) {
+                    rollover();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (compressOnStop && logPath != null) {
+            try {
+                long size = Files.isRegularFile(logPath) ? Files.size(logPath) : 0;
+                if (size > 0 && size < TaskLogSegments.MAX_SEGMENT_SIZE) {
+                    roll(true);
+                }
+            } catch (IOException e) {
+                addError("compress task log " + logPath + " on stop error", e);
+            }
+        }
+    }
+
+    private long currentFileSize() {
+        OutputStream outputStream = getOutputStream();
+        if (outputStream instanceof ResilientFileOutputStream) {
+            try {
+                return ((ResilientFileOutputStream) outputStream).getChannel().position();
+            } catch (IOException e) {
+                addWarn("get size of task log " + fileName + " error", e);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * roll the active file to the next segment and reopen it, called with the lock held
+     */
+    private void rollover() {
+        closeOutputStream();
+        try {
+            roll(compress);
+        } catch (IOException e) {
+            addError("roll task log " + fileName + " error", e);
+        }
+        try {
+            openFile(fileName);
+        } catch (IOException e) {
+            addError("reopen task log " + fileName + " error", e);
+        }
+    }
+
+    private void roll(boolean compressSegment) throws IOException {
+        Path segmentPath = TaskLogSegments.getSegmentPath(logPath, nextSegmentIndex);
+        Files.move(logPath, segmentPath);
+        nextSegmentIndex++;
+        if (compressSegment) {
+            COMPRESS_EXECUTOR.execute(() -> {
+                try {
+                    TaskLogSegments.compress(segmentPath);
+                } catch (IOException e) {
+                    addError("compress task log segment " + segmentPath + " error", e);
+                }
+            });
+        }
+    }
+
+    public FileSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(FileSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isCompressOnStop() {
+        return compressOnStop;
+    }
+
+    public void setCompressOnStop(boolean compressOnStop) {
+        this.compressOnStop = compressOnStop;
+    }
+}
@@ -26,17 +26,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Heart beat task
+ * Heart beat task, the heartbeat is only written to the registry when it changed significantly
+ * or the last write is older than {@link #MAX_UNCHANGED_MILLIS}
  */
 public class HeartBeatTask implements Runnable {
 
     private final Logger logger = LoggerFactory.getLogger(HeartBeatTask.class);
 
+    /**
+     * an unchanged heartbeat is written again after this time, so that the report time stays recent
+     */
+    private static final long MAX_UNCHANGED_MILLIS = 60_000L;
+
     private final Set<String> heartBeatPaths;
     private final RegistryClient registryClient;
     private int workerWaitingTaskCount;
     private final String serverType;
     private final HeartBeat heartBeat;
+    private HeartBeat publishedHeartBeat;
 
     public HeartBeatTask(long startupTime,
                          double maxCpuloadAvg,
@@ -84,10 +91,18 @@ public class HeartBeatTask implements Runnable {
 
             // update waiting task count
             heartBeat.setWorkerWaitingTaskCount(workerWaitingTaskCount);
+            heartBeat.refresh();
+            if (publishedHeartBeat != null
+                    && !heartBeat.isChangedSignificantly(publishedHeartBeat)
+                    && heartBeat.getReportTime() - publishedHeartBeat.getReportTime() < MAX_UNCHANGED_MILLIS) {
+                return;
+            }
 
+            String heartBeatInfo = heartBeat.encodeBinary();
             for (String heartBeatPath : heartBeatPaths) {
-                registryClient.persistEphemeral(heartBeatPath, heartBeat.encodeHeartBeat());
+                registryClient.persistEphemeral(heartBeatPath, heartBeatInfo);
             }
+            publishedHeartBeat = HeartBeat.decodeHeartBeat(heartBeatInfo);
         } catch (Throwable ex) {
             logger.error("error write heartbeat info", ex);
         }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.util.FileSize;
+
+public class TaskLogFileAppenderTest {
+
+    private Path logDir;
+
+    private Path logPath;
+
+    private LoggerContext context;
+
+    @Before
+    public void before() throws IOException {
+        logDir = Files.createTempDirectory("task-log-appender");
+        logPath = logDir.resolve("1_1-1-1.log");
+        context = new LoggerContext();
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.list(logDir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDir);
+        context.stop();
+    }
+
+    @Test
+    public void testRollAndCompress() throws Exception {
+        TaskLogFileAppender appender = createAppender();
+        appender.setMaxFileSize(FileSize.valueOf("1KB"));
+        appender.setCompressOnStop(true);
+        appender.start();
+        Assert.assertTrue(appender.isStarted());
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String message = "task log line " + i + " 日志";
+            appender.doAppend(new LoggingEvent(TaskLogFileAppenderTest.class.getName(), context.getLogger("task"), Level.INFO, message, null, null));
+            expected.append(message).append(System.lineSeparator());
+        }
+        waitCompressed();
+        List<Path> segments = TaskLogSegments.list(logPath);
+        Assert.assertTrue(segments.size() > 1);
+        Assert.assertTrue(segments.stream().allMatch(TaskLogSegments::isCompressed));
+        for (Path segment : segments) {
+            Assert.assertTrue(TaskLogSegments.length(segment) >= 1024);
+        }
+        Assert.assertTrue(Files.size(logPath) < 1024);
+        Assert.assertEquals(expected.toString(), readAll(segments) + new String(Files.readAllBytes(logPath), StandardCharsets.UTF_8));
+
+        // the rest is compressed on stop
+        appender.stop();
+        waitCompressed();
+        Assert.assertFalse(Files.exists(logPath));
+        Assert.assertTrue(TaskLogSegments.exists(logPath));
+        Assert.assertEquals(segments.size() + 1, TaskLogSegments.list(logPath).size());
+        Assert.assertEquals(expected.toString(), readAll(TaskLogSegments.list(logPath)));
+
+        // a restarted appender continues the segments
+        appender = createAppender();
+        appender.setMaxFileSize(FileSize.valueOf("1KB"));
+        appender.start();
+        Assert.assertEquals(segments.size() + 2, TaskLogSegments.nextIndex(logPath));
+        appender.stop();
+
+        Files.delete(logPath);
+        Assert.assertTrue(TaskLogSegments.delete(logPath));
+        Assert.assertFalse(TaskLogSegments.exists(logPath));
+    }
+
+    @Test
+    public void testNotRolledByDefault() throws Exception {
+        TaskLogFileAppender appender = createAppender();
+        appender.start();
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(new LoggingEvent(TaskLogFileAppenderTest.class.getName(), context.getLogger("task"), Level.INFO, "line " + i, null, null));
+        }
+        appender.stop();
+        Assert.assertTrue(TaskLogSegments.list(logPath).isEmpty());
+        Assert.assertEquals(100, Files.readAllLines(logPath).size());
+    }
+
+    private TaskLogFileAppender createAppender() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        TaskLogFileAppender appender = new TaskLogFileAppender();
+        appender.setContext(context);
+        appender.setName("FILE-test");
+        appender.setFile(logPath.toString());
+        appender.setEncoder(encoder);
+        return appender;
+    }
+
+    private void waitCompressed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!TaskLogSegments.list(logPath).stream().allMatch(TaskLogSegments::isCompressed)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static String readAll(List<Path> segments) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Path segment : segments) {
+            try (InputStream in = TaskLogSegments.open(segment)) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -17,25 +17,48 @@
 
 package org.apache.dolphinscheduler.service.log;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogCancelCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogDataCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+
 /**
  * log client
  */
@@ -49,11 +72,37 @@ public class LogClientService implements AutoCloseable {
 
     private volatile boolean isRunning;
 
+    /**
+     * client of the followed logs, the channels of the other requests are closed after every request
+     */
+    private NettyRemotingClient tailClient;
+
+    /**
+     * runs the listeners, every subscription is drained by one task at a time,
+     * so a slow listener holds one thread and never delays the other followed logs
+     */
+    private ExecutorService tailExecutor;
+
+    /**
+     * followed logs by subscription id
+     */
+    private final Map<Long, TailSubscription> tailSubscriptions = new ConcurrentHashMap<>();
+
     /**
      * request time out
      */
     private static final long LOG_REQUEST_TIMEOUT = 10 * 1000L;
 
+    /**
+     * max length of a log bytes chunk
+     */
+    private static final int LOG_BYTES_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * max data frames waiting for the listener of a followed log, a listener further behind stops following the log
+     */
+    private static final int MAX_PENDING_TAIL_FRAMES = 256;
+
     /**
      * construct client
      */
@@ -70,6 +119,13 @@ public class LogClientService implements AutoCloseable {
     @Override
     public void close() {
         this.client.close();
+        synchronized (this) {
+            if (this.tailClient != null) {
+                this.tailClient.close();
+                this.tailExecutor.shutdownNow();
+            }
+        }
+        this.tailSubscriptions.clear();
         this.isRunning = false;
         logger.info("logger client closed");
     }
@@ -93,8 +149,7 @@ public class LogClientService implements AutoCloseable {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
             if (response != null) {
-                RollViewLogResponseCommand rollReviewLog = JSONUtils.parseObject(
-                        response.getBody(), RollViewLogResponseCommand.class);
+                RollViewLogResponseCommand rollReviewLog = response.deserializeBody(RollViewLogResponseCommand.class);
                 return rollReviewLog.getMsg();
             }
         } catch (Exception e) {
@@ -125,8 +180,7 @@ public class LogClientService implements AutoCloseable {
                 Command command = request.convert2Command();
                 Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
                 if (response != null) {
-                    ViewLogResponseCommand viewLog = JSONUtils.parseObject(
-                            response.getBody(), ViewLogResponseCommand.class);
+                    ViewLogResponseCommand viewLog = response.deserializeBody(ViewLogResponseCommand.class);
                     result = viewLog.getMsg();
                 }
             }
@@ -147,23 +201,127 @@ public class LogClientService implements AutoCloseable {
      * @return log content bytes
      */
     public byte[] getLogBytes(String host, int port, String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            getLogBytes(host, port, path, out);
+        } catch (Exception e) {
+            logger.error("get log size error", e);
+            return new byte[0];
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * get log bytes in chunks of at most LOG_BYTES_CHUNK_SIZE bytes, one request per chunk
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param out output of the log content bytes
+     * @throws RemotingException if a chunk is not returned or can not be read, the log written to out is incomplete then
+     */
+    public void getLogBytes(String host, int port, String path, OutputStream out) throws Exception {
         logger.info("log path {}", path);
-        GetLogBytesRequestCommand request = new GetLogBytesRequestCommand(path);
         final Host address = new Host(host, port);
         try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
-                GetLogBytesResponseCommand getLog = JSONUtils.parseObject(
-                        response.getBody(), GetLogBytesResponseCommand.class);
-                return getLog.getData() == null ? new byte[0] : getLog.getData();
+            long offset = 0;
+            while (true) {
+                GetLogBytesResponseCommand chunk = getLogBytesChunk(address, new GetLogBytesRequestCommand(path, offset, LOG_BYTES_CHUNK_SIZE));
+                byte[] data = chunk.getData();
+                if (data == null) {
+                    return;
+                }
+                // a log server ignoring the offset returns the whole log for every request
+                if (chunk.getOffset() != offset) {
+                    if (offset == 0) {
+                        out.write(data);
+                    }
+                    return;
+                }
+                out.write(data);
+                if (data.length < LOG_BYTES_CHUNK_SIZE) {
+                    return;
+                }
+                offset += data.length;
             }
-        } catch (Exception e) {
-            logger.error("get log size error", e);
         } finally {
             this.client.closeChannel(address);
         }
-        return new byte[0];
+    }
+
+    /**
+     * get log bytes as a gzip stream in chunks, one request per chunk, each chunk is a gzip member.
+     * the compressed segments of the log are transferred as they are, the rest is compressed by the log server,
+     * or by this client if the log server returns the uncompressed chunks
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param out output of the gzip stream of the log
+     * @throws RemotingException if a chunk is not returned or can not be read, the log written to out is incomplete then
+     */
+    public void getCompressedLogBytes(String host, int port, String path, OutputStream out) throws Exception {
+        logger.info("log path {}", path);
+        final Host address = new Host(host, port);
+        try {
+            long offset = 0;
+            while (true) {
+                GetLogBytesResponseCommand chunk = getLogBytesChunk(address, new GetLogBytesRequestCommand(path, offset, LOG_BYTES_CHUNK_SIZE, true));
+                byte[] data = chunk.getData();
+                if (data == null) {
+                    return;
+                }
+                // a log server ignoring the offset returns the whole log for every request
+                boolean wholeLog = chunk.getOffset() != offset;
+                if (wholeLog && offset > 0) {
+                    return;
+                }
+                if (chunk.isCompressed()) {
+                    if (chunk.getLength() <= 0) {
+                        return;
+                    }
+                    out.write(data);
+                    offset += chunk.getLength();
+                    continue;
+                }
+                // a log server not supporting compression
+                if (data.length > 0) {
+                    ByteArrayOutputStream member = new ByteArrayOutputStream(data.length / 4 + 64);
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+                        gzip.write(data);
+                    }
+                    member.writeTo(out);
+                }
+                if (wholeLog || data.length < LOG_BYTES_CHUNK_SIZE) {
+                    return;
+                }
+                offset += data.length;
+            }
+        } finally {
+            this.client.closeChannel(address);
+        }
+    }
+
+    /**
+     * get a chunk of log bytes
+     *
+     * @param address log server address
+     * @param request chunk request
+     * @return chunk response
+     * @throws RemotingException if the log server does not respond in time or can not read the log
+     */
+    private GetLogBytesResponseCommand getLogBytesChunk(Host address, GetLogBytesRequestCommand request) throws Exception {
+        Command response = this.client.sendSync(address, request.convert2Command(), LOG_REQUEST_TIMEOUT);
+        if (response == null) {
+            throw new RemotingException(String.format("get log bytes of %s at offset %d from %s timeout",
+                    request.getPath(), request.getOffset(), address));
+        }
+        GetLogBytesResponseCommand chunk = response.deserializeBody(GetLogBytesResponseCommand.class);
+        if (chunk.isError()) {
+            throw new RemotingException(String.format("get log bytes of %s at offset %d from %s error",
+                    request.getPath(), request.getOffset(), address));
+        }
+        return chunk;
     }
 
     /**
@@ -183,8 +341,7 @@ public class LogClientService implements AutoCloseable {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
             if (response != null) {
-                RemoveTaskLogResponseCommand taskLogResponse = JSONUtils.parseObject(
-                        response.getBody(), RemoveTaskLogResponseCommand.class);
+                RemoveTaskLogResponseCommand taskLogResponse = response.deserializeBody(RemoveTaskLogResponseCommand.class);
                 return taskLogResponse.getStatus();
             }
         } catch (Exception e) {
@@ -195,6 +352,178 @@ public class LogClientService implements AutoCloseable {
         return result;
     }
 
+    /**
+     * follow a log, the log server pushes the bytes appended to the log to the listener until the subscription is cancelled
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param offset offset to follow the log from
+     * @param listener listener of the appended bytes, called in the order of the log
+     * @return subscription id
+     */
+    public long tailLog(String host, int port, String path, long offset, LogTailListener listener) throws RemotingException {
+        logger.info("tail log, host : {}, port : {}, path {}, offset {}", host, port, path, offset);
+        Command command = new TailLogRequestCommand(path, offset).convert2Command();
+        long subscriptionId = command.getOpaque();
+        final Host address = new Host(host, port);
+        NettyRemotingClient remotingClient = getTailClient();
+        Channel channel = remotingClient.getChannel(address);
+        if (channel == null) {
+            throw new RemotingException(String.format("connect to : %s fail", address));
+        }
+        TailSubscription subscription = new TailSubscription(subscriptionId, address, channel, listener);
+        tailSubscriptions.put(subscriptionId, subscription);
+        // the log server drops the subscriptions of a lost connection
+        channel.closeFuture().addListener(subscription.closeListener);
+        // the request goes on the channel watched, not on a new one if it is closed meanwhile
+        ChannelFuture future = channel.writeAndFlush(command).awaitUninterruptibly();
+        if (!future.isSuccess()) {
+            tailSubscriptions.remove(subscriptionId);
+            subscription.cancel();
+            throw new RemotingException(String.format("send command : %s , to :%s failed", command, address), future.cause());
+        }
+        return subscriptionId;
+    }
+
+    /**
+     * stop following a log
+     *
+     * @param host host
+     * @param port port
+     * @param subscriptionId subscription id
+     */
+    public void cancelTailLog(String host, int port, long subscriptionId) {
+        TailSubscription subscription = tailSubscriptions.remove(subscriptionId);
+        if (subscription == null) {
+            return;
+        }
+        subscription.cancel();
+        logger.info("cancel tail log, host : {}, port : {}, subscription {}", host, port, subscriptionId);
+        sendTailLogCancel(new Host(host, port), subscriptionId);
+    }
+
+    private void sendTailLogCancel(Host address, long subscriptionId) {
+        try {
+            getTailClient().send(address, new TailLogCancelCommand(subscriptionId).convert2Command());
+        } catch (RemotingException e) {
+            logger.warn("cancel tail log error", e);
+        }
+    }
+
+    private synchronized NettyRemotingClient getTailClient() {
+        if (this.tailClient == null) {
+            NettyRemotingClient remotingClient = new NettyRemotingClient(clientConfig);
+            this.tailExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("LogTailListener"));
+            // the frames are handed to their subscriptions on the io thread, in the order of the log
+            remotingClient.registerProcessor(CommandType.TAIL_LOG_DATA, (channel, command) -> {
+                TailLogDataCommand tailLogData = command.deserializeBody(TailLogDataCommand.class);
+                TailSubscription subscription = tailSubscriptions.get(tailLogData.getSubscriptionId());
+                if (subscription != null) {
+                    subscription.offer(tailLogData);
+                }
+            }, MoreExecutors.newDirectExecutorService());
+            this.tailClient = remotingClient;
+        }
+        return this.tailClient;
+    }
+
+    /**
+     * a followed log, whose listener is called by one task at a time in the order of the log
+     */
+    private class TailSubscription {
+
+        private final long subscriptionId;
+
+        private final Host address;
+
+        private final Channel channel;
+
+        private final LogTailListener listener;
+
+        private final ChannelFutureListener closeListener;
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger pendingTasks = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        TailSubscription(long subscriptionId, Host address, Channel channel, LogTailListener listener) {
+            this.subscriptionId = subscriptionId;
+            this.address = address;
+            this.channel = channel;
+            this.listener = listener;
+            this.closeListener = future -> {
+                if (tailSubscriptions.remove(subscriptionId, this)) {
+                    logger.warn("connection to log server {} closed, stop following subscription {}", address, subscriptionId);
+                    close();
+                }
+            };
+        }
+
+        /**
+         * hand a data frame to the listener, never blocks the io thread
+         */
+        void offer(TailLogDataCommand tailLogData) {
+            if (pendingTasks.get() >= MAX_PENDING_TAIL_FRAMES) {
+                if (tailSubscriptions.remove(subscriptionId, this)) {
+                    logger.warn("log tail listener of subscription {} is {} frames behind, stop following", subscriptionId, MAX_PENDING_TAIL_FRAMES);
+                    close();
+                    // sending waits for the write, which must not happen on the io thread
+                    execute(() -> sendTailLogCancel(address, subscriptionId));
+                }
+                return;
+            }
+            execute(() -> {
+                if (!cancelled) {
+                    listener.onData(tailLogData.getOffset(), tailLogData.getData());
+                }
+            });
+        }
+
+        /**
+         * stop without telling the listener, the frames not yet delivered are dropped
+         */
+        void cancel() {
+            cancelled = true;
+            channel.closeFuture().removeListener(closeListener);
+        }
+
+        /**
+         * stop after the frames received so far and tell the listener
+         */
+        private void close() {
+            channel.closeFuture().removeListener(closeListener);
+            execute(() -> {
+                if (!cancelled) {
+                    listener.onClose();
+                }
+            });
+        }
+
+        private void execute(Runnable task) {
+            tasks.offer(task);
+            if (pendingTasks.getAndIncrement() == 0) {
+                try {
+                    tailExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("log client closed, drop the frames of subscription {}", subscriptionId);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    tasks.poll().run();
+                } catch (Exception e) {
+                    logger.error("log tail listener of subscription {} error", subscriptionId, e);
+                }
+            } while (pendingTasks.decrementAndGet() > 0);
+        }
+    }
+
     public boolean isRunning() {
         return isRunning;
     }
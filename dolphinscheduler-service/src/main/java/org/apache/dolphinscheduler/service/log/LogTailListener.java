@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+/**
+ * listener of a followed task log
+ */
+public interface LogTailListener {
+
+    /**
+     * the bytes appended to the log, whole lines unless a line is longer than a frame
+     *
+     * @param offset offset of the data in the log
+     * @param data log byte data
+     */
+    void onData(long offset, byte[] data);
+
+    /**
+     * the log is no longer followed although the subscription was not cancelled, as the connection to the log server
+     * is lost or the listener fell too far behind, no data follows. the log can be followed again from the last offset
+     */
+    default void onClose() {
+    }
+}
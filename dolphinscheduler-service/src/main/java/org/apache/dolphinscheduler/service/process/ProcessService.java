@@ -69,7 +69,9 @@ public interface ProcessService {
 
     List<Command> findCommandPage(int pageSize, int pageNumber);
 
-    List<Command> findCommandPageBySlot(int pageSize, int pageNumber, int masterCount, int thisMasterSlot);
+    List<Command> claimCommands(int fetchNum, String host);
+
+    int releaseClaimedCommands(String host);
 
     boolean verifyIsNeedCreateCommand(Command command);
 
@@ -131,6 +133,8 @@ public interface ProcessService {
 
     boolean updateTaskInstance(TaskInstance taskInstance);
 
+    void updateTaskInstances(List<TaskInstance> taskInstances);
+
     TaskInstance findTaskInstanceById(Integer taskId);
 
     List<TaskInstance> findTaskInstanceByIdList(List<Integer> idList);
@@ -143,6 +147,8 @@ public interface ProcessService {
 
     List<TaskInstance> findValidTaskListByProcessId(Integer processInstanceId);
 
+    TaskInstance findValidTaskInstanceByTaskCode(Integer processInstanceId, long taskCode);
+
     List<TaskInstance> findPreviousTaskListByWorkProcessId(Integer processInstanceId);
 
     int updateWorkProcessInstanceMap(ProcessInstanceMap processInstanceMap);
@@ -242,6 +248,8 @@ public interface ProcessService {
 
     List<TaskDefinitionLog> getTaskDefineLogListByRelation(List<ProcessTaskRelation> processTaskRelations);
 
+    void evictTaskDefineLogCache(String cacheKey);
+
     TaskDefinition findTaskDefinition(long taskCode, int taskDefinitionVersion);
 
     List<ProcessTaskRelation> findRelationByCode(long processDefinitionCode, int processDefinitionVersion);
@@ -135,6 +135,8 @@ import org.apache.dolphinscheduler.spi.enums.ResourceType;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -149,6 +151,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -158,6 +161,9 @@ import org.springframework.transaction.annotation.Transactional;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 /**
@@ -168,6 +174,14 @@ public class ProcessServiceImpl implements ProcessService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    /**
+     * task definition log cache, key: code_version.
+     * a task definition version never changes except its release flag, which is evicted by the api through CACHE_EXPIRE
+     */
+    private final Cache<String, TaskDefinitionLog> taskDefinitionLogCache = Caffeine.newBuilder()
+        .maximumSize(Constants.TASK_DEFINITION_LOG_CACHE_SIZE)
+        .build();
+
     private final int[] stateArray = new int[] {ExecutionStatus.SUBMITTED_SUCCESS.ordinal(),
         ExecutionStatus.DISPATCH.ordinal(),
         ExecutionStatus.RUNNING_EXECUTION.ordinal(),
@@ -196,6 +210,14 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private TaskInstanceMapper taskInstanceMapper;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    /**
+     * sql session of jdbc batch executor, created on first use
+     */
+    private volatile SqlSessionTemplate batchSqlSession;
+
     @Autowired
     private CommandMapper commandMapper;
 
@@ -422,14 +444,45 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * get command page
+     * claim commands for master
+     * <p>
+     * unclaimed commands are found by an index range scan in priority order and claimed with a conditional update,
+     * so each command is claimed by exactly one master, a master losing the race to others just retries.
+     * when all of them are claimed they are returned as read, otherwise the claimed commands are read again
+     *
+     * @param fetchNum fetch command num
+     * @param host master host
+     * @return commands claimed by the master, including the ones claimed before but not handled yet when nothing new is claimed
      */
     @Override
-    public List<Command> findCommandPageBySlot(int pageSize, int pageNumber, int masterCount, int thisMasterSlot) {
-        if (masterCount <= 0) {
-            return Lists.newArrayList();
+    public List<Command> claimCommands(int fetchNum, String host) {
+        for (int i = 0; i < Constants.CLAIM_COMMAND_RETRY_TIMES; i++) {
+            List<Command> unclaimedCommands = commandMapper.queryUnclaimedCommands(fetchNum);
+            if (CollectionUtils.isEmpty(unclaimedCommands)) {
+                break;
+            }
+            List<Integer> unclaimedIds = unclaimedCommands.stream().map(Command::getId).collect(Collectors.toList());
+            int claimedCount = commandMapper.claimCommands(host, unclaimedIds);
+            if (claimedCount == unclaimedIds.size()) {
+                unclaimedCommands.forEach(command -> command.setHost(host));
+                return unclaimedCommands;
+            }
+            if (claimedCount > 0) {
+                break;
+            }
         }
-        return commandMapper.queryCommandPageBySlot(pageSize, pageNumber * pageSize, masterCount, thisMasterSlot);
+        return commandMapper.queryClaimedCommands(host, fetchNum);
+    }
+
+    /**
+     * release commands claimed by master
+     *
+     * @param host master host
+     * @return released count
+     */
+    @Override
+    public int releaseClaimedCommands(String host) {
+        return commandMapper.releaseClaimedCommands(host);
     }
 
     /**
@@ -1667,6 +1720,37 @@ public class ProcessServiceImpl implements ProcessService {
         return count > 0;
     }
 
+    /**
+     * update task instances with one jdbc batch in one transaction,
+     * the transaction must not have used a sql session of another executor type before
+     *
+     * @param taskInstances task instances already in db
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updateTaskInstances(List<TaskInstance> taskInstances) {
+        if (CollectionUtils.isEmpty(taskInstances)) {
+            return;
+        }
+        SqlSessionTemplate sqlSession = getBatchSqlSession();
+        TaskInstanceMapper batchTaskInstanceMapper = sqlSession.getMapper(TaskInstanceMapper.class);
+        for (TaskInstance taskInstance : taskInstances) {
+            batchTaskInstanceMapper.updateById(taskInstance);
+        }
+        sqlSession.flushStatements();
+    }
+
+    private SqlSessionTemplate getBatchSqlSession() {
+        if (batchSqlSession == null) {
+            synchronized (this) {
+                if (batchSqlSession == null) {
+                    batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+                }
+            }
+        }
+        return batchSqlSession;
+    }
+
     /**
      * find task instance by id
      *
@@ -1799,6 +1883,18 @@ public class ProcessServiceImpl implements ProcessService {
         return taskInstanceMapper.findValidTaskListByProcessId(processInstanceId, Flag.YES);
     }
 
+    /**
+     * find the valid task instance of the task code in the process instance
+     *
+     * @param processInstanceId processInstanceId
+     * @param taskCode taskCode
+     * @return task instance
+     */
+    @Override
+    public TaskInstance findValidTaskInstanceByTaskCode(Integer processInstanceId, long taskCode) {
+        return taskInstanceMapper.queryByInstanceIdAndCode(processInstanceId, taskCode);
+    }
+
     /**
      * find previous task list by work process id
      *
@@ -2671,12 +2767,36 @@ public class ProcessServiceImpl implements ProcessService {
                 taskCodeVersionMap.put(processTaskRelation.getPostTaskCode(), processTaskRelation.getPostTaskVersion());
             }
         }
+        List<TaskDefinition> uncachedTaskDefinitions = new ArrayList<>();
         taskCodeVersionMap.forEach((code, version) -> {
-            taskDefinitionLogs.add((TaskDefinitionLog) this.findTaskDefinition(code, version));
+            TaskDefinitionLog taskDefinitionLog = taskDefinitionLogCache.getIfPresent(getTaskDefineLogCacheKey(code, version));
+            if (taskDefinitionLog != null) {
+                taskDefinitionLogs.add(taskDefinitionLog);
+            } else {
+                uncachedTaskDefinitions.add(new TaskDefinition(code, version));
+            }
         });
+        for (List<TaskDefinition> taskDefinitions : Iterables.partition(uncachedTaskDefinitions, Constants.TASK_DEFINITION_LOG_BATCH_QUERY_SIZE)) {
+            for (TaskDefinitionLog taskDefinitionLog : taskDefinitionLogMapper.queryByTaskDefinitions(taskDefinitions)) {
+                taskDefinitionLogCache.put(getTaskDefineLogCacheKey(taskDefinitionLog.getCode(), taskDefinitionLog.getVersion()), taskDefinitionLog);
+                taskDefinitionLogs.add(taskDefinitionLog);
+            }
+        }
         return taskDefinitionLogs;
     }
 
+    @Override
+    public void evictTaskDefineLogCache(String cacheKey) {
+        taskDefinitionLogCache.invalidate(cacheKey);
+    }
+
+    /**
+     * same as the key of TaskDefinitionLogMapper cache evict
+     */
+    private String getTaskDefineLogCacheKey(long code, int version) {
+        return code + "_" + version;
+    }
+
     /**
      * find task definition by code and version
      */
@@ -20,26 +20,51 @@ package org.apache.dolphinscheduler.service.queue;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Task instances priority queue implementation
  * All the task instances are in the same process instance.
+ * The binary heap is indexed by the task instance and by the task code and version,
+ * so that contains is O(1) and remove is O(log n), the task instances of the same priority are taken in insertion order.
  */
 public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInstance> {
     /**
-     * queue size
+     * initial heap capacity
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final Comparator<TaskInstance> TASK_INFO_COMPARATOR = new TaskInfoComparator();
+
+    /**
+     * heap of the queued task instances
+     */
+    private Entry[] heap = new Entry[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * heap entry by task instance
      */
-    private static final Integer QUEUE_MAX_SIZE = 3000;
+    private final Map<TaskInstance, Entry> entries = new IdentityHashMap<>();
 
     /**
-     * queue
+     * count of the queued task instances by task code and version
      */
-    private PriorityQueue<TaskInstance> queue = new PriorityQueue<>(QUEUE_MAX_SIZE, new TaskInfoComparator());
+    private final Map<TaskKey, Integer> taskKeyCounts = new HashMap<>();
+
+    /**
+     * insertion sequence, keeps the order of the task instances with the same priority
+     */
+    private long sequence;
 
     /**
      * Lock used for all public operations
@@ -54,7 +79,21 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     @Override
     public void put(TaskInstance taskInstance) throws TaskPriorityQueueException {
-        queue.add(taskInstance);
+        if (taskInstance == null) {
+            throw new TaskPriorityQueueException("task instance is null");
+        }
+        if (entries.containsKey(taskInstance)) {
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        Entry entry = new Entry(taskInstance, sequence++);
+        entries.put(taskInstance, entry);
+        taskKeyCounts.merge(new TaskKey(taskInstance), 1, Integer::sum);
+        entry.index = size++;
+        heap[entry.index] = entry;
+        siftUp(entry.index);
     }
 
     /**
@@ -65,7 +104,12 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     @Override
     public TaskInstance take() throws TaskPriorityQueueException {
-        return queue.poll();
+        if (size == 0) {
+            return null;
+        }
+        TaskInstance taskInstance = heap[0].taskInstance;
+        removeAt(0);
+        return taskInstance;
     }
 
     /**
@@ -91,7 +135,7 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      * @return task instance
      */
     public TaskInstance peek() {
-        return queue.peek();
+        return size == 0 ? null : heap[0].taskInstance;
     }
 
     /**
@@ -101,7 +145,7 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     @Override
     public int size() {
-        return queue.size();
+        return size;
     }
 
     /**
@@ -109,7 +153,10 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      *
      */
     public void clear() {
-        queue.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        entries.clear();
+        taskKeyCounts.clear();
     }
 
     /**
@@ -123,16 +170,7 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
     }
 
     public boolean contains(long taskCode, int taskVersion) {
-        Iterator<TaskInstance> iterator = this.queue.iterator();
-        while (iterator.hasNext()) {
-            TaskInstance taskInstance = iterator.next();
-            if (taskCode == taskInstance.getTaskCode()
-                    && taskVersion == taskInstance.getTaskDefinitionVersion()) {
-                return true;
-            }
-        }
-        return false;
-
+        return taskKeyCounts.containsKey(new TaskKey(taskCode, taskVersion));
     }
 
     /**
@@ -142,22 +180,156 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      * @return true if remove success
      */
     public boolean remove(TaskInstance taskInstance) {
-        return queue.remove(taskInstance);
+        Entry entry = entries.get(taskInstance);
+        if (entry == null) {
+            return false;
+        }
+        removeAt(entry.index);
+        return true;
     }
 
     /**
-     * get iterator
+     * get iterator, the task instances are not in priority order and can not be removed by the iterator
      *
      * @return Iterator
      */
     public Iterator<TaskInstance> iterator() {
-        return queue.iterator();
+        return new Iterator<TaskInstance>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public TaskInstance next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return heap[cursor++].taskInstance;
+            }
+        };
+    }
+
+    private void removeAt(int index) {
+        Entry removed = heap[index];
+        entries.remove(removed.taskInstance);
+        TaskKey taskKey = new TaskKey(removed.taskInstance);
+        taskKeyCounts.computeIfPresent(taskKey, (key, count) -> count == 1 ? null : count - 1);
+
+        int last = --size;
+        Entry moved = heap[last];
+        heap[last] = null;
+        if (index == last) {
+            return;
+        }
+        heap[index] = moved;
+        moved.index = index;
+        siftDown(index);
+        if (heap[index] == moved) {
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < size && compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private int compare(Entry o1, Entry o2) {
+        int result = TASK_INFO_COMPARATOR.compare(o1.taskInstance, o2.taskInstance);
+        return result != 0 ? result : Long.compare(o1.sequence, o2.sequence);
+    }
+
+    /**
+     * heap entry of a task instance
+     */
+    private static class Entry {
+
+        private final TaskInstance taskInstance;
+
+        private final long sequence;
+
+        private int index;
+
+        Entry(TaskInstance taskInstance, long sequence) {
+            this.taskInstance = taskInstance;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * task code and version
+     */
+    private static class TaskKey {
+
+        private final long taskCode;
+
+        private final int taskVersion;
+
+        TaskKey(TaskInstance taskInstance) {
+            this(taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
+        }
+
+        TaskKey(long taskCode, int taskVersion) {
+            this.taskCode = taskCode;
+            this.taskVersion = taskVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TaskKey taskKey = (TaskKey) o;
+            return taskCode == taskKey.taskCode && taskVersion == taskKey.taskVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(taskCode) + taskVersion;
+        }
     }
 
     /**
      * TaskInfoComparator
      */
-    private class TaskInfoComparator implements Comparator<TaskInstance> {
+    private static class TaskInfoComparator implements Comparator<TaskInstance> {
 
         /**
          * compare o1 o2
@@ -17,37 +17,214 @@
 
 package org.apache.dolphinscheduler.service.queue;
 
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.common.thread.Stopper;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 /**
- * A singleton of a task queue implemented using PriorityBlockingQueue
+ * A singleton of a bounded task queue, the tasks are queued by worker group and ordered by priority in each group.
+ * A task is only admitted while the queue of its worker group is below the limit of its priority, so the submitters
+ * are pushed back during a schedule storm and the lower priorities are held back first. The limit is per worker group,
+ * so a worker group without available workers only holds back the submitters of its own tasks. The master submits
+ * with {@link #offer}, which never waits, and retries a rejected task later, so a full worker group does not hold back
+ * the thread that submits it either. Tasks that failed to
+ * dispatch are parked with their worker group until a worker of the group changes or the park timeout elapses.
+ * The tasks of a worker group can be polled on their own, so that every worker group can be dispatched by an
+ * independent lane.
  */
 @Service
 public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
     /**
-     * queue size
+     * queue size of a worker group
+     */
+    private static final int QUEUE_MAX_SIZE = 3000;
+
+    /**
+     * share of the capacity the lowest priority may fill, the higher priorities may fill proportionally more
+     */
+    private static final double LOWEST_PRIORITY_ADMISSION_RATIO = 0.6;
+
+    /**
+     * a parked worker group is retried after this time even if no worker change is seen
+     */
+    private static final long PARK_TIMEOUT_MILLIS = 10_000L;
+
+    /**
+     * interval to check the stopper while a put waits for capacity
+     */
+    private static final long ADMISSION_CHECK_MILLIS = 1000L;
+
+    private final int capacity;
+
+    private final long parkTimeoutMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * queued tasks by worker group
      */
-    private static final Integer QUEUE_MAX_SIZE = 3000;
+    private final Map<String, PriorityQueue<QueuedTask>> groupQueues = new HashMap<>();
 
     /**
-     * queue
+     * parked worker groups and the time they are retried at the latest
      */
-    private PriorityBlockingQueue<TaskPriority> queue = new PriorityBlockingQueue<>(QUEUE_MAX_SIZE);
+    private final Map<String, Long> parkedGroups = new HashMap<>();
+
+    private int count;
+
+    /**
+     * wait time timers by worker group
+     */
+    private final Map<String, Timer> waitTimers = new HashMap<>();
+
+    private final Counter rejectionCounter;
+
+    private final Counter parkCounter;
+
+    public TaskPriorityQueueImpl() {
+        this(QUEUE_MAX_SIZE, PARK_TIMEOUT_MILLIS);
+    }
+
+    public TaskPriorityQueueImpl(int capacity, long parkTimeoutMillis) {
+        this.capacity = capacity;
+        this.parkTimeoutMillis = parkTimeoutMillis;
+        Gauge.builder("task_priority_queue_size", this, TaskPriorityQueueImpl::queuedCount)
+            .description("tasks waiting in the task priority queue, including the parked ones")
+            .register(Metrics.globalRegistry);
+        Gauge.builder("task_priority_queue_parked_worker_groups", this, TaskPriorityQueueImpl::parkedGroupCount)
+            .description("worker groups whose tasks are parked after a failed dispatch")
+            .register(Metrics.globalRegistry);
+        this.rejectionCounter = Counter.builder("task_priority_queue_rejections")
+            .description("tasks held back by the admission control of the task priority queue")
+            .register(Metrics.globalRegistry);
+        this.parkCounter = Counter.builder("task_priority_queue_parks")
+            .description("tasks parked after a failed dispatch")
+            .register(Metrics.globalRegistry);
+    }
 
     /**
-     * put task takePriorityInfo
+     * put task takePriorityInfo, waits while the queue of its worker group is above the admission limit of the task priority
      *
      * @param taskPriorityInfo takePriorityInfo
-     * @throws TaskPriorityQueueException
+     * @throws TaskPriorityQueueException if the server stops or the thread is interrupted while waiting
      */
     @Override
     public void put(TaskPriority taskPriorityInfo) throws TaskPriorityQueueException {
-        queue.put(taskPriorityInfo);
+        int limit = admissionLimit(taskPriorityInfo);
+        String workerGroup = workerGroup(taskPriorityInfo);
+        lock.lock();
+        try {
+            boolean rejected = false;
+            while (groupCount(workerGroup) >= limit) {
+                if (!rejected) {
+                    rejectionCounter.increment();
+                    rejected = true;
+                }
+                if (Stopper.isStopped()) {
+                    throw new TaskPriorityQueueException("server is stopping, task " + taskPriorityInfo.getTaskId() + " is not queued");
+                }
+                notFull.await(ADMISSION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            enqueue(taskPriorityInfo);
+            notEmpty.signalAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskPriorityQueueException("interrupted while waiting to queue task " + taskPriorityInfo.getTaskId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * offer task takePriorityInfo without waiting
+     *
+     * @param taskPriorityInfo takePriorityInfo
+     * @return false if the queue of its worker group is above the admission limit of the task priority
+     */
+    public boolean offer(TaskPriority taskPriorityInfo) {
+        int limit = admissionLimit(taskPriorityInfo);
+        String workerGroup = workerGroup(taskPriorityInfo);
+        lock.lock();
+        try {
+            if (groupCount(workerGroup) >= limit) {
+                rejectionCounter.increment();
+                return false;
+            }
+            enqueue(taskPriorityInfo);
+            notEmpty.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * park a task that failed to dispatch, its worker group is not polled until it is unparked,
+     * the task bypasses the admission control since it has been admitted already
+     *
+     * @param taskPriorityInfo takePriorityInfo
+     */
+    public void park(TaskPriority taskPriorityInfo) {
+        lock.lock();
+        try {
+            enqueue(taskPriorityInfo);
+            parkedGroups.put(workerGroup(taskPriorityInfo), System.currentTimeMillis() + parkTimeoutMillis);
+            parkCounter.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * unpark a worker group, e.g. when its workers changed
+     *
+     * @param workerGroup worker group
+     */
+    public void unpark(String workerGroup) {
+        lock.lock();
+        try {
+            if (parkedGroups.remove(workerGroup) != null && groupQueues.containsKey(workerGroup)) {
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * whether a worker group is parked
+     *
+     * @param workerGroup worker group
+     * @return true if parked
+     */
+    public boolean isParked(String workerGroup) {
+        lock.lock();
+        try {
+            return parkedGroups.containsKey(workerGroup);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -58,11 +235,15 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority take() throws TaskPriorityQueueException, InterruptedException {
-        return queue.take();
+        TaskPriority taskPriority;
+        do {
+            taskPriority = poll(ADMISSION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        } while (taskPriority == null);
+        return taskPriority;
     }
 
     /**
-     * poll taskInfo with timeout
+     * poll the task of the highest priority among the groups that are not parked, with timeout
      *
      * @param timeout
      * @param unit
@@ -72,17 +253,187 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority poll(long timeout, TimeUnit unit) throws TaskPriorityQueueException, InterruptedException {
-        return queue.poll(timeout,unit);
+        return poll(null, timeout, unit);
+    }
+
+    /**
+     * poll the task of the highest priority of a worker group with timeout, nothing is returned while the group is parked
+     *
+     * @param workerGroup worker group, null to poll from all the groups that are not parked
+     * @param timeout timeout
+     * @param unit time unit
+     * @return task of the highest priority, null if none is available before the timeout
+     * @throws InterruptedException
+     */
+    public TaskPriority poll(String workerGroup, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                QueuedTask head = dequeue(workerGroup, now);
+                if (head != null) {
+                    notFull.signalAll();
+                    waitTimer(head.workerGroup).record(System.nanoTime() - head.enqueueNanos, TimeUnit.NANOSECONDS);
+                    return head.taskPriority;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                notEmpty.awaitNanos(Math.min(remaining, nanosToNextUnpark(now)));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * queue size
+     * queue size, including the parked tasks
      *
      * @return size
      * @throws TaskPriorityQueueException
      */
     @Override
     public int size() throws TaskPriorityQueueException {
-        return queue.size();
+        return queuedCount();
+    }
+
+    /**
+     * worker groups that have queued tasks, including the parked ones
+     *
+     * @return worker groups
+     */
+    public Set<String> getWorkerGroups() {
+        lock.lock();
+        try {
+            return new HashSet<>(groupQueues.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int queuedCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int groupCount(String workerGroup) {
+        PriorityQueue<QueuedTask> queue = groupQueues.get(workerGroup);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private int parkedGroupCount() {
+        lock.lock();
+        try {
+            return parkedGroups.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * the queue size of the worker group below which a task is admitted, from the whole capacity for the highest
+     * priority down to {@link #LOWEST_PRIORITY_ADMISSION_RATIO} of it for the lowest
+     */
+    private int admissionLimit(TaskPriority taskPriority) {
+        int level = Math.max(Priority.HIGHEST.getCode(), Math.min(Priority.LOWEST.getCode(), taskPriority.getProcessInstancePriority()));
+        double ratio = 1 - (1 - LOWEST_PRIORITY_ADMISSION_RATIO) * level / Priority.LOWEST.getCode();
+        return Math.max(1, (int) (capacity * ratio));
+    }
+
+    private void enqueue(TaskPriority taskPriority) {
+        String workerGroup = workerGroup(taskPriority);
+        groupQueues.computeIfAbsent(workerGroup, k -> new PriorityQueue<>())
+            .add(new QueuedTask(taskPriority, workerGroup, System.nanoTime()));
+        count++;
+    }
+
+    private QueuedTask dequeue(String workerGroup, long now) {
+        if (workerGroup != null) {
+            PriorityQueue<QueuedTask> queue = groupQueues.get(workerGroup);
+            return queue == null || isParked(workerGroup, now) ? null : dequeue(workerGroup, queue);
+        }
+        PriorityQueue<QueuedTask> headQueue = null;
+        String headGroup = null;
+        for (Map.Entry<String, PriorityQueue<QueuedTask>> entry : groupQueues.entrySet()) {
+            if (isParked(entry.getKey(), now)) {
+                continue;
+            }
+            PriorityQueue<QueuedTask> queue = entry.getValue();
+            if (headQueue == null || queue.peek().compareTo(headQueue.peek()) < 0) {
+                headQueue = queue;
+                headGroup = entry.getKey();
+            }
+        }
+        return headQueue == null ? null : dequeue(headGroup, headQueue);
+    }
+
+    private QueuedTask dequeue(String workerGroup, PriorityQueue<QueuedTask> queue) {
+        QueuedTask head = queue.poll();
+        if (queue.isEmpty()) {
+            groupQueues.remove(workerGroup);
+        }
+        count--;
+        return head;
+    }
+
+    private Timer waitTimer(String workerGroup) {
+        return waitTimers.computeIfAbsent(String.valueOf(workerGroup), group -> Timer.builder("task_priority_queue_wait_time")
+            .description("time a task waits in the task priority queue before it is taken for dispatch")
+            .tag("worker_group", group)
+            .register(Metrics.globalRegistry));
+    }
+
+    private boolean isParked(String workerGroup, long now) {
+        Long retryTime = parkedGroups.get(workerGroup);
+        if (retryTime == null) {
+            return false;
+        }
+        if (retryTime <= now) {
+            parkedGroups.remove(workerGroup);
+            return false;
+        }
+        return true;
+    }
+
+    private long nanosToNextUnpark(long now) {
+        long nextRetryTime = Long.MAX_VALUE;
+        for (long retryTime : parkedGroups.values()) {
+            nextRetryTime = Math.min(nextRetryTime, retryTime);
+        }
+        return nextRetryTime == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(Math.max(1, nextRetryTime - now));
+    }
+
+    private static String workerGroup(TaskPriority taskPriority) {
+        TaskExecutionContext context = taskPriority.getTaskExecutionContext();
+        return context != null && context.getWorkerGroup() != null ? context.getWorkerGroup() : taskPriority.getGroupName();
+    }
+
+    /**
+     * queued task with the time it was queued at
+     */
+    private static class QueuedTask implements Comparable<QueuedTask> {
+
+        private final TaskPriority taskPriority;
+
+        private final String workerGroup;
+
+        private final long enqueueNanos;
+
+        QueuedTask(TaskPriority taskPriority, String workerGroup, long enqueueNanos) {
+            this.taskPriority = taskPriority;
+            this.workerGroup = workerGroup;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        @Override
+        public int compareTo(QueuedTask other) {
+            return taskPriority.compareTo(other.taskPriority);
+        }
     }
 }
@@ -22,23 +22,36 @@ import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogDataCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.Host;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.Test.None;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({LogClientService.class, NetUtils.class, LoggerUtils.class, NettyRemotingClient.class})
 public class LogClientServiceTest {
@@ -120,6 +133,80 @@ public class LogClientServiceTest {
         Assert.assertNotNull(logBytes);
     }
 
+    @Test
+    public void testGetLogBytesInChunks() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+
+        int chunkSize = 1024 * 1024;
+        Command first = new Command();
+        first.setBody(JSONUtils.toJsonByteArray(new GetLogBytesResponseCommand(new byte[chunkSize], false, chunkSize, 0)));
+        Command last = new Command();
+        last.setBody(JSONUtils.toJsonByteArray(new GetLogBytesResponseCommand(new byte[10], false, 10, chunkSize)));
+        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(first, last);
+
+        LogClientService logClientService = new LogClientService();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logClientService.getLogBytes("localhost", 1234, "/tmp/log", out);
+        Assert.assertEquals(chunkSize + 10, out.size());
+    }
+
+    @Test
+    public void testGetLogBytesFromLogServerIgnoringOffset() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+
+        // the whole log of exactly one chunk, without the offset
+        Command command = new Command();
+        command.setBody(JSONUtils.toJsonByteArray(new GetLogBytesResponseCommand(new byte[1024 * 1024])));
+        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(command);
+
+        LogClientService logClientService = new LogClientService();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logClientService.getLogBytes("localhost", 1234, "/tmp/log", out);
+        Assert.assertEquals(1024 * 1024, out.size());
+        Mockito.verify(remotingClient, Mockito.times(1)).sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong());
+    }
+
+    @Test(expected = RemotingException.class)
+    public void testGetLogBytesTimeout() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(null);
+
+        LogClientService logClientService = new LogClientService();
+        logClientService.getLogBytes("localhost", 1234, "/tmp/log", new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testGetLogBytesError() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+
+        int chunkSize = 1024 * 1024;
+        Command first = new Command();
+        first.setBody(JSONUtils.toJsonByteArray(new GetLogBytesResponseCommand(new byte[chunkSize], false, chunkSize, 0)));
+        // the log server can not read the second chunk
+        GetLogBytesResponseCommand errorResponse = new GetLogBytesResponseCommand(new byte[0], false, 0, chunkSize);
+        errorResponse.setError(true);
+        Command second = new Command();
+        second.setBody(JSONUtils.toJsonByteArray(errorResponse));
+        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(first, second);
+
+        LogClientService logClientService = new LogClientService();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            logClientService.getLogBytes("localhost", 1234, "/tmp/log", out);
+            Assert.fail("an unreadable chunk must not end the log");
+        } catch (RemotingException e) {
+            Assert.assertEquals(chunkSize, out.size());
+        }
+    }
+
     @Test
     public void testRemoveTaskLog() throws Exception {
         NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
@@ -135,6 +222,73 @@ public class LogClientServiceTest {
         Assert.assertTrue(status);
     }
 
+    @Test
+    public void testTailLogWithSlowListener() throws Exception {
+        NettyRemotingClient remotingClient = mockTailClient(Mockito.mock(ChannelFuture.class));
+        LogClientService logClientService = new LogClientService();
+
+        CountDownLatch slowListenerRelease = new CountDownLatch(1);
+        long slowSubscription = logClientService.tailLog("localhost", 1234, "/tmp/a.log", 0, (offset, data) -> {
+            try {
+                slowListenerRelease.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CountDownLatch received = new CountDownLatch(1);
+        long subscription = logClientService.tailLog("localhost", 1234, "/tmp/b.log", 0, (offset, data) -> received.countDown());
+
+        NettyRequestProcessor processor = getTailLogDataProcessor(remotingClient);
+        Channel channel = remotingClient.getChannel(new Host("localhost", 1234));
+        processor.process(channel, new TailLogDataCommand(slowSubscription, 0, new byte[1]).convert2Command());
+        processor.process(channel, new TailLogDataCommand(subscription, 0, new byte[1]).convert2Command());
+        // a listener blocked on its browser does not hold back the other followed logs
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        slowListenerRelease.countDown();
+        logClientService.close();
+    }
+
+    @Test
+    public void testTailLogConnectionClosed() throws Exception {
+        ChannelFuture closeFuture = Mockito.mock(ChannelFuture.class);
+        mockTailClient(closeFuture);
+        LogClientService logClientService = new LogClientService();
+
+        LogTailListener listener = Mockito.mock(LogTailListener.class);
+        logClientService.tailLog("localhost", 1234, "/tmp/a.log", 0, listener);
+        LogTailListener cancelledListener = Mockito.mock(LogTailListener.class);
+        long cancelledSubscription = logClientService.tailLog("localhost", 1234, "/tmp/b.log", 0, cancelledListener);
+        logClientService.cancelTailLog("localhost", 1234, cancelledSubscription);
+
+        ArgumentCaptor<ChannelFutureListener> closeListeners = ArgumentCaptor.forClass(ChannelFutureListener.class);
+        Mockito.verify(closeFuture, Mockito.times(2)).addListener(closeListeners.capture());
+        for (ChannelFutureListener closeListener : closeListeners.getAllValues()) {
+            closeListener.operationComplete(closeFuture);
+        }
+        Mockito.verify(listener, Mockito.timeout(5000)).onClose();
+        Mockito.verify(cancelledListener, Mockito.never()).onClose();
+        logClientService.close();
+    }
+
+    private NettyRemotingClient mockTailClient(ChannelFuture closeFuture) throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+        Channel channel = Mockito.mock(Channel.class);
+        ChannelFuture writeFuture = Mockito.mock(ChannelFuture.class);
+        Mockito.when(writeFuture.awaitUninterruptibly()).thenReturn(writeFuture);
+        Mockito.when(writeFuture.isSuccess()).thenReturn(true);
+        Mockito.when(channel.writeAndFlush(Mockito.any())).thenReturn(writeFuture);
+        Mockito.when(channel.closeFuture()).thenReturn(closeFuture);
+        Mockito.when(remotingClient.getChannel(Mockito.any(Host.class))).thenReturn(channel);
+        return remotingClient;
+    }
+
+    private NettyRequestProcessor getTailLogDataProcessor(NettyRemotingClient remotingClient) {
+        ArgumentCaptor<NettyRequestProcessor> processor = ArgumentCaptor.forClass(NettyRequestProcessor.class);
+        Mockito.verify(remotingClient).registerProcessor(Mockito.eq(CommandType.TAIL_LOG_DATA), processor.capture(), Mockito.any(ExecutorService.class));
+        return processor.getValue();
+    }
+
     @Test
     public void testIsRunning() {
         LogClientService logClientService = new LogClientService();
@@ -39,6 +39,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstanceMap;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
 import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelationLog;
 import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
@@ -88,6 +89,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -743,6 +745,35 @@ public class ProcessServiceTest {
         Assert.assertEquals(1, stringTaskNodeTaskNodeRelationDAG.getNodesCount());
     }
 
+    @Test
+    public void testGetTaskDefineLogListByRelation() {
+        ProcessTaskRelation processTaskRelation = new ProcessTaskRelation();
+        processTaskRelation.setPreTaskCode(2L);
+        processTaskRelation.setPreTaskVersion(1);
+        processTaskRelation.setPostTaskCode(3L);
+        processTaskRelation.setPostTaskVersion(2);
+        List<ProcessTaskRelation> processTaskRelations = Collections.singletonList(processTaskRelation);
+
+        TaskDefinitionLog taskDefinitionLog2 = new TaskDefinitionLog();
+        taskDefinitionLog2.setCode(2L);
+        taskDefinitionLog2.setVersion(1);
+        TaskDefinitionLog taskDefinitionLog3 = new TaskDefinitionLog();
+        taskDefinitionLog3.setCode(3L);
+        taskDefinitionLog3.setVersion(2);
+        Mockito.when(taskDefinitionLogMapper.queryByTaskDefinitions(any()))
+            .thenReturn(Arrays.asList(taskDefinitionLog2, taskDefinitionLog3))
+            .thenReturn(Collections.singletonList(taskDefinitionLog3));
+
+        Assert.assertEquals(2, processService.getTaskDefineLogListByRelation(processTaskRelations).size());
+        // served by the cache
+        Assert.assertEquals(2, processService.getTaskDefineLogListByRelation(processTaskRelations).size());
+        Mockito.verify(taskDefinitionLogMapper, Mockito.times(1)).queryByTaskDefinitions(any());
+
+        processService.evictTaskDefineLogCache("3_2");
+        Assert.assertEquals(2, processService.getTaskDefineLogListByRelation(processTaskRelations).size());
+        Mockito.verify(taskDefinitionLogMapper, Mockito.times(2)).queryByTaskDefinitions(any());
+    }
+
     @Test
     public void testCreateCommand() {
         Command command = new Command();
@@ -846,13 +877,27 @@ public class ProcessServiceTest {
     }
 
     @Test
-    public void testFindCommandPageBySlot() {
-        int pageSize = 1;
-        int pageNumber = 0;
-        int masterCount = 0;
-        int thisMasterSlot = 2;
-        List<Command> commandList = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
-        Assert.assertEquals(0, commandList.size());
+    public void testClaimCommands() {
+        int fetchNum = 10;
+        String host = "127.0.0.1:5678";
+        List<Integer> unclaimedIds = Collections.singletonList(1);
+        Command command = new Command();
+        command.setId(1);
+        Mockito.when(commandMapper.queryUnclaimedCommands(fetchNum)).thenReturn(Collections.singletonList(command));
+        Mockito.when(commandMapper.claimCommands(host, unclaimedIds)).thenReturn(1);
+
+        // all claimed, returned as read
+        List<Command> commandList = processService.claimCommands(fetchNum, host);
+        Assert.assertEquals(1, commandList.size());
+        Assert.assertEquals(host, commandList.get(0).getHost());
+        Mockito.verify(commandMapper, Mockito.times(1)).claimCommands(host, unclaimedIds);
+        Mockito.verify(commandMapper, Mockito.never()).queryClaimedCommands(host, fetchNum);
+
+        // lose all claims to other masters
+        Mockito.when(commandMapper.claimCommands(host, unclaimedIds)).thenReturn(0);
+        Mockito.when(commandMapper.queryClaimedCommands(host, fetchNum)).thenReturn(Collections.emptyList());
+        Assert.assertEquals(0, processService.claimCommands(fetchNum, host).size());
+        Mockito.verify(commandMapper, Mockito.times(1 + Constants.CLAIM_COMMAND_RETRY_TIMES)).claimCommands(host, unclaimedIds);
     }
 
     private TaskGroupQueue getTaskGroupQueue() {
@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
@@ -87,6 +88,55 @@ public class PeerTaskInstancePriorityQueueTest {
         Assert.assertNotEquals(peekBeforeLength, queue.size());
     }
 
+    @Test
+    public void takeInPriorityOrder() throws Exception {
+        PeerTaskInstancePriorityQueue queue = new PeerTaskInstancePriorityQueue();
+        TaskInstance low = createTaskInstance("low", Priority.LOW, 1L);
+        TaskInstance medium1 = createTaskInstance("medium1", Priority.MEDIUM, 2L);
+        TaskInstance highest = createTaskInstance("highest", Priority.HIGHEST, 3L);
+        TaskInstance medium2 = createTaskInstance("medium2", Priority.MEDIUM, 4L);
+        queue.put(low);
+        queue.put(medium1);
+        queue.put(highest);
+        queue.put(medium2);
+        Assert.assertEquals(highest, queue.take());
+        Assert.assertEquals(medium1, queue.take());
+        Assert.assertEquals(medium2, queue.take());
+        Assert.assertEquals(low, queue.take());
+        Assert.assertNull(queue.take());
+    }
+
+    @Test
+    public void containsAfterRemove() throws Exception {
+        PeerTaskInstancePriorityQueue queue = new PeerTaskInstancePriorityQueue();
+        for (int i = 0; i < 100; i++) {
+            queue.put(createTaskInstance("task" + i, Priority.values()[i % Priority.values().length], i));
+        }
+        TaskInstance removed = createTaskInstance("task50", Priority.LOW, 50L);
+        Assert.assertTrue(queue.contains(50L, 0));
+        Assert.assertFalse(queue.remove(removed));
+        Assert.assertTrue(queue.contains(removed));
+
+        for (Iterator<TaskInstance> iterator = queue.iterator(); iterator.hasNext(); ) {
+            TaskInstance taskInstance = iterator.next();
+            if (taskInstance.getTaskCode() % 2 == 0) {
+                Assert.assertTrue(queue.remove(taskInstance));
+                iterator = queue.iterator();
+            }
+        }
+        Assert.assertEquals(50, queue.size());
+        Assert.assertFalse(queue.contains(50L, 0));
+        Assert.assertTrue(queue.contains(51L, 0));
+
+        Priority last = Priority.HIGHEST;
+        while (queue.size() > 0) {
+            TaskInstance taskInstance = queue.take();
+            Assert.assertTrue(taskInstance.getTaskInstancePriority().compareTo(last) >= 0);
+            last = taskInstance.getTaskInstancePriority();
+        }
+        Assert.assertFalse(queue.contains(51L, 0));
+    }
+
     /**
      * get queue
      *
@@ -115,4 +165,10 @@ public class PeerTaskInstancePriorityQueueTest {
         taskInstance.setTaskInstancePriority(priority);
         return taskInstance;
     }
+
+    private TaskInstance createTaskInstance(String name, Priority priority, long taskCode) {
+        TaskInstance taskInstance = createTaskInstance(name, priority);
+        taskInstance.setTaskCode(taskCode);
+        return taskInstance;
+    }
 }
@@ -18,9 +18,12 @@
 package org.apache.dolphinscheduler.service.queue;
 
 import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -111,6 +114,141 @@ public class TaskPriorityQueueImplTest {
         Assert.assertTrue(getPriorityQueue().size() == 2);
     }
 
+    @Test
+    public void testAdmissionByPriority() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 60000);
+        // the lowest priority may only fill 60% of the capacity
+        for (int i = 0; i < 6; i++) {
+            queue.put(createTaskPriority(Priority.LOWEST.getCode(), i));
+        }
+        Thread blockedPut = new Thread(() -> {
+            try {
+                queue.put(createTaskPriority(Priority.LOWEST.getCode(), 6));
+            } catch (TaskPriorityQueueException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        blockedPut.start();
+        blockedPut.join(200);
+        Assert.assertTrue(blockedPut.isAlive());
+
+        // a higher priority is still admitted
+        queue.put(createTaskPriority(Priority.HIGHEST.getCode(), 7));
+        Assert.assertEquals(7, queue.size());
+        Assert.assertEquals(Priority.HIGHEST.getCode(), queue.poll(0, TimeUnit.MILLISECONDS).getProcessInstancePriority());
+
+        queue.poll(0, TimeUnit.MILLISECONDS);
+        blockedPut.join(2000);
+        Assert.assertFalse(blockedPut.isAlive());
+        Assert.assertEquals(6, queue.size());
+    }
+
+    @Test
+    public void testAdmissionByWorkerGroup() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 60000);
+        // a worker group without workers fills its share with parked tasks
+        for (int i = 0; i < 10; i++) {
+            queue.put(new TaskPriority(Priority.HIGHEST.getCode(), i, 0, i, "group_dead"));
+        }
+        List<TaskPriority> failedTasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            failedTasks.add(queue.poll("group_dead", 0, TimeUnit.MILLISECONDS));
+        }
+        failedTasks.forEach(queue::park);
+        Assert.assertTrue(queue.isParked("group_dead"));
+
+        Thread blockedPut = new Thread(() -> {
+            try {
+                queue.put(new TaskPriority(Priority.HIGHEST.getCode(), 10, 0, 10, "group_dead"));
+            } catch (TaskPriorityQueueException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        blockedPut.start();
+        blockedPut.join(200);
+        Assert.assertTrue(blockedPut.isAlive());
+
+        // another worker group is still admitted
+        Thread otherPut = new Thread(() -> {
+            try {
+                queue.put(new TaskPriority(Priority.LOWEST.getCode(), 11, 0, 11, "group_alive"));
+            } catch (TaskPriorityQueueException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        otherPut.start();
+        otherPut.join(2000);
+        Assert.assertFalse(otherPut.isAlive());
+        Assert.assertEquals(11, queue.size());
+        Assert.assertEquals(11, queue.poll("group_alive", 0, TimeUnit.MILLISECONDS).getTaskId());
+
+        queue.unpark("group_dead");
+        queue.poll("group_dead", 0, TimeUnit.MILLISECONDS);
+        blockedPut.join(2000);
+        Assert.assertFalse(blockedPut.isAlive());
+    }
+
+    @Test
+    public void testOfferByWorkerGroup() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 60000);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.offer(new TaskPriority(Priority.HIGHEST.getCode(), i, 0, i, "group_full")));
+        }
+        // a full worker group rejects without waiting, another worker group is still admitted
+        Assert.assertFalse(queue.offer(new TaskPriority(Priority.HIGHEST.getCode(), 10, 0, 10, "group_full")));
+        Assert.assertTrue(queue.offer(new TaskPriority(Priority.LOWEST.getCode(), 11, 0, 11, "group_other")));
+        Assert.assertEquals(11, queue.size());
+
+        queue.poll("group_full", 0, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(queue.offer(new TaskPriority(Priority.HIGHEST.getCode(), 10, 0, 10, "group_full")));
+    }
+
+    @Test
+    public void testParkWorkerGroup() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 60000);
+        TaskPriority parkedTask = new TaskPriority(Priority.HIGHEST.getCode(), 1, 0, 1, "group_a");
+        TaskPriority otherTask = new TaskPriority(Priority.LOW.getCode(), 2, 0, 2, "group_b");
+        queue.park(parkedTask);
+        queue.put(otherTask);
+        Assert.assertTrue(queue.isParked("group_a"));
+        Assert.assertEquals(2, queue.size());
+
+        // the parked group is skipped even though its task has the higher priority
+        Assert.assertEquals(otherTask, queue.poll(0, TimeUnit.MILLISECONDS));
+        Assert.assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+
+        queue.unpark("group_a");
+        Assert.assertFalse(queue.isParked("group_a"));
+        Assert.assertEquals(parkedTask, queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPollWorkerGroup() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 60000);
+        TaskPriority taskA = new TaskPriority(Priority.HIGHEST.getCode(), 1, 0, 1, "group_a");
+        TaskPriority taskB = new TaskPriority(Priority.LOW.getCode(), 2, 0, 2, "group_b");
+        queue.put(taskA);
+        queue.put(taskB);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("group_a", "group_b")), queue.getWorkerGroups());
+
+        Assert.assertEquals(taskB, queue.poll("group_b", 0, TimeUnit.MILLISECONDS));
+        Assert.assertNull(queue.poll("group_b", 100, TimeUnit.MILLISECONDS));
+
+        queue.park(taskB);
+        Assert.assertNull(queue.poll("group_b", 0, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(taskA, queue.poll("group_a", 0, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Collections.singleton("group_b"), queue.getWorkerGroups());
+    }
+
+    @Test
+    public void testParkTimeout() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl(10, 100);
+        TaskPriority parkedTask = createTaskPriority(Priority.MEDIUM.getCode(), 1);
+        queue.park(parkedTask);
+        Assert.assertEquals(parkedTask, queue.poll(2000, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(queue.isParked("default"));
+    }
+
     /**
      * get queue
      *
@@ -22,32 +22,34 @@ import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_COD
 
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskResponse;
 import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
+import org.apache.dolphinscheduler.plugin.task.api.utils.TaskLogSegments;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 /**
  * abstract command executor
  */
@@ -62,6 +64,11 @@ public abstract class AbstractCommandExecutor {
      */
     protected static final Pattern SETVALUE_REGEX = Pattern.compile(TaskConstants.SETVALUE_REGEX);
 
+    /**
+     * max time to wait for the output of the exited process to be drained
+     */
+    private static final long OUTPUT_DRAIN_TIMEOUT_SECONDS = 10L;
+
     protected StringBuilder varPool = new StringBuilder();
     /**
      * process
@@ -83,7 +90,12 @@ public abstract class AbstractCommandExecutor {
      */
     protected LinkedBlockingQueue<String> logBuffer;
 
-    protected boolean logOutputIsSuccess = false;
+    protected volatile boolean logOutputIsSuccess = false;
+
+    /**
+     * completed after the output of the process is drained
+     */
+    private CompletableFuture<Void> outputFuture;
 
     /*
      * SHELL result string
@@ -188,6 +200,8 @@ public abstract class AbstractCommandExecutor {
 
         // if SHELL task exit
         if (status) {
+            waitForOutput();
+
             // set appIds
             List<String> appIds = getAppIds(taskRequest.getLogPath());
             result.setAppIds(String.join(TaskConstants.COMMA, appIds));
@@ -307,53 +321,50 @@ public abstract class AbstractCommandExecutor {
     }
 
     /**
-     * get the standard output of the process
+     * get the standard output of the process, the output is read by the shared task output pump
      *
      * @param process process
      */
     private void parseProcessOutput(Process process) {
-        String threadLoggerInfoName = taskRequest.getTaskLogName();
-        ExecutorService getOutputLogService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        getOutputLogService.submit(() -> {
-            try (BufferedReader inReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = inReader.readLine()) != null) {
-                    if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
-                        varPool.append(findVarPool(line));
-                        varPool.append("$VarPool$");
-                    } else {
-                        logBuffer.add(line);
-                        taskResultString = line;
-                    }
+        outputFuture = TaskOutputPump.getInstance().pump(process, taskRequest.getTaskLogName(), new TaskOutputPump.Listener() {
+            @Override
+            public void onLine(String line) {
+                if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
+                    varPool.append(findVarPool(line));
+                    varPool.append("$VarPool$");
+                } else {
+                    logBuffer.add(line);
+                    taskResultString = line;
                 }
-                logOutputIsSuccess = true;
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                logOutputIsSuccess = true;
             }
-        });
 
-        getOutputLogService.shutdown();
-
-        ExecutorService parseProcessOutputExecutorService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        parseProcessOutputExecutorService.submit(() -> {
-            try {
-                long lastFlushTime = System.currentTimeMillis();
-                while (logBuffer.size() > 0 || !logOutputIsSuccess) {
-                    if (logBuffer.size() > 0) {
-                        lastFlushTime = flush(lastFlushTime);
-                    } else {
-                        Thread.sleep(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
-                    }
+            @Override
+            public void onFlush() {
+                if (!logBuffer.isEmpty()) {
+                    logHandler.accept(logBuffer);
+                    logBuffer.clear();
                 }
-            } catch (Exception e) {
-                Thread.currentThread().interrupt();
-                logger.error(e.getMessage(), e);
-            } finally {
+            }
+
+            @Override
+            public void onEnd() {
+                logOutputIsSuccess = true;
                 clear();
             }
         });
-        parseProcessOutputExecutorService.shutdown();
+    }
+
+    /**
+     * wait for the output of the exited process to be drained, so that the var pool and the log are complete
+     */
+    private void waitForOutput() {
+        try {
+            outputFuture.get(OUTPUT_DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("wait for the output of the process to be drained failed", e);
+        }
     }
 
     /**
@@ -380,30 +391,43 @@ public abstract class AbstractCommandExecutor {
     }
 
     /**
-     * convert file to list
+     * convert file to list, including the segments rolled from the file
      *
      * @param filename file name
      * @return line list
      */
     private List<String> convertFile2List(String filename) {
         List<String> lineList = new ArrayList<>(100);
+        for (Path segment : TaskLogSegments.list(Paths.get(filename))) {
+            try (InputStream in = TaskLogSegments.open(segment)) {
+                readLines(in, lineList);
+            } catch (Exception e) {
+                logger.error(String.format("read file: %s failed : ", segment), e);
+            }
+        }
+
         File file = new File(filename);
 
         if (!file.exists()) {
             return lineList;
         }
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lineList.add(line);
-            }
+        try (InputStream in = new FileInputStream(filename)) {
+            readLines(in, lineList);
         } catch (Exception e) {
             logger.error(String.format("read file: %s failed : ", filename), e);
         }
 
         return lineList;
     }
+
+    private static void readLines(InputStream in, List<String> lineList) throws IOException {
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = br.readLine()) != null) {
+            lineList.add(line);
+        }
+    }
     
     /**
      * find var pool
@@ -469,38 +493,9 @@ public abstract class AbstractCommandExecutor {
         return processId;
     }
 
-    /**
-     * when log buffer siz or flush time reach condition , then flush
-     *
-     * @param lastFlushTime last flush time
-     * @return last flush time
-     */
-    private long flush(long lastFlushTime) {
-        long now = System.currentTimeMillis();
-
-        /*
-         * when log buffer siz or flush time reach condition , then flush
-         */
-        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM || now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
-            lastFlushTime = now;
-            logHandler.accept(logBuffer);
-
-            logBuffer.clear();
-        }
-        return lastFlushTime;
-    }
-
     protected abstract String buildCommandFilePath();
 
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
 
-    ExecutorService newDaemonSingleThreadExecutor(String threadName) {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                .setDaemon(true)
-                .setNameFormat(threadName)
-                .build();
-        return Executors.newSingleThreadExecutor(threadFactory);
-    }
-
     protected abstract String commandInterpreter();
 }
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * pumps the output of the task processes to their listeners with a shared, bounded pool of daemon threads,
+ * instead of two threads per task.
+ * a pump thread polls the output pipes of its processes and only reads the bytes already available, so it is never
+ * blocked by a quiet process, and it drains all the available output of every process each round, so a process
+ * writing a lot is not blocked on a full pipe for long. the lines are flushed in batches by the pump thread renamed
+ * to the task log name, which the task logs are sifted by, like the task thread logs.
+ */
+public class TaskOutputPump {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskOutputPump.class);
+
+    /**
+     * default count of the pump threads
+     */
+    public static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final TaskOutputPump INSTANCE = new TaskOutputPump(DEFAULT_THREADS);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * max bytes read from a process in a round, so that the other processes of the pump thread are read in time
+     */
+    private static final int MAX_READ_PER_ROUND = 4 * READ_BUFFER_SIZE;
+
+    /**
+     * wait time of a pump thread when no process of it has output
+     */
+    private static final long IDLE_WAIT_MILLIS = 10L;
+
+    private final PumpThread[] threads;
+
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    public static TaskOutputPump getInstance() {
+        return INSTANCE;
+    }
+
+    TaskOutputPump(int threadCount) {
+        this.threads = new PumpThread[threadCount];
+    }
+
+    /**
+     * pump the output of the process until the process exits and its output is drained
+     *
+     * @param process process
+     * @param taskLogName thread name to flush the lines with
+     * @param listener output listener
+     * @return future completed after the listener is ended
+     */
+    public CompletableFuture<Void> pump(Process process, String taskLogName, Listener listener) {
+        Source source = new Source(process, taskLogName, listener);
+        thread(Math.floorMod(nextThread.getAndIncrement(), threads.length)).add(source);
+        return source.future;
+    }
+
+    private synchronized PumpThread thread(int index) {
+        if (threads[index] == null) {
+            threads[index] = new PumpThread("TaskOutputPump-" + index);
+            threads[index].start();
+        }
+        return threads[index];
+    }
+
+    /**
+     * listener of the output of a task process
+     */
+    public interface Listener {
+
+        /**
+         * a line of the output is read
+         */
+        void onLine(String line);
+
+        /**
+         * flush the lines read, called with the task log name when the flush rows or the flush interval is reached
+         */
+        void onFlush();
+
+        /**
+         * the output is drained, called with the task log name after the last flush
+         */
+        void onEnd();
+    }
+
+    private static class PumpThread extends Thread {
+
+        private final BlockingQueue<Source> added = new LinkedBlockingQueue<>();
+
+        private final List<Source> sources = new ArrayList<>();
+
+        /**
+         * read buffer shared by the processes of the thread
+         */
+        private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+        PumpThread(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        void add(Source source) {
+            added.add(source);
+        }
+
+        @Override
+        public void run() {
+            String name = getName();
+            boolean idle = false;
+            while (true) {
+                try {
+                    Source source = sources.isEmpty() ? added.take() : idle ? added.poll(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS) : added.poll();
+                    for (; source != null; source = added.poll()) {
+                        sources.add(source);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                idle = true;
+                long now = System.currentTimeMillis();
+                for (Iterator<Source> iterator = sources.iterator(); iterator.hasNext(); ) {
+                    Source source = iterator.next();
+                    try {
+                        if (source.read(buffer)) {
+                            idle = false;
+                        }
+                        if (source.ended) {
+                            iterator.remove();
+                        } else if (source.needFlush(now)) {
+                            source.flush(this, name, now);
+                        }
+                    } catch (Throwable e) {
+                        logger.error("pump the output of task {} error", source.taskLogName, e);
+                        source.end(this, name);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Source {
+
+        private final Process process;
+
+        private final InputStream output;
+
+        private final String taskLogName;
+
+        private final Listener listener;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private final Charset charset = Charset.defaultCharset();
+
+        /**
+         * bytes of the line not terminated yet
+         */
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        /**
+         * the last byte read is \r, a following \n belongs to the same line terminator
+         */
+        private boolean cr;
+
+        private int pendingLines;
+
+        private long lastFlushTime = System.currentTimeMillis();
+
+        private boolean ended;
+
+        Source(Process process, String taskLogName, Listener listener) {
+            this.process = process;
+            this.output = process.getInputStream();
+            this.taskLogName = taskLogName;
+            this.listener = listener;
+        }
+
+        /**
+         * read the available output, the source is ended after the process exits and the output is drained
+         *
+         * @return true if any byte is read
+         */
+        boolean read(byte[] buffer) throws IOException {
+            // check the process before the output, the output of an exited process is drained to the end
+            boolean alive = process.isAlive();
+            int total = 0;
+            int available;
+            while (total < MAX_READ_PER_ROUND && (available = output.available()) > 0) {
+                int read = output.read(buffer, 0, Math.min(available, buffer.length));
+                if (read < 0) {
+                    break;
+                }
+                split(buffer, read);
+                total += read;
+            }
+            if (total == 0 && !alive) {
+                if (line.size() > 0) {
+                    addLine();
+                }
+                end(Thread.currentThread(), Thread.currentThread().getName());
+            }
+            return total > 0;
+        }
+
+        private void split(byte[] bytes, int length) {
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+                if (cr) {
+                    cr = false;
+                    if (b == '\n') {
+                        lineStart = i + 1;
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    line.write(bytes, lineStart, i - lineStart);
+                    addLine();
+                    cr = b == '\r';
+                    lineStart = i + 1;
+                }
+            }
+            line.write(bytes, lineStart, length - lineStart);
+        }
+
+        private void addLine() {
+            listener.onLine(new String(line.toByteArray(), charset));
+            line.reset();
+            pendingLines++;
+        }
+
+        boolean needFlush(long now) {
+            return pendingLines >= TaskConstants.DEFAULT_LOG_ROWS_NUM
+                    || (pendingLines > 0 && now - lastFlushTime >= TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
+        }
+
+        void flush(Thread thread, String threadName, long now) {
+            thread.setName(taskLogName);
+            try {
+                listener.onFlush();
+            } finally {
+                thread.setName(threadName);
+            }
+            pendingLines = 0;
+            lastFlushTime = now;
+        }
+
+        void end(Thread thread, String threadName) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            thread.setName(taskLogName);
+            try {
+                if (pendingLines > 0) {
+                    listener.onFlush();
+                }
+                listener.onEnd();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                thread.setName(threadName);
+            }
+        }
+    }
+}
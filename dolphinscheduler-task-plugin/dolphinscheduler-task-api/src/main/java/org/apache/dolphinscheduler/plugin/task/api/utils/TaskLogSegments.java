@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * the finished segments of a task log rolled by the task log file appender.
+ * the segments of {@code xxx.log} are {@code xxx.log.1}, {@code xxx.log.2} ... in the order they are written,
+ * a segment is renamed to {@code xxx.log.N.gz} once it is compressed, and the active file {@code xxx.log} holds the latest lines.
+ */
+public final class TaskLogSegments {
+
+    /**
+     * suffix of the compressed segments
+     */
+    public static final String COMPRESSED_SUFFIX = ".gz";
+
+    /**
+     * the gzip trailer stores the uncompressed length modulo 2^32, so the segments are kept under it
+     */
+    public static final long MAX_SEGMENT_SIZE = 0xFFFFFFFFL;
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private TaskLogSegments() {
+        throw new UnsupportedOperationException("Construct TaskLogSegments");
+    }
+
+    /**
+     * get the path of the uncompressed segment
+     *
+     * @param logPath task log path
+     * @param index index of the segment, starts from 1
+     * @return segment path
+     */
+    public static Path getSegmentPath(Path logPath, int index) {
+        return logPath.resolveSibling(logPath.getFileName() + "." + index);
+    }
+
+    public static Path getCompressedPath(Path segmentPath) {
+        return segmentPath.resolveSibling(segmentPath.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    public static boolean isCompressed(Path segmentPath) {
+        return segmentPath.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+    }
+
+    /**
+     * list the segments of the task log in the written order, the compressed one is preferred when both exist
+     *
+     * @param logPath task log path
+     * @return segment paths, empty if the log is not rolled
+     */
+    public static List<Path> list(Path logPath) {
+        List<Path> segments = new ArrayList<>();
+        for (int index = 1; ; index++) {
+            Path segmentPath = getSegmentPath(logPath, index);
+            Path compressedPath = getCompressedPath(segmentPath);
+            if (Files.exists(compressedPath)) {
+                segments.add(compressedPath);
+            } else if (Files.exists(segmentPath)) {
+                segments.add(segmentPath);
+            } else {
+                return segments;
+            }
+        }
+    }
+
+    /**
+     * the index of the next segment to roll the task log into
+     */
+    public static int nextIndex(Path logPath) {
+        return list(logPath).size() + 1;
+    }
+
+    /**
+     * whether the task log exists, either the active file or any segment
+     */
+    public static boolean exists(Path logPath) {
+        return Files.isRegularFile(logPath) || !list(logPath).isEmpty();
+    }
+
+    /**
+     * get the uncompressed length of the segment, read from the gzip trailer if compressed
+     */
+    public static long length(Path segmentPath) throws IOException {
+        if (!isCompressed(segmentPath)) {
+            try {
+                return Files.size(segmentPath);
+            } catch (NoSuchFileException e) {
+                // compressed since listed
+                segmentPath = getCompressedPath(segmentPath);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4) {
+                return 0;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - 4 + trailer.position()) < 0) {
+                    throw new IOException("unexpected end of the segment " + segmentPath);
+                }
+            }
+            return trailer.getInt(0) & MAX_SEGMENT_SIZE;
+        }
+    }
+
+    /**
+     * open the uncompressed content of the segment
+     */
+    public static InputStream open(Path segmentPath) throws IOException {
+        if (!isCompressed(segmentPath)) {
+            try {
+                return Files.newInputStream(segmentPath);
+            } catch (NoSuchFileException e) {
+                // compressed since listed
+                segmentPath = getCompressedPath(segmentPath);
+            }
+        }
+        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(segmentPath), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    /**
+     * compress the segment to a gzip file beside it and delete the uncompressed one,
+     * the gzip file is written to a temporary file first, so a listed gzip segment is always complete
+     *
+     * @param segmentPath uncompressed segment path
+     * @return compressed segment path
+     */
+    public static Path compress(Path segmentPath) throws IOException {
+        Path compressedPath = getCompressedPath(segmentPath);
+        Path tmpPath = compressedPath.resolveSibling(compressedPath.getFileName() + TMP_SUFFIX);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmpPath), BUFFER_SIZE)) {
+            Files.copy(segmentPath, out);
+        }
+        Files.move(tmpPath, compressedPath, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(segmentPath);
+        return compressedPath;
+    }
+
+    /**
+     * delete the segments of the task log
+     *
+     * @return true if all the segments are deleted
+     */
+    public static boolean delete(Path logPath) {
+        boolean deleted = true;
+        for (Path segmentPath : list(logPath)) {
+            try {
+                Files.deleteIfExists(segmentPath);
+                if (!isCompressed(segmentPath)) {
+                    Files.deleteIfExists(getCompressedPath(segmentPath));
+                }
+            } catch (IOException e) {
+                deleted = false;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskOutputPumpTest {
+
+    @Test
+    public void testPumpOutput() throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", "printf 'line 1\\nline 2\\r\\nline 3\\rlast'").start();
+        RecordingListener listener = new RecordingListener();
+        new TaskOutputPump(1).pump(process, "taskAppId=TASK-1", listener).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("line 1", "line 2", "line 3", "last"), listener.lines);
+        Assert.assertEquals(Arrays.asList("line 1", "line 2", "line 3", "last"), listener.flushed);
+        Assert.assertTrue(listener.ended);
+        Assert.assertTrue(listener.threadNames.stream().allMatch("taskAppId=TASK-1"::equals));
+    }
+
+    @Test
+    public void testPumpProcessesWithSharedThread() throws Exception {
+        TaskOutputPump pump = new TaskOutputPump(1);
+        Process quiet = new ProcessBuilder("sh", "-c", "read x; echo quiet $x").start();
+        // more output than a pipe holds, the process exits only if its output is read while the other is quiet
+        Process chatty = new ProcessBuilder("sh", "-c", "i=0; while [ $i -lt 20000 ]; do echo \"line $i\"; i=$((i+1)); done").start();
+        RecordingListener quietListener = new RecordingListener();
+        RecordingListener chattyListener = new RecordingListener();
+        pump.pump(quiet, "quiet", quietListener);
+        pump.pump(chatty, "chatty", chattyListener).get(30, TimeUnit.SECONDS);
+        Assert.assertFalse(quietListener.ended);
+        Assert.assertEquals(20000, chattyListener.flushed.size());
+        Assert.assertEquals("line 19999", chattyListener.flushed.get(19999));
+        Assert.assertTrue(chattyListener.threadNames.stream().allMatch("chatty"::equals));
+        Assert.assertFalse(quietListener.ended);
+
+        try (OutputStream input = quiet.getOutputStream()) {
+            input.write("done\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Assert.assertTrue(quiet.waitFor(10, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!quietListener.ended && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(Arrays.asList("quiet done"), quietListener.flushed);
+    }
+
+    private static class RecordingListener implements TaskOutputPump.Listener {
+
+        private final List<String> lines = new ArrayList<>();
+
+        private final List<String> pending = new ArrayList<>();
+
+        private final List<String> flushed = new ArrayList<>();
+
+        private final List<String> threadNames = new ArrayList<>();
+
+        private volatile boolean ended;
+
+        @Override
+        public void onLine(String line) {
+            lines.add(line);
+            pending.add(line);
+        }
+
+        @Override
+        public void onFlush() {
+            threadNames.add(Thread.currentThread().getName());
+            flushed.addAll(pending);
+            pending.clear();
+        }
+
+        @Override
+        public void onEnd() {
+            threadNames.add(Thread.currentThread().getName());
+            ended = true;
+        }
+    }
+}
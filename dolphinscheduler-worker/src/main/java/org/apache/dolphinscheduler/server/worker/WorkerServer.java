@@ -29,12 +29,13 @@ import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
 import org.apache.dolphinscheduler.server.log.LoggerRequestProcessor;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.processor.HostUpdateProcessor;
+import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
+import org.apache.dolphinscheduler.server.worker.processor.TaskExecuteBatchProcessor;
 import org.apache.dolphinscheduler.server.worker.processor.TaskExecuteProcessor;
 import org.apache.dolphinscheduler.server.worker.processor.TaskExecuteResponseAckProcessor;
 import org.apache.dolphinscheduler.server.worker.processor.TaskExecuteRunningAckProcessor;
 import org.apache.dolphinscheduler.server.worker.processor.TaskKillProcessor;
 import org.apache.dolphinscheduler.server.worker.registry.WorkerRegistryClient;
-import org.apache.dolphinscheduler.server.worker.runner.RetryReportTaskStatusThread;
 import org.apache.dolphinscheduler.server.worker.runner.WorkerManagerThread;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
@@ -90,7 +91,7 @@ public class WorkerServer implements IStoppable {
     private AlertClientService alertClientService;
 
     @Autowired
-    private RetryReportTaskStatusThread retryReportTaskStatusThread;
+    private TaskCallbackService taskCallbackService;
 
     @Autowired
     private WorkerManagerThread workerManagerThread;
@@ -107,6 +108,9 @@ public class WorkerServer implements IStoppable {
     @Autowired
     private TaskExecuteProcessor taskExecuteProcessor;
 
+    @Autowired
+    private TaskExecuteBatchProcessor taskExecuteBatchProcessor;
+
     @Autowired
     private TaskKillProcessor taskKillProcessor;
 
@@ -142,6 +146,7 @@ public class WorkerServer implements IStoppable {
         serverConfig.setListenPort(workerConfig.getListenPort());
         this.nettyRemotingServer = new NettyRemotingServer(serverConfig);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_REQUEST, taskExecuteProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_BATCH_REQUEST, taskExecuteBatchProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_KILL_REQUEST, taskKillProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_RUNNING_ACK, taskExecuteRunningAckProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE_ACK, taskExecuteResponseAckProcessor);
@@ -152,6 +157,8 @@ public class WorkerServer implements IStoppable {
         this.nettyRemotingServer.registerProcessor(CommandType.ROLL_VIEW_LOG_REQUEST, loggerRequestProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.VIEW_WHOLE_LOG_REQUEST, loggerRequestProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.REMOVE_TAK_LOG_REQUEST, loggerRequestProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_REQUEST, loggerRequestProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_CANCEL, loggerRequestProcessor);
 
         this.nettyRemotingServer.start();
 
@@ -173,8 +180,8 @@ public class WorkerServer implements IStoppable {
         // task execute manager
         this.workerManagerThread.start();
 
-        // retry report task status
-        this.retryReportTaskStatusThread.start();
+        // report task status and retry the reports not acked
+        this.taskCallbackService.start();
 
         /*
          * registry hooks, which are called before the process exits
@@ -207,6 +214,7 @@ public class WorkerServer implements IStoppable {
 
             // close
             this.nettyRemotingServer.close();
+            this.taskCallbackService.close();
             this.workerRegistryClient.unRegistry();
             this.alertClientService.close();
 
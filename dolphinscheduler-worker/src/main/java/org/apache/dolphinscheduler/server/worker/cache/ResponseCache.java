@@ -20,11 +20,14 @@ package org.apache.dolphinscheduler.server.worker.cache;
 import org.apache.dolphinscheduler.common.enums.Event;
 import org.apache.dolphinscheduler.remote.command.Command;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Response Cache : cache worker send master result
+ * Response Cache : cache worker send master result until master acks it,
+ * every cached report is retransmitted on its own exponential backoff
  */
 public class ResponseCache {
 
@@ -37,8 +40,8 @@ public class ResponseCache {
         return instance;
     }
 
-    private Map<Integer, Command> runningCache = new ConcurrentHashMap<>();
-    private Map<Integer, Command> responseCache = new ConcurrentHashMap<>();
+    private Map<Integer, PendingReport> runningCache = new ConcurrentHashMap<>();
+    private Map<Integer, PendingReport> responseCache = new ConcurrentHashMap<>();
 
     /**
      * cache response
@@ -48,12 +51,15 @@ public class ResponseCache {
      * @param event event ACK/RESULT
      */
     public void cache(Integer taskInstanceId, Command command, Event event) {
+        PendingReport report = new PendingReport(taskInstanceId, command, System.currentTimeMillis());
         switch (event) {
             case RUNNING:
-                runningCache.put(taskInstanceId, command);
+                runningCache.put(taskInstanceId, report);
                 break;
             case RESULT:
-                responseCache.put(taskInstanceId, command);
+                responseCache.put(taskInstanceId, report);
+                // the result carries everything the running report does, its ack is no longer awaited
+                runningCache.remove(taskInstanceId);
                 break;
             default:
                 throw new IllegalArgumentException("invalid event type : " + event);
@@ -79,20 +85,83 @@ public class ResponseCache {
     }
 
     /**
-     * get running cache
+     * whether the report of the event is still waiting for the ack of master
      *
-     * @return getAckCache
+     * @param taskInstanceId taskInstanceId
+     * @param event event RUNNING/RESULT
+     * @return true if not acked yet
      */
-    public Map<Integer, Command> getRunningCache() {
-        return runningCache;
+    public boolean isCached(Integer taskInstanceId, Event event) {
+        return (event == Event.RESULT ? responseCache : runningCache).containsKey(taskInstanceId);
     }
 
     /**
-     * getResponseCache
+     * take the reports whose retransmission is due and back them off,
+     * the delay of a report doubles on every attempt from minInterval up to maxInterval
      *
-     * @return getResponseCache
+     * @param now current time millis
+     * @param minInterval first retransmission delay millis
+     * @param maxInterval max retransmission delay millis
+     * @return the due reports, running reports first
      */
-    public Map<Integer, Command> getResponseCache() {
-        return responseCache;
+    public List<PendingReport> pollRetries(long now, long minInterval, long maxInterval) {
+        List<PendingReport> dueReports = new ArrayList<>();
+        collectRetries(runningCache, now, minInterval, maxInterval, dueReports);
+        collectRetries(responseCache, now, minInterval, maxInterval, dueReports);
+        return dueReports;
+    }
+
+    private void collectRetries(Map<Integer, PendingReport> cache, long now, long minInterval, long maxInterval,
+                                List<PendingReport> dueReports) {
+        for (PendingReport report : cache.values()) {
+            if (report.backoffIfDue(now, minInterval, maxInterval)) {
+                dueReports.add(report);
+            }
+        }
+    }
+
+    /**
+     * a report waiting for the ack of master
+     */
+    public static class PendingReport {
+
+        private final int taskInstanceId;
+        private final Command command;
+        private final long cacheTime;
+        private int attempts;
+        private long lastSendTime;
+
+        PendingReport(int taskInstanceId, Command command, long cacheTime) {
+            this.taskInstanceId = taskInstanceId;
+            this.command = command;
+            this.cacheTime = cacheTime;
+            this.lastSendTime = cacheTime;
+        }
+
+        public int getTaskInstanceId() {
+            return taskInstanceId;
+        }
+
+        public Command getCommand() {
+            return command;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getCacheTime() {
+            return cacheTime;
+        }
+
+        private synchronized boolean backoffIfDue(long now, long minInterval, long maxInterval) {
+            long delay = Math.min(maxInterval, minInterval << Math.min(attempts, 20));
+            if (now - lastSendTime < delay) {
+                return false;
+            }
+            attempts++;
+            lastSendTime = now;
+            return true;
+        }
     }
 }
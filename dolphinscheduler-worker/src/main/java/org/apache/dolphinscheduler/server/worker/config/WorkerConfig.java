@@ -37,6 +37,10 @@ public class WorkerConfig {
     private Set<String> groups;
     private String alertListenHost;
     private int alertListenPort;
+    private boolean reportBatchEnabled = true;
+    private int reportBatchInterval = 10;
+    private int reportRetryInterval = 5;
+    private int reportRetryMaxInterval = 300;
 
     public int getListenPort() {
         return listenPort;
@@ -117,4 +121,36 @@ public class WorkerConfig {
     public void setAlertListenPort(final int alertListenPort) {
         this.alertListenPort = alertListenPort;
     }
+
+    public boolean isReportBatchEnabled() {
+        return reportBatchEnabled;
+    }
+
+    public void setReportBatchEnabled(boolean reportBatchEnabled) {
+        this.reportBatchEnabled = reportBatchEnabled;
+    }
+
+    public int getReportBatchInterval() {
+        return reportBatchInterval;
+    }
+
+    public void setReportBatchInterval(int reportBatchInterval) {
+        this.reportBatchInterval = reportBatchInterval;
+    }
+
+    public int getReportRetryInterval() {
+        return reportRetryInterval;
+    }
+
+    public void setReportRetryInterval(int reportRetryInterval) {
+        this.reportRetryInterval = reportRetryInterval;
+    }
+
+    public int getReportRetryMaxInterval() {
+        return reportRetryMaxInterval;
+    }
+
+    public void setReportRetryMaxInterval(int reportRetryMaxInterval) {
+        this.reportRetryMaxInterval = reportRetryMaxInterval;
+    }
 }
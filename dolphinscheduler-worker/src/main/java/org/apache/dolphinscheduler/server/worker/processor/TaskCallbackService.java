@@ -27,13 +27,27 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteStatusBatchCommand;
 import org.apache.dolphinscheduler.remote.command.TaskKillResponseCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.processor.NettyRemoteChannel;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.worker.cache.ResponseCache;
+import org.apache.dolphinscheduler.server.worker.cache.ResponseCache.PendingReport;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +74,9 @@ public class TaskCallbackService {
     @Autowired
     private TaskExecuteResponseAckProcessor taskExecuteResponseAckProcessor;
 
+    @Autowired
+    private WorkerConfig workerConfig;
+
     /**
      * remote channels
      */
@@ -70,6 +87,16 @@ public class TaskCallbackService {
      */
     private final NettyRemotingClient nettyRemotingClient;
 
+    /**
+     * running and response reports waiting for the next flush
+     */
+    private final Queue<StatusReport> outboundReports = new ConcurrentLinkedQueue<>();
+
+    /**
+     * flushes the outbound reports and retransmits the reports not acked
+     */
+    private ScheduledExecutorService reportExecutor;
+
     public TaskCallbackService() {
         final NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
@@ -77,6 +104,32 @@ public class TaskCallbackService {
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE_ACK, taskExecuteResponseAckProcessor);
     }
 
+    /**
+     * start flushing the status reports, every flush coalesces the reports of the same task and event,
+     * sends the reports going to one master in one frame and queues the unacked reports whose retransmission is due
+     */
+    public synchronized void start() {
+        if (reportExecutor != null) {
+            return;
+        }
+        reportExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("TaskStatusReportExecutor"));
+        reportExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                logger.warn("flush task status reports error", e);
+            }
+        }, workerConfig.getReportBatchInterval(), workerConfig.getReportBatchInterval(), TimeUnit.MILLISECONDS);
+        logger.info("task status report executor started, batch interval {} ms", workerConfig.getReportBatchInterval());
+    }
+
+    public synchronized void close() {
+        if (reportExecutor != null) {
+            reportExecutor.shutdownNow();
+            reportExecutor = null;
+        }
+    }
+
     /**
      * add callback channel
      *
@@ -165,6 +218,68 @@ public class TaskCallbackService {
         }
     }
 
+    /**
+     * flush the outbound reports
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        for (PendingReport pendingReport : ResponseCache.get().pollRetries(now,
+                TimeUnit.SECONDS.toMillis(workerConfig.getReportRetryInterval()),
+                TimeUnit.SECONDS.toMillis(workerConfig.getReportRetryMaxInterval()))) {
+            logger.info("retransmit {} of task instance {}, attempt {}", pendingReport.getCommand().getType(),
+                    pendingReport.getTaskInstanceId(), pendingReport.getAttempts());
+            outboundReports.offer(StatusReport.of(pendingReport.getTaskInstanceId(), pendingReport.getCommand()));
+        }
+        if (outboundReports.isEmpty()) {
+            return;
+        }
+
+        // the latest report of a task and event wins, a response report supersedes the running report of its task
+        Map<String, StatusReport> coalescedReports = new LinkedHashMap<>();
+        StatusReport report;
+        while ((report = outboundReports.poll()) != null) {
+            if (report.response != null) {
+                coalescedReports.remove(report.key(CommandType.TASK_EXECUTE_RUNNING));
+            }
+            String key = report.key(report.getType());
+            coalescedReports.remove(key);
+            coalescedReports.put(key, report);
+        }
+
+        Map<Host, NettyRemoteChannel> masterChannels = new LinkedHashMap<>();
+        Map<Host, List<StatusReport>> masterReports = new LinkedHashMap<>();
+        for (StatusReport statusReport : coalescedReports.values()) {
+            NettyRemoteChannel nettyRemoteChannel = getRemoteChannel(statusReport.taskInstanceId);
+            if (nettyRemoteChannel == null) {
+                // the unacked reports are kept by the response cache and retransmitted later
+                logger.warn("no active channel of task instance {}, drop report {}", statusReport.taskInstanceId, statusReport.getType());
+                continue;
+            }
+            masterChannels.putIfAbsent(nettyRemoteChannel.getHost(), nettyRemoteChannel);
+            masterReports.computeIfAbsent(nettyRemoteChannel.getHost(), host -> new ArrayList<>()).add(statusReport);
+        }
+
+        for (Map.Entry<Host, List<StatusReport>> entry : masterReports.entrySet()) {
+            NettyRemoteChannel nettyRemoteChannel = masterChannels.get(entry.getKey());
+            List<StatusReport> reports = entry.getValue();
+            if (!workerConfig.isReportBatchEnabled() || reports.size() == 1) {
+                for (StatusReport statusReport : reports) {
+                    nettyRemoteChannel.writeAndFlush(statusReport.convert2Command());
+                }
+                continue;
+            }
+            TaskExecuteStatusBatchCommand batchCommand = new TaskExecuteStatusBatchCommand();
+            for (StatusReport statusReport : reports) {
+                if (statusReport.response != null) {
+                    batchCommand.getResponseCommands().add(statusReport.response);
+                } else {
+                    batchCommand.getRunningCommands().add(statusReport.running);
+                }
+            }
+            nettyRemoteChannel.writeAndFlush(batchCommand.convert2Command());
+        }
+    }
+
     /**
      * build task execute running command
      *
@@ -230,7 +345,7 @@ public class TaskCallbackService {
         TaskExecuteRunningCommand command = buildTaskExecuteRunningCommand(taskExecutionContext);
         // add response cache
         ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command.convert2Command(), Event.RUNNING);
-        send(taskExecutionContext.getTaskInstanceId(), command.convert2Command());
+        outboundReports.offer(new StatusReport(taskExecutionContext.getTaskInstanceId(), command, null));
     }
 
     /**
@@ -239,7 +354,7 @@ public class TaskCallbackService {
      */
     public void sendTaskExecuteDelayCommand(TaskExecutionContext taskExecutionContext) {
         TaskExecuteRunningCommand command = buildTaskExecuteRunningCommand(taskExecutionContext);
-        send(taskExecutionContext.getTaskInstanceId(), command.convert2Command());
+        outboundReports.offer(new StatusReport(taskExecutionContext.getTaskInstanceId(), command, null));
     }
 
     /**
@@ -250,11 +365,46 @@ public class TaskCallbackService {
         TaskExecuteResponseCommand command = buildTaskExecuteResponseCommand(taskExecutionContext);
         // add response cache
         ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command.convert2Command(), Event.RESULT);
-        send(taskExecutionContext.getTaskInstanceId(), command.convert2Command());
+        outboundReports.offer(new StatusReport(taskExecutionContext.getTaskInstanceId(), null, command));
     }
 
     public void sendTaskKillResponseCommand(TaskExecutionContext taskExecutionContext) {
         TaskKillResponseCommand taskKillResponseCommand = buildKillTaskResponseCommand(taskExecutionContext);
         send(taskExecutionContext.getTaskInstanceId(), taskKillResponseCommand.convert2Command());
     }
+
+    /**
+     * a running or response report of a task instance
+     */
+    private static class StatusReport {
+
+        private final int taskInstanceId;
+        private final TaskExecuteRunningCommand running;
+        private final TaskExecuteResponseCommand response;
+
+        StatusReport(int taskInstanceId, TaskExecuteRunningCommand running, TaskExecuteResponseCommand response) {
+            this.taskInstanceId = taskInstanceId;
+            this.running = running;
+            this.response = response;
+        }
+
+        static StatusReport of(int taskInstanceId, Command command) {
+            if (command.getType() == CommandType.TASK_EXECUTE_RESPONSE) {
+                return new StatusReport(taskInstanceId, null, command.deserializeBody(TaskExecuteResponseCommand.class));
+            }
+            return new StatusReport(taskInstanceId, command.deserializeBody(TaskExecuteRunningCommand.class), null);
+        }
+
+        CommandType getType() {
+            return response != null ? CommandType.TASK_EXECUTE_RESPONSE : CommandType.TASK_EXECUTE_RUNNING;
+        }
+
+        String key(CommandType type) {
+            return taskInstanceId + "_" + type;
+        }
+
+        Command convert2Command() {
+            return response != null ? response.convert2Command() : running.convert2Command();
+        }
+    }
 }
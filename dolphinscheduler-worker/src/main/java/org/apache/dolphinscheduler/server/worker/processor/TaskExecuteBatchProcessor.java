@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchRequestCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.channel.Channel;
+
+/**
+ * task execute batch processor, submits every task of the batch like {@link TaskExecuteProcessor}
+ * and acks the batch with the task instances submitted.
+ * the master sends a batch again when its ack is lost, so a task instance the worker already runs is acked but not submitted twice
+ */
+@Component
+public class TaskExecuteBatchProcessor implements NettyRequestProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecuteBatchProcessor.class);
+
+    @Autowired
+    private TaskExecuteProcessor taskExecuteProcessor;
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_EXECUTE_BATCH_REQUEST == command.getType(),
+                String.format("invalid command type : %s", command.getType()));
+
+        TaskExecuteBatchRequestCommand batchRequestCommand = command.deserializeBody(TaskExecuteBatchRequestCommand.class);
+        if (batchRequestCommand == null || batchRequestCommand.getTaskExecutionContexts() == null) {
+            logger.error("task execute batch request command is null");
+            return;
+        }
+        logger.info("task execute batch request command : {}", batchRequestCommand);
+
+        List<Integer> acceptedTaskInstanceIds = new ArrayList<>(batchRequestCommand.getTaskExecutionContexts().size());
+        for (String contextJson : batchRequestCommand.getTaskExecutionContexts()) {
+            TaskExecutionContext taskExecutionContext = JSONUtils.parseObject(contextJson, TaskExecutionContext.class);
+            if (taskExecutionContext == null) {
+                logger.error("task execution context is null");
+                continue;
+            }
+            if (TaskExecutionContextCacheManager.getByTaskInstanceId(taskExecutionContext.getTaskInstanceId()) != null) {
+                logger.warn("task instance {} is already running, skip it", taskExecutionContext.getTaskInstanceId());
+                acceptedTaskInstanceIds.add(taskExecutionContext.getTaskInstanceId());
+                continue;
+            }
+            try {
+                if (taskExecuteProcessor.execute(channel, command.getOpaque(), taskExecutionContext)) {
+                    acceptedTaskInstanceIds.add(taskExecutionContext.getTaskInstanceId());
+                }
+            } catch (Exception e) {
+                logger.error("submit task instance {} error", taskExecutionContext.getTaskInstanceId(), e);
+            }
+        }
+        channel.writeAndFlush(new TaskExecuteBatchAckCommand(acceptedTaskInstanceIds).convert2Command(command.getOpaque()));
+    }
+}
@@ -90,8 +90,7 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_REQUEST == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskExecuteRequestCommand taskRequestCommand = JSONUtils.parseObject(
-                command.getBody(), TaskExecuteRequestCommand.class);
+        TaskExecuteRequestCommand taskRequestCommand = command.deserializeBody(TaskExecuteRequestCommand.class);
 
         if (taskRequestCommand == null) {
             logger.error("task execute request command is null");
@@ -106,7 +105,18 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
             logger.error("task execution context is null");
             return;
         }
+        execute(channel, command.getOpaque(), taskExecutionContext);
+    }
 
+    /**
+     * submit the task to the worker manager
+     *
+     * @param channel channel the task was received from
+     * @param opaque request unique identification
+     * @param taskExecutionContext task execution context
+     * @return true if the task is submitted, otherwise the failure is already reported to the master
+     */
+    public boolean execute(Channel channel, long opaque, TaskExecutionContext taskExecutionContext) {
         // set cache, it will be used when kill task
         TaskExecutionContextCacheManager.cacheTaskExecutionContext(taskExecutionContext);
 
@@ -128,7 +138,7 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
                 taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.FAILURE);
                 taskExecutionContext.setEndTime(new Date());
                 taskCallbackService.sendTaskExecuteResponseCommand(taskExecutionContext);
-                return;
+                return false;
             }
 
             // local execute path
@@ -144,12 +154,12 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
                 TaskExecutionContextCacheManager.removeByTaskInstanceId(taskExecutionContext.getTaskInstanceId());
                 taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.FAILURE);
                 taskCallbackService.sendTaskExecuteResponseCommand(taskExecutionContext);
-                return;
+                return false;
             }
         }
 
         taskCallbackService.addRemoteChannel(taskExecutionContext.getTaskInstanceId(),
-                new NettyRemoteChannel(channel, command.getOpaque()));
+                new NettyRemoteChannel(channel, opaque));
 
         // delay task process
         long remainTime = DateUtils.getRemainTime(taskExecutionContext.getFirstSubmitTime(), taskExecutionContext.getDelayTime() * 60L);
@@ -168,6 +178,7 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
             taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.FAILURE);
             taskCallbackService.sendTaskExecuteResponseCommand(taskExecutionContext);
         }
+        return offer;
     }
 
     /**
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.server.worker.processor;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
@@ -46,8 +45,7 @@ public class TaskExecuteResponseAckProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_RESPONSE_ACK == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = JSONUtils.parseObject(
-                command.getBody(), TaskExecuteResponseAckCommand.class);
+        TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = command.deserializeBody(TaskExecuteResponseAckCommand.class);
 
         if (taskExecuteResponseAckCommand == null) {
             logger.error("task execute response ack command is null");
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.common.enums.Event;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteStatusBatchCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRemoteChannel;
+import org.apache.dolphinscheduler.server.worker.cache.ResponseCache;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.netty.channel.Channel;
+
+/**
+ * test task callback service
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TaskCallbackServiceTest {
+
+    @InjectMocks
+    private TaskCallbackService taskCallbackService;
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @Mock
+    private Channel channel;
+
+    @Before
+    public void before() {
+        Mockito.when(channel.isActive()).thenReturn(true);
+        Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 5678));
+        taskCallbackService.addRemoteChannel(1, new NettyRemoteChannel(channel, 1));
+        taskCallbackService.addRemoteChannel(2, new NettyRemoteChannel(channel, 2));
+    }
+
+    @After
+    public void after() {
+        for (int taskInstanceId = 1; taskInstanceId <= 2; taskInstanceId++) {
+            TaskCallbackService.remove(taskInstanceId);
+            ResponseCache.get().removeRunningCache(taskInstanceId);
+            ResponseCache.get().removeResponseCache(taskInstanceId);
+        }
+    }
+
+    @Test
+    public void testFlushCoalescesReportsOfOneMaster() {
+        taskCallbackService.sendTaskExecuteRunningCommand(newTaskExecutionContext(1, ExecutionStatus.RUNNING_EXECUTION));
+        taskCallbackService.sendTaskExecuteRunningCommand(newTaskExecutionContext(2, ExecutionStatus.RUNNING_EXECUTION));
+        taskCallbackService.sendTaskExecuteResponseCommand(newTaskExecutionContext(2, ExecutionStatus.SUCCESS));
+        taskCallbackService.flush();
+
+        ArgumentCaptor<Command> commandCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel).writeAndFlush(commandCaptor.capture());
+        Command command = commandCaptor.getValue();
+        Assert.assertEquals(CommandType.TASK_EXECUTE_STATUS_BATCH, command.getType());
+        TaskExecuteStatusBatchCommand batchCommand = command.deserializeBody(TaskExecuteStatusBatchCommand.class);
+        Assert.assertEquals(1, batchCommand.getRunningCommands().size());
+        Assert.assertEquals(1, batchCommand.getRunningCommands().get(0).getTaskInstanceId());
+        Assert.assertEquals(1, batchCommand.getResponseCommands().size());
+        Assert.assertEquals(2, batchCommand.getResponseCommands().get(0).getTaskInstanceId());
+
+        // the response of task 2 supersedes its running report
+        Assert.assertTrue(ResponseCache.get().isCached(1, Event.RUNNING));
+        Assert.assertFalse(ResponseCache.get().isCached(2, Event.RUNNING));
+        Assert.assertTrue(ResponseCache.get().isCached(2, Event.RESULT));
+
+        taskCallbackService.flush();
+        Mockito.verify(channel).writeAndFlush(Mockito.any(Command.class));
+    }
+
+    @Test
+    public void testFlushWithoutBatch() {
+        workerConfig.setReportBatchEnabled(false);
+        taskCallbackService.sendTaskExecuteRunningCommand(newTaskExecutionContext(1, ExecutionStatus.RUNNING_EXECUTION));
+        taskCallbackService.sendTaskExecuteRunningCommand(newTaskExecutionContext(2, ExecutionStatus.RUNNING_EXECUTION));
+        taskCallbackService.flush();
+
+        ArgumentCaptor<Command> commandCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel, Mockito.times(2)).writeAndFlush(commandCaptor.capture());
+        List<Command> commands = commandCaptor.getAllValues();
+        Assert.assertEquals(CommandType.TASK_EXECUTE_RUNNING, commands.get(0).getType());
+        Assert.assertEquals(1, commands.get(0).deserializeBody(TaskExecuteRunningCommand.class).getTaskInstanceId());
+        Assert.assertEquals(2, commands.get(1).deserializeBody(TaskExecuteRunningCommand.class).getTaskInstanceId());
+    }
+
+    @Test
+    public void testRetryBackoff() {
+        ResponseCache responseCache = ResponseCache.get();
+        Command command = new TaskExecuteRunningCommand().convert2Command();
+        responseCache.cache(1, command, Event.RUNNING);
+        long now = System.currentTimeMillis();
+
+        Assert.assertTrue(responseCache.pollRetries(now, 1000, 3000).isEmpty());
+        Assert.assertEquals(1, responseCache.pollRetries(now + 1000, 1000, 3000).size());
+        // the second retransmission waits twice as long
+        Assert.assertTrue(responseCache.pollRetries(now + 2500, 1000, 3000).isEmpty());
+        Assert.assertEquals(1, responseCache.pollRetries(now + 3000, 1000, 3000).size());
+        // capped by the max interval
+        Assert.assertTrue(responseCache.pollRetries(now + 5999, 1000, 3000).isEmpty());
+        Assert.assertEquals(3, responseCache.pollRetries(now + 6000, 1000, 3000).get(0).getAttempts());
+
+        responseCache.removeRunningCache(1);
+        Assert.assertTrue(responseCache.pollRetries(now + 60000, 1000, 3000).isEmpty());
+    }
+
+    private TaskExecutionContext newTaskExecutionContext(int taskInstanceId, ExecutionStatus status) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(taskInstanceId);
+        taskExecutionContext.setCurrentExecutionStatus(status);
+        return taskExecutionContext;
+    }
+}
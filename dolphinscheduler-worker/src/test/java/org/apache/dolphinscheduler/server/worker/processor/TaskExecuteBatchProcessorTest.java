@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteBatchRequestCommand;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.netty.channel.Channel;
+
+/**
+ * test task execute batch processor
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TaskExecuteBatchProcessorTest {
+
+    @InjectMocks
+    private TaskExecuteBatchProcessor taskExecuteBatchProcessor;
+
+    @Mock
+    private TaskExecuteProcessor taskExecuteProcessor;
+
+    @Mock
+    private Channel channel;
+
+    @Test
+    public void testProcess() {
+        Mockito.when(taskExecuteProcessor.execute(ArgumentMatchers.eq(channel), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.argThat(context -> context.getTaskInstanceId() != 2))).thenReturn(true);
+
+        Command command = new TaskExecuteBatchRequestCommand(Arrays.asList(
+                newTaskExecutionContext(1), newTaskExecutionContext(2), newTaskExecutionContext(3))).convert2Command();
+        taskExecuteBatchProcessor.process(channel, command);
+
+        ArgumentCaptor<Command> ackCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel).writeAndFlush(ackCaptor.capture());
+        Command ack = ackCaptor.getValue();
+        Assert.assertEquals(CommandType.TASK_EXECUTE_BATCH_ACK, ack.getType());
+        Assert.assertEquals(command.getOpaque(), ack.getOpaque());
+        Assert.assertEquals(Arrays.asList(1, 3), ack.deserializeBody(TaskExecuteBatchAckCommand.class).getAcceptedTaskInstanceIds());
+    }
+
+    @Test
+    public void testProcessEmptyBatch() {
+        Command command = new TaskExecuteBatchRequestCommand(Collections.emptyList()).convert2Command();
+        taskExecuteBatchProcessor.process(channel, command);
+
+        ArgumentCaptor<Command> ackCaptor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel).writeAndFlush(ackCaptor.capture());
+        Assert.assertTrue(ackCaptor.getValue().deserializeBody(TaskExecuteBatchAckCommand.class).getAcceptedTaskInstanceIds().isEmpty());
+        Mockito.verifyNoInteractions(taskExecuteProcessor);
+    }
+
+    @Test
+    public void testProcessBatchSentAgain() {
+        TaskExecutionContext runningTaskExecutionContext = new TaskExecutionContext();
+        runningTaskExecutionContext.setTaskInstanceId(4);
+        TaskExecutionContextCacheManager.cacheTaskExecutionContext(runningTaskExecutionContext);
+        try {
+            Mockito.when(taskExecuteProcessor.execute(ArgumentMatchers.eq(channel), ArgumentMatchers.anyLong(),
+                    ArgumentMatchers.any(TaskExecutionContext.class))).thenReturn(true);
+
+            // the ack of the first batch is lost and the master sends it again, task instance 4 already runs
+            Command command = new TaskExecuteBatchRequestCommand(Arrays.asList(
+                    newTaskExecutionContext(4), newTaskExecutionContext(5))).convert2Command();
+            taskExecuteBatchProcessor.process(channel, command);
+
+            ArgumentCaptor<TaskExecutionContext> contextCaptor = ArgumentCaptor.forClass(TaskExecutionContext.class);
+            Mockito.verify(taskExecuteProcessor).execute(ArgumentMatchers.eq(channel), ArgumentMatchers.anyLong(), contextCaptor.capture());
+            Assert.assertEquals(5, contextCaptor.getValue().getTaskInstanceId());
+
+            ArgumentCaptor<Command> ackCaptor = ArgumentCaptor.forClass(Command.class);
+            Mockito.verify(channel).writeAndFlush(ackCaptor.capture());
+            Assert.assertEquals(Arrays.asList(4, 5), ackCaptor.getValue().deserializeBody(TaskExecuteBatchAckCommand.class).getAcceptedTaskInstanceIds());
+        } finally {
+            TaskExecutionContextCacheManager.removeByTaskInstanceId(4);
+        }
+    }
+
+    private String newTaskExecutionContext(int taskInstanceId) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(taskInstanceId);
+        return JSONUtils.toJsonString(taskExecutionContext);
+    }
+}